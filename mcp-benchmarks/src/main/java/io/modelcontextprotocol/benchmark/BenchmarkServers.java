@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.benchmark;
+
+import java.util.List;
+
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import io.modelcontextprotocol.spec.common.Role;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.prompt.GetPromptResult;
+import io.modelcontextprotocol.spec.prompt.Prompt;
+import io.modelcontextprotocol.spec.prompt.PromptMessage;
+import io.modelcontextprotocol.spec.resource.ReadResourceResult;
+import io.modelcontextprotocol.spec.resource.Resource;
+import io.modelcontextprotocol.spec.resource.TextResourceContents;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import reactor.core.publisher.Mono;
+
+/**
+ * Server shared by the benchmarks, exposing one tool, resource and prompt whose handlers
+ * do no work of their own, so that the benchmarks measure the SDK only.
+ */
+final class BenchmarkServers {
+
+	static final String TOOL_NAME = "echo";
+
+	static final String RESOURCE_URI = "bench://document";
+
+	static final String PROMPT_NAME = "greeting";
+
+	private static final String TOOL_SCHEMA = "{\"type\":\"object\",\"properties\":{\"text\":{\"type\":\"string\"}}}";
+
+	private BenchmarkServers() {
+	}
+
+	/**
+	 * Creates a server on the given transport provider.
+	 * @param transportProvider the transport provider
+	 * @param payloadSize the length of the text returned by the resource and prompt
+	 * @return the server
+	 */
+	static McpAsyncServer create(McpServerTransportProvider transportProvider, int payloadSize) {
+		String text = payload(payloadSize);
+		ReadResourceResult resource = new ReadResourceResult(
+				List.of(new TextResourceContents(RESOURCE_URI, "text/plain", text)));
+		GetPromptResult prompt = new GetPromptResult("Greeting",
+				List.of(new PromptMessage(Role.USER, new TextContent(text))));
+
+		return McpServer.async(transportProvider)
+			.serverInfo("benchmark-server", "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(false).resources(false, false).prompts(false).build())
+			.tools(new McpServerFeatures.AsyncToolSpecification(new Tool(TOOL_NAME, "Echoes its text", TOOL_SCHEMA),
+					(exchange, arguments) -> Mono
+						.just(new CallToolResult(String.valueOf(arguments.get("text")), false))))
+			.resources(new McpServerFeatures.AsyncResourceSpecification(
+					new Resource(RESOURCE_URI, "document", null, "text/plain", null),
+					(exchange, request) -> Mono.just(resource)))
+			.prompts(new McpServerFeatures.AsyncPromptSpecification(new Prompt(PROMPT_NAME, "A greeting", List.of()),
+					(exchange, request) -> Mono.just(prompt)))
+			.build();
+	}
+
+	/**
+	 * Returns ASCII text of the given length.
+	 * @param size the number of characters
+	 * @return the text
+	 */
+	static String payload(int size) {
+		StringBuilder text = new StringBuilder(size);
+		for (int i = 0; i < size; i++) {
+			text.append((char) ('a' + i % 26));
+		}
+		return text.toString();
+	}
+
+}
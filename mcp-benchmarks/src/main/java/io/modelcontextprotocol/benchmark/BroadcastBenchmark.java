@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of broadcasting a notification to every connected session. Sessions are connected
+ * in memory, either sharing the notification or copying it through a JSON round trip per
+ * session as remote transports would serialize it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastBenchmark {
+
+	@Param({ "1", "16", "256" })
+	int sessions;
+
+	@Param({ "false", "true" })
+	boolean copyMessages;
+
+	private InMemoryServerTransportProvider transportProvider;
+
+	private McpAsyncServer server;
+
+	private final List<McpClientTransport> clients = new ArrayList<>();
+
+	private final Map<String, Object> params = Map.of("uri", BenchmarkServers.RESOURCE_URI);
+
+	@Setup
+	public void setup() {
+		this.transportProvider = new InMemoryServerTransportProvider(new ObjectMapper(), this.copyMessages);
+		this.server = BenchmarkServers.create(this.transportProvider, 64);
+		for (int i = 0; i < this.sessions; i++) {
+			McpClientTransport client = this.transportProvider.createClientTransport();
+			client.connect(message -> message).block();
+			this.clients.add(client);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.clients.forEach(client -> client.closeGracefully().block());
+		this.clients.clear();
+		this.server.close();
+	}
+
+	@Benchmark
+	public void notifyClients() {
+		this.transportProvider.notifyClients(McpSchema.METHOD_NOTIFICATION_RESOURCES_UPDATED, this.params).block();
+	}
+
+}
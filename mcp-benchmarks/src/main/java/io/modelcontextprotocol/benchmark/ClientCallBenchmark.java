@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.initialization.Implementation;
+import io.modelcontextprotocol.spec.initialization.InitializeResult;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCRequest;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+import io.modelcontextprotocol.spec.tool.ListToolsResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Overhead of the client around a call once it is initialized. Requests are answered on
+ * the calling thread by a transport that returns canned results, so no I/O is measured.
+ * The {@code initializationCheck} pair compares the check the client runs before each
+ * call with the former one, which timed the wait on the initialization sink even when the
+ * result was already there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientCallBenchmark {
+
+	private static final Duration INITIALIZATION_TIMEOUT = Duration.ofSeconds(20);
+
+	private static final InitializeResult INITIALIZE_RESULT = new InitializeResult(McpSchema.LATEST_PROTOCOL_VERSION,
+			ServerCapabilities.builder().tools(false).build(), new Implementation("benchmark-server", "1.0.0"), null);
+
+	private McpAsyncClient client;
+
+	private final Sinks.One<InitializeResult> initializedSink = Sinks.one();
+
+	private volatile InitializeResult initializeResult;
+
+	private final Function<InitializeResult, Mono<String>> operation = result -> Mono.just(result.getProtocolVersion());
+
+	@Setup
+	public void setup() {
+		this.client = McpClient.async(new CannedResponseTransport(new ObjectMapper()))
+			.initializationTimeout(INITIALIZATION_TIMEOUT)
+			.build();
+		this.client.initialize().block();
+
+		this.initializedSink.tryEmitValue(INITIALIZE_RESULT);
+		this.initializeResult = INITIALIZE_RESULT;
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.client.close();
+	}
+
+	@Benchmark
+	public Object ping() {
+		return this.client.ping().block();
+	}
+
+	@Benchmark
+	public ListToolsResult listTools() {
+		return this.client.listTools().block();
+	}
+
+	@Benchmark
+	public String initializationCheck() {
+		return Mono.defer(() -> {
+			InitializeResult result = this.initializeResult;
+			if (result != null) {
+				return this.operation.apply(result);
+			}
+			return this.initializedSink.asMono().timeout(INITIALIZATION_TIMEOUT).flatMap(this.operation);
+		}).block();
+	}
+
+	@Benchmark
+	public String timedInitializationCheck() {
+		return this.initializedSink.asMono()
+			.timeout(INITIALIZATION_TIMEOUT)
+			.onErrorResume(TimeoutException.class, ex -> Mono.error(new McpError("Client must be initialized")))
+			.flatMap(this.operation)
+			.block();
+	}
+
+	/**
+	 * Client transport answering every request synchronously with a canned result.
+	 */
+	private static final class CannedResponseTransport implements McpClientTransport {
+
+		private final ObjectMapper objectMapper;
+
+		private final Map<String, Object> results;
+
+		private volatile Function<Mono<JSONRPCMessage>, Mono<JSONRPCMessage>> handler;
+
+		CannedResponseTransport(ObjectMapper objectMapper) {
+			this.objectMapper = objectMapper;
+			this.results = Map.of(McpSchema.METHOD_INITIALIZE, INITIALIZE_RESULT, McpSchema.METHOD_PING, Map.of(),
+					McpSchema.METHOD_TOOLS_LIST, new ListToolsResult(List.of(), null));
+		}
+
+		@Override
+		public Mono<Void> connect(Function<Mono<JSONRPCMessage>, Mono<JSONRPCMessage>> handler) {
+			this.handler = handler;
+			return Mono.empty();
+		}
+
+		@Override
+		public Mono<Void> sendMessage(JSONRPCMessage message) {
+			if (message instanceof JSONRPCRequest) {
+				JSONRPCRequest request = (JSONRPCRequest) message;
+				JSONRPCResponse response = new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(),
+						this.results.get(request.getMethod()), null);
+				this.handler.apply(Mono.just(response)).subscribe();
+			}
+			return Mono.empty();
+		}
+
+		@Override
+		public Mono<Void> closeGracefully() {
+			return Mono.empty();
+		}
+
+		@Override
+		public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+			return this.objectMapper.convertValue(data, typeRef);
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.benchmark;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.modelcontextprotocol.spec.JacksonMcpCodec;
+import io.modelcontextprotocol.spec.McpCodec;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCRequest;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of {@code tools/call} requests and results by payload size,
+ * through the codecs used by the transports. Requests are measured as posted bodies,
+ * which carry the output of any codec. Results are also measured framed as the SSE events
+ * the server sends them in, which always carry JSON text.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonRpcCodecBenchmark {
+
+	/** Length of the text carried by the messages, in characters */
+	@Param({ "64", "4096", "262144" })
+	int size;
+
+	@Param({ JacksonMcpCodec.JSON_CONTENT_TYPE, JacksonMcpCodec.SMILE_CONTENT_TYPE })
+	String contentType;
+
+	private McpCodec codec;
+
+	private JSONRPCMessage request;
+
+	private JSONRPCMessage response;
+
+	private byte[] encodedRequest;
+
+	private byte[] encodedResponse;
+
+	/** Codec of the SSE events, JSON whatever the codec of the posted bodies */
+	private McpCodec eventCodec;
+
+	private String responseEvent;
+
+	@Setup
+	public void setup() throws IOException {
+		ObjectMapper objectMapper = JacksonMcpCodec.SMILE_CONTENT_TYPE.equals(this.contentType)
+				? new ObjectMapper(new SmileFactory()) : new ObjectMapper();
+		this.codec = new JacksonMcpCodec(objectMapper, this.contentType);
+
+		String text = BenchmarkServers.payload(this.size);
+		this.request = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_TOOLS_CALL, "request-1",
+				new CallToolRequest(BenchmarkServers.TOOL_NAME, Map.of("text", text)));
+		this.response = new JSONRPCResponse(McpSchema.JSONRPC_VERSION, "request-1", new CallToolResult(text, false),
+				null);
+		this.encodedRequest = this.codec.encode(this.request);
+		this.encodedResponse = this.codec.encode(this.response);
+		this.eventCodec = this.codec.isBinary() ? McpCodec.json(new ObjectMapper()) : this.codec;
+		this.responseEvent = encodeResponseEvent();
+	}
+
+	@Benchmark
+	public byte[] encodeRequest() throws IOException {
+		return this.codec.encode(this.request);
+	}
+
+	@Benchmark
+	public JSONRPCMessage decodeRequest() throws IOException {
+		return this.codec.decode(this.encodedRequest);
+	}
+
+	@Benchmark
+	public byte[] encodeResponse() throws IOException {
+		return this.codec.encode(this.response);
+	}
+
+	@Benchmark
+	public JSONRPCMessage decodeResponse() throws IOException {
+		return this.codec.decode(this.encodedResponse);
+	}
+
+	@Benchmark
+	public String encodeResponseEvent() throws IOException {
+		return "event: message\ndata: " + this.eventCodec.encodeToText(this.response) + "\n\n";
+	}
+
+	@Benchmark
+	public JSONRPCMessage decodeResponseEvent() throws IOException {
+		int data = this.responseEvent.indexOf("data: ") + "data: ".length();
+		return this.eventCodec.decodeText(this.responseEvent.substring(data, this.responseEvent.length() - 2));
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCNotification;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+/**
+ * Throughput of the server session dispatching {@code tools/call}, {@code resources/read}
+ * and {@code prompts/get} requests to their handlers. Requests are handed to the session
+ * as a transport would after decoding them, and responses are discarded, so no I/O is
+ * measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ServerDispatchBenchmark {
+
+	/** Length of the text returned by the handlers, in characters */
+	@Param({ "64", "4096" })
+	int size;
+
+	private DiscardingTransportProvider transportProvider;
+
+	private McpAsyncServer server;
+
+	private JSONRPCMessage callTool;
+
+	private JSONRPCMessage readResource;
+
+	private JSONRPCMessage getPrompt;
+
+	@Setup
+	public void setup() {
+		this.transportProvider = new DiscardingTransportProvider(new ObjectMapper());
+		this.server = BenchmarkServers.create(this.transportProvider, this.size);
+
+		McpServerSession session = this.transportProvider.session;
+		session.handle(new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_INITIALIZE, "init",
+				Map.of("protocolVersion", McpSchema.LATEST_PROTOCOL_VERSION, "capabilities", Map.of(), "clientInfo",
+						Map.of("name", "benchmark-client", "version", "1.0.0"))))
+			.block();
+		session
+			.handle(new JSONRPCNotification(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_NOTIFICATION_INITIALIZED, null))
+			.block();
+
+		// Parameters are maps, as decoded from the wire
+		this.callTool = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_TOOLS_CALL, "call", Map
+			.of("name", BenchmarkServers.TOOL_NAME, "arguments", Map.of("text", BenchmarkServers.payload(this.size))));
+		this.readResource = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_RESOURCES_READ, "read",
+				Map.of("uri", BenchmarkServers.RESOURCE_URI));
+		this.getPrompt = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_PROMPT_GET, "get",
+				Map.of("name", BenchmarkServers.PROMPT_NAME, "arguments", Map.of()));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.server.close();
+	}
+
+	@Benchmark
+	public void callTool() {
+		this.transportProvider.session.handle(this.callTool).block();
+	}
+
+	@Benchmark
+	public void readResource() {
+		this.transportProvider.session.handle(this.readResource).block();
+	}
+
+	@Benchmark
+	public void getPrompt() {
+		this.transportProvider.session.handle(this.getPrompt).block();
+	}
+
+	/**
+	 * Transport provider with a single session whose outgoing messages are dropped.
+	 */
+	private static final class DiscardingTransportProvider implements McpServerTransportProvider {
+
+		private final ObjectMapper objectMapper;
+
+		private volatile McpServerSession session;
+
+		DiscardingTransportProvider(ObjectMapper objectMapper) {
+			this.objectMapper = objectMapper;
+		}
+
+		@Override
+		public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+			this.session = sessionFactory.create(new McpServerTransport() {
+
+				@Override
+				public Mono<Void> sendMessage(JSONRPCMessage message) {
+					return Mono.empty();
+				}
+
+				@Override
+				public Mono<Void> closeGracefully() {
+					return Mono.empty();
+				}
+
+				@Override
+				public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+					return objectMapper.convertValue(data, typeRef);
+				}
+
+			});
+		}
+
+		@Override
+		public Mono<Void> notifyClients(String method, Object params) {
+			return this.session.sendNotification(method, params);
+		}
+
+		@Override
+		public Mono<Void> closeGracefully() {
+			return this.session.closeGracefully();
+		}
+
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.benchmark;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.transport.HttpServletSseServerTransportProvider;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round-trip latency of requests from a client on the HTTP SSE transport to a servlet
+ * server in embedded Tomcat, over loopback. Each request is POSTed and its response comes
+ * back on the event stream.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SseRoundTripBenchmark {
+
+	/** Length of the text echoed by the tool, in characters */
+	@Param({ "64", "4096" })
+	int size;
+
+	private Tomcat tomcat;
+
+	private McpAsyncServer server;
+
+	private McpSyncClient client;
+
+	private CallToolRequest callTool;
+
+	@Setup
+	public void setup() throws IOException, LifecycleException {
+		HttpServletSseServerTransportProvider transportProvider = HttpServletSseServerTransportProvider.builder()
+			.messageEndpoint("/mcp/message")
+			.build();
+		this.server = BenchmarkServers.create(transportProvider, this.size);
+
+		int port;
+		try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			port = socket.getLocalPort();
+		}
+		Path baseDir = Files.createTempDirectory("mcp-benchmark");
+		this.tomcat = new Tomcat();
+		this.tomcat.setBaseDir(baseDir.toString());
+		this.tomcat.setPort(port);
+		this.tomcat.getConnector().setProperty("address", InetAddress.getLoopbackAddress().getHostAddress());
+		Context context = this.tomcat.addContext("", baseDir.toString());
+		Wrapper wrapper = context.createWrapper();
+		wrapper.setName("mcpServlet");
+		wrapper.setServlet(transportProvider);
+		wrapper.setLoadOnStartup(1);
+		wrapper.setAsyncSupported(true);
+		context.addChild(wrapper);
+		context.addServletMappingDecoded("/*", "mcpServlet");
+		this.tomcat.start();
+
+		this.client = McpClient
+			.sync(HttpClientSseClientTransport
+				.builder("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port)
+				.build())
+			.build();
+		this.client.initialize();
+		this.callTool = new CallToolRequest(BenchmarkServers.TOOL_NAME,
+				Map.of("text", BenchmarkServers.payload(this.size)));
+	}
+
+	@TearDown
+	public void tearDown() throws LifecycleException {
+		this.client.closeGracefully();
+		this.server.close();
+		this.tomcat.stop();
+		this.tomcat.destroy();
+	}
+
+	@Benchmark
+	public Object ping() {
+		return this.client.ping();
+	}
+
+	@Benchmark
+	public CallToolResult callTool() {
+		return this.client.callTool(this.callTool);
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCNotification;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round-trip latency of requests to a server on the stdio transport. The standard streams
+ * of the server are those of a loopback socket, so that frames cross the kernel as they
+ * would through the pipes of a child process, without the noise of spawning one. The
+ * client side writes and reads raw frames.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StdioRoundTripBenchmark {
+
+	/** Length of the text echoed by the tool, in characters */
+	@Param({ "64", "4096" })
+	int size;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private Socket serverSocket;
+
+	private Socket clientSocket;
+
+	private McpAsyncServer server;
+
+	private OutputStream out;
+
+	private BufferedReader in;
+
+	private byte[] ping;
+
+	private byte[] callTool;
+
+	@Setup
+	public void setup() throws IOException {
+		try (ServerSocket listener = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			this.clientSocket = new Socket(InetAddress.getLoopbackAddress(), listener.getLocalPort());
+			this.serverSocket = listener.accept();
+		}
+		this.clientSocket.setTcpNoDelay(true);
+		this.serverSocket.setTcpNoDelay(true);
+		this.out = this.clientSocket.getOutputStream();
+		this.in = new BufferedReader(new InputStreamReader(this.clientSocket.getInputStream(), StandardCharsets.UTF_8));
+
+		this.server = BenchmarkServers.create(new StdioServerTransportProvider(this.objectMapper,
+				this.serverSocket.getInputStream(), this.serverSocket.getOutputStream()), this.size);
+
+		roundTrip(frame(new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_INITIALIZE, "init",
+				Map.of("protocolVersion", McpSchema.LATEST_PROTOCOL_VERSION, "capabilities", Map.of(), "clientInfo",
+						Map.of("name", "benchmark-client", "version", "1.0.0")))));
+		this.out.write(frame(
+				new JSONRPCNotification(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_NOTIFICATION_INITIALIZED, null)));
+		this.out.flush();
+
+		this.ping = frame(new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_PING, "ping", null));
+		this.callTool = frame(new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_TOOLS_CALL, "call", Map
+			.of("name", BenchmarkServers.TOOL_NAME, "arguments", Map.of("text", BenchmarkServers.payload(this.size)))));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		this.server.close();
+		this.clientSocket.close();
+		this.serverSocket.close();
+	}
+
+	@Benchmark
+	public String ping() throws IOException {
+		return roundTrip(this.ping);
+	}
+
+	@Benchmark
+	public String callTool() throws IOException {
+		return roundTrip(this.callTool);
+	}
+
+	private String roundTrip(byte[] frame) throws IOException {
+		this.out.write(frame);
+		this.out.flush();
+		String response = this.in.readLine();
+		if (response == null) {
+			throw new IOException("Server closed the connection");
+		}
+		return response;
+	}
+
+	private byte[] frame(JSONRPCMessage message) throws IOException {
+		return (this.objectMapper.writeValueAsString(message) + "\n").getBytes(StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.micrometer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.modelcontextprotocol.observation.McpObservation;
+import io.modelcontextprotocol.observation.McpObservationContext;
+import io.modelcontextprotocol.observation.McpObservationHandler;
+import io.modelcontextprotocol.util.Assert;
+
+/**
+ * {@link McpObservationHandler} reporting every message as a Micrometer
+ * {@link Observation}. Timers and spans are produced by the handlers registered with the
+ * {@link ObservationRegistry}, such as a {@code DefaultMeterObservationHandler} or a
+ * tracing handler:
+ *
+ * <pre>{@code
+ * ObservationRegistry registry = ObservationRegistry.create();
+ * registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+ * McpServer.sync(transportProvider).observationHandler(new MicrometerObservationHandler(registry)).build();
+ * }</pre>
+ *
+ * <p>
+ * Observations are tagged with the side, kind and method of the message, or {@code other}
+ * for received methods the session does not handle, and with the tool name for
+ * {@code tools/call}, or {@code other} for tools that are not registered on the server.
+ * The session and request ids are high cardinality values, only reported to tracing. The
+ * dispatch to a handler, its completion and the write of the response are recorded as
+ * events.
+ */
+public class MicrometerObservationHandler implements McpObservationHandler {
+
+	/** Default name of the observations */
+	public static final String DEFAULT_NAME = "mcp.rpc";
+
+	static final String SIDE = "mcp.side";
+
+	static final String KIND = "mcp.kind";
+
+	static final String METHOD = "mcp.method";
+
+	static final String TOOL = "mcp.tool";
+
+	static final String SESSION_ID = "mcp.session.id";
+
+	static final String REQUEST_ID = "mcp.request.id";
+
+	private static final String NONE = "none";
+
+	private static final String OTHER = "other";
+
+	private static final Observation.Event DISPATCH = Observation.Event.of("mcp.dispatch");
+
+	private static final Observation.Event HANDLED = Observation.Event.of("mcp.handled");
+
+	private static final Observation.Event WRITE = Observation.Event.of("mcp.write");
+
+	private final ObservationRegistry registry;
+
+	private final String name;
+
+	/**
+	 * Creates a handler reporting observations named {@value #DEFAULT_NAME}.
+	 * @param registry the registry to report to
+	 */
+	public MicrometerObservationHandler(ObservationRegistry registry) {
+		this(registry, DEFAULT_NAME);
+	}
+
+	/**
+	 * Creates a handler reporting observations with the given name.
+	 * @param registry the registry to report to
+	 * @param name the name of the observations
+	 */
+	public MicrometerObservationHandler(ObservationRegistry registry, String name) {
+		Assert.notNull(registry, "Observation registry must not be null");
+		Assert.hasText(name, "Observation name must not be empty");
+		this.registry = registry;
+		this.name = name;
+	}
+
+	@Override
+	public McpObservation onReceive(McpObservationContext context) {
+		return observe(context);
+	}
+
+	@Override
+	public McpObservation onSend(McpObservationContext context) {
+		return observe(context);
+	}
+
+	private McpObservation observe(McpObservationContext context) {
+		if (this.registry.isNoop()) {
+			return McpObservation.NOOP;
+		}
+		Observation observation = Observation.createNotStarted(this.name, this.registry)
+			.contextualName(method(context))
+			.lowCardinalityKeyValue(SIDE, context.getSide().name().toLowerCase())
+			.lowCardinalityKeyValue(KIND, context.getKind().name().toLowerCase())
+			.lowCardinalityKeyValue(METHOD, method(context))
+			.lowCardinalityKeyValue(TOOL, tool(context))
+			.highCardinalityKeyValue(SESSION_ID, (context.getSessionId() != null) ? context.getSessionId() : NONE)
+			.highCardinalityKeyValue(REQUEST_ID,
+					(context.getRequestId() != null) ? String.valueOf(context.getRequestId()) : NONE)
+			.start();
+		return new ObservationAdapter(observation);
+	}
+
+	/**
+	 * Returns the method tag of a message, {@value #OTHER} for methods the session does
+	 * not handle.
+	 */
+	private static String method(McpObservationContext context) {
+		return context.isMethodHandled() ? context.getMethod() : OTHER;
+	}
+
+	/**
+	 * Returns the tool tag of a message, {@value #OTHER} for tools that are not
+	 * registered on the server.
+	 */
+	private static String tool(McpObservationContext context) {
+		if (context.getToolName() == null) {
+			return NONE;
+		}
+		return context.isToolRegistered() ? context.getToolName() : OTHER;
+	}
+
+	private static final class ObservationAdapter implements McpObservation {
+
+		private final Observation observation;
+
+		private final AtomicBoolean stopped = new AtomicBoolean();
+
+		ObservationAdapter(Observation observation) {
+			this.observation = observation;
+		}
+
+		@Override
+		public void onDispatch() {
+			this.observation.event(DISPATCH);
+		}
+
+		@Override
+		public void onHandled(Throwable error) {
+			this.observation.event(HANDLED);
+		}
+
+		@Override
+		public void onWrite() {
+			this.observation.event(WRITE);
+		}
+
+		@Override
+		public void onComplete(Throwable error) {
+			if (this.stopped.compareAndSet(false, true)) {
+				if (error != null) {
+					this.observation.error(error);
+				}
+				this.observation.stop();
+			}
+		}
+
+	}
+
+}
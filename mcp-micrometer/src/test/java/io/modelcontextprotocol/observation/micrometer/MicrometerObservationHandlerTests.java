@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.micrometer;
+
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.tck.ObservationContextAssert;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.observation.McpObservationContext;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link MicrometerObservationHandler}.
+ */
+class MicrometerObservationHandlerTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private final InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+
+	private McpSyncServer server;
+
+	@AfterEach
+	void after() {
+		if (this.server != null) {
+			this.server.closeGracefully();
+		}
+	}
+
+	@Test
+	void messagesAreReportedAsObservations() {
+		TestObservationRegistry registry = TestObservationRegistry.create();
+		this.server = server(registry);
+
+		try (McpSyncClient client = McpClient.sync(this.transportProvider.createClientTransport()).build()) {
+			client.initialize();
+			client.callTool(new CallToolRequest("echo", Map.of()));
+			assertThatThrownBy(() -> client.callTool(new CallToolRequest("missing", Map.of())))
+				.isInstanceOf(McpError.class);
+		}
+
+		TestObservationRegistryAssert.assertThat(registry)
+			.hasNumberOfObservationsWithNameEqualTo(MicrometerObservationHandler.DEFAULT_NAME, 4)
+			.hasHandledContextsThatSatisfy(contexts -> {
+				ObservationContextAssert.assertThat(find(contexts, MicrometerObservationHandler.TOOL, "echo"))
+					.hasContextualNameEqualTo(McpSchema.METHOD_TOOLS_CALL)
+					.hasLowCardinalityKeyValue(MicrometerObservationHandler.SIDE, "server")
+					.hasLowCardinalityKeyValue(MicrometerObservationHandler.KIND, "request")
+					.hasLowCardinalityKeyValue(MicrometerObservationHandler.METHOD, McpSchema.METHOD_TOOLS_CALL)
+					.hasHighCardinalityKeyValueWithKey(MicrometerObservationHandler.SESSION_ID)
+					.doesNotHaveError();
+				ObservationContextAssert.assertThat(find(contexts, MicrometerObservationHandler.TOOL, "other"))
+					.hasError();
+				ObservationContextAssert
+					.assertThat(find(contexts, MicrometerObservationHandler.METHOD,
+							McpSchema.METHOD_NOTIFICATION_INITIALIZED))
+					.hasLowCardinalityKeyValue(MicrometerObservationHandler.KIND, "notification");
+			});
+	}
+
+	@Test
+	void registryHandlersRecordTimers() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		TestObservationRegistry registry = TestObservationRegistry.create();
+		registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		this.server = server(registry);
+
+		try (McpSyncClient client = McpClient.sync(this.transportProvider.createClientTransport()).build()) {
+			client.initialize();
+			for (int i = 0; i < 3; i++) {
+				client.callTool(new CallToolRequest("echo", Map.of()));
+			}
+		}
+
+		Timer timer = meterRegistry.find(MicrometerObservationHandler.DEFAULT_NAME)
+			.tag(MicrometerObservationHandler.METHOD, McpSchema.METHOD_TOOLS_CALL)
+			.tag(MicrometerObservationHandler.TOOL, "echo")
+			.timer();
+		assertThat(timer).isNotNull();
+		assertThat(timer.count()).isEqualTo(3);
+	}
+
+	@Test
+	void unhandledMethodsAreTaggedAsOther() {
+		TestObservationRegistry registry = TestObservationRegistry.create();
+		new MicrometerObservationHandler(registry)
+			.onReceive(new McpObservationContext(McpObservationContext.Side.SERVER, McpObservationContext.Kind.REQUEST,
+					"session", "unknown/method", 1, null, McpSchema.METHOD_PING::equals, null))
+			.onComplete(null);
+
+		TestObservationRegistryAssert.assertThat(registry)
+			.hasHandledContextsThatSatisfy(contexts -> ObservationContextAssert
+				.assertThat(find(contexts, MicrometerObservationHandler.METHOD, "other"))
+				.hasContextualNameEqualTo("other"));
+	}
+
+	private static Observation.Context find(List<Observation.Context> contexts, String key, String value) {
+		return contexts.stream()
+			.filter(context -> context.getLowCardinalityKeyValue(key) != null
+					&& value.equals(context.getLowCardinalityKeyValue(key).getValue()))
+			.findFirst()
+			.orElseThrow();
+	}
+
+	private McpSyncServer server(TestObservationRegistry registry) {
+		return McpServer.sync(this.transportProvider)
+			.serverInfo("test-server", "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(true).build())
+			.tools(new McpServerFeatures.SyncToolSpecification(new Tool("echo", "Echo", EMPTY_JSON_SCHEMA),
+					(exchange, args) -> new CallToolResult(List.of(new TextContent("echo")), false)))
+			.observationHandler(new MicrometerObservationHandler(registry))
+			.build();
+	}
+
+}
@@ -3,15 +3,17 @@
  */
 package io.modelcontextprotocol.client.transport;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpCodec;
 import io.modelcontextprotocol.spec.McpError;
-import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
 import io.modelcontextprotocol.util.Assert;
 import org.slf4j.Logger;
@@ -26,9 +28,12 @@ import reactor.util.retry.Retry;
 import reactor.util.retry.Retry.RetrySignal;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 /**
  * Server-Sent Events (SSE) implementation of the
@@ -81,6 +86,9 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 	 */
 	private static final String DEFAULT_SSE_ENDPOINT = "/sse";
 
+	/** Default size from which message bodies are compressed */
+	private static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
 	/**
 	 * Type reference for parsing SSE events containing string data.
 	 */
@@ -99,6 +107,15 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 	 */
 	protected ObjectMapper objectMapper;
 
+	/**
+	 * Codec for the messages posted to the server, until the server rejects its content
+	 * type
+	 */
+	private volatile McpCodec codec;
+
+	/** Codec for the messages received through the SSE stream, always JSON */
+	private final McpCodec jsonCodec;
+
 	/**
 	 * Subscription for the SSE connection handling inbound messages. Used for cleanup
 	 * during transport shutdown.
@@ -117,12 +134,26 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 	 */
 	protected final Sinks.One<String> messageEndpointSink = Sinks.one();
 
+	/**
+	 * Completed once the SSE connection is lost. The server session goes with it, even
+	 * when the stream itself is retried.
+	 */
+	private final Sinks.Empty<Void> disconnectSink = Sinks.empty();
+
 	/**
 	 * The SSE endpoint URI provided by the server. Used for sending outbound messages via
 	 * HTTP POST requests.
 	 */
 	private String sseEndpoint;
 
+	/** Size from which message bodies are gzip compressed, or -1 to never compress */
+	private final int compressionThreshold;
+
+	/**
+	 * Whether message bodies are compressed, until the server rejects a compressed body
+	 */
+	private volatile boolean compressBodies;
+
 	/**
 	 * Constructs a new SseClientTransport with the specified WebClient builder. Uses a
 	 * default ObjectMapper instance for JSON processing.
@@ -157,13 +188,50 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 	 */
 	public WebFluxSseClientTransport(WebClient.Builder webClientBuilder, ObjectMapper objectMapper,
 			String sseEndpoint) {
+		this(webClientBuilder, objectMapper, sseEndpoint, -1);
+	}
+
+	/**
+	 * Constructs a new SseClientTransport that posts message bodies gzip compressed from
+	 * the given size.
+	 * @param webClientBuilder the WebClient.Builder to use for creating the WebClient
+	 * instance
+	 * @param objectMapper the ObjectMapper to use for JSON processing
+	 * @param sseEndpoint the SSE endpoint URI to use for establishing the connection
+	 * @param compressionThreshold the size from which message bodies are compressed, or
+	 * -1 to disable compression
+	 * @throws IllegalArgumentException if either parameter is null
+	 */
+	public WebFluxSseClientTransport(WebClient.Builder webClientBuilder, ObjectMapper objectMapper, String sseEndpoint,
+			int compressionThreshold) {
+		this(webClientBuilder, objectMapper, sseEndpoint, null, compressionThreshold);
+	}
+
+	/**
+	 * Constructs a new SseClientTransport that posts messages with the given codec and
+	 * compresses message bodies from the given size.
+	 * @param webClientBuilder the WebClient.Builder to use for creating the WebClient
+	 * instance
+	 * @param objectMapper the ObjectMapper to use for JSON processing
+	 * @param sseEndpoint the SSE endpoint URI to use for establishing the connection
+	 * @param codec the codec for posted messages, or {@code null} for JSON
+	 * @param compressionThreshold the size from which message bodies are compressed, or
+	 * -1 to disable compression
+	 * @throws IllegalArgumentException if either parameter is null
+	 */
+	public WebFluxSseClientTransport(WebClient.Builder webClientBuilder, ObjectMapper objectMapper, String sseEndpoint,
+			McpCodec codec, int compressionThreshold) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		Assert.notNull(webClientBuilder, "WebClient.Builder must not be null");
 		Assert.hasText(sseEndpoint, "SSE endpoint must not be null or empty");
 
 		this.objectMapper = objectMapper;
+		this.jsonCodec = McpCodec.json(objectMapper);
+		this.codec = (codec != null) ? codec : this.jsonCodec;
 		this.webClient = webClientBuilder.build();
 		this.sseEndpoint = sseEndpoint;
+		this.compressionThreshold = compressionThreshold;
+		this.compressBodies = compressionThreshold >= 0;
 	}
 
 	/**
@@ -205,7 +273,7 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 			}
 			else if (MESSAGE_EVENT_TYPE.equals(event.event())) {
 				try {
-					JSONRPCMessage message = McpSchema.deserializeJsonRpcMessage(this.objectMapper, event.data());
+					JSONRPCMessage message = this.jsonCodec.decodeText(event.data());
 					s.next(message);
 				}
 				catch (IOException ioException) {
@@ -215,12 +283,21 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 			else {
 				s.error(new McpError("Received unrecognized SSE event type: " + event.event()));
 			}
-		}).transform(handler)).subscribe();
+		}).transform(handler)).doFinally(signal -> {
+			if (!isClosing) {
+				disconnectSink.tryEmitEmpty();
+			}
+		}).subscribe();
 
 		// The connection is established once the server sends the endpoint event
 		return messageEndpointSink.asMono().then();
 	}
 
+	@Override
+	public Mono<Void> onDisconnect() {
+		return this.disconnectSink.asMono();
+	}
+
 	/**
 	 * Sends a JSON-RPC message to the server using the endpoint provided during
 	 * connection.
@@ -241,32 +318,72 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 			if (isClosing) {
 				return Mono.empty();
 			}
-			try {
-				String jsonText = this.objectMapper.writeValueAsString(message);
-				return webClient.post()
-					.uri(messageEndpointUri)
-					.contentType(MediaType.APPLICATION_JSON)
-					.bodyValue(jsonText)
-					.retrieve()
-					.toBodilessEntity()
-					.doOnSuccess(response -> {
-						logger.debug("Message sent successfully");
-					})
-					.doOnError(error -> {
-						if (!isClosing) {
-							logger.error("Error sending message: {}", error.getMessage());
-						}
-					});
-			}
-			catch (IOException e) {
+			return post(messageEndpointUri, message, this.codec, this.compressBodies).doOnSuccess(response -> {
+				logger.debug("Message sent successfully");
+			}).doOnError(error -> {
 				if (!isClosing) {
-					return Mono.error(new RuntimeException("Failed to serialize message", e));
+					logger.error("Error sending message: {}", error.getMessage());
 				}
-				return Mono.empty();
-			}
+			});
 		}).then(); // TODO: Consider non-200-ok response
 	}
 
+	/**
+	 * Posts a message with the given codec, gzip compressed from the compression
+	 * threshold if enabled. A message rejected with 415 is posted again uncompressed if
+	 * it was compressed, or else as JSON if it was encoded with another codec, since the
+	 * server does not support them; later messages are then posted the same way.
+	 */
+	private Mono<ResponseEntity<Void>> post(String messageEndpointUri, JSONRPCMessage message, McpCodec codec,
+			boolean compress) {
+		byte[] body;
+		boolean compressed;
+		try {
+			body = codec.encode(message);
+			compressed = compress && body.length >= this.compressionThreshold;
+			if (compressed) {
+				body = gzip(body);
+			}
+		}
+		catch (IOException e) {
+			if (!isClosing) {
+				return Mono.error(new RuntimeException("Failed to serialize message", e));
+			}
+			return Mono.empty();
+		}
+		WebClient.RequestBodySpec request = webClient.post()
+			.uri(messageEndpointUri)
+			.contentType(MediaType.parseMediaType(codec.getContentType()));
+		if (compressed) {
+			request.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return request.bodyValue(body)
+			.retrieve()
+			.toBodilessEntity()
+			.onErrorResume(WebClientResponseException.UnsupportedMediaType.class, error -> {
+				if (compressed) {
+					logger.debug("Server rejected a compressed message, sending messages uncompressed");
+					this.compressBodies = false;
+					return post(messageEndpointUri, message, codec, false);
+				}
+				if (codec != this.jsonCodec) {
+					logger.debug("Server rejected a message encoded as {}, sending messages as JSON",
+							codec.getContentType());
+					this.codec = this.jsonCodec;
+					return post(messageEndpointUri, message, this.jsonCodec, compress);
+				}
+				return Mono.error(error);
+			});
+	}
+
+	private static byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(body);
+		}
+		return compressed.toByteArray();
+	}
+
 	/**
 	 * Initializes and starts the inbound SSE event processing. Establishes the SSE
 	 * connection and sets up event handling for both message and endpoint events.
@@ -295,6 +412,7 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 		}
 		if (retrySpec.failure() instanceof IOException) {
 			logger.debug("Retrying SSE connection after IO error");
+			disconnectSink.tryEmitEmpty();
 			sink.next(retrySpec);
 			return;
 		}
@@ -364,6 +482,12 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 
 		private ObjectMapper objectMapper = new ObjectMapper();
 
+		private McpCodec codec;
+
+		private boolean compression;
+
+		private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+
 		/**
 		 * Creates a new builder with the specified WebClient.Builder.
 		 * @param webClientBuilder the WebClient.Builder to use
@@ -395,12 +519,60 @@ public class WebFluxSseClientTransport implements McpClientTransport {
 			return this;
 		}
 
+		/**
+		 * Sets the codec for the messages posted to the server, with the codec's content
+		 * type. Messages received through the SSE stream are always JSON. Servers answer
+		 * 415 to content types they do not support, upon which the message is posted
+		 * again as JSON, and so are all later messages. Defaults to JSON, using the
+		 * object mapper.
+		 * @param codec the codec
+		 * @return this builder
+		 */
+		public Builder codec(McpCodec codec) {
+			Assert.notNull(codec, "codec must not be null");
+			this.codec = codec;
+			return this;
+		}
+
+		/**
+		 * Enables compression of message bodies. Bodies of at least the
+		 * {@link #compressionThreshold(int) threshold} are posted gzip compressed. Once
+		 * the server rejects a compressed body with 415, the body is posted again
+		 * uncompressed, and so are all later bodies. Decompressing the SSE stream is left
+		 * to the WebClient's connector, e.g. Reactor Netty's
+		 * {@code HttpClient.compress(true)}.
+		 * <p>
+		 * Defaults to {@code false}.
+		 * @param compression whether to compress
+		 * @return this builder
+		 */
+		public Builder compression(boolean compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * Sets the size in bytes from which message bodies are compressed when
+		 * {@link #compression(boolean) compression} is enabled. Smaller messages are sent
+		 * as is, since compressing them costs more than it saves.
+		 * <p>
+		 * Defaults to 1024 bytes.
+		 * @param compressionThreshold the threshold in bytes
+		 * @return this builder
+		 */
+		public Builder compressionThreshold(int compressionThreshold) {
+			Assert.isTrue(compressionThreshold >= 0, "compressionThreshold must not be negative");
+			this.compressionThreshold = compressionThreshold;
+			return this;
+		}
+
 		/**
 		 * Builds a new {@link WebFluxSseClientTransport} instance.
 		 * @return a new transport instance
 		 */
 		public WebFluxSseClientTransport build() {
-			return new WebFluxSseClientTransport(webClientBuilder, objectMapper, sseEndpoint);
+			return new WebFluxSseClientTransport(webClientBuilder, objectMapper, sseEndpoint, codec,
+					compression ? compressionThreshold : -1);
 		}
 
 	}
@@ -1,12 +1,21 @@
 package io.modelcontextprotocol.server.transport;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpCodec;
 import io.modelcontextprotocol.spec.McpError;
-import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpServerSession;
 import io.modelcontextprotocol.spec.McpServerTransport;
 import io.modelcontextprotocol.spec.McpServerTransportProvider;
@@ -19,6 +28,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
@@ -43,6 +55,11 @@ import org.springframework.web.reactive.function.server.ServerResponse;
  * <li>Maintains client sessions for reliable message delivery</li>
  * <li>Supports graceful shutdown with session cleanup</li>
  * <li>Thread-safe message broadcasting to multiple clients</li>
+ * <li>Optional binary message codecs for posted messages, selected by their
+ * {@code Content-Type}. Other content types than JSON are answered with 415, upon which
+ * clients post as JSON. The SSE stream always carries JSON.</li>
+ * <li>Optional gzip or deflate compression of the SSE stream, negotiated through the
+ * {@code Accept-Encoding} header, and compressed message bodies</li>
  * </ul>
  *
  * <p>
@@ -54,8 +71,10 @@ import org.springframework.web.reactive.function.server.ServerResponse;
  *
  * <p>
  * This implementation is thread-safe and can handle multiple concurrent client
- * connections. It uses {@link ConcurrentHashMap} for session management and Project
- * Reactor's non-blocking APIs for message processing and delivery.
+ * connections. It uses a {@link SessionRegistry} for session management and Project
+ * Reactor's non-blocking APIs for message processing and delivery. Messages posted for a
+ * session whose SSE connection is held by another node are forwarded through the
+ * registry.
  *
  * @author Christian Tzolov
  * @author Alexandros Pappas
@@ -84,7 +103,14 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 
 	public static final String DEFAULT_BASE_URL = "";
 
-	private final ObjectMapper objectMapper;
+	/** Default limit of the inflated size of compressed message bodies */
+	public static final long DEFAULT_MAX_INFLATED_MESSAGE_SIZE = ContentEncodings.DEFAULT_MAX_INFLATED_MESSAGE_SIZE;
+
+	/** JSON codec, used for the SSE stream and for posted messages of other types */
+	private final McpCodec jsonCodec;
+
+	/** Codecs supported in addition to JSON, keyed by lower case media type */
+	private final Map<String, McpCodec> codecs;
 
 	/**
 	 * Base URL for the message endpoint. This is used to construct the full URL for
@@ -98,12 +124,18 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 
 	private final RouterFunction<?> routerFunction;
 
+	/** Whether SSE streams are compressed for clients accepting it */
+	private final boolean compression;
+
+	/** Limit of the inflated size of compressed message bodies */
+	private final long maxInflatedMessageSize;
+
 	private McpServerSession.Factory sessionFactory;
 
 	/**
-	 * Map of active client sessions, keyed by session ID.
+	 * Registry of active client sessions, keyed by session ID.
 	 */
-	private final ConcurrentHashMap<String, McpServerSession> sessions = new ConcurrentHashMap<>();
+	private final SessionRegistry sessions;
 
 	/**
 	 * Flag indicating if the transport is shutting down.
@@ -149,15 +181,93 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 	 */
 	public WebFluxSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
 			String sseEndpoint) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, new LocalSessionRegistry());
+	}
+
+	/**
+	 * Constructs a new WebFlux SSE server transport provider instance that keeps its
+	 * sessions in the given registry.
+	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
+	 * of MCP messages. Must not be null.
+	 * @param baseUrl webflux message base path
+	 * @param messageEndpoint The endpoint URI where clients should send their JSON-RPC
+	 * messages. This endpoint will be communicated to clients during SSE connection
+	 * setup. Must not be null.
+	 * @param sseEndpoint The SSE endpoint path. Must not be null.
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes. Must not be null.
+	 * @throws IllegalArgumentException if any parameter is null
+	 */
+	public WebFluxSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, sessionRegistry, List.of());
+	}
+
+	/**
+	 * Constructs a new WebFlux SSE server transport provider instance that accepts
+	 * messages posted with the given codecs in addition to JSON.
+	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
+	 * of MCP messages. Must not be null.
+	 * @param baseUrl webflux message base path
+	 * @param messageEndpoint The endpoint URI where clients should send their JSON-RPC
+	 * messages. This endpoint will be communicated to clients during SSE connection
+	 * setup. Must not be null.
+	 * @param sseEndpoint The SSE endpoint path. Must not be null.
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes. Must not be null.
+	 * @param codecs The codecs clients may post messages with instead of JSON. Must not
+	 * be null.
+	 * @throws IllegalArgumentException if any parameter is null
+	 */
+	public WebFluxSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry, List<McpCodec> codecs) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, sessionRegistry, codecs, false,
+				DEFAULT_MAX_INFLATED_MESSAGE_SIZE);
+	}
+
+	/**
+	 * Constructs a new WebFlux SSE server transport provider instance that accepts
+	 * messages posted with the given codecs in addition to JSON, and optionally
+	 * compresses SSE streams and accepts compressed message bodies.
+	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
+	 * of MCP messages. Must not be null.
+	 * @param baseUrl webflux message base path
+	 * @param messageEndpoint The endpoint URI where clients should send their JSON-RPC
+	 * messages. This endpoint will be communicated to clients during SSE connection
+	 * setup. Must not be null.
+	 * @param sseEndpoint The SSE endpoint path. Must not be null.
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes. Must not be null.
+	 * @param codecs The codecs clients may post messages with instead of JSON. Must not
+	 * be null.
+	 * @param compression Whether SSE streams are compressed for clients that accept gzip
+	 * or deflate, and gzip or deflate compressed message bodies are accepted
+	 * @param maxInflatedMessageSize The limit of the inflated size of compressed message
+	 * bodies. Must be positive.
+	 * @throws IllegalArgumentException if any parameter is null
+	 */
+	public WebFluxSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry, List<McpCodec> codecs, boolean compression,
+			long maxInflatedMessageSize) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		Assert.notNull(baseUrl, "Message base path must not be null");
 		Assert.notNull(messageEndpoint, "Message endpoint must not be null");
 		Assert.notNull(sseEndpoint, "SSE endpoint must not be null");
-
-		this.objectMapper = objectMapper;
+		Assert.notNull(sessionRegistry, "Session registry must not be null");
+		Assert.notNull(codecs, "Codecs must not be null");
+		Assert.isTrue(maxInflatedMessageSize > 0, "Max inflated message size must be positive");
+
+		this.jsonCodec = McpCodec.json(objectMapper);
+		this.codecs = new LinkedHashMap<>();
+		for (McpCodec codec : codecs) {
+			this.codecs.put(codec.getContentType().toLowerCase(Locale.ROOT), codec);
+		}
 		this.baseUrl = baseUrl;
 		this.messageEndpoint = messageEndpoint;
 		this.sseEndpoint = sseEndpoint;
+		this.sessions = sessionRegistry;
+		this.compression = compression;
+		this.maxInflatedMessageSize = maxInflatedMessageSize;
 		this.routerFunction = RouterFunctions.route()
 			.GET(this.sseEndpoint, this::handleSseConnection)
 			.POST(this.messageEndpoint, this::handleMessage)
@@ -169,6 +279,15 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 		this.sessionFactory = sessionFactory;
 	}
 
+	/**
+	 * Returns the sessions connected to this node.
+	 * @return the sessions registered in the {@link SessionRegistry}
+	 */
+	@Override
+	public Collection<McpServerSession> getSessions() {
+		return this.sessions.getSessions();
+	}
+
 	/**
 	 * Broadcasts a JSON-RPC message to all connected clients through their SSE
 	 * connections. The message is serialized to JSON and sent as a server-sent event to
@@ -189,14 +308,15 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 	 */
 	@Override
 	public Mono<Void> notifyClients(String method, Object params) {
-		if (sessions.isEmpty()) {
+		Collection<McpServerSession> activeSessions = sessions.getSessions();
+		if (activeSessions.isEmpty()) {
 			logger.debug("No active sessions to broadcast message to");
 			return Mono.empty();
 		}
 
-		logger.debug("Attempting to broadcast message to {} active sessions", sessions.size());
+		logger.debug("Attempting to broadcast message to {} active sessions", activeSessions.size());
 
-		return Flux.fromIterable(sessions.values())
+		return Flux.fromIterable(activeSessions)
 			.flatMap(session -> session.sendNotification(method, params)
 				.doOnError(
 						e -> logger.error("Failed to send message to session {}: {}", session.getId(), e.getMessage()))
@@ -223,10 +343,11 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 	 */
 	@Override
 	public Mono<Void> closeGracefully() {
-		return Flux.fromIterable(sessions.values())
-			.doFirst(() -> logger.debug("Initiating graceful shutdown with {} active sessions", sessions.size()))
-			.flatMap(McpServerSession::closeGracefully)
-			.then();
+		return Flux.defer(() -> {
+			Collection<McpServerSession> activeSessions = sessions.getSessions();
+			logger.debug("Initiating graceful shutdown with {} active sessions", activeSessions.size());
+			return Flux.fromIterable(activeSessions);
+		}).flatMap(McpServerSession::closeGracefully).then();
 	}
 
 	/**
@@ -256,28 +377,40 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 			return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).bodyValue("Server is shutting down");
 		}
 
+		Flux<ServerSentEvent<?>> events = Flux.create(sink -> {
+			WebFluxMcpSessionTransport sessionTransport = new WebFluxMcpSessionTransport(sink);
+
+			McpServerSession session = sessionFactory.create(sessionTransport);
+			String sessionId = session.getId();
+
+			logger.debug("Created new SSE connection for session: {}", sessionId);
+			sessions.register(sessionId, session);
+
+			// Send initial endpoint event
+			logger.debug("Sending initial endpoint event to session: {}", sessionId);
+			sink.next(ServerSentEvent.builder()
+				.event(ENDPOINT_EVENT_TYPE)
+				.data(this.baseUrl + this.messageEndpoint + "?sessionId=" + sessionId)
+				.build());
+			sink.onCancel(() -> {
+				logger.debug("Session {} cancelled", sessionId);
+				sessions.unregister(sessionId);
+			});
+		});
+
+		String encoding = this.compression
+				? ContentEncodings.acceptedEncoding(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING)) : null;
+		if (encoding == null) {
+			return ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(events, ServerSentEvent.class);
+		}
+		Flux<DataBuffer> compressed = Flux.using(() -> new SseCompressor(encoding),
+				compressor -> events.map(compressor::compress).concatWith(Mono.fromCallable(compressor::finish)),
+				SseCompressor::close);
 		return ServerResponse.ok()
 			.contentType(MediaType.TEXT_EVENT_STREAM)
-			.body(Flux.<ServerSentEvent<?>>create(sink -> {
-				WebFluxMcpSessionTransport sessionTransport = new WebFluxMcpSessionTransport(sink);
-
-				McpServerSession session = sessionFactory.create(sessionTransport);
-				String sessionId = session.getId();
-
-				logger.debug("Created new SSE connection for session: {}", sessionId);
-				sessions.put(sessionId, session);
-
-				// Send initial endpoint event
-				logger.debug("Sending initial endpoint event to session: {}", sessionId);
-				sink.next(ServerSentEvent.builder()
-					.event(ENDPOINT_EVENT_TYPE)
-					.data(this.baseUrl + this.messageEndpoint + "?sessionId=" + sessionId)
-					.build());
-				sink.onCancel(() -> {
-					logger.debug("Session {} cancelled", sessionId);
-					sessions.remove(sessionId);
-				});
-			}), ServerSentEvent.class);
+			.header(HttpHeaders.CONTENT_ENCODING, encoding)
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+			.body((message, context) -> message.writeAndFlushWith(compressed.map(Flux::just)));
 	}
 
 	/**
@@ -288,7 +421,8 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 	 * The handler:
 	 * <ul>
 	 * <li>Deserializes the incoming JSON-RPC message</li>
-	 * <li>Passes it through the message handler chain</li>
+	 * <li>Passes it through the message handler chain, or forwards it to the node owning
+	 * the session</li>
 	 * <li>Returns appropriate HTTP responses based on processing results</li>
 	 * <li>Handles various error conditions with appropriate error responses</li>
 	 * </ul>
@@ -304,16 +438,31 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 			return ServerResponse.badRequest().bodyValue(new McpError("Session ID missing in message endpoint"));
 		}
 
-		McpServerSession session = sessions.get(request.queryParam("sessionId").get());
+		String sessionId = request.queryParam("sessionId").get();
+		McpServerSession session = sessions.getSession(sessionId);
 
-		if (session == null) {
-			return ServerResponse.status(HttpStatus.NOT_FOUND)
-				.bodyValue(new McpError("Session not found: " + request.queryParam("sessionId").get()));
+		String encoding = request.headers().firstHeader(HttpHeaders.CONTENT_ENCODING);
+		if (!ContentEncodings.isSupported(encoding, this.compression)) {
+			return ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+				.bodyValue(new McpError("Unsupported content encoding: " + encoding));
 		}
 
-		return request.bodyToMono(String.class).flatMap(body -> {
+		McpCodec codec = codecFor(request);
+		if (codec == null) {
+			return ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+				.bodyValue(new McpError("Unsupported content type: " + request.headers().contentType().get()));
+		}
+		return request.bodyToMono(byte[].class).flatMap(body -> {
 			try {
-				JSONRPCMessage message = McpSchema.deserializeJsonRpcMessage(objectMapper, body);
+				JSONRPCMessage message = ContentEncodings.isCompressed(encoding) ? codec.decode(
+						ContentEncodings.inflate(new ByteArrayInputStream(body), encoding, this.maxInflatedMessageSize))
+						: codec.decode(body);
+				if (session == null) {
+					return sessions.forward(sessionId, message)
+						.flatMap(forwarded -> forwarded ? ServerResponse.accepted().build()
+								: ServerResponse.status(HttpStatus.NOT_FOUND)
+									.bodyValue(new McpError("Session not found: " + sessionId)));
+				}
 				return session.handle(message).flatMap(response -> ServerResponse.ok().build()).onErrorResume(error -> {
 					logger.error("Error processing  message: {}", error.getMessage());
 					// TODO: instead of signalling the error, just respond with 200 OK
@@ -324,12 +473,94 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 				});
 			}
 			catch (IllegalArgumentException | IOException e) {
+				if (ContentEncodings.isTooLarge(e)) {
+					return ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE)
+						.bodyValue(new McpError(
+								"Message exceeds " + this.maxInflatedMessageSize + " bytes once inflated"));
+				}
 				logger.error("Failed to deserialize message: {}", e.getMessage());
 				return ServerResponse.badRequest().bodyValue(new McpError("Invalid message format"));
 			}
 		});
 	}
 
+	/**
+	 * Returns the codec of a posted message, or {@code null} if its content type is not
+	 * supported. Messages without a content type are read as JSON.
+	 */
+	private McpCodec codecFor(ServerRequest request) {
+		Optional<MediaType> contentType = request.headers().contentType();
+		if (contentType.isEmpty()) {
+			return this.jsonCodec;
+		}
+		String mediaType = (contentType.get().getType() + "/" + contentType.get().getSubtype())
+			.toLowerCase(Locale.ROOT);
+		McpCodec codec = this.codecs.get(mediaType);
+		if (codec != null) {
+			return codec;
+		}
+		return McpCodec.isJson(mediaType) ? this.jsonCodec : null;
+	}
+
+	/**
+	 * Compresses the events of an SSE stream, sync flushing after each event so that it
+	 * reaches the client as soon as it is sent instead of when the deflater's buffer
+	 * fills up.
+	 */
+	private static final class SseCompressor {
+
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		private final OutputStream out;
+
+		SseCompressor(String encoding) throws IOException {
+			this.out = ContentEncodings.compress(this.buffer, encoding);
+		}
+
+		DataBuffer compress(ServerSentEvent<?> event) {
+			StringBuilder text = new StringBuilder();
+			if (event.event() != null) {
+				text.append("event:").append(event.event()).append('\n');
+			}
+			for (String line : String.valueOf(event.data()).split("\n", -1)) {
+				text.append("data:").append(line).append('\n');
+			}
+			text.append('\n');
+			try {
+				this.out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+				this.out.flush();
+			}
+			catch (IOException e) {
+				throw Exceptions.propagate(e);
+			}
+			return drain();
+		}
+
+		/**
+		 * Writes the trailer of the compressed stream.
+		 */
+		DataBuffer finish() throws IOException {
+			this.out.close();
+			return drain();
+		}
+
+		void close() {
+			try {
+				this.out.close();
+			}
+			catch (IOException e) {
+				logger.debug("Failed to close SSE compressor: {}", e.getMessage());
+			}
+		}
+
+		private DataBuffer drain() {
+			DataBuffer compressed = DefaultDataBufferFactory.sharedInstance.wrap(this.buffer.toByteArray());
+			this.buffer.reset();
+			return compressed;
+		}
+
+	}
+
 	private class WebFluxMcpSessionTransport implements McpServerTransport {
 
 		private final FluxSink<ServerSentEvent<?>> sink;
@@ -342,7 +573,7 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 		public Mono<Void> sendMessage(JSONRPCMessage message) {
 			return Mono.fromSupplier(() -> {
 				try {
-					return objectMapper.writeValueAsString(message);
+					return jsonCodec.encodeToText(message);
 				}
 				catch (IOException e) {
 					throw Exceptions.propagate(e);
@@ -362,7 +593,7 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 
 		@Override
 		public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
-			return objectMapper.convertValue(data, typeRef);
+			return jsonCodec.convertValue(data, typeRef);
 		}
 
 		@Override
@@ -397,6 +628,14 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 
 		private String sseEndpoint = DEFAULT_SSE_ENDPOINT;
 
+		private SessionRegistry sessionRegistry = new LocalSessionRegistry();
+
+		private List<McpCodec> codecs = List.of();
+
+		private boolean compression;
+
+		private long maxInflatedMessageSize = DEFAULT_MAX_INFLATED_MESSAGE_SIZE;
+
 		/**
 		 * Sets the ObjectMapper to use for JSON serialization/deserialization of MCP
 		 * messages.
@@ -447,6 +686,64 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 			return this;
 		}
 
+		/**
+		 * Sets the registry used to keep track of sessions. Several nodes sharing a
+		 * distributed registry can serve the message endpoint of any session without
+		 * sticky routing. Defaults to a {@link LocalSessionRegistry}.
+		 * @param sessionRegistry The session registry. Must not be null.
+		 * @return this builder instance
+		 * @throws IllegalArgumentException if sessionRegistry is null
+		 */
+		public Builder sessionRegistry(SessionRegistry sessionRegistry) {
+			Assert.notNull(sessionRegistry, "Session registry must not be null");
+			this.sessionRegistry = sessionRegistry;
+			return this;
+		}
+
+		/**
+		 * Sets the codecs clients may post messages with instead of JSON, such as a
+		 * {@link io.modelcontextprotocol.spec.JacksonMcpCodec} for Smile or CBOR. JSON is
+		 * always supported, and is the only format of the SSE stream.
+		 * @param codecs The additional codecs. Must not be null.
+		 * @return this builder instance
+		 * @throws IllegalArgumentException if codecs is null
+		 */
+		public Builder codecs(McpCodec... codecs) {
+			Assert.notNull(codecs, "Codecs must not be null");
+			this.codecs = List.of(codecs);
+			return this;
+		}
+
+		/**
+		 * Sets whether SSE streams are compressed with gzip or deflate for clients that
+		 * accept it. Every event is flushed through the compressor, so compression does
+		 * not delay messages. Gzip or deflate compressed message bodies are only accepted
+		 * with compression enabled, and are rejected with 413 once their inflated size
+		 * exceeds the {@link #maxInflatedMessageSize(long) limit}. Defaults to
+		 * {@code false}.
+		 * @param compression Whether to compress SSE streams and accept compressed
+		 * message bodies
+		 * @return this builder instance
+		 */
+		public Builder compression(boolean compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * Sets the limit of the inflated size of compressed message bodies, which guards
+		 * against bodies that inflate to far more than they take on the wire. Defaults to
+		 * {@link #DEFAULT_MAX_INFLATED_MESSAGE_SIZE}.
+		 * @param maxInflatedMessageSize The limit in bytes. Must be positive.
+		 * @return this builder instance
+		 * @throws IllegalArgumentException if maxInflatedMessageSize is not positive
+		 */
+		public Builder maxInflatedMessageSize(long maxInflatedMessageSize) {
+			Assert.isTrue(maxInflatedMessageSize > 0, "Max inflated message size must be positive");
+			this.maxInflatedMessageSize = maxInflatedMessageSize;
+			return this;
+		}
+
 		/**
 		 * Builds a new instance of {@link WebFluxSseServerTransportProvider} with the
 		 * configured settings.
@@ -457,7 +754,8 @@ public class WebFluxSseServerTransportProvider implements McpServerTransportProv
 			Assert.notNull(objectMapper, "ObjectMapper must be set");
 			Assert.notNull(messageEndpoint, "Message endpoint must be set");
 
-			return new WebFluxSseServerTransportProvider(objectMapper, baseUrl, messageEndpoint, sseEndpoint);
+			return new WebFluxSseServerTransportProvider(objectMapper, baseUrl, messageEndpoint, sseEndpoint,
+					sessionRegistry, codecs, compression, maxInflatedMessageSize);
 		}
 
 	}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.JacksonMcpCodec;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCNotification;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the encoding and compression of message bodies posted by
+ * {@link WebFluxSseClientTransport}.
+ */
+class WebFluxSseClientTransportCompressionTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final List<MockClientHttpRequest> posted = new CopyOnWriteArrayList<>();
+
+	private volatile boolean rejectCompressed;
+
+	private volatile boolean rejectNonJson;
+
+	private final WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+		MockClientHttpRequest written = new MockClientHttpRequest(request.method(), request.url());
+		return request.writeTo(written, ExchangeStrategies.withDefaults()).then(Mono.fromSupplier(() -> {
+			this.posted.add(written);
+			if (this.rejectCompressed && written.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+				return ClientResponse.create(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+			}
+			if (this.rejectNonJson && !MediaType.APPLICATION_JSON.equals(written.getHeaders().getContentType())) {
+				return ClientResponse.create(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+			}
+			return ClientResponse.create(HttpStatus.ACCEPTED).build();
+		}));
+	});
+
+	@Test
+	void bodiesFromTheThresholdArePostedGzipCompressed() throws IOException {
+		WebFluxSseClientTransport transport = WebFluxSseClientTransport.builder(this.webClientBuilder)
+			.compression(true)
+			.compressionThreshold(256)
+			.build();
+		transport.messageEndpointSink.tryEmitValue("http://localhost/message");
+		JSONRPCNotification small = notification("x");
+		JSONRPCNotification large = notification("log line\n".repeat(100));
+
+		transport.sendMessage(small).block();
+		transport.sendMessage(large).block();
+
+		assertThat(this.posted).hasSize(2);
+		assertThat(this.posted.get(0).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(body(this.posted.get(0))).isEqualTo(this.objectMapper.writeValueAsString(small));
+		assertThat(this.posted.get(1).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes(this.posted.get(1))))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+				.isEqualTo(this.objectMapper.writeValueAsString(large));
+		}
+	}
+
+	@Test
+	void bodiesRejectedCompressedArePostedUncompressed() throws IOException {
+		this.rejectCompressed = true;
+		WebFluxSseClientTransport transport = WebFluxSseClientTransport.builder(this.webClientBuilder)
+			.compression(true)
+			.compressionThreshold(0)
+			.build();
+		transport.messageEndpointSink.tryEmitValue("http://localhost/message");
+		JSONRPCNotification first = notification("first");
+		JSONRPCNotification second = notification("second");
+
+		transport.sendMessage(first).block();
+		transport.sendMessage(second).block();
+
+		assertThat(this.posted).hasSize(3);
+		assertThat(this.posted.get(0).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(this.posted.get(1).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(body(this.posted.get(1))).isEqualTo(this.objectMapper.writeValueAsString(first));
+		assertThat(this.posted.get(2).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(body(this.posted.get(2))).isEqualTo(this.objectMapper.writeValueAsString(second));
+	}
+
+	@Test
+	void bodiesAreNotCompressedByDefault() {
+		WebFluxSseClientTransport transport = WebFluxSseClientTransport.builder(this.webClientBuilder).build();
+		transport.messageEndpointSink.tryEmitValue("http://localhost/message");
+
+		transport.sendMessage(notification("log line\n".repeat(1000))).block();
+
+		assertThat(this.posted.get(0).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+	}
+
+	@Test
+	void bodiesArePostedWithTheCodecContentType() throws IOException {
+		JacksonMcpCodec codec = new JacksonMcpCodec(this.objectMapper, "application/vnd.mcp+json");
+		WebFluxSseClientTransport transport = WebFluxSseClientTransport.builder(this.webClientBuilder)
+			.codec(codec)
+			.build();
+		transport.messageEndpointSink.tryEmitValue("http://localhost/message");
+		JSONRPCNotification notification = notification("x");
+
+		transport.sendMessage(notification).block();
+
+		assertThat(this.posted.get(0).getHeaders().getContentType()).hasToString("application/vnd.mcp+json");
+		assertThat(codec.decode(bytes(this.posted.get(0)))).isEqualTo(notification);
+	}
+
+	@Test
+	void bodiesRejectedWithTheirCodecArePostedAsJson() throws IOException {
+		this.rejectNonJson = true;
+		JacksonMcpCodec codec = new JacksonMcpCodec(this.objectMapper, "application/vnd.mcp+json");
+		WebFluxSseClientTransport transport = WebFluxSseClientTransport.builder(this.webClientBuilder)
+			.codec(codec)
+			.build();
+		transport.messageEndpointSink.tryEmitValue("http://localhost/message");
+		JSONRPCNotification first = notification("first");
+		JSONRPCNotification second = notification("second");
+
+		transport.sendMessage(first).block();
+		transport.sendMessage(second).block();
+
+		assertThat(this.posted).hasSize(3);
+		assertThat(this.posted.get(0).getHeaders().getContentType()).hasToString("application/vnd.mcp+json");
+		assertThat(this.posted.get(1).getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(body(this.posted.get(1))).isEqualTo(this.objectMapper.writeValueAsString(first));
+		assertThat(this.posted.get(2).getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(body(this.posted.get(2))).isEqualTo(this.objectMapper.writeValueAsString(second));
+	}
+
+	private static JSONRPCNotification notification(String text) {
+		return new JSONRPCNotification(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_NOTIFICATION_MESSAGE,
+				Map.of("data", text));
+	}
+
+	private static String body(MockClientHttpRequest request) {
+		return new String(bytes(request), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] bytes(MockClientHttpRequest request) {
+		return DataBufferUtils.join(request.getBody()).map(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			return bytes;
+		}).block();
+	}
+
+}
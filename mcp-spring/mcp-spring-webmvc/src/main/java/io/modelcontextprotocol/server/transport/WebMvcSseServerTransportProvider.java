@@ -4,26 +4,44 @@
 
 package io.modelcontextprotocol.server.transport;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Duration;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpCodec;
 import io.modelcontextprotocol.spec.McpError;
-import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpServerTransport;
 import io.modelcontextprotocol.spec.McpServerTransportProvider;
 import io.modelcontextprotocol.spec.McpServerSession;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
 import io.modelcontextprotocol.util.Assert;
+import io.modelcontextprotocol.util.SessionIdGenerator;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.function.RouterFunction;
 import org.springframework.web.servlet.function.RouterFunctions;
 import org.springframework.web.servlet.function.ServerRequest;
@@ -45,6 +63,11 @@ import org.springframework.web.servlet.function.ServerResponse.SseBuilder;
  * <li>Supports graceful shutdown with proper session cleanup</li>
  * <li>Provides JSON-RPC message handling through configured endpoints</li>
  * <li>Includes built-in error handling and logging</li>
+ * <li>Optional binary message codecs for posted messages, selected by their
+ * {@code Content-Type}. Other content types than JSON are answered with 415, upon which
+ * clients post as JSON. The SSE stream always carries JSON.</li>
+ * <li>Optional gzip or deflate compression of the SSE stream, negotiated through the
+ * {@code Accept-Encoding} header, and compressed message bodies</li>
  * </ul>
  *
  * <p>
@@ -57,9 +80,10 @@ import org.springframework.web.servlet.function.ServerResponse.SseBuilder;
  * </ul>
  *
  * <p>
- * This implementation uses {@link ConcurrentHashMap} to safely manage multiple client
+ * This implementation uses a {@link SessionRegistry} to safely manage multiple client
  * sessions in a thread-safe manner. Each client session is assigned a unique ID and
- * maintains its own SSE connection.
+ * maintains its own SSE connection. Messages posted for a session whose SSE connection is
+ * held by another node are forwarded through the registry.
  *
  * @author Christian Tzolov
  * @author Alexandros Pappas
@@ -85,7 +109,14 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 	 */
 	public static final String DEFAULT_SSE_ENDPOINT = "/sse";
 
-	private final ObjectMapper objectMapper;
+	/** Default limit of the inflated size of compressed message bodies */
+	public static final long DEFAULT_MAX_INFLATED_MESSAGE_SIZE = ContentEncodings.DEFAULT_MAX_INFLATED_MESSAGE_SIZE;
+
+	/** JSON codec, used for the SSE stream and for posted messages of other types */
+	private final McpCodec jsonCodec;
+
+	/** Codecs supported in addition to JSON, keyed by lower case media type */
+	private final Map<String, McpCodec> codecs;
 
 	private final String messageEndpoint;
 
@@ -98,9 +129,24 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 	private McpServerSession.Factory sessionFactory;
 
 	/**
-	 * Map of active client sessions, keyed by session ID.
+	 * Registry of active client sessions, keyed by session ID.
+	 */
+	private final SessionRegistry sessions;
+
+	/**
+	 * Generator for the IDs of new sessions.
+	 */
+	private final SessionIdGenerator sessionIdGenerator;
+
+	/**
+	 * Whether SSE streams are compressed for clients accepting it.
+	 */
+	private final boolean compression;
+
+	/**
+	 * Limit of the inflated size of compressed message bodies.
 	 */
-	private final ConcurrentHashMap<String, McpServerSession> sessions = new ConcurrentHashMap<>();
+	private final long maxInflatedMessageSize;
 
 	/**
 	 * Flag indicating if the transport is shutting down.
@@ -149,15 +195,121 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 	 */
 	public WebMvcSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
 			String sseEndpoint) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, new LocalSessionRegistry());
+	}
+
+	/**
+	 * Constructs a new WebMvcSseServerTransportProvider instance that keeps its sessions
+	 * in the given registry.
+	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
+	 * of messages.
+	 * @param baseUrl The base URL for the message endpoint, used to construct the full
+	 * endpoint URL for clients.
+	 * @param messageEndpoint The endpoint URI where clients should send their JSON-RPC
+	 * messages via HTTP POST. This endpoint will be communicated to clients through the
+	 * SSE connection's initial endpoint event.
+	 * @param sseEndpoint The endpoint URI where clients establish their SSE connections.
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes.
+	 * @throws IllegalArgumentException if any parameter is null
+	 */
+	public WebMvcSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, sessionRegistry,
+				SessionIdGenerator.defaultGenerator());
+	}
+
+	/**
+	 * Constructs a new WebMvcSseServerTransportProvider instance that keeps its sessions
+	 * in the given registry and identifies them with the given generator.
+	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
+	 * of messages.
+	 * @param baseUrl The base URL for the message endpoint, used to construct the full
+	 * endpoint URL for clients.
+	 * @param messageEndpoint The endpoint URI where clients should send their JSON-RPC
+	 * messages via HTTP POST. This endpoint will be communicated to clients through the
+	 * SSE connection's initial endpoint event.
+	 * @param sseEndpoint The endpoint URI where clients establish their SSE connections.
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes.
+	 * @param sessionIdGenerator The generator for the IDs of new sessions.
+	 * @throws IllegalArgumentException if any parameter is null
+	 */
+	public WebMvcSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry, SessionIdGenerator sessionIdGenerator) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, sessionRegistry, sessionIdGenerator, List.of());
+	}
+
+	/**
+	 * Constructs a new WebMvcSseServerTransportProvider instance that accepts messages
+	 * posted with the given codecs in addition to JSON.
+	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
+	 * of messages.
+	 * @param baseUrl The base URL for the message endpoint, used to construct the full
+	 * endpoint URL for clients.
+	 * @param messageEndpoint The endpoint URI where clients should send their JSON-RPC
+	 * messages via HTTP POST. This endpoint will be communicated to clients through the
+	 * SSE connection's initial endpoint event.
+	 * @param sseEndpoint The endpoint URI where clients establish their SSE connections.
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes.
+	 * @param sessionIdGenerator The generator for the IDs of new sessions.
+	 * @param codecs The codecs clients may post messages with instead of JSON.
+	 * @throws IllegalArgumentException if any parameter is null
+	 */
+	public WebMvcSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry, SessionIdGenerator sessionIdGenerator,
+			List<McpCodec> codecs) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, sessionRegistry, sessionIdGenerator, codecs, false,
+				DEFAULT_MAX_INFLATED_MESSAGE_SIZE);
+	}
+
+	/**
+	 * Constructs a new WebMvcSseServerTransportProvider instance that accepts messages
+	 * posted with the given codecs in addition to JSON, and optionally compresses SSE
+	 * streams and accepts compressed message bodies.
+	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
+	 * of messages.
+	 * @param baseUrl The base URL for the message endpoint, used to construct the full
+	 * endpoint URL for clients.
+	 * @param messageEndpoint The endpoint URI where clients should send their JSON-RPC
+	 * messages via HTTP POST. This endpoint will be communicated to clients through the
+	 * SSE connection's initial endpoint event.
+	 * @param sseEndpoint The endpoint URI where clients establish their SSE connections.
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes.
+	 * @param sessionIdGenerator The generator for the IDs of new sessions.
+	 * @param codecs The codecs clients may post messages with instead of JSON.
+	 * @param compression Whether SSE streams are compressed for clients that accept gzip
+	 * or deflate, and gzip or deflate compressed message bodies are accepted.
+	 * @param maxInflatedMessageSize The limit of the inflated size of compressed message
+	 * bodies. Must be positive.
+	 * @throws IllegalArgumentException if any parameter is null
+	 */
+	public WebMvcSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry, SessionIdGenerator sessionIdGenerator,
+			List<McpCodec> codecs, boolean compression, long maxInflatedMessageSize) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		Assert.notNull(baseUrl, "Message base URL must not be null");
 		Assert.notNull(messageEndpoint, "Message endpoint must not be null");
 		Assert.notNull(sseEndpoint, "SSE endpoint must not be null");
-
-		this.objectMapper = objectMapper;
+		Assert.notNull(sessionRegistry, "Session registry must not be null");
+		Assert.notNull(sessionIdGenerator, "Session ID generator must not be null");
+		Assert.notNull(codecs, "Codecs must not be null");
+		Assert.isTrue(maxInflatedMessageSize > 0, "Max inflated message size must be positive");
+
+		this.jsonCodec = McpCodec.json(objectMapper);
+		this.codecs = new LinkedHashMap<>();
+		for (McpCodec codec : codecs) {
+			this.codecs.put(codec.getContentType().toLowerCase(Locale.ROOT), codec);
+		}
 		this.baseUrl = baseUrl;
 		this.messageEndpoint = messageEndpoint;
 		this.sseEndpoint = sseEndpoint;
+		this.sessions = sessionRegistry;
+		this.sessionIdGenerator = sessionIdGenerator;
+		this.compression = compression;
+		this.maxInflatedMessageSize = maxInflatedMessageSize;
 		this.routerFunction = RouterFunctions.route()
 			.GET(this.sseEndpoint, this::handleSseConnection)
 			.POST(this.messageEndpoint, this::handleMessage)
@@ -169,6 +321,15 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 		this.sessionFactory = sessionFactory;
 	}
 
+	/**
+	 * Returns the sessions connected to this node.
+	 * @return the sessions registered in the {@link SessionRegistry}
+	 */
+	@Override
+	public Collection<McpServerSession> getSessions() {
+		return this.sessions.getSessions();
+	}
+
 	/**
 	 * Broadcasts a notification to all connected clients through their SSE connections.
 	 * The message is serialized to JSON and sent as an SSE event with type "message". If
@@ -180,14 +341,15 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 	 */
 	@Override
 	public Mono<Void> notifyClients(String method, Object params) {
-		if (sessions.isEmpty()) {
+		Collection<McpServerSession> activeSessions = sessions.getSessions();
+		if (activeSessions.isEmpty()) {
 			logger.debug("No active sessions to broadcast message to");
 			return Mono.empty();
 		}
 
-		logger.debug("Attempting to broadcast message to {} active sessions", sessions.size());
+		logger.debug("Attempting to broadcast message to {} active sessions", activeSessions.size());
 
-		return Flux.fromIterable(sessions.values())
+		return Flux.fromIterable(activeSessions)
 			.flatMap(session -> session.sendNotification(method, params)
 				.doOnError(
 						e -> logger.error("Failed to send message to session {}: {}", session.getId(), e.getMessage()))
@@ -206,9 +368,11 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 	 */
 	@Override
 	public Mono<Void> closeGracefully() {
-		return Flux.fromIterable(sessions.values()).doFirst(() -> {
+		return Flux.defer(() -> {
 			this.isClosing = true;
-			logger.debug("Initiating graceful shutdown with {} active sessions", sessions.size());
+			Collection<McpServerSession> activeSessions = sessions.getSessions();
+			logger.debug("Initiating graceful shutdown with {} active sessions", activeSessions.size());
+			return Flux.fromIterable(activeSessions);
 		})
 			.flatMap(McpServerSession::closeGracefully)
 			.then()
@@ -247,24 +411,32 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 			return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).body("Server is shutting down");
 		}
 
-		String sessionId = UUID.randomUUID().toString();
+		String sessionId = this.sessionIdGenerator.generate();
 		logger.debug("Creating new SSE connection for session: {}", sessionId);
 
+		String encoding = this.compression
+				? ContentEncodings.acceptedEncoding(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING)) : null;
+		CompressedSseResponse compressed = (encoding != null) ? new CompressedSseResponse(encoding) : null;
+
 		// Send initial endpoint event
 		try {
-			return ServerResponse.sse(sseBuilder -> {
+			ServerResponse response = ServerResponse.sse(sseBuilder -> {
 				sseBuilder.onComplete(() -> {
 					logger.debug("SSE connection completed for session: {}", sessionId);
-					sessions.remove(sessionId);
+					sessions.unregister(sessionId);
+					if (compressed != null) {
+						compressed.finish();
+					}
 				});
 				sseBuilder.onTimeout(() -> {
 					logger.debug("SSE connection timed out for session: {}", sessionId);
-					sessions.remove(sessionId);
+					sessions.unregister(sessionId);
 				});
 
-				WebMvcMcpSessionTransport sessionTransport = new WebMvcMcpSessionTransport(sessionId, sseBuilder);
+				WebMvcMcpSessionTransport sessionTransport = new WebMvcMcpSessionTransport(sessionId, sseBuilder,
+						compressed);
 				McpServerSession session = sessionFactory.create(sessionTransport);
-				this.sessions.put(sessionId, session);
+				this.sessions.register(sessionId, session);
 
 				try {
 					sseBuilder.id(sessionId)
@@ -276,10 +448,11 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 					sseBuilder.error(e);
 				}
 			}, Duration.ZERO);
+			return (compressed != null) ? compressed.of(response) : response;
 		}
 		catch (Exception e) {
 			logger.error("Failed to send initial endpoint event to session {}: {}", sessionId, e.getMessage());
-			sessions.remove(sessionId);
+			sessions.unregister(sessionId);
 			return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
 		}
 	}
@@ -288,7 +461,8 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 	 * Handles incoming JSON-RPC messages from clients. This method:
 	 * <ul>
 	 * <li>Deserializes the request body into a JSON-RPC message</li>
-	 * <li>Processes the message through the session's handle method</li>
+	 * <li>Processes the message through the session's handle method, or forwards it to
+	 * the node owning the session</li>
 	 * <li>Returns appropriate HTTP responses based on the processing result</li>
 	 * </ul>
 	 * @param request The incoming server request containing the JSON-RPC message
@@ -305,15 +479,35 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 		}
 
 		String sessionId = request.param("sessionId").get();
-		McpServerSession session = sessions.get(sessionId);
+		McpServerSession session = sessions.getSession(sessionId);
+
+		String encoding = request.headers().firstHeader(HttpHeaders.CONTENT_ENCODING);
+		if (!ContentEncodings.isSupported(encoding, this.compression)) {
+			return ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+				.body(new McpError("Unsupported content encoding: " + encoding));
+		}
 
-		if (session == null) {
-			return ServerResponse.status(HttpStatus.NOT_FOUND).body(new McpError("Session not found: " + sessionId));
+		McpCodec codec = codecFor(request);
+		if (codec == null) {
+			return ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+				.body(new McpError("Unsupported content type: " + request.headers().contentType().get()));
 		}
 
 		try {
-			String body = request.body(String.class);
-			JSONRPCMessage message = McpSchema.deserializeJsonRpcMessage(objectMapper, body);
+			byte[] body = request.body(byte[].class);
+			JSONRPCMessage message = ContentEncodings.isCompressed(encoding) ? codec
+				.decode(ContentEncodings.inflate(new ByteArrayInputStream(body), encoding, this.maxInflatedMessageSize))
+					: codec.decode(body);
+
+			if (session == null) {
+				// Answered asynchronously so that the servlet thread is not held
+				// meanwhile
+				return ServerResponse.async(sessions.forward(sessionId, message)
+					.defaultIfEmpty(false)
+					.map(forwarded -> forwarded ? ServerResponse.accepted().build()
+							: ServerResponse.status(HttpStatus.NOT_FOUND)
+								.body(new McpError("Session not found: " + sessionId))));
+			}
 
 			// Process the message through the session's handle method
 			session.handle(message).block(); // Block for WebMVC compatibility
@@ -321,6 +515,10 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 			return ServerResponse.ok().build();
 		}
 		catch (IllegalArgumentException | IOException e) {
+			if (ContentEncodings.isTooLarge(e)) {
+				return ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE)
+					.body(new McpError("Message exceeds " + this.maxInflatedMessageSize + " bytes once inflated"));
+			}
 			logger.error("Failed to deserialize message: {}", e.getMessage());
 			return ServerResponse.badRequest().body(new McpError("Invalid message format"));
 		}
@@ -330,6 +528,24 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 		}
 	}
 
+	/**
+	 * Returns the codec of a posted message, or {@code null} if its content type is not
+	 * supported. Messages without a content type are read as JSON.
+	 */
+	private McpCodec codecFor(ServerRequest request) {
+		Optional<MediaType> contentType = request.headers().contentType();
+		if (contentType.isEmpty()) {
+			return this.jsonCodec;
+		}
+		String mediaType = (contentType.get().getType() + "/" + contentType.get().getSubtype())
+			.toLowerCase(Locale.ROOT);
+		McpCodec codec = this.codecs.get(mediaType);
+		if (codec != null) {
+			return codec;
+		}
+		return McpCodec.isJson(mediaType) ? this.jsonCodec : null;
+	}
+
 	/**
 	 * Implementation of McpServerTransport for WebMVC SSE sessions. This class handles
 	 * the transport-level communication for a specific client session.
@@ -340,14 +556,19 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 
 		private final SseBuilder sseBuilder;
 
+		private final CompressedSseResponse compressed;
+
 		/**
 		 * Creates a new session transport with the specified ID and SSE builder.
 		 * @param sessionId The unique identifier for this session
 		 * @param sseBuilder The SSE builder for sending server events to the client
+		 * @param compressed The compressed response the events are written to, or
+		 * {@code null} if the SSE stream is not compressed
 		 */
-		WebMvcMcpSessionTransport(String sessionId, SseBuilder sseBuilder) {
+		WebMvcMcpSessionTransport(String sessionId, SseBuilder sseBuilder, CompressedSseResponse compressed) {
 			this.sessionId = sessionId;
 			this.sseBuilder = sseBuilder;
+			this.compressed = compressed;
 			logger.debug("Session transport {} initialized with SSE builder", sessionId);
 		}
 
@@ -360,7 +581,7 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 		public Mono<Void> sendMessage(JSONRPCMessage message) {
 			return Mono.fromRunnable(() -> {
 				try {
-					String jsonText = objectMapper.writeValueAsString(message);
+					String jsonText = jsonCodec.encodeToText(message);
 					sseBuilder.id(sessionId).event(MESSAGE_EVENT_TYPE).data(jsonText);
 					logger.debug("Message sent to session {}", sessionId);
 				}
@@ -380,7 +601,7 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 		 */
 		@Override
 		public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
-			return objectMapper.convertValue(data, typeRef);
+			return jsonCodec.convertValue(data, typeRef);
 		}
 
 		/**
@@ -392,6 +613,7 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 			return Mono.fromRunnable(() -> {
 				logger.debug("Closing session transport: {}", sessionId);
 				try {
+					finishStream();
 					sseBuilder.complete();
 					logger.debug("Successfully completed SSE builder for session {}", sessionId);
 				}
@@ -401,12 +623,22 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 			});
 		}
 
+		/**
+		 * Writes the trailer of a compressed SSE stream.
+		 */
+		private void finishStream() {
+			if (this.compressed != null) {
+				this.compressed.finish();
+			}
+		}
+
 		/**
 		 * Closes the transport immediately.
 		 */
 		@Override
 		public void close() {
 			try {
+				finishStream();
 				sseBuilder.complete();
 				logger.debug("Successfully completed SSE builder for session {}", sessionId);
 			}
@@ -417,4 +649,327 @@ public class WebMvcSseServerTransportProvider implements McpServerTransportProvi
 
 	}
 
+	/**
+	 * SSE response compressed with gzip or deflate. The events written by the
+	 * {@link SseBuilder} are sync flushed through the compressor, so that each event
+	 * reaches the client as soon as it is sent instead of when the deflater's buffer
+	 * fills up.
+	 */
+	private static final class CompressedSseResponse implements ServerResponse {
+
+		private final String encoding;
+
+		private ServerResponse delegate;
+
+		private CompressingOutputStream out;
+
+		CompressedSseResponse(String encoding) {
+			this.encoding = encoding;
+		}
+
+		/**
+		 * Compresses the given SSE response.
+		 */
+		ServerResponse of(ServerResponse delegate) {
+			this.delegate = delegate;
+			return this;
+		}
+
+		@Override
+		public HttpStatus statusCode() {
+			return this.delegate.statusCode();
+		}
+
+		@Override
+		public int rawStatusCode() {
+			return this.delegate.rawStatusCode();
+		}
+
+		@Override
+		public HttpHeaders headers() {
+			return this.delegate.headers();
+		}
+
+		@Override
+		public MultiValueMap<String, Cookie> cookies() {
+			return this.delegate.cookies();
+		}
+
+		@Override
+		public ModelAndView writeTo(HttpServletRequest request, HttpServletResponse response, Context context)
+				throws ServletException, IOException {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, this.encoding);
+			response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			CompressingOutputStream out = new CompressingOutputStream(response.getOutputStream(), this.encoding);
+			synchronized (this) {
+				this.out = out;
+			}
+			return this.delegate.writeTo(request, new HttpServletResponseWrapper(response) {
+
+				@Override
+				public ServletOutputStream getOutputStream() {
+					return out;
+				}
+
+				@Override
+				public void flushBuffer() throws IOException {
+					out.flush();
+					super.flushBuffer();
+				}
+
+			}, context);
+		}
+
+		/**
+		 * Writes the trailer of the compressed stream, once the last event was sent.
+		 */
+		void finish() {
+			CompressingOutputStream out;
+			synchronized (this) {
+				out = this.out;
+			}
+			if (out == null) {
+				return;
+			}
+			try {
+				out.close();
+			}
+			catch (IOException e) {
+				logger.debug("Failed to finish compressed SSE stream: {}", e.getMessage());
+			}
+		}
+
+	}
+
+	/**
+	 * Servlet output stream compressing into the output stream of the response.
+	 */
+	private static final class CompressingOutputStream extends ServletOutputStream {
+
+		private final ServletOutputStream target;
+
+		private final OutputStream compressor;
+
+		private boolean closed;
+
+		CompressingOutputStream(ServletOutputStream target, String encoding) throws IOException {
+			this.target = target;
+			this.compressor = ContentEncodings.compress(target, encoding);
+		}
+
+		@Override
+		public synchronized void write(int b) throws IOException {
+			this.compressor.write(b);
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) throws IOException {
+			this.compressor.write(b, off, len);
+		}
+
+		@Override
+		public synchronized void flush() throws IOException {
+			if (!this.closed) {
+				this.compressor.flush();
+			}
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				this.compressor.close();
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return this.target.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			this.target.setWriteListener(writeListener);
+		}
+
+	}
+
+	/**
+	 * Creates a new Builder instance for configuring and creating instances of
+	 * WebMvcSseServerTransportProvider.
+	 * @return A new Builder instance
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builder for creating instances of {@link WebMvcSseServerTransportProvider}.
+	 * <p>
+	 * This builder provides a fluent API for configuring and creating instances of
+	 * WebMvcSseServerTransportProvider with custom settings.
+	 */
+	public static class Builder {
+
+		private ObjectMapper objectMapper = new ObjectMapper();
+
+		private String baseUrl = "";
+
+		private String messageEndpoint;
+
+		private String sseEndpoint = DEFAULT_SSE_ENDPOINT;
+
+		private SessionRegistry sessionRegistry = new LocalSessionRegistry();
+
+		private SessionIdGenerator sessionIdGenerator = SessionIdGenerator.defaultGenerator();
+
+		private List<McpCodec> codecs = List.of();
+
+		private boolean compression;
+
+		private long maxInflatedMessageSize = DEFAULT_MAX_INFLATED_MESSAGE_SIZE;
+
+		/**
+		 * Sets the JSON object mapper to use for message serialization/deserialization.
+		 * @param objectMapper The object mapper to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if objectMapper is null
+		 */
+		public Builder objectMapper(ObjectMapper objectMapper) {
+			Assert.notNull(objectMapper, "ObjectMapper must not be null");
+			this.objectMapper = objectMapper;
+			return this;
+		}
+
+		/**
+		 * Sets the base URL for the message endpoint.
+		 * @param baseUrl The base URL to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if baseUrl is null
+		 */
+		public Builder baseUrl(String baseUrl) {
+			Assert.notNull(baseUrl, "Base URL must not be null");
+			this.baseUrl = baseUrl;
+			return this;
+		}
+
+		/**
+		 * Sets the endpoint URI where clients should send their JSON-RPC messages.
+		 * @param messageEndpoint The message endpoint URI. Must not be empty.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if messageEndpoint is empty
+		 */
+		public Builder messageEndpoint(String messageEndpoint) {
+			Assert.hasText(messageEndpoint, "Message endpoint must not be empty");
+			this.messageEndpoint = messageEndpoint;
+			return this;
+		}
+
+		/**
+		 * Sets the endpoint URI where clients establish their SSE connections.
+		 * <p>
+		 * If not specified, the default value of {@link #DEFAULT_SSE_ENDPOINT} will be
+		 * used.
+		 * @param sseEndpoint The SSE endpoint URI. Must not be empty.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if sseEndpoint is empty
+		 */
+		public Builder sseEndpoint(String sseEndpoint) {
+			Assert.hasText(sseEndpoint, "SSE endpoint must not be empty");
+			this.sseEndpoint = sseEndpoint;
+			return this;
+		}
+
+		/**
+		 * Sets the registry used to keep track of sessions. Several nodes sharing a
+		 * distributed registry can serve the message endpoint of any session without
+		 * sticky routing.
+		 * <p>
+		 * If not specified, a {@link LocalSessionRegistry} will be used.
+		 * @param sessionRegistry The session registry. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if sessionRegistry is null
+		 */
+		public Builder sessionRegistry(SessionRegistry sessionRegistry) {
+			Assert.notNull(sessionRegistry, "Session registry must not be null");
+			this.sessionRegistry = sessionRegistry;
+			return this;
+		}
+
+		/**
+		 * Sets the generator for the IDs of new sessions.
+		 * <p>
+		 * If not specified, {@link SessionIdGenerator#defaultGenerator()} will be used.
+		 * @param sessionIdGenerator The session ID generator. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if sessionIdGenerator is null
+		 */
+		public Builder sessionIdGenerator(SessionIdGenerator sessionIdGenerator) {
+			Assert.notNull(sessionIdGenerator, "Session ID generator must not be null");
+			this.sessionIdGenerator = sessionIdGenerator;
+			return this;
+		}
+
+		/**
+		 * Sets the codecs clients may post messages with instead of JSON, such as a
+		 * {@link io.modelcontextprotocol.spec.JacksonMcpCodec} for Smile or CBOR. JSON is
+		 * always supported, and is the only format of the SSE stream.
+		 * @param codecs The additional codecs. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if codecs is null
+		 */
+		public Builder codecs(McpCodec... codecs) {
+			Assert.notNull(codecs, "Codecs must not be null");
+			this.codecs = List.of(codecs);
+			return this;
+		}
+
+		/**
+		 * Sets whether SSE streams are compressed with gzip or deflate for clients that
+		 * accept it. Every event is flushed through the compressor, so compression does
+		 * not delay messages. Gzip or deflate compressed message bodies are only accepted
+		 * with compression enabled, and are rejected with 413 once their inflated size
+		 * exceeds the {@link #maxInflatedMessageSize(long) limit}.
+		 * <p>
+		 * Defaults to {@code false}.
+		 * @param compression Whether to compress SSE streams and accept compressed
+		 * message bodies
+		 * @return This builder instance for method chaining
+		 */
+		public Builder compression(boolean compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * Sets the limit of the inflated size of compressed message bodies, which guards
+		 * against bodies that inflate to far more than they take on the wire.
+		 * <p>
+		 * Defaults to {@link #DEFAULT_MAX_INFLATED_MESSAGE_SIZE}.
+		 * @param maxInflatedMessageSize The limit in bytes. Must be positive.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if maxInflatedMessageSize is not positive
+		 */
+		public Builder maxInflatedMessageSize(long maxInflatedMessageSize) {
+			Assert.isTrue(maxInflatedMessageSize > 0, "Max inflated message size must be positive");
+			this.maxInflatedMessageSize = maxInflatedMessageSize;
+			return this;
+		}
+
+		/**
+		 * Builds a new instance of {@link WebMvcSseServerTransportProvider} with the
+		 * configured settings.
+		 * @return A new WebMvcSseServerTransportProvider instance
+		 * @throws IllegalStateException if the message endpoint is not set
+		 */
+		public WebMvcSseServerTransportProvider build() {
+			if (messageEndpoint == null) {
+				throw new IllegalStateException("MessageEndpoint must be set");
+			}
+			return new WebMvcSseServerTransportProvider(objectMapper, baseUrl, messageEndpoint, sseEndpoint,
+					sessionRegistry, sessionIdGenerator, codecs, compression, maxInflatedMessageSize);
+		}
+
+	}
+
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024 - 2024 the original author or authors.
+ */
+package io.modelcontextprotocol.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.server.transport.WebMvcSseServerTransportProvider;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.apache.catalina.LifecycleException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the compression support of {@link WebMvcSseServerTransportProvider}.
+ */
+class WebMvcSseServerCompressionTests {
+
+	private static final int PORT = TestUtil.findAvailablePort();
+
+	private static final String MESSAGE_ENDPOINT = "/mcp/message";
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private TomcatTestUtil.TomcatServer tomcatServer;
+
+	private McpSyncServer server;
+
+	@BeforeEach
+	void before() {
+		this.tomcatServer = TomcatTestUtil.createTomcatServer("", PORT, TestConfig.class);
+		try {
+			this.tomcatServer.tomcat().start();
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Failed to start Tomcat", e);
+		}
+		this.server = McpServer.sync(this.tomcatServer.appContext().getBean(WebMvcSseServerTransportProvider.class))
+			.serverInfo("test-server", "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(true).build())
+			.tools(new McpServerFeatures.SyncToolSpecification(new Tool("echo", "Echoes", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> new CallToolResult(String.valueOf(arguments.get("text")), false)))
+			.build();
+	}
+
+	@AfterEach
+	void after() throws LifecycleException {
+		this.server.closeGracefully();
+		this.tomcatServer.appContext().close();
+		this.tomcatServer.tomcat().stop();
+		this.tomcatServer.tomcat().destroy();
+	}
+
+	@Test
+	void compressingClientTalksToServer() {
+		String text = "log line\n".repeat(1000);
+		HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder("http://localhost:" + PORT)
+			.compression(true)
+			.compressionThreshold(0)
+			.build();
+
+		try (McpSyncClient client = McpClient.sync(transport).build()) {
+			client.initialize();
+			CallToolResult result = client.callTool(new CallToolRequest("echo", Map.of("text", text)));
+			assertThat(((TextContent) result.getContent().get(0)).getText()).isEqualTo(text);
+		}
+	}
+
+	@Test
+	void eventsAreFlushedThroughGzip() throws Exception {
+		assertThat(firstEvent("gzip", in -> {
+			try {
+				return new GZIPInputStream(in);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		})).contains("event:endpoint");
+	}
+
+	@Test
+	void eventsAreFlushedThroughDeflate() throws Exception {
+		assertThat(firstEvent("deflate", InflaterInputStream::new)).contains("event:endpoint");
+	}
+
+	@Test
+	void bodiesInflatingBeyondTheLimitAreRejected() throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(" ".repeat(128 * 1024).getBytes(StandardCharsets.UTF_8));
+		}
+		HttpRequest request = HttpRequest
+			.newBuilder(URI.create("http://localhost:" + PORT + MESSAGE_ENDPOINT + "?sessionId=unknown"))
+			.header("Content-Type", "application/json")
+			.header("Content-Encoding", "gzip")
+			.POST(HttpRequest.BodyPublishers.ofByteArray(compressed.toByteArray()))
+			.build();
+
+		HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+		assertThat(response.statusCode()).isEqualTo(413);
+		assertThat(response.body()).contains("Message exceeds 65536 bytes once inflated");
+	}
+
+	@Test
+	void unsupportedEncodingsAreRejected() throws Exception {
+		HttpRequest request = HttpRequest
+			.newBuilder(URI.create("http://localhost:" + PORT + MESSAGE_ENDPOINT + "?sessionId=unknown"))
+			.header("Content-Type", "application/json")
+			.header("Content-Encoding", "br")
+			.POST(HttpRequest.BodyPublishers.ofString("{}"))
+			.build();
+
+		HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+		assertThat(response.statusCode()).isEqualTo(415);
+	}
+
+	/**
+	 * Opens an SSE stream accepting the given encoding, and reads its first event while
+	 * the stream stays open.
+	 */
+	private String firstEvent(String acceptEncoding, Function<InputStream, InputStream> decoder) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/sse"))
+			.header("Accept-Encoding", acceptEncoding)
+			.GET()
+			.build();
+		HttpResponse<InputStream> response = HttpClient.newHttpClient()
+			.send(request, HttpResponse.BodyHandlers.ofInputStream());
+		assertThat(response.headers().firstValue("Content-Encoding")).hasValue(acceptEncoding);
+		// Read byte by byte, as readers would wait for more than the first event
+		try (InputStream in = decoder.apply(response.body())) {
+			ByteArrayOutputStream event = new ByteArrayOutputStream();
+			int previous = -1;
+			for (int b = in.read(); b != -1 && !(b == '\n' && previous == '\n'); b = in.read()) {
+				event.write(b);
+				previous = b;
+			}
+			return event.toString(StandardCharsets.UTF_8);
+		}
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class TestConfig {
+
+		@Bean
+		public WebMvcSseServerTransportProvider webMvcSseServerTransportProvider() {
+			return WebMvcSseServerTransportProvider.builder()
+				.objectMapper(new ObjectMapper())
+				.messageEndpoint(MESSAGE_ENDPOINT)
+				.compression(true)
+				.maxInflatedMessageSize(64 * 1024)
+				.build();
+		}
+
+		@Bean
+		public RouterFunction<ServerResponse> routerFunction(WebMvcSseServerTransportProvider transportProvider) {
+			return transportProvider.getRouterFunction();
+		}
+
+	}
+
+}
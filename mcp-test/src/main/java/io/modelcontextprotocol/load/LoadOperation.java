@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.load;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.spec.prompt.GetPromptRequest;
+import io.modelcontextprotocol.spec.resource.ReadResourceRequest;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * A named call issued by the {@link McpLoadHarness} through one of its clients. The
+ * latencies of the operation are reported under its name.
+ */
+public final class LoadOperation {
+
+	private final String name;
+
+	private final Function<McpAsyncClient, Mono<?>> call;
+
+	/**
+	 * Creates an operation.
+	 * @param name the name the operation is reported under
+	 * @param call issues the operation through the given client
+	 */
+	public LoadOperation(String name, Function<McpAsyncClient, Mono<?>> call) {
+		Assert.hasText(name, "Name must not be empty");
+		Assert.notNull(call, "Call must not be null");
+		this.name = name;
+		this.call = call;
+	}
+
+	/**
+	 * Calls a tool.
+	 * @param toolName the name of the tool
+	 * @param arguments the call arguments
+	 * @return the operation
+	 */
+	public static LoadOperation callTool(String toolName, Map<String, Object> arguments) {
+		CallToolRequest request = new CallToolRequest(toolName, arguments);
+		return new LoadOperation("tools/call " + toolName, client -> client.callTool(request));
+	}
+
+	/**
+	 * Reads a resource.
+	 * @param uri the URI of the resource
+	 * @return the operation
+	 */
+	public static LoadOperation readResource(String uri) {
+		ReadResourceRequest request = new ReadResourceRequest(uri);
+		return new LoadOperation("resources/read " + uri, client -> client.readResource(request));
+	}
+
+	/**
+	 * Gets a prompt.
+	 * @param promptName the name of the prompt
+	 * @param arguments the prompt arguments
+	 * @return the operation
+	 */
+	public static LoadOperation getPrompt(String promptName, Map<String, Object> arguments) {
+		GetPromptRequest request = new GetPromptRequest(promptName, arguments);
+		return new LoadOperation("prompts/get " + promptName, client -> client.getPrompt(request));
+	}
+
+	/**
+	 * Lists the first page of tools.
+	 * @return the operation
+	 */
+	public static LoadOperation listTools() {
+		return new LoadOperation("tools/list", McpAsyncClient::listTools);
+	}
+
+	/**
+	 * Lists the first page of resources.
+	 * @return the operation
+	 */
+	public static LoadOperation listResources() {
+		return new LoadOperation("resources/list", McpAsyncClient::listResources);
+	}
+
+	/**
+	 * Lists the first page of prompts.
+	 * @return the operation
+	 */
+	public static LoadOperation listPrompts() {
+		return new LoadOperation("prompts/list", McpAsyncClient::listPrompts);
+	}
+
+	/**
+	 * Pings the server.
+	 * @return the operation
+	 */
+	public static LoadOperation ping() {
+		return new LoadOperation("ping", McpAsyncClient::ping);
+	}
+
+	/**
+	 * Sends a roots list changed notification, whose latency is the time to send it. The
+	 * harness clients declare the roots capability so that the server may list the roots
+	 * in turn.
+	 * @return the operation
+	 */
+	public static LoadOperation rootsListChanged() {
+		return new LoadOperation("notifications/roots/list_changed", McpAsyncClient::rootsListChangedNotification);
+	}
+
+	/**
+	 * Returns the name the operation is reported under.
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	Mono<?> call(McpAsyncClient client) {
+		return this.call.apply(client);
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.load;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import io.modelcontextprotocol.observation.LatencyHistogram;
+
+/**
+ * Outcome of a {@link McpLoadHarness} run: throughput and latency percentiles for each
+ * operation and for all of them together.
+ *
+ * <p>
+ * Latencies are measured from the time an operation was scheduled to start rather than
+ * from the time it was actually issued, so that stalls of the server or of the harness
+ * show in the percentiles instead of silently lowering the request rate.
+ */
+public final class LoadReport {
+
+	private final Duration duration;
+
+	private final double targetRate;
+
+	private final long dropped;
+
+	private final OperationStats total;
+
+	private final List<OperationStats> operations;
+
+	LoadReport(Duration duration, double targetRate, long dropped, OperationStats total,
+			List<OperationStats> operations) {
+		this.duration = duration;
+		this.targetRate = targetRate;
+		this.dropped = dropped;
+		this.total = total;
+		this.operations = Collections.unmodifiableList(operations);
+	}
+
+	/**
+	 * Returns the length of the measured phase.
+	 * @return the duration
+	 */
+	public Duration getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Returns the rate at which operations were scheduled.
+	 * @return the rate in operations per second
+	 */
+	public double getTargetRate() {
+		return this.targetRate;
+	}
+
+	/**
+	 * Returns the number of operations that were not issued because too many were in
+	 * flight.
+	 * @return the dropped operations
+	 */
+	public long getDropped() {
+		return this.dropped;
+	}
+
+	/**
+	 * Returns the statistics of all operations together.
+	 * @return the statistics
+	 */
+	public OperationStats getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * Returns the statistics of each operation of the mix.
+	 * @return the statistics, in the order the operations were added
+	 */
+	public List<OperationStats> getOperations() {
+		return this.operations;
+	}
+
+	/**
+	 * Returns the statistics of an operation.
+	 * @param name the name of the operation
+	 * @return the statistics, or {@code null} if the mix has no such operation
+	 */
+	public OperationStats getOperation(String name) {
+		return this.operations.stream().filter(stats -> stats.getName().equals(name)).findFirst().orElse(null);
+	}
+
+	/**
+	 * Returns the rate at which operations completed successfully.
+	 * @return the throughput in operations per second
+	 */
+	public double getThroughput() {
+		return this.total.getThroughput();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format(Locale.ROOT, "target %.1f ops/s for %d ms, dropped %d%n", this.targetRate,
+				this.duration.toMillis(), this.dropped));
+		report.append(String.format(Locale.ROOT, "%-40s %9s %7s %10s %9s %9s %9s %9s %9s%n", "operation", "count",
+				"errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+		for (OperationStats stats : this.operations) {
+			report.append(stats.format());
+		}
+		report.append(this.total.format());
+		return report.toString();
+	}
+
+	/**
+	 * Counters and latency percentiles of one operation. Percentiles are upper bounds
+	 * with a relative error of at most 12.5%.
+	 */
+	public static final class OperationStats {
+
+		private final String name;
+
+		private final long count;
+
+		private final long errors;
+
+		private final double throughput;
+
+		private final LatencyHistogram histogram;
+
+		OperationStats(String name, long errors, LatencyHistogram histogram, Duration duration) {
+			this.name = name;
+			this.count = histogram.getCount();
+			this.errors = errors;
+			double seconds = Math.max(duration.toNanos(), 1) / 1e9;
+			this.throughput = (this.count - this.errors) / seconds;
+			this.histogram = histogram;
+		}
+
+		/**
+		 * Returns the name of the operation.
+		 * @return the name
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Returns the number of completed operations, successful or not.
+		 * @return the count
+		 */
+		public long getCount() {
+			return this.count;
+		}
+
+		/**
+		 * Returns the number of operations that failed or did not complete in time.
+		 * @return the error count
+		 */
+		public long getErrors() {
+			return this.errors;
+		}
+
+		/**
+		 * Returns the rate at which the operation completed successfully.
+		 * @return the throughput in operations per second
+		 */
+		public double getThroughput() {
+			return this.throughput;
+		}
+
+		/**
+		 * Returns the latency below which the given share of operations completed.
+		 * @param percentile the share, between 0 and 1, for example 0.99
+		 * @return the latency
+		 */
+		public Duration getLatency(double percentile) {
+			return Duration.ofNanos(this.histogram.getValueAtPercentile(percentile));
+		}
+
+		/**
+		 * Returns the largest latency.
+		 * @return the maximum
+		 */
+		public Duration getMaxLatency() {
+			return Duration.ofNanos(this.histogram.getMax());
+		}
+
+		/**
+		 * Returns the mean latency.
+		 * @return the mean
+		 */
+		public Duration getMeanLatency() {
+			return Duration.ofNanos((this.count == 0) ? 0 : this.histogram.getTotal() / this.count);
+		}
+
+		private String format() {
+			return String.format(Locale.ROOT, "%-40s %9d %7d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f%n", this.name,
+					this.count, this.errors, this.throughput, millis(0.5), millis(0.9), millis(0.99), millis(0.999),
+					millis(1));
+		}
+
+		private double millis(double percentile) {
+			return this.histogram.getValueAtPercentile(percentile) / 1e6;
+		}
+
+	}
+
+}
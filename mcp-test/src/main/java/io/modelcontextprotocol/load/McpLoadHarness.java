@@ -0,0 +1,425 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.observation.LatencyHistogram;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.initialization.ClientCapabilities;
+import io.modelcontextprotocol.spec.initialization.Implementation;
+import io.modelcontextprotocol.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Generates load against an MCP server through a number of simulated
+ * {@link McpAsyncClient}s, and reports the throughput and latency percentiles of each
+ * kind of call.
+ *
+ * <p>
+ * Operations are scheduled open loop: they start at a constant rate whether or not the
+ * previous ones have completed, and the latency of each is measured from its scheduled
+ * start. A slow server therefore shows as growing latencies, as it would to independent
+ * users, rather than as a lower request rate hidden by the harness waiting on it. Each
+ * operation is drawn at random from a weighted mix, and sent through the clients in turn:
+ *
+ * <pre>{@code
+ * InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+ * McpAsyncServer server = McpServer.async(transportProvider).tools(...).build();
+ *
+ * LoadReport report = McpLoadHarness.builder(transportProvider::createClientTransport)
+ *     .clients(50)
+ *     .rate(2000)
+ *     .warmup(Duration.ofSeconds(5))
+ *     .duration(Duration.ofSeconds(30))
+ *     .operation(LoadOperation.callTool("echo", Map.of("text", "hello")), 6)
+ *     .operation(LoadOperation.readResource("test://resource"), 3)
+ *     .operation(LoadOperation.listTools(), 1)
+ *     .build()
+ *     .run();
+ * }</pre>
+ *
+ * Any server transport can be measured by supplying client transports that connect to it,
+ * for example HTTP SSE client transports for a servlet server.
+ */
+public final class McpLoadHarness {
+
+	private static final Logger logger = LoggerFactory.getLogger(McpLoadHarness.class);
+
+	private final Supplier<McpClientTransport> transportSupplier;
+
+	private final int clients;
+
+	private final double rate;
+
+	private final Duration warmup;
+
+	private final Duration duration;
+
+	private final Duration requestTimeout;
+
+	private final int maxInFlight;
+
+	private final Scheduler scheduler;
+
+	private final List<LoadOperation> operations;
+
+	private final int[] cumulativeWeights;
+
+	private final Consumer<McpClient.AsyncSpec> clientCustomizer;
+
+	private McpLoadHarness(Builder builder) {
+		this.transportSupplier = builder.transportSupplier;
+		this.clients = builder.clients;
+		this.rate = builder.rate;
+		this.warmup = builder.warmup;
+		this.duration = builder.duration;
+		this.requestTimeout = builder.requestTimeout;
+		this.maxInFlight = builder.maxInFlight;
+		this.scheduler = builder.scheduler;
+		this.operations = List.copyOf(builder.operations);
+		this.cumulativeWeights = new int[builder.weights.size()];
+		int sum = 0;
+		for (int i = 0; i < this.cumulativeWeights.length; i++) {
+			sum += builder.weights.get(i);
+			this.cumulativeWeights[i] = sum;
+		}
+		this.clientCustomizer = builder.clientCustomizer;
+	}
+
+	/**
+	 * Creates a builder for a harness whose clients connect through the transports
+	 * returned by the given supplier.
+	 * @param transportSupplier returns a new, unconnected client transport on each call
+	 * @return a new builder
+	 */
+	public static Builder builder(Supplier<McpClientTransport> transportSupplier) {
+		return new Builder(transportSupplier);
+	}
+
+	/**
+	 * Connects and initializes the clients, generates the load through the warmup and
+	 * measured phases, and closes the clients. Blocks until done.
+	 * @return the report of the measured phase
+	 */
+	public LoadReport run() {
+		List<McpAsyncClient> connected = connect();
+		try {
+			return generate(connected);
+		}
+		finally {
+			close(connected);
+		}
+	}
+
+	private List<McpAsyncClient> connect() {
+		List<McpAsyncClient> connected = new ArrayList<>(this.clients);
+		try {
+			for (int i = 0; i < this.clients; i++) {
+				McpClient.AsyncSpec spec = McpClient.async(this.transportSupplier.get())
+					.requestTimeout(this.requestTimeout)
+					.clientInfo(new Implementation("mcp-load-client-" + i, "1.0.0"))
+					.capabilities(ClientCapabilities.builder().roots(true).build());
+				this.clientCustomizer.accept(spec);
+				connected.add(spec.build());
+			}
+			Flux.fromIterable(connected).flatMap(McpAsyncClient::initialize).then().block(this.requestTimeout);
+		}
+		catch (RuntimeException e) {
+			// Don't leave the clients that did connect, and their transports, behind
+			close(connected);
+			throw e;
+		}
+		return connected;
+	}
+
+	private void close(List<McpAsyncClient> connected) {
+		Flux.fromIterable(connected)
+			.flatMap(client -> client.closeGracefully().onErrorComplete())
+			.then()
+			.block(this.requestTimeout);
+	}
+
+	private LoadReport generate(List<McpAsyncClient> connected) {
+		Recorder[] recorders = new Recorder[this.operations.size()];
+		for (int i = 0; i < recorders.length; i++) {
+			recorders[i] = new Recorder();
+		}
+		Recorder total = new Recorder();
+		AtomicInteger inFlight = new AtomicInteger();
+		LongAdder dropped = new LongAdder();
+		// Cancels the operations still in flight once the harness stops waiting for them
+		Sinks.One<Boolean> stop = Sinks.one();
+
+		long interval = Math.max(1, (long) (1_000_000_000L / this.rate));
+		long start = System.nanoTime();
+		long measureStart = start + this.warmup.toNanos();
+		long end = measureStart + this.duration.toNanos();
+
+		for (long i = 0;; i++) {
+			long scheduled = start + i * interval;
+			if (scheduled - end >= 0) {
+				break;
+			}
+			long wait;
+			while ((wait = scheduled - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			boolean measured = scheduled - measureStart >= 0;
+			if (inFlight.get() >= this.maxInFlight) {
+				if (measured) {
+					dropped.increment();
+				}
+				continue;
+			}
+
+			int index = pick();
+			McpAsyncClient client = connected.get((int) (i % connected.size()));
+			inFlight.incrementAndGet();
+			this.operations.get(index)
+				.call(client)
+				.subscribeOn(this.scheduler)
+				.timeout(stop.asMono())
+				.subscribe(null, error -> {
+					if (measured) {
+						recorders[index].record(scheduled, false);
+						total.record(scheduled, false);
+					}
+					inFlight.decrementAndGet();
+				}, () -> {
+					if (measured) {
+						recorders[index].record(scheduled, true);
+						total.record(scheduled, true);
+					}
+					inFlight.decrementAndGet();
+				});
+		}
+
+		long deadline = System.nanoTime() + this.requestTimeout.toNanos();
+		while (inFlight.get() > 0 && deadline - System.nanoTime() > 0) {
+			LockSupport.parkNanos(1_000_000L);
+		}
+		if (inFlight.get() > 0) {
+			logger.warn("{} operations still in flight after {} ms are counted as errors", inFlight.get(),
+					this.requestTimeout.toMillis());
+			stop.tryEmitValue(true);
+			while (inFlight.get() > 0) {
+				LockSupport.parkNanos(1_000_000L);
+			}
+		}
+
+		List<LoadReport.OperationStats> stats = new ArrayList<>(recorders.length);
+		for (int i = 0; i < recorders.length; i++) {
+			stats.add(recorders[i].stats(this.operations.get(i).getName(), this.duration));
+		}
+		return new LoadReport(this.duration, this.rate, dropped.sum(), total.stats("total", this.duration), stats);
+	}
+
+	private int pick() {
+		int weight = ThreadLocalRandom.current().nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+		for (int i = 0; i < this.cumulativeWeights.length; i++) {
+			if (weight < this.cumulativeWeights[i]) {
+				return i;
+			}
+		}
+		return this.cumulativeWeights.length - 1;
+	}
+
+	/**
+	 * Latencies and errors of the measured operations of one kind.
+	 */
+	private static final class Recorder {
+
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		private final LongAdder errors = new LongAdder();
+
+		void record(long scheduled, boolean success) {
+			this.histogram.record(System.nanoTime() - scheduled);
+			if (!success) {
+				this.errors.increment();
+			}
+		}
+
+		LoadReport.OperationStats stats(String name, Duration duration) {
+			return new LoadReport.OperationStats(name, this.errors.sum(), this.histogram, duration);
+		}
+
+	}
+
+	/**
+	 * Builder for {@link McpLoadHarness}.
+	 */
+	public static final class Builder {
+
+		private final Supplier<McpClientTransport> transportSupplier;
+
+		private int clients = 1;
+
+		private double rate = 100;
+
+		private Duration warmup = Duration.ZERO;
+
+		private Duration duration = Duration.ofSeconds(10);
+
+		private Duration requestTimeout = Duration.ofSeconds(10);
+
+		private int maxInFlight = 10_000;
+
+		private Scheduler scheduler = Schedulers.parallel();
+
+		private final List<LoadOperation> operations = new ArrayList<>();
+
+		private final List<Integer> weights = new ArrayList<>();
+
+		private Consumer<McpClient.AsyncSpec> clientCustomizer = spec -> {
+		};
+
+		private Builder(Supplier<McpClientTransport> transportSupplier) {
+			Assert.notNull(transportSupplier, "Transport supplier must not be null");
+			this.transportSupplier = transportSupplier;
+		}
+
+		/**
+		 * Sets the number of simulated clients, each with its own connection. Defaults to
+		 * 1.
+		 * @param clients the number of clients
+		 * @return this builder
+		 */
+		public Builder clients(int clients) {
+			Assert.isTrue(clients > 0, "Clients must be positive");
+			this.clients = clients;
+			return this;
+		}
+
+		/**
+		 * Sets the rate at which operations are started, across all clients. Defaults to
+		 * 100 per second.
+		 * @param operationsPerSecond the arrival rate
+		 * @return this builder
+		 */
+		public Builder rate(double operationsPerSecond) {
+			Assert.isTrue(operationsPerSecond > 0, "Rate must be positive");
+			this.rate = operationsPerSecond;
+			return this;
+		}
+
+		/**
+		 * Sets how long load is generated before measuring, to let the JIT compiler and
+		 * the connection pools settle. Defaults to none.
+		 * @param warmup the warmup duration
+		 * @return this builder
+		 */
+		public Builder warmup(Duration warmup) {
+			Assert.notNull(warmup, "Warmup must not be null");
+			Assert.isTrue(!warmup.isNegative(), "Warmup must not be negative");
+			this.warmup = warmup;
+			return this;
+		}
+
+		/**
+		 * Sets how long load is generated and measured after the warmup. Defaults to 10
+		 * seconds.
+		 * @param duration the measured duration
+		 * @return this builder
+		 */
+		public Builder duration(Duration duration) {
+			Assert.notNull(duration, "Duration must not be null");
+			Assert.isTrue(!duration.isNegative() && !duration.isZero(), "Duration must be positive");
+			this.duration = duration;
+			return this;
+		}
+
+		/**
+		 * Sets the request timeout of the clients, which is also how long the harness
+		 * waits for the last operations to complete. Defaults to 10 seconds.
+		 * @param requestTimeout the request timeout
+		 * @return this builder
+		 */
+		public Builder requestTimeout(Duration requestTimeout) {
+			Assert.notNull(requestTimeout, "Request timeout must not be null");
+			this.requestTimeout = requestTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets the number of operations in flight beyond which scheduled operations are
+		 * dropped and counted as such, to bound the memory of the harness when the server
+		 * cannot keep up. Defaults to 10000.
+		 * @param maxInFlight the maximum number of operations in flight
+		 * @return this builder
+		 */
+		public Builder maxInFlight(int maxInFlight) {
+			Assert.isTrue(maxInFlight > 0, "Max in flight must be positive");
+			this.maxInFlight = maxInFlight;
+			return this;
+		}
+
+		/**
+		 * Sets the scheduler operations are issued on, so that transports which handle
+		 * calls on the calling thread do not hold up the schedule. Defaults to
+		 * {@link Schedulers#parallel()}.
+		 * @param scheduler the scheduler
+		 * @return this builder
+		 */
+		public Builder scheduler(Scheduler scheduler) {
+			Assert.notNull(scheduler, "Scheduler must not be null");
+			this.scheduler = scheduler;
+			return this;
+		}
+
+		/**
+		 * Adds an operation to the mix.
+		 * @param operation the operation
+		 * @param weight the relative frequency of the operation in the mix
+		 * @return this builder
+		 */
+		public Builder operation(LoadOperation operation, int weight) {
+			Assert.notNull(operation, "Operation must not be null");
+			Assert.isTrue(weight > 0, "Weight must be positive");
+			this.operations.add(operation);
+			this.weights.add(weight);
+			return this;
+		}
+
+		/**
+		 * Customizes the clients before they are built, for example to set their
+		 * capabilities or observation handler.
+		 * @param clientCustomizer the customizer
+		 * @return this builder
+		 */
+		public Builder clientCustomizer(Consumer<McpClient.AsyncSpec> clientCustomizer) {
+			Assert.notNull(clientCustomizer, "Client customizer must not be null");
+			this.clientCustomizer = clientCustomizer;
+			return this;
+		}
+
+		/**
+		 * Builds the harness.
+		 * @return the harness
+		 */
+		public McpLoadHarness build() {
+			Assert.notEmpty(this.operations, "At least one operation must be added");
+			return new McpLoadHarness(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.load;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.ToolExecutionPolicy;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.resource.ReadResourceResult;
+import io.modelcontextprotocol.spec.resource.Resource;
+import io.modelcontextprotocol.spec.resource.TextResourceContents;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link McpLoadHarness}.
+ */
+class McpLoadHarnessTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private final InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+
+	private McpAsyncServer server;
+
+	@AfterEach
+	void after() {
+		if (this.server != null) {
+			this.server.close();
+		}
+	}
+
+	@Test
+	void mixIsIssuedAtTheTargetRate() {
+		this.server = McpServer.async(this.transportProvider)
+			.capabilities(ServerCapabilities.builder().tools(false).resources(false, false).build())
+			.tools(new McpServerFeatures.AsyncToolSpecification(new Tool("echo", "Echo", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> Mono.just(new CallToolResult("ok", false))))
+			.resources(new McpServerFeatures.AsyncResourceSpecification(
+					new Resource("test://resource", "resource", null, "text/plain", null),
+					(exchange,
+							request) -> Mono.just(new ReadResourceResult(
+									List.of(new TextResourceContents("test://resource", "text/plain", "content"))))))
+			.build();
+
+		LoadReport report = McpLoadHarness.builder(this.transportProvider::createClientTransport)
+			.clients(4)
+			.rate(500)
+			.warmup(Duration.ofMillis(200))
+			.duration(Duration.ofSeconds(1))
+			.operation(LoadOperation.callTool("echo", Map.of()), 2)
+			.operation(LoadOperation.readResource("test://resource"), 1)
+			.operation(LoadOperation.listTools(), 1)
+			.operation(LoadOperation.rootsListChanged(), 1)
+			.build()
+			.run();
+
+		assertThat(report.getTotal().getCount()).isBetween(450L, 550L);
+		assertThat(report.getTotal().getErrors()).isZero();
+		assertThat(report.getDropped()).isZero();
+		assertThat(report.getOperations()).extracting(LoadReport.OperationStats::getName)
+			.containsExactly("tools/call echo", "resources/read test://resource", "tools/list",
+					"notifications/roots/list_changed");
+		assertThat(report.getOperations()).allSatisfy(stats -> assertThat(stats.getCount()).isPositive());
+		assertThat(report.getOperation("tools/call echo").getCount())
+			.isGreaterThan(report.getOperation("tools/list").getCount());
+		assertThat(report.getThroughput()).isBetween(450.0, 550.0);
+		assertThat(report.toString()).contains("tools/call echo", "total");
+	}
+
+	@Test
+	void latencyIncludesTheTimeOperationsWaitedBehindASlowServer() {
+		// The tool serves 20 calls per second at most, half the arrival rate
+		this.server = McpServer.async(this.transportProvider)
+			.capabilities(ServerCapabilities.builder().tools(false).build())
+			.tools(new McpServerFeatures.AsyncToolSpecification(new Tool("slow", "Slow", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> Mono.delay(Duration.ofMillis(50))
+						.thenReturn(new CallToolResult("ok", false)),
+					ToolExecutionPolicy.builder().maxConcurrency(1).maxQueueSize(1000).build()))
+			.build();
+
+		LoadReport report = McpLoadHarness.builder(this.transportProvider::createClientTransport)
+			.rate(40)
+			.duration(Duration.ofSeconds(1))
+			.operation(LoadOperation.callTool("slow", Map.of()), 1)
+			.build()
+			.run();
+
+		LoadReport.OperationStats stats = report.getOperation("tools/call slow");
+		assertThat(stats.getErrors()).isZero();
+		assertThat(stats.getCount()).isBetween(35L, 45L);
+		// Later calls queue behind earlier ones instead of being issued late
+		assertThat(stats.getLatency(0.99)).isGreaterThan(Duration.ofMillis(500));
+		assertThat(stats.getLatency(0.5)).isLessThan(stats.getLatency(0.99));
+	}
+
+	@Test
+	void operationsAreRequired() {
+		assertThatThrownBy(() -> McpLoadHarness.builder(this.transportProvider::createClientTransport).build())
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("At least one operation must be added");
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import io.modelcontextprotocol.spec.McpError;
+import reactor.core.Exceptions;
+
+/**
+ * Outcome of one request of a bulk operation of the {@link McpSyncClient}: either its
+ * result or the error it failed with, so that one failed request does not hide the
+ * results of the others.
+ *
+ * @param <T> the type of the result
+ * @see McpSyncClient#callTools(java.util.List)
+ * @see McpSyncClient#readResources(java.util.List)
+ */
+public final class BulkResult<T> {
+
+	private final T result;
+
+	private final Throwable error;
+
+	private BulkResult(T result, Throwable error) {
+		this.result = result;
+		this.error = error;
+	}
+
+	static <T> BulkResult<T> success(T result) {
+		return new BulkResult<>(result, null);
+	}
+
+	static <T> BulkResult<T> failure(Throwable error) {
+		return new BulkResult<>(null, error);
+	}
+
+	/**
+	 * Tells whether the request succeeded.
+	 * @return true if the request returned a result
+	 */
+	public boolean isSuccess() {
+		return this.error == null;
+	}
+
+	/**
+	 * Returns the result of the request.
+	 * @return the result, or null if the request failed
+	 */
+	public T getResult() {
+		return this.result;
+	}
+
+	/**
+	 * Returns the error the request failed with, such as an {@link McpError} answered by
+	 * the server or a timeout.
+	 * @return the error, or null if the request succeeded
+	 */
+	public Throwable getError() {
+		return this.error;
+	}
+
+	/**
+	 * Returns the result of the request, or throws the error it failed with, as the
+	 * single request methods of the {@link McpSyncClient} do.
+	 * @return the result
+	 * @throws RuntimeException if the request failed, wrapping checked exceptions
+	 */
+	public T getOrThrow() {
+		if (this.error != null) {
+			throw Exceptions.propagate(this.error);
+		}
+		return this.result;
+	}
+
+	@Override
+	public String toString() {
+		return isSuccess() ? "BulkResult{result=" + this.result + '}' : "BulkResult{error=" + this.error + '}';
+	}
+
+}
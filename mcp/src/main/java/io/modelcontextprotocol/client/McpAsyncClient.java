@@ -10,10 +10,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import io.modelcontextprotocol.observation.McpObservationHandler;
 import io.modelcontextprotocol.spec.McpClientSession;
 import io.modelcontextprotocol.spec.McpClientSession.NotificationHandler;
 import io.modelcontextprotocol.spec.McpClientSession.RequestHandler;
@@ -105,7 +105,11 @@ public class McpAsyncClient {
 
 	protected final Sinks.One<InitializeResult> initializedSink = Sinks.one();
 
-	private AtomicBoolean initialized = new AtomicBoolean(false);
+	/**
+	 * The result of the initialization, set once the client is initialized so that
+	 * operations skip waiting on {@link #initializedSink}.
+	 */
+	private volatile InitializeResult initializeResult;
 
 	/**
 	 * The max timeout to await for the client-server connection to be initialized.
@@ -118,6 +122,16 @@ public class McpAsyncClient {
 	 */
 	private final McpClientSession mcpSession;
 
+	/**
+	 * Retries and hedging applied to the requests of some methods.
+	 */
+	private final RequestPolicies requestPolicies;
+
+	/**
+	 * Circuit breaker and concurrency limit protecting a degrading server.
+	 */
+	private final OverloadGuard overloadGuard;
+
 	/**
 	 * Client capabilities.
 	 */
@@ -161,6 +175,11 @@ public class McpAsyncClient {
 	 */
 	private Function<CreateMessageRequest, Mono<CreateMessageResult>> samplingHandler;
 
+	/**
+	 * Limits and queues the sampling requests, null to run the handler right away.
+	 */
+	private final SamplingExecutor samplingExecutor;
+
 	/**
 	 * Client transport implementation.
 	 */
@@ -178,9 +197,15 @@ public class McpAsyncClient {
 	 * @param requestTimeout the session request-response timeout.
 	 * @param initializationTimeout the max timeout to await for the client-server
 	 * @param features the MCP Client supported features.
+	 * @param observationHandler the handler observing the messages of the session.
+	 * @param requestPolicies the retries and hedging applied to the requests.
+	 * @param overloadGuard the circuit breaker and concurrency limit of the requests.
+	 * @param samplingExecutor the executor of the sampling requests, or null to run the
+	 * sampling handler right away.
 	 */
 	McpAsyncClient(McpClientTransport transport, Duration requestTimeout, Duration initializationTimeout,
-			McpClientFeatures.Async features) {
+			McpClientFeatures.Async features, McpObservationHandler observationHandler, RequestPolicies requestPolicies,
+			OverloadGuard overloadGuard, SamplingExecutor samplingExecutor) {
 
 		Assert.notNull(transport, "Transport must not be null");
 		Assert.notNull(requestTimeout, "Request timeout must not be null");
@@ -191,6 +216,9 @@ public class McpAsyncClient {
 		this.transport = transport;
 		this.roots = new ConcurrentHashMap<>(features.roots());
 		this.initializationTimeout = initializationTimeout;
+		this.requestPolicies = requestPolicies;
+		this.overloadGuard = overloadGuard;
+		this.samplingExecutor = samplingExecutor;
 
 		// Request Handlers
 		Map<String, RequestHandler<?>> requestHandlers = new HashMap<>();
@@ -254,7 +282,8 @@ public class McpAsyncClient {
 		notificationHandlers.put(McpSchema.METHOD_NOTIFICATION_MESSAGE,
 				asyncLoggingNotificationHandler(loggingConsumersFinal));
 
-		this.mcpSession = new McpClientSession(requestTimeout, transport, requestHandlers, notificationHandlers);
+		this.mcpSession = new McpClientSession(requestTimeout, transport, requestHandlers, notificationHandlers,
+				observationHandler);
 
 	}
 
@@ -288,7 +317,7 @@ public class McpAsyncClient {
 	 * @return true if the client-server connection is initialized
 	 */
 	public boolean isInitialized() {
-		return this.initialized.get();
+		return this.initializeResult != null;
 	}
 
 	/**
@@ -307,6 +336,14 @@ public class McpAsyncClient {
 		return this.clientInfo;
 	}
 
+	/**
+	 * Get a snapshot of the circuit breaker and concurrency limit of the client.
+	 * @return The overload metrics, all zero without an {@link OverloadPolicy}
+	 */
+	public OverloadMetrics getOverloadMetrics() {
+		return this.overloadGuard.metrics();
+	}
+
 	/**
 	 * Closes the client connection immediately.
 	 */
@@ -376,7 +413,7 @@ public class McpAsyncClient {
 			}
 
 			return this.mcpSession.sendNotification(McpSchema.METHOD_NOTIFICATION_INITIALIZED, null).doOnSuccess(v -> {
-				this.initialized.set(true);
+				this.initializeResult = initializeResult;
 				this.initializedSink.tryEmitValue(initializeResult);
 			}).thenReturn(initializeResult);
 		});
@@ -384,18 +421,40 @@ public class McpAsyncClient {
 
 	/**
 	 * Utility method to handle the common pattern of checking initialization before
-	 * executing an operation.
+	 * executing an operation. Once the client is initialized the operation runs directly;
+	 * only calls made before then wait for the initialization, up to the initialization
+	 * timeout.
 	 * @param <T> The type of the result Mono
 	 * @param actionName The action to perform if the client is initialized
 	 * @param operation The operation to execute if the client is initialized
 	 * @return A Mono that completes with the result of the operation
 	 */
 	private <T> Mono<T> withInitializationCheck(String actionName, Function<InitializeResult, Mono<T>> operation) {
-		return this.initializedSink.asMono()
-			.timeout(this.initializationTimeout)
-			.onErrorResume(TimeoutException.class,
-					ex -> Mono.error(new McpError("Client must be initialized before " + actionName)))
-			.flatMap(operation);
+		return Mono.defer(() -> {
+			InitializeResult initializeResult = this.initializeResult;
+			if (initializeResult != null) {
+				return operation.apply(initializeResult);
+			}
+			return this.initializedSink.asMono()
+				.timeout(this.initializationTimeout)
+				.onErrorResume(TimeoutException.class,
+						ex -> Mono.error(new McpError("Client must be initialized before " + actionName)))
+				.flatMap(operation);
+		});
+	}
+
+	/**
+	 * Sends a request within the {@link RequestPolicy} of its method, if any, and the
+	 * {@link OverloadPolicy} of the client, which every retry and hedge goes through.
+	 * @param <T> The type of the result
+	 * @param method The method of the request
+	 * @param params The parameters of the request
+	 * @param typeRef The type of the result
+	 * @return A Mono that completes with the first response
+	 */
+	private <T> Mono<T> sendRequest(String method, Object params, TypeReference<T> typeRef) {
+		return this.requestPolicies.send(method, params,
+				() -> this.overloadGuard.guard(() -> this.mcpSession.sendRequest(method, params, typeRef)));
 	}
 
 	// --------------------------
@@ -407,9 +466,9 @@ public class McpAsyncClient {
 	 * @return A Mono that completes with the server's ping response
 	 */
 	public Mono<Object> ping() {
-		return this.withInitializationCheck("pinging the server", initializedResult -> this.mcpSession
-			.sendRequest(McpSchema.METHOD_PING, null, new TypeReference<Object>() {
-			}));
+		return this.withInitializationCheck("pinging the server",
+				initializedResult -> this.sendRequest(McpSchema.METHOD_PING, null, new TypeReference<Object>() {
+				}));
 	}
 
 	// --------------------------
@@ -513,7 +572,10 @@ public class McpAsyncClient {
 			CreateMessageRequest request = transport.unmarshalFrom(params, new TypeReference<CreateMessageRequest>() {
 			});
 
-			return this.samplingHandler.apply(request);
+			if (this.samplingExecutor == null) {
+				return this.samplingHandler.apply(request);
+			}
+			return this.samplingExecutor.execute(this, request, this.samplingHandler);
 		};
 	}
 
@@ -542,7 +604,7 @@ public class McpAsyncClient {
 			if (this.serverCapabilities.getTools() == null) {
 				return Mono.error(new McpError("Server does not provide tools capability"));
 			}
-			return this.mcpSession.sendRequest(McpSchema.METHOD_TOOLS_CALL, callToolRequest, CALL_TOOL_RESULT_TYPE_REF);
+			return this.sendRequest(McpSchema.METHOD_TOOLS_CALL, callToolRequest, CALL_TOOL_RESULT_TYPE_REF);
 		});
 	}
 
@@ -564,7 +626,7 @@ public class McpAsyncClient {
 			if (this.serverCapabilities.getTools() == null) {
 				return Mono.error(new McpError("Server does not provide tools capability"));
 			}
-			return this.mcpSession.sendRequest(McpSchema.METHOD_TOOLS_LIST, new PaginatedRequest(cursor),
+			return this.sendRequest(McpSchema.METHOD_TOOLS_LIST, new PaginatedRequest(cursor),
 					LIST_TOOLS_RESULT_TYPE_REF);
 		});
 	}
@@ -621,7 +683,7 @@ public class McpAsyncClient {
 			if (this.serverCapabilities.getResources() == null) {
 				return Mono.error(new McpError("Server does not provide the resources capability"));
 			}
-			return this.mcpSession.sendRequest(McpSchema.METHOD_RESOURCES_LIST, new PaginatedRequest(cursor),
+			return this.sendRequest(McpSchema.METHOD_RESOURCES_LIST, new PaginatedRequest(cursor),
 					LIST_RESOURCES_RESULT_TYPE_REF);
 		});
 	}
@@ -652,7 +714,7 @@ public class McpAsyncClient {
 			if (this.serverCapabilities.getResources() == null) {
 				return Mono.error(new McpError("Server does not provide the resources capability"));
 			}
-			return this.mcpSession.sendRequest(McpSchema.METHOD_RESOURCES_READ, readResourceRequest,
+			return this.sendRequest(McpSchema.METHOD_RESOURCES_READ, readResourceRequest,
 					READ_RESOURCE_RESULT_TYPE_REF);
 		});
 	}
@@ -681,7 +743,7 @@ public class McpAsyncClient {
 			if (this.serverCapabilities.getResources() == null) {
 				return Mono.error(new McpError("Server does not provide the resources capability"));
 			}
-			return this.mcpSession.sendRequest(McpSchema.METHOD_RESOURCES_TEMPLATES_LIST, new PaginatedRequest(cursor),
+			return this.sendRequest(McpSchema.METHOD_RESOURCES_TEMPLATES_LIST, new PaginatedRequest(cursor),
 					LIST_RESOURCE_TEMPLATES_RESULT_TYPE_REF);
 		});
 	}
@@ -696,7 +758,7 @@ public class McpAsyncClient {
 	 * @see #unsubscribeResource(UnsubscribeRequest)
 	 */
 	public Mono<Void> subscribeResource(SubscribeRequest subscribeRequest) {
-		return this.withInitializationCheck("subscribing to resources", initializedResult -> this.mcpSession
+		return this.withInitializationCheck("subscribing to resources", initializedResult -> this
 			.sendRequest(McpSchema.METHOD_RESOURCES_SUBSCRIBE, subscribeRequest, VOID_TYPE_REFERENCE));
 	}
 
@@ -710,7 +772,7 @@ public class McpAsyncClient {
 	 * @see #subscribeResource(SubscribeRequest)
 	 */
 	public Mono<Void> unsubscribeResource(UnsubscribeRequest unsubscribeRequest) {
-		return this.withInitializationCheck("unsubscribing from resources", initializedResult -> this.mcpSession
+		return this.withInitializationCheck("unsubscribing from resources", initializedResult -> this
 			.sendRequest(McpSchema.METHOD_RESOURCES_UNSUBSCRIBE, unsubscribeRequest, VOID_TYPE_REFERENCE));
 	}
 
@@ -752,7 +814,7 @@ public class McpAsyncClient {
 	 * @see #getPrompt(GetPromptRequest)
 	 */
 	public Mono<ListPromptsResult> listPrompts(String cursor) {
-		return this.withInitializationCheck("listing prompts", initializedResult -> this.mcpSession
+		return this.withInitializationCheck("listing prompts", initializedResult -> this
 			.sendRequest(McpSchema.METHOD_PROMPT_LIST, new PaginatedRequest(cursor), LIST_PROMPTS_RESULT_TYPE_REF));
 	}
 
@@ -766,7 +828,7 @@ public class McpAsyncClient {
 	 * @see #listPrompts()
 	 */
 	public Mono<GetPromptResult> getPrompt(GetPromptRequest getPromptRequest) {
-		return this.withInitializationCheck("getting prompts", initializedResult -> this.mcpSession
+		return this.withInitializationCheck("getting prompts", initializedResult -> this
 			.sendRequest(McpSchema.METHOD_PROMPT_GET, getPromptRequest, GET_PROMPT_RESULT_TYPE_REF));
 	}
 
@@ -820,7 +882,7 @@ public class McpAsyncClient {
 
 		return this.withInitializationCheck("setting logging level", initializedResult -> {
 			var params = new SetLevelRequest(loggingLevel);
-			return this.mcpSession.sendRequest(McpSchema.METHOD_LOGGING_SET_LEVEL, params, new TypeReference<Object>() {
+			return this.sendRequest(McpSchema.METHOD_LOGGING_SET_LEVEL, params, new TypeReference<Object>() {
 			}).then();
 		});
 	}
@@ -851,7 +913,7 @@ public class McpAsyncClient {
 	 * @see CompleteResult
 	 */
 	public Mono<CompleteResult> completeCompletion(CompleteRequest completeRequest) {
-		return this.withInitializationCheck("complete completions", initializedResult -> this.mcpSession
+		return this.withInitializationCheck("complete completions", initializedResult -> this
 			.sendRequest(McpSchema.METHOD_COMPLETION_COMPLETE, completeRequest, COMPLETION_COMPLETE_RESULT_TYPE_REF));
 	}
 
@@ -12,6 +12,7 @@ import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import io.modelcontextprotocol.observation.McpObservationHandler;
 import io.modelcontextprotocol.spec.McpClientTransport;
 import io.modelcontextprotocol.spec.McpTransport;
 import io.modelcontextprotocol.spec.common.Root;
@@ -24,7 +25,9 @@ import io.modelcontextprotocol.spec.sampling.CreateMessageRequest;
 import io.modelcontextprotocol.spec.sampling.CreateMessageResult;
 import io.modelcontextprotocol.spec.tool.Tool;
 import io.modelcontextprotocol.util.Assert;
+import io.modelcontextprotocol.util.McpSchedulers;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * Factory class for creating Model Context Protocol (MCP) clients. MCP is a protocol that
@@ -162,6 +165,18 @@ public interface McpClient {
 
 		private Duration initializationTimeout = Duration.ofSeconds(20);
 
+		private McpObservationHandler observationHandler = McpObservationHandler.NOOP;
+
+		private final Map<String, RequestPolicy> requestPolicies = new HashMap<>();
+
+		private final Map<String, RequestPolicy> toolCallPolicies = new HashMap<>();
+
+		private OverloadPolicy overloadPolicy;
+
+		private SamplingExecutor samplingExecutor;
+
+		private int bulkConcurrency = McpSyncClient.DEFAULT_BULK_CONCURRENCY;
+
 		private ClientCapabilities capabilities;
 
 		private Implementation clientInfo = new Implementation("Java SDK MCP Client", "1.0.0");
@@ -178,6 +193,8 @@ public interface McpClient {
 
 		private Function<CreateMessageRequest, CreateMessageResult> samplingHandler;
 
+		private Scheduler executionScheduler = McpSchedulers.defaultScheduler();
+
 		private SyncSpec(McpClientTransport transport) {
 			Assert.notNull(transport, "Transport must not be null");
 			this.transport = transport;
@@ -198,6 +215,98 @@ public interface McpClient {
 			return this;
 		}
 
+		/**
+		 * Sets the scheduler the blocking consumers and handlers of this client are
+		 * offloaded to, so that they never run on the transport threads. Defaults to
+		 * {@link McpSchedulers#defaultScheduler()}. Use
+		 * {@link McpSchedulers#virtualThreads()} to run every handler on its own virtual
+		 * thread.
+		 * @param executionScheduler The scheduler to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if executionScheduler is null
+		 */
+		public SyncSpec executionScheduler(Scheduler executionScheduler) {
+			Assert.notNull(executionScheduler, "Execution scheduler must not be null");
+			this.executionScheduler = executionScheduler;
+			return this;
+		}
+
+		/**
+		 * Sets the handler observing the messages exchanged by every client session. By
+		 * default messages are not observed.
+		 * @param observationHandler The handler to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if observationHandler is null
+		 */
+		public SyncSpec observationHandler(McpObservationHandler observationHandler) {
+			Assert.notNull(observationHandler, "Observation handler must not be null");
+			this.observationHandler = observationHandler;
+			return this;
+		}
+
+		/**
+		 * Applies retries and hedging to the requests of the given methods, which must be
+		 * idempotent. By default requests are sent once.
+		 * @param requestPolicy The policy to apply. Must not be null.
+		 * @param methods The methods of the requests, such as
+		 * {@link io.modelcontextprotocol.spec.McpSchema#METHOD_TOOLS_LIST}
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if requestPolicy or methods is null
+		 */
+		public SyncSpec requestPolicy(RequestPolicy requestPolicy, String... methods) {
+			Assert.notNull(requestPolicy, "Request policy must not be null");
+			Assert.notNull(methods, "Methods must not be null");
+			for (String method : methods) {
+				this.requestPolicies.put(method, requestPolicy);
+			}
+			return this;
+		}
+
+		/**
+		 * Applies retries and hedging to the calls of the given tools, which must be
+		 * idempotent. Takes precedence over a policy of the {@code tools/call} method.
+		 * @param requestPolicy The policy to apply. Must not be null.
+		 * @param toolNames The names of the tools
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if requestPolicy or toolNames is null
+		 */
+		public SyncSpec toolCallPolicy(RequestPolicy requestPolicy, String... toolNames) {
+			Assert.notNull(requestPolicy, "Request policy must not be null");
+			Assert.notNull(toolNames, "Tool names must not be null");
+			for (String toolName : toolNames) {
+				this.toolCallPolicies.put(toolName, requestPolicy);
+			}
+			return this;
+		}
+
+		/**
+		 * Protects the server from requests piling up once it degrades, with a circuit
+		 * breaker and an adaptive concurrency limit. By default every request is sent
+		 * right away.
+		 * @param overloadPolicy The policy to apply. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if overloadPolicy is null
+		 */
+		public SyncSpec overloadPolicy(OverloadPolicy overloadPolicy) {
+			Assert.notNull(overloadPolicy, "Overload policy must not be null");
+			this.overloadPolicy = overloadPolicy;
+			return this;
+		}
+
+		/**
+		 * Sets the number of requests of a bulk operation, such as
+		 * {@link McpSyncClient#callTools(List)}, in flight at the same time. Defaults to
+		 * 16.
+		 * @param bulkConcurrency The concurrency. Must be positive.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if bulkConcurrency is not positive
+		 */
+		public SyncSpec bulkConcurrency(int bulkConcurrency) {
+			Assert.isTrue(bulkConcurrency > 0, "Bulk concurrency must be positive");
+			this.bulkConcurrency = bulkConcurrency;
+			return this;
+		}
+
 		/**
 		 * @param initializationTimeout The duration to wait for the initialization
 		 * lifecycle step to complete.
@@ -286,6 +395,20 @@ public interface McpClient {
 			return this;
 		}
 
+		/**
+		 * Runs the sampling handler within the concurrency limit and the queue of an
+		 * executor, which several clients may share. By default the handler runs as soon
+		 * as a request arrives.
+		 * @param samplingExecutor The executor to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if samplingExecutor is null
+		 */
+		public SyncSpec samplingExecutor(SamplingExecutor samplingExecutor) {
+			Assert.notNull(samplingExecutor, "Sampling executor must not be null");
+			this.samplingExecutor = samplingExecutor;
+			return this;
+		}
+
 		/**
 		 * Adds a consumer to be notified when the available tools change. This allows the
 		 * client to react to changes in the server's tool capabilities, such as tools
@@ -369,10 +492,14 @@ public interface McpClient {
 					this.roots, this.toolsChangeConsumers, this.resourcesChangeConsumers, this.promptsChangeConsumers,
 					this.loggingConsumers, this.samplingHandler);
 
-			McpClientFeatures.Async asyncFeatures = McpClientFeatures.Async.fromSync(syncFeatures);
+			McpClientFeatures.Async asyncFeatures = McpClientFeatures.Async.fromSync(syncFeatures,
+					this.executionScheduler);
 
 			return new McpSyncClient(
-					new McpAsyncClient(transport, this.requestTimeout, this.initializationTimeout, asyncFeatures));
+					new McpAsyncClient(transport, this.requestTimeout, this.initializationTimeout, asyncFeatures,
+							this.observationHandler, RequestPolicies.of(this.requestPolicies, this.toolCallPolicies),
+							OverloadGuard.of(this.overloadPolicy), this.samplingExecutor),
+					this.bulkConcurrency);
 		}
 
 	}
@@ -401,6 +528,16 @@ public interface McpClient {
 
 		private Duration initializationTimeout = Duration.ofSeconds(20);
 
+		private McpObservationHandler observationHandler = McpObservationHandler.NOOP;
+
+		private final Map<String, RequestPolicy> requestPolicies = new HashMap<>();
+
+		private final Map<String, RequestPolicy> toolCallPolicies = new HashMap<>();
+
+		private OverloadPolicy overloadPolicy;
+
+		private SamplingExecutor samplingExecutor;
+
 		private ClientCapabilities capabilities;
 
 		private Implementation clientInfo = new Implementation("Spring AI MCP Client", "0.3.1");
@@ -437,6 +574,68 @@ public interface McpClient {
 			return this;
 		}
 
+		/**
+		 * Sets the handler observing the messages exchanged by every client session. By
+		 * default messages are not observed.
+		 * @param observationHandler The handler to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if observationHandler is null
+		 */
+		public AsyncSpec observationHandler(McpObservationHandler observationHandler) {
+			Assert.notNull(observationHandler, "Observation handler must not be null");
+			this.observationHandler = observationHandler;
+			return this;
+		}
+
+		/**
+		 * Applies retries and hedging to the requests of the given methods, which must be
+		 * idempotent. By default requests are sent once.
+		 * @param requestPolicy The policy to apply. Must not be null.
+		 * @param methods The methods of the requests, such as
+		 * {@link io.modelcontextprotocol.spec.McpSchema#METHOD_TOOLS_LIST}
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if requestPolicy or methods is null
+		 */
+		public AsyncSpec requestPolicy(RequestPolicy requestPolicy, String... methods) {
+			Assert.notNull(requestPolicy, "Request policy must not be null");
+			Assert.notNull(methods, "Methods must not be null");
+			for (String method : methods) {
+				this.requestPolicies.put(method, requestPolicy);
+			}
+			return this;
+		}
+
+		/**
+		 * Applies retries and hedging to the calls of the given tools, which must be
+		 * idempotent. Takes precedence over a policy of the {@code tools/call} method.
+		 * @param requestPolicy The policy to apply. Must not be null.
+		 * @param toolNames The names of the tools
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if requestPolicy or toolNames is null
+		 */
+		public AsyncSpec toolCallPolicy(RequestPolicy requestPolicy, String... toolNames) {
+			Assert.notNull(requestPolicy, "Request policy must not be null");
+			Assert.notNull(toolNames, "Tool names must not be null");
+			for (String toolName : toolNames) {
+				this.toolCallPolicies.put(toolName, requestPolicy);
+			}
+			return this;
+		}
+
+		/**
+		 * Protects the server from requests piling up once it degrades, with a circuit
+		 * breaker and an adaptive concurrency limit. By default every request is sent
+		 * right away.
+		 * @param overloadPolicy The policy to apply. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if overloadPolicy is null
+		 */
+		public AsyncSpec overloadPolicy(OverloadPolicy overloadPolicy) {
+			Assert.notNull(overloadPolicy, "Overload policy must not be null");
+			this.overloadPolicy = overloadPolicy;
+			return this;
+		}
+
 		/**
 		 * @param initializationTimeout The duration to wait for the initialization
 		 * lifecycle step to complete.
@@ -525,6 +724,20 @@ public interface McpClient {
 			return this;
 		}
 
+		/**
+		 * Runs the sampling handler within the concurrency limit and the queue of an
+		 * executor, which several clients may share. By default the handler runs as soon
+		 * as a request arrives.
+		 * @param samplingExecutor The executor to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if samplingExecutor is null
+		 */
+		public AsyncSpec samplingExecutor(SamplingExecutor samplingExecutor) {
+			Assert.notNull(samplingExecutor, "Sampling executor must not be null");
+			this.samplingExecutor = samplingExecutor;
+			return this;
+		}
+
 		/**
 		 * Adds a consumer to be notified when the available tools change. This allows the
 		 * client to react to changes in the server's tool capabilities, such as tools
@@ -615,7 +828,9 @@ public interface McpClient {
 			return new McpAsyncClient(this.transport, this.requestTimeout, this.initializationTimeout,
 					new McpClientFeatures.Async(this.clientInfo, this.capabilities, this.roots,
 							this.toolsChangeConsumers, this.resourcesChangeConsumers, this.promptsChangeConsumers,
-							this.loggingConsumers, this.samplingHandler));
+							this.loggingConsumers, this.samplingHandler),
+					this.observationHandler, RequestPolicies.of(this.requestPolicies, this.toolCallPolicies),
+					OverloadGuard.of(this.overloadPolicy), this.samplingExecutor);
 		}
 
 	}
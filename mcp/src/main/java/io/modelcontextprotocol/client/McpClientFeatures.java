@@ -22,9 +22,10 @@ import io.modelcontextprotocol.spec.sampling.CreateMessageRequest;
 import io.modelcontextprotocol.spec.sampling.CreateMessageResult;
 import io.modelcontextprotocol.spec.tool.Tool;
 import io.modelcontextprotocol.util.Assert;
+import io.modelcontextprotocol.util.McpSchedulers;
 import io.modelcontextprotocol.util.Utils;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * Representation of features and capabilities for Model Context Protocol (MCP) clients.
@@ -160,34 +161,46 @@ class McpClientFeatures {
 		 * user.
 		 */
 		public static Async fromSync(Sync syncSpec) {
+			return fromSync(syncSpec, McpSchedulers.defaultScheduler());
+		}
+
+		/**
+		 * Convert a synchronous specification into an asynchronous one, offloading the
+		 * blocking consumers and handlers to the given scheduler.
+		 * @param syncSpec a potentially blocking, synchronous specification.
+		 * @param scheduler the scheduler to run the synchronous consumers and handlers
+		 * on.
+		 * @return a specification which is protected from blocking calls specified by the
+		 * user.
+		 */
+		public static Async fromSync(Sync syncSpec, Scheduler scheduler) {
+			Assert.notNull(scheduler, "Scheduler must not be null");
 			List<Function<List<Tool>, Mono<Void>>> toolsChangeConsumers = new ArrayList<>();
 			for (Consumer<List<Tool>> consumer : syncSpec.toolsChangeConsumers()) {
-				toolsChangeConsumers.add(t -> Mono.<Void>fromRunnable(() -> consumer.accept(t))
-					.subscribeOn(Schedulers.boundedElastic()));
+				toolsChangeConsumers.add(t -> Mono.<Void>fromRunnable(() -> consumer.accept(t)).subscribeOn(scheduler));
 			}
 
 			List<Function<List<Resource>, Mono<Void>>> resourcesChangeConsumers = new ArrayList<>();
 			for (Consumer<List<Resource>> consumer : syncSpec.resourcesChangeConsumers()) {
-				resourcesChangeConsumers.add(r -> Mono.<Void>fromRunnable(() -> consumer.accept(r))
-					.subscribeOn(Schedulers.boundedElastic()));
+				resourcesChangeConsumers
+					.add(r -> Mono.<Void>fromRunnable(() -> consumer.accept(r)).subscribeOn(scheduler));
 			}
 
 			List<Function<List<Prompt>, Mono<Void>>> promptsChangeConsumers = new ArrayList<>();
 
 			for (Consumer<List<Prompt>> consumer : syncSpec.promptsChangeConsumers()) {
-				promptsChangeConsumers.add(p -> Mono.<Void>fromRunnable(() -> consumer.accept(p))
-					.subscribeOn(Schedulers.boundedElastic()));
+				promptsChangeConsumers
+					.add(p -> Mono.<Void>fromRunnable(() -> consumer.accept(p)).subscribeOn(scheduler));
 			}
 
 			List<Function<LoggingMessageNotification, Mono<Void>>> loggingConsumers = new ArrayList<>();
 			for (Consumer<LoggingMessageNotification> consumer : syncSpec.loggingConsumers()) {
-				loggingConsumers.add(l -> Mono.<Void>fromRunnable(() -> consumer.accept(l))
-					.subscribeOn(Schedulers.boundedElastic()));
+				loggingConsumers.add(l -> Mono.<Void>fromRunnable(() -> consumer.accept(l)).subscribeOn(scheduler));
 			}
 
 			Function<CreateMessageRequest, Mono<CreateMessageResult>> samplingHandler = r -> Mono
 				.fromCallable(() -> syncSpec.samplingHandler().apply(r))
-				.subscribeOn(Schedulers.boundedElastic());
+				.subscribeOn(scheduler);
 			return new Async(syncSpec.clientInfo(), syncSpec.clientCapabilities(), syncSpec.roots(),
 					toolsChangeConsumers, resourcesChangeConsumers, promptsChangeConsumers, loggingConsumers,
 					samplingHandler);
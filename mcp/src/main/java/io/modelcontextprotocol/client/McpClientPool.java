@@ -0,0 +1,1055 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.autocomplete.CompleteRequest;
+import io.modelcontextprotocol.spec.autocomplete.CompleteResult;
+import io.modelcontextprotocol.spec.initialization.Implementation;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.prompt.GetPromptRequest;
+import io.modelcontextprotocol.spec.prompt.GetPromptResult;
+import io.modelcontextprotocol.spec.prompt.ListPromptsResult;
+import io.modelcontextprotocol.spec.resource.ListResourceTemplatesResult;
+import io.modelcontextprotocol.spec.resource.ListResourcesResult;
+import io.modelcontextprotocol.spec.resource.ReadResourceRequest;
+import io.modelcontextprotocol.spec.resource.ReadResourceResult;
+import io.modelcontextprotocol.spec.resource.SubscribeRequest;
+import io.modelcontextprotocol.spec.resource.UnsubscribeRequest;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.ListToolsResult;
+import io.modelcontextprotocol.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+/**
+ * A client spreading its requests over several {@link McpAsyncClient}s connected to the
+ * same server, each with its own transport and session, so that a single connection does
+ * not serialize the traffic of a busy caller.
+ *
+ * <p>
+ * Each request goes to the member with the fewest outstanding requests, up to a cap per
+ * member; requests arriving while every member is at its cap wait for one to finish.
+ * Members are connected and initialized by {@link #initialize()} before they take any
+ * request. A member failing several requests in a row for other reasons than an error
+ * response of the server, failing a health check ping, or losing its connection, is
+ * closed and replaced by a new client, initialized with the same specification before it
+ * joins the pool.
+ *
+ * <p>
+ * A pool of a single member, as built by {@link #reconnecting(Supplier)}, is a client
+ * that survives the restarts of its server: it reconnects with a backoff, initializes a
+ * new session, and restores its resource subscriptions. The idempotent requests in flight
+ * on a member whose connection is lost are replayed on another member, or on its
+ * replacement; the others fail. Every pooled method but {@code tools/call} is idempotent,
+ * and tool calls are replayed for the tools declared with
+ * {@link Builder#idempotentTools(String...)}.
+ *
+ * <p>
+ * Resource subscriptions are held by one member, and moved to another when it is
+ * replaced. Other requests bound to a session are not pooled; use
+ * {@link #execute(Function)} to issue them on the member of your choice.
+ *
+ * <pre>{@code
+ * McpClientPool pool = McpClientPool.builder(() -> HttpClientSseClientTransport.builder(url).build())
+ *     .size(8)
+ *     .maxConcurrencyPerClient(64)
+ *     .build();
+ * pool.initialize().block();
+ * CallToolResult result = pool.callTool(new CallToolRequest("echo", Map.of())).block();
+ * }</pre>
+ */
+public class McpClientPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(McpClientPool.class);
+
+	private static final Duration MIN_BACKOFF = Duration.ofMillis(100);
+
+	private static final Duration MAX_BACKOFF = Duration.ofSeconds(10);
+
+	/**
+	 * Times an idempotent request is replayed after losing the connection it was sent on
+	 */
+	private static final int MAX_REPLAYS = 3;
+
+	private final Supplier<McpClientTransport> transportSupplier;
+
+	private final Consumer<McpClient.AsyncSpec> clientCustomizer;
+
+	private final int size;
+
+	private final int maxConcurrencyPerClient;
+
+	private final int maxConsecutiveFailures;
+
+	private final Duration initializationTimeout;
+
+	private final Duration acquireTimeout;
+
+	private final Duration healthCheckInterval;
+
+	private final RequestPolicies requestPolicies;
+
+	private final Set<String> idempotentTools;
+
+	/** URIs of the resources subscribed to through the pool */
+	private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+
+	/** The member holding the resource subscriptions, guarded by {@link #lock} */
+	private Member subscriber;
+
+	/** The members taking requests, replaced as a whole under {@link #lock} */
+	private volatile Member[] members = new Member[0];
+
+	private final Object lock = new Object();
+
+	private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger nextMember = new AtomicInteger();
+
+	private final AtomicInteger clientCount = new AtomicInteger();
+
+	private final AtomicLong replacedClients = new AtomicLong();
+
+	/**
+	 * Background tasks, renewed under {@link #lock} when an initialization fails so that
+	 * the pool can be initialized again
+	 */
+	private volatile Disposable.Composite tasks = Disposables.composite();
+
+	private final AtomicBoolean initialized = new AtomicBoolean();
+
+	/** Delay before connecting the next replacement, guarded by {@link #lock} */
+	private Duration replacementDelay = Duration.ZERO;
+
+	private volatile boolean closed;
+
+	private McpClientPool(Builder builder) {
+		this.transportSupplier = builder.transportSupplier;
+		this.clientCustomizer = builder.clientCustomizer;
+		this.size = builder.size;
+		this.maxConcurrencyPerClient = builder.maxConcurrencyPerClient;
+		this.maxConsecutiveFailures = builder.maxConsecutiveFailures;
+		this.initializationTimeout = builder.initializationTimeout;
+		this.acquireTimeout = builder.acquireTimeout;
+		this.healthCheckInterval = builder.healthCheckInterval;
+		this.requestPolicies = RequestPolicies.of(builder.requestPolicies, builder.toolCallPolicies);
+		this.idempotentTools = Set.copyOf(builder.idempotentTools);
+	}
+
+	/**
+	 * Starts building a pool whose members connect through the transports of the given
+	 * supplier, called once per member.
+	 * @param transportSupplier creates a new transport for each member
+	 * @return a new builder
+	 */
+	public static Builder builder(Supplier<McpClientTransport> transportSupplier) {
+		return new Builder(transportSupplier);
+	}
+
+	/**
+	 * Starts building a client that reconnects through a new transport of the given
+	 * supplier whenever its connection is lost: a pool of a single member.
+	 * @param transportSupplier creates a new transport for each connection
+	 * @return a new builder
+	 */
+	public static Builder reconnecting(Supplier<McpClientTransport> transportSupplier) {
+		return new Builder(transportSupplier).size(1);
+	}
+
+	/**
+	 * Starts building a pool of server processes, each launched with the given parameters
+	 * and connected through its own {@link StdioClientTransport}. This lets a server
+	 * handling one request at a time serve several at once. A process exiting is replaced
+	 * at once, and processes exiting shortly after they started are respawned with an
+	 * increasing delay.
+	 * @param params the parameters of the server processes
+	 * @return a new builder
+	 */
+	public static Builder stdio(ServerParameters params) {
+		Assert.notNull(params, "Server parameters must not be null");
+		return new Builder(() -> new StdioClientTransport(params));
+	}
+
+	/**
+	 * Connects and initializes every member of the pool, and starts the health checks.
+	 * Requests issued meanwhile wait for the first member to be ready.
+	 * @return a Mono completing once every member is initialized, or failing if any
+	 * member cannot be, in which case the members already connected are closed and the
+	 * pool can be initialized again
+	 */
+	public Mono<Void> initialize() {
+		return Mono.defer(() -> {
+			if (!this.initialized.compareAndSet(false, true)) {
+				return Mono.error(new McpError("Client pool is already initialized"));
+			}
+			if (this.healthCheckInterval != null) {
+				this.tasks.add(Flux.interval(this.healthCheckInterval)
+					.onBackpressureDrop()
+					.concatMap(tick -> checkHealth())
+					.subscribe());
+			}
+			return Flux.range(0, this.size)
+				.flatMap(i -> connect())
+				.doOnNext(this::add)
+				.then()
+				.onErrorResume(error -> reset().then(Mono.error(error)));
+		});
+	}
+
+	/**
+	 * Closes the members of a pool whose initialization failed, and stops its health
+	 * checks and replacements, so that it can be initialized again.
+	 */
+	private Mono<Void> reset() {
+		return Mono.defer(() -> {
+			Member[] members;
+			Disposable.Composite tasks;
+			synchronized (this.lock) {
+				members = this.members;
+				this.members = new Member[0];
+				this.subscriber = null;
+				this.replacementDelay = Duration.ZERO;
+				tasks = this.tasks;
+				if (!this.closed) {
+					this.tasks = Disposables.composite();
+				}
+			}
+			tasks.dispose();
+			this.initialized.set(false);
+			return Flux.fromArray(members).flatMap(member -> {
+				if (member.disconnect != null) {
+					member.disconnect.dispose();
+				}
+				member.lostSink.tryEmitEmpty();
+				return close(member.client, member.transport).onErrorResume(e -> Mono.empty());
+			}).then();
+		});
+	}
+
+	/**
+	 * Runs an operation on the least busy member of the pool, counted against its
+	 * concurrency cap until the returned Mono terminates. The operation fails with an
+	 * {@link IOException} if the member loses its connection meanwhile, and is not
+	 * replayed.
+	 * @param <T> the type of the result
+	 * @param operation issues the request through the given member
+	 * @return the result of the operation
+	 */
+	public <T> Mono<T> execute(Function<McpAsyncClient, Mono<T>> operation) {
+		Assert.notNull(operation, "Operation must not be null");
+		return acquire().flatMap(member -> Mono.defer(() -> operation.apply(member.client))
+			.or(member.lost())
+			.doOnSuccess(result -> member.succeeded())
+			.doOnError(error -> failed(member, error))
+			.doFinally(signal -> release(member)));
+	}
+
+	/**
+	 * Runs an operation within the {@link RequestPolicy} of its method, if any, each
+	 * retry or hedge going to the least busy member at that time. Idempotent operations
+	 * are replayed when the member they run on loses its connection.
+	 */
+	private <T> Mono<T> send(String method, Object params, Function<McpAsyncClient, Mono<T>> operation) {
+		if (!isIdempotent(method, params)) {
+			return this.requestPolicies.send(method, params, () -> execute(operation));
+		}
+		return this.requestPolicies.send(method, params,
+				() -> execute(operation).retryWhen(Retry.max(MAX_REPLAYS)
+					.filter(ConnectionLostException.class::isInstance)
+					.doBeforeRetry(
+							signal -> logger.debug("Replaying {} request: {}", method, signal.failure().getMessage()))
+					.onRetryExhaustedThrow((spec, signal) -> signal.failure())));
+	}
+
+	private boolean isIdempotent(String method, Object params) {
+		if (!McpSchema.METHOD_TOOLS_CALL.equals(method)) {
+			return true;
+		}
+		return params instanceof CallToolRequest && this.idempotentTools.contains(((CallToolRequest) params).getName());
+	}
+
+	// --------------------------
+	// Pooled Operations
+	// --------------------------
+
+	/**
+	 * Sends a ping request to the server through one of the members.
+	 * @return A Mono that completes with the server's ping response
+	 * @see McpAsyncClient#ping()
+	 */
+	public Mono<Object> ping() {
+		return send(McpSchema.METHOD_PING, null, McpAsyncClient::ping);
+	}
+
+	/**
+	 * Calls a tool provided by the server.
+	 * @param callToolRequest The request containing the tool name and input parameters
+	 * @return A Mono that emits the result of the tool call
+	 * @see McpAsyncClient#callTool(CallToolRequest)
+	 */
+	public Mono<CallToolResult> callTool(CallToolRequest callToolRequest) {
+		return send(McpSchema.METHOD_TOOLS_CALL, callToolRequest, client -> client.callTool(callToolRequest));
+	}
+
+	/**
+	 * Retrieves the list of all tools provided by the server.
+	 * @return A Mono that emits the list of tools result
+	 * @see McpAsyncClient#listTools()
+	 */
+	public Mono<ListToolsResult> listTools() {
+		return send(McpSchema.METHOD_TOOLS_LIST, null, McpAsyncClient::listTools);
+	}
+
+	/**
+	 * Retrieves a paginated list of tools provided by the server.
+	 * @param cursor Optional pagination cursor from a previous list request
+	 * @return A Mono that emits the list of tools result
+	 * @see McpAsyncClient#listTools(String)
+	 */
+	public Mono<ListToolsResult> listTools(String cursor) {
+		return send(McpSchema.METHOD_TOOLS_LIST, null, client -> client.listTools(cursor));
+	}
+
+	/**
+	 * Retrieves the list of all resources provided by the server.
+	 * @return A Mono that completes with the list of resources result
+	 * @see McpAsyncClient#listResources()
+	 */
+	public Mono<ListResourcesResult> listResources() {
+		return send(McpSchema.METHOD_RESOURCES_LIST, null, McpAsyncClient::listResources);
+	}
+
+	/**
+	 * Retrieves a paginated list of resources provided by the server.
+	 * @param cursor Optional pagination cursor from a previous list request
+	 * @return A Mono that completes with the list of resources result
+	 * @see McpAsyncClient#listResources(String)
+	 */
+	public Mono<ListResourcesResult> listResources(String cursor) {
+		return send(McpSchema.METHOD_RESOURCES_LIST, null, client -> client.listResources(cursor));
+	}
+
+	/**
+	 * Reads the content of a specific resource.
+	 * @param readResourceRequest The request containing the resource URI
+	 * @return A Mono that completes with the resource content
+	 * @see McpAsyncClient#readResource(ReadResourceRequest)
+	 */
+	public Mono<ReadResourceResult> readResource(ReadResourceRequest readResourceRequest) {
+		return send(McpSchema.METHOD_RESOURCES_READ, readResourceRequest,
+				client -> client.readResource(readResourceRequest));
+	}
+
+	/**
+	 * Retrieves the list of all resource templates provided by the server.
+	 * @return A Mono that completes with the list of resource templates result
+	 * @see McpAsyncClient#listResourceTemplates()
+	 */
+	public Mono<ListResourceTemplatesResult> listResourceTemplates() {
+		return send(McpSchema.METHOD_RESOURCES_TEMPLATES_LIST, null, McpAsyncClient::listResourceTemplates);
+	}
+
+	/**
+	 * Retrieves a paginated list of resource templates provided by the server.
+	 * @param cursor Optional pagination cursor from a previous list request
+	 * @return A Mono that completes with the list of resource templates result
+	 * @see McpAsyncClient#listResourceTemplates(String)
+	 */
+	public Mono<ListResourceTemplatesResult> listResourceTemplates(String cursor) {
+		return send(McpSchema.METHOD_RESOURCES_TEMPLATES_LIST, null, client -> client.listResourceTemplates(cursor));
+	}
+
+	/**
+	 * Retrieves the list of all prompts provided by the server.
+	 * @return A Mono that completes with the list of prompts result
+	 * @see McpAsyncClient#listPrompts()
+	 */
+	public Mono<ListPromptsResult> listPrompts() {
+		return send(McpSchema.METHOD_PROMPT_LIST, null, McpAsyncClient::listPrompts);
+	}
+
+	/**
+	 * Retrieves a paginated list of prompts provided by the server.
+	 * @param cursor Optional pagination cursor from a previous list request
+	 * @return A Mono that completes with the list of prompts result
+	 * @see McpAsyncClient#listPrompts(String)
+	 */
+	public Mono<ListPromptsResult> listPrompts(String cursor) {
+		return send(McpSchema.METHOD_PROMPT_LIST, null, client -> client.listPrompts(cursor));
+	}
+
+	/**
+	 * Retrieves a specific prompt by its name and arguments.
+	 * @param getPromptRequest The request containing the prompt name and arguments
+	 * @return A Mono that completes with the get prompt result
+	 * @see McpAsyncClient#getPrompt(GetPromptRequest)
+	 */
+	public Mono<GetPromptResult> getPrompt(GetPromptRequest getPromptRequest) {
+		return send(McpSchema.METHOD_PROMPT_GET, getPromptRequest, client -> client.getPrompt(getPromptRequest));
+	}
+
+	/**
+	 * Sends a completion/complete request.
+	 * @param completeRequest The request containing the reference and argument
+	 * @return A Mono that completes with the completion suggestions
+	 * @see McpAsyncClient#completeCompletion(CompleteRequest)
+	 */
+	public Mono<CompleteResult> completeCompletion(CompleteRequest completeRequest) {
+		return send(McpSchema.METHOD_COMPLETION_COMPLETE, completeRequest,
+				client -> client.completeCompletion(completeRequest));
+	}
+
+	/**
+	 * Subscribes to changes in a specific resource through one of the members. The
+	 * subscription is restored on another member whenever that one is replaced. It is
+	 * only recorded if no member is connected yet, and forgotten if the server rejects
+	 * it.
+	 * @param subscribeRequest The subscribe request containing the URI of the resource
+	 * @return A Mono that completes when the subscription is complete
+	 * @see McpAsyncClient#subscribeResource(SubscribeRequest)
+	 */
+	public Mono<Void> subscribeResource(SubscribeRequest subscribeRequest) {
+		Assert.notNull(subscribeRequest, "Subscribe request must not be null");
+		return Mono.defer(() -> {
+			String uri = subscribeRequest.getUri();
+			boolean added = this.subscriptions.add(uri);
+			Member subscriber = getSubscriber();
+			if (subscriber == null) {
+				return Mono.empty();
+			}
+			// Recorded before the request is sent, so that a member replacing the
+			// subscriber meanwhile restores it, and forgotten if the request fails
+			return subscriber.client.subscribeResource(subscribeRequest).doOnError(error -> {
+				if (added) {
+					this.subscriptions.remove(uri);
+				}
+			});
+		});
+	}
+
+	/**
+	 * Cancels a subscription made through {@link #subscribeResource(SubscribeRequest)}.
+	 * @param unsubscribeRequest The unsubscribe request containing the URI of the
+	 * resource
+	 * @return A Mono that completes when the unsubscription is complete
+	 * @see McpAsyncClient#unsubscribeResource(UnsubscribeRequest)
+	 */
+	public Mono<Void> unsubscribeResource(UnsubscribeRequest unsubscribeRequest) {
+		Assert.notNull(unsubscribeRequest, "Unsubscribe request must not be null");
+		return Mono.defer(() -> {
+			this.subscriptions.remove(unsubscribeRequest.getUri());
+			Member subscriber = getSubscriber();
+			return (subscriber != null) ? subscriber.client.unsubscribeResource(unsubscribeRequest) : Mono.empty();
+		});
+	}
+
+	private Member getSubscriber() {
+		synchronized (this.lock) {
+			return this.subscriber;
+		}
+	}
+
+	// --------------------------
+	// State
+	// --------------------------
+
+	/**
+	 * Returns the capabilities reported by the server to the members of the pool.
+	 * @return the server capabilities, null until a member is initialized
+	 */
+	public ServerCapabilities getServerCapabilities() {
+		Member[] members = this.members;
+		return members.length == 0 ? null : members[0].client.getServerCapabilities();
+	}
+
+	/**
+	 * Returns the implementation information reported by the server to the members of the
+	 * pool.
+	 * @return the server info, null until a member is initialized
+	 */
+	public Implementation getServerInfo() {
+		Member[] members = this.members;
+		return members.length == 0 ? null : members[0].client.getServerInfo();
+	}
+
+	/**
+	 * Returns the number of members currently taking requests.
+	 * @return the number of members
+	 */
+	public int getSize() {
+		return this.members.length;
+	}
+
+	/**
+	 * Returns the number of requests in flight on all the members.
+	 * @return the outstanding requests
+	 */
+	public int getOutstandingRequests() {
+		int outstanding = 0;
+		for (Member member : this.members) {
+			outstanding += member.outstanding.get();
+		}
+		return outstanding;
+	}
+
+	/**
+	 * Returns the number of requests waiting for a member to be under its concurrency
+	 * cap.
+	 * @return the waiting requests
+	 */
+	public int getWaitingRequests() {
+		return this.waiters.size();
+	}
+
+	/**
+	 * Returns the number of members replaced after being found unhealthy.
+	 * @return the replaced clients
+	 */
+	public long getReplacedClients() {
+		return this.replacedClients.get();
+	}
+
+	/**
+	 * Closes every member, and fails the requests waiting for one.
+	 */
+	public void close() {
+		this.closeGracefully().subscribe();
+	}
+
+	/**
+	 * Gracefully closes every member, and fails the requests waiting for one.
+	 * @return A Mono completing once every member is closed
+	 */
+	public Mono<Void> closeGracefully() {
+		return Mono.defer(() -> {
+			this.closed = true;
+			Member[] members;
+			synchronized (this.lock) {
+				this.tasks.dispose();
+				members = this.members;
+				this.members = new Member[0];
+				this.subscriber = null;
+			}
+			Waiter waiter;
+			while ((waiter = this.waiters.poll()) != null) {
+				waiter.fail(new McpError("Client pool is closed"));
+			}
+			return Flux.fromArray(members).flatMap(member -> close(member.client, member.transport)).then();
+		});
+	}
+
+	// --------------------------
+	// Members
+	// --------------------------
+
+	private Mono<Member> connect() {
+		return Mono.defer(() -> {
+			int index = this.clientCount.incrementAndGet();
+			McpClientTransport transport = this.transportSupplier.get();
+			McpClient.AsyncSpec spec = McpClient.async(transport).initializationTimeout(this.initializationTimeout);
+			this.clientCustomizer.accept(spec);
+			McpAsyncClient client = spec.build();
+			return client.initialize()
+				.timeout(this.initializationTimeout)
+				.thenReturn(new Member(client, transport, index))
+				.onErrorResume(
+						error -> close(client, transport).onErrorResume(e -> Mono.empty()).then(Mono.error(error)))
+				.doOnCancel(() -> close(client, transport).onErrorResume(e -> Mono.empty()).subscribe());
+		});
+	}
+
+	/**
+	 * Closes a client and its transport, which the client leaves open, so that stdio
+	 * server processes don't outlive their member.
+	 */
+	private static Mono<Void> close(McpAsyncClient client, McpClientTransport transport) {
+		return client.closeGracefully().onErrorResume(e -> Mono.empty()).then(Mono.defer(transport::closeGracefully));
+	}
+
+	private void add(Member member) {
+		boolean subscribes;
+		synchronized (this.lock) {
+			if (this.closed) {
+				close(member.client, member.transport).onErrorResume(e -> Mono.empty()).subscribe();
+				return;
+			}
+			Member[] members = Arrays.copyOf(this.members, this.members.length + 1);
+			members[members.length - 1] = member;
+			this.members = members;
+			subscribes = this.subscriber == null;
+			if (subscribes) {
+				this.subscriber = member;
+			}
+		}
+		member.disconnect = member.transport.onDisconnect().subscribe(null, error -> replace(member), () -> {
+			logger.warn("Pooled client {} lost its connection", member.index);
+			replace(member);
+		});
+		logger.debug("Pooled client {} joined the pool", member.index);
+		if (subscribes) {
+			resubscribe(member);
+		}
+		dispatchWaiters();
+	}
+
+	/**
+	 * Restores the resource subscriptions of the pool on the member now holding them.
+	 */
+	private void resubscribe(Member member) {
+		runTask(Flux.fromIterable(this.subscriptions)
+			.flatMap(uri -> member.client.subscribeResource(new SubscribeRequest(uri)).onErrorResume(error -> {
+				logger.warn("Failed to restore the subscription to {} on pooled client {}", uri, member.index, error);
+				return Mono.empty();
+			})), null);
+	}
+
+	/**
+	 * Runs a background task, cancelled if the pool is closed before it terminates and
+	 * forgotten once it does.
+	 */
+	private <T> void runTask(Flux<T> task, Consumer<? super T> consumer) {
+		Disposable.Composite tasks = this.tasks;
+		Disposable.Swap disposable = Disposables.swap();
+		tasks.add(disposable);
+		disposable.update(task.doFinally(signal -> tasks.remove(disposable)).subscribe(consumer, null, null));
+	}
+
+	/**
+	 * Closes an unhealthy member and connects its replacement, retrying with a backoff
+	 * until the replacement is initialized or the pool is closed. Members failing soon
+	 * after they joined delay their replacement, so that a crashing server is not
+	 * respawned in a loop.
+	 */
+	private void replace(Member member) {
+		Duration delay;
+		Member subscriber = null;
+		synchronized (this.lock) {
+			List<Member> members = new ArrayList<>(Arrays.asList(this.members));
+			if (!members.remove(member)) {
+				return;
+			}
+			this.members = members.toArray(new Member[0]);
+			if (this.subscriber == member) {
+				this.subscriber = members.isEmpty() ? null : members.get(0);
+				subscriber = this.subscriber;
+			}
+			if (System.nanoTime() - member.joinedAt >= MAX_BACKOFF.toNanos()) {
+				this.replacementDelay = Duration.ZERO;
+			}
+			delay = this.replacementDelay;
+			this.replacementDelay = delay.isZero() ? MIN_BACKOFF
+					: (delay.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay.multipliedBy(2));
+		}
+		logger.warn("Replacing unhealthy pooled client {}", member.index);
+		this.replacedClients.incrementAndGet();
+		if (member.disconnect != null) {
+			member.disconnect.dispose();
+		}
+		member.lostSink.tryEmitEmpty();
+		close(member.client, member.transport).onErrorResume(e -> Mono.empty()).subscribe();
+		if (subscriber != null) {
+			resubscribe(subscriber);
+		}
+		if (this.closed) {
+			return;
+		}
+		runTask(Mono.delay(delay)
+			.then(connect())
+			.retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_BACKOFF)
+				.maxBackoff(MAX_BACKOFF)
+				.doBeforeRetry(signal -> logger.debug("Failed to connect a pooled client", signal.failure())))
+			.flux(), this::add);
+	}
+
+	private Mono<Void> checkHealth() {
+		return Flux.fromArray(this.members)
+			.flatMap(member -> member.client.ping().timeout(this.initializationTimeout).then().onErrorResume(error -> {
+				logger.debug("Health check of pooled client {} failed", member.index, error);
+				replace(member);
+				return Mono.empty();
+			}))
+			.then();
+	}
+
+	private void failed(Member member, Throwable error) {
+		// An error response means the member is connected; other errors come from the
+		// transport or the request timeout
+		if (error instanceof McpError) {
+			member.succeeded();
+		}
+		else if (member.consecutiveFailures.incrementAndGet() >= this.maxConsecutiveFailures) {
+			replace(member);
+		}
+	}
+
+	// --------------------------
+	// Acquiring Members
+	// --------------------------
+
+	private Mono<Member> acquire() {
+		return Mono.<Member>create(sink -> {
+			if (this.closed) {
+				sink.error(new McpError("Client pool is closed"));
+				return;
+			}
+			Member member = tryAcquire();
+			if (member != null) {
+				sink.success(member);
+				return;
+			}
+			Waiter waiter = new Waiter(sink);
+			sink.onCancel(() -> {
+				if (waiter.claim()) {
+					this.waiters.remove(waiter);
+				}
+			});
+			this.waiters.add(waiter);
+			// A member may have been released or added before the waiter was queued
+			dispatchWaiters();
+		})
+			.timeout(this.acquireTimeout)
+			.onErrorMap(TimeoutException.class,
+					ex -> new McpError("No pooled client available within " + this.acquireTimeout));
+	}
+
+	/**
+	 * Takes a slot on the member with the fewest outstanding requests, starting the scan
+	 * at a rotating offset so that idle members share the load.
+	 */
+	private Member tryAcquire() {
+		while (true) {
+			Member[] members = this.members;
+			if (members.length == 0) {
+				return null;
+			}
+			int start = Math.floorMod(this.nextMember.getAndIncrement(), members.length);
+			Member best = null;
+			int bestOutstanding = this.maxConcurrencyPerClient;
+			for (int i = 0; i < members.length; i++) {
+				Member member = members[(start + i) % members.length];
+				int outstanding = member.outstanding.get();
+				if (outstanding < bestOutstanding) {
+					best = member;
+					bestOutstanding = outstanding;
+				}
+			}
+			if (best == null) {
+				return null;
+			}
+			if (best.outstanding.compareAndSet(bestOutstanding, bestOutstanding + 1)) {
+				return best;
+			}
+		}
+	}
+
+	private void release(Member member) {
+		member.outstanding.decrementAndGet();
+		dispatchWaiters();
+	}
+
+	private void dispatchWaiters() {
+		while (!this.waiters.isEmpty()) {
+			Member member = tryAcquire();
+			if (member == null) {
+				return;
+			}
+			Waiter waiter = this.waiters.poll();
+			if (waiter == null || !waiter.claim()) {
+				member.outstanding.decrementAndGet();
+				if (waiter == null) {
+					return;
+				}
+				continue;
+			}
+			waiter.sink.success(member);
+		}
+	}
+
+	/**
+	 * A client of the pool with its counters.
+	 */
+	private static final class Member {
+
+		private final McpAsyncClient client;
+
+		private final McpClientTransport transport;
+
+		private final int index;
+
+		private final long joinedAt = System.nanoTime();
+
+		/** Watches the connection of the member, set once it joins the pool */
+		private volatile Disposable disconnect;
+
+		/** Completed once the member leaves the pool */
+		private final Sinks.Empty<Void> lostSink = Sinks.empty();
+
+		private final AtomicInteger outstanding = new AtomicInteger();
+
+		private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+		Member(McpAsyncClient client, McpClientTransport transport, int index) {
+			this.client = client;
+			this.transport = transport;
+			this.index = index;
+		}
+
+		void succeeded() {
+			this.consecutiveFailures.set(0);
+		}
+
+		/**
+		 * Fails once the member leaves the pool, so that its requests in flight do not
+		 * wait for a response that will never come.
+		 */
+		<T> Mono<T> lost() {
+			return this.lostSink.asMono().then(Mono.error(() -> new ConnectionLostException(this.index)));
+		}
+
+	}
+
+	/**
+	 * Failure of a request in flight on a member leaving the pool.
+	 */
+	private static final class ConnectionLostException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		ConnectionLostException(int index) {
+			super("Connection of pooled client " + index + " lost");
+		}
+
+	}
+
+	/**
+	 * A request waiting for a member, claimed once by either the dispatch or the
+	 * cancellation of the request.
+	 */
+	private static final class Waiter {
+
+		private final MonoSink<Member> sink;
+
+		private final AtomicBoolean claimed = new AtomicBoolean();
+
+		Waiter(MonoSink<Member> sink) {
+			this.sink = sink;
+		}
+
+		boolean claim() {
+			return this.claimed.compareAndSet(false, true);
+		}
+
+		void fail(Throwable error) {
+			if (claim()) {
+				this.sink.error(error);
+			}
+		}
+
+	}
+
+	/**
+	 * Builder for {@link McpClientPool}.
+	 */
+	public static class Builder {
+
+		private final Supplier<McpClientTransport> transportSupplier;
+
+		private Consumer<McpClient.AsyncSpec> clientCustomizer = spec -> {
+		};
+
+		private int size = 4;
+
+		private int maxConcurrencyPerClient = Integer.MAX_VALUE;
+
+		private int maxConsecutiveFailures = 3;
+
+		private Duration initializationTimeout = Duration.ofSeconds(20);
+
+		private Duration acquireTimeout = Duration.ofSeconds(20);
+
+		private Duration healthCheckInterval;
+
+		private final Map<String, RequestPolicy> requestPolicies = new HashMap<>();
+
+		private final Map<String, RequestPolicy> toolCallPolicies = new HashMap<>();
+
+		private final Set<String> idempotentTools = new HashSet<>();
+
+		private Builder(Supplier<McpClientTransport> transportSupplier) {
+			Assert.notNull(transportSupplier, "Transport supplier must not be null");
+			this.transportSupplier = transportSupplier;
+		}
+
+		/**
+		 * Sets the number of members of the pool. Defaults to 4.
+		 * @param size the number of clients. Must be positive.
+		 * @return this builder
+		 */
+		public Builder size(int size) {
+			Assert.isTrue(size > 0, "Size must be positive");
+			this.size = size;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of requests in flight on each member, beyond which
+		 * requests wait for one to finish. Defaults to no limit.
+		 * @param maxConcurrencyPerClient the concurrency cap. Must be positive.
+		 * @return this builder
+		 */
+		public Builder maxConcurrencyPerClient(int maxConcurrencyPerClient) {
+			Assert.isTrue(maxConcurrencyPerClient > 0, "Max concurrency per client must be positive");
+			this.maxConcurrencyPerClient = maxConcurrencyPerClient;
+			return this;
+		}
+
+		/**
+		 * Sets the number of requests in a row a member may fail, other than with an
+		 * error response of the server, before it is replaced. Defaults to 3.
+		 * @param maxConsecutiveFailures the failure threshold. Must be positive.
+		 * @return this builder
+		 */
+		public Builder maxConsecutiveFailures(int maxConsecutiveFailures) {
+			Assert.isTrue(maxConsecutiveFailures > 0, "Max consecutive failures must be positive");
+			this.maxConsecutiveFailures = maxConsecutiveFailures;
+			return this;
+		}
+
+		/**
+		 * Sets how long a member may take to initialize, and to answer a health check
+		 * ping. Defaults to 20 seconds.
+		 * @param initializationTimeout the timeout. Must not be null.
+		 * @return this builder
+		 */
+		public Builder initializationTimeout(Duration initializationTimeout) {
+			Assert.notNull(initializationTimeout, "Initialization timeout must not be null");
+			this.initializationTimeout = initializationTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets how long a request may wait for a member under its concurrency cap before
+		 * failing. Defaults to 20 seconds.
+		 * @param acquireTimeout the timeout. Must not be null.
+		 * @return this builder
+		 */
+		public Builder acquireTimeout(Duration acquireTimeout) {
+			Assert.notNull(acquireTimeout, "Acquire timeout must not be null");
+			this.acquireTimeout = acquireTimeout;
+			return this;
+		}
+
+		/**
+		 * Pings every member at the given interval, replacing those that do not answer.
+		 * Defaults to no health checks.
+		 * @param healthCheckInterval the interval. Must not be null.
+		 * @return this builder
+		 */
+		public Builder healthCheckInterval(Duration healthCheckInterval) {
+			Assert.notNull(healthCheckInterval, "Health check interval must not be null");
+			this.healthCheckInterval = healthCheckInterval;
+			return this;
+		}
+
+		/**
+		 * Applies retries and hedging to the pooled requests of the given methods, which
+		 * must be idempotent. Retries and hedges go to the least busy member at the time
+		 * they are sent, usually another one than the slow or failed request. Do not set
+		 * a policy on the members as well.
+		 * @param requestPolicy the policy to apply. Must not be null.
+		 * @param methods the methods of the requests
+		 * @return this builder
+		 */
+		public Builder requestPolicy(RequestPolicy requestPolicy, String... methods) {
+			Assert.notNull(requestPolicy, "Request policy must not be null");
+			Assert.notNull(methods, "Methods must not be null");
+			for (String method : methods) {
+				this.requestPolicies.put(method, requestPolicy);
+			}
+			return this;
+		}
+
+		/**
+		 * Applies retries and hedging to the pooled calls of the given tools, which must
+		 * be idempotent. Takes precedence over a policy of the {@code tools/call} method.
+		 * @param requestPolicy the policy to apply. Must not be null.
+		 * @param toolNames the names of the tools
+		 * @return this builder
+		 */
+		public Builder toolCallPolicy(RequestPolicy requestPolicy, String... toolNames) {
+			Assert.notNull(requestPolicy, "Request policy must not be null");
+			Assert.notNull(toolNames, "Tool names must not be null");
+			for (String toolName : toolNames) {
+				this.toolCallPolicies.put(toolName, requestPolicy);
+			}
+			return this;
+		}
+
+		/**
+		 * Declares tools whose calls have no side effects, so that they are replayed on
+		 * another member when the connection they were sent on is lost. Other tool calls
+		 * fail instead.
+		 * @param toolNames the names of the tools
+		 * @return this builder
+		 */
+		public Builder idempotentTools(String... toolNames) {
+			Assert.notNull(toolNames, "Tool names must not be null");
+			this.idempotentTools.addAll(Arrays.asList(toolNames));
+			return this;
+		}
+
+		/**
+		 * Customizes the specification of every member, for example to set its request
+		 * timeout, capabilities or handlers. The transport and initialization timeout are
+		 * set by the pool.
+		 * @param clientCustomizer the customizer
+		 * @return this builder
+		 */
+		public Builder clientCustomizer(Consumer<McpClient.AsyncSpec> clientCustomizer) {
+			Assert.notNull(clientCustomizer, "Client customizer must not be null");
+			this.clientCustomizer = clientCustomizer;
+			return this;
+		}
+
+		public McpClientPool build() {
+			return new McpClientPool(this);
+		}
+
+	}
+
+}
@@ -5,6 +5,8 @@
 package io.modelcontextprotocol.client;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
 
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.autocomplete.CompleteRequest;
@@ -31,6 +33,8 @@ import io.modelcontextprotocol.spec.tool.ListToolsResult;
 import io.modelcontextprotocol.util.Assert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * A synchronous client implementation for the Model Context Protocol (MCP) that wraps an
@@ -77,16 +81,34 @@ public class McpSyncClient implements AutoCloseable {
 	// is not a requirement?
 	private static final long DEFAULT_CLOSE_TIMEOUT_MS = 10_000L;
 
+	/** Default number of requests of a bulk operation in flight at the same time */
+	static final int DEFAULT_BULK_CONCURRENCY = 16;
+
 	private final McpAsyncClient delegate;
 
+	private final int bulkConcurrency;
+
 	/**
 	 * Create a new McpSyncClient with the given delegate.
 	 * @param delegate the asynchronous kernel on top of which this synchronous client
 	 * provides a blocking API.
 	 */
 	McpSyncClient(McpAsyncClient delegate) {
+		this(delegate, DEFAULT_BULK_CONCURRENCY);
+	}
+
+	/**
+	 * Create a new McpSyncClient with the given delegate.
+	 * @param delegate the asynchronous kernel on top of which this synchronous client
+	 * provides a blocking API.
+	 * @param bulkConcurrency the number of requests of a bulk operation in flight at the
+	 * same time.
+	 */
+	McpSyncClient(McpAsyncClient delegate, int bulkConcurrency) {
 		Assert.notNull(delegate, "The delegate can not be null");
+		Assert.isTrue(bulkConcurrency > 0, "The bulk concurrency must be positive");
 		this.delegate = delegate;
+		this.bulkConcurrency = bulkConcurrency;
 	}
 
 	/**
@@ -138,6 +160,14 @@ public class McpSyncClient implements AutoCloseable {
 		return this.delegate.getClientInfo();
 	}
 
+	/**
+	 * Get a snapshot of the circuit breaker and concurrency limit of the client.
+	 * @return The overload metrics, all zero without an {@link OverloadPolicy}
+	 */
+	public OverloadMetrics getOverloadMetrics() {
+		return this.delegate.getOverloadMetrics();
+	}
+
 	@Override
 	public void close() {
 		this.delegate.close();
@@ -235,6 +265,20 @@ public class McpSyncClient implements AutoCloseable {
 		return this.delegate.callTool(callToolRequest).block();
 	}
 
+	/**
+	 * Calls several tools, pipelining the requests over the session of the client instead
+	 * of waiting for each response before sending the next request. At most the bulk
+	 * concurrency of the client are in flight at the same time.
+	 * @param callToolRequests The requests of the tool calls
+	 * @return The outcome of each call, in the order of the requests. A call failing does
+	 * not fail the others.
+	 * @see McpClient.SyncSpec#bulkConcurrency(int)
+	 */
+	public List<BulkResult<CallToolResult>> callTools(List<CallToolRequest> callToolRequests) {
+		Assert.notNull(callToolRequests, "The call tool requests can not be null");
+		return bulk(callToolRequests, this.delegate::callTool);
+	}
+
 	/**
 	 * Retrieves the list of all tools provided by the server.
 	 * @return The list of tools result containing: - tools: List of available tools, each
@@ -295,6 +339,20 @@ public class McpSyncClient implements AutoCloseable {
 		return this.delegate.readResource(readResourceRequest).block();
 	}
 
+	/**
+	 * Reads several resources, pipelining the requests over the session of the client
+	 * instead of waiting for each response before sending the next request. At most the
+	 * bulk concurrency of the client are in flight at the same time.
+	 * @param uris The URIs of the resources
+	 * @return The outcome of each read, in the order of the URIs. A read failing does not
+	 * fail the others.
+	 * @see McpClient.SyncSpec#bulkConcurrency(int)
+	 */
+	public List<BulkResult<ReadResourceResult>> readResources(List<String> uris) {
+		Assert.notNull(uris, "The URIs can not be null");
+		return bulk(uris, uri -> this.delegate.readResource(new ReadResourceRequest(uri)));
+	}
+
 	/**
 	 * Resource templates allow servers to expose parameterized resources using URI
 	 * templates. Arguments may be auto-completed through the completion API.
@@ -370,4 +428,20 @@ public class McpSyncClient implements AutoCloseable {
 		return this.delegate.completeCompletion(completeRequest).block();
 	}
 
+	/**
+	 * Sends a request per item with at most the bulk concurrency in flight, and waits for
+	 * all of them.
+	 */
+	private <I, T> List<BulkResult<T>> bulk(List<I> items, Function<I, Mono<T>> request) {
+		if (items.isEmpty()) {
+			return List.of();
+		}
+		return Flux.fromIterable(items)
+			.flatMapSequential(item -> Mono.defer(() -> request.apply(item))
+				.map(BulkResult::success)
+				.onErrorResume(error -> Mono.just(BulkResult.failure(error))), this.bulkConcurrency)
+			.collectList()
+			.block();
+	}
+
 }
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.client.OverloadMetrics.CircuitState;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.jsonrpc.ErrorCodes;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Sends the requests of a client within its {@link OverloadPolicy}: a circuit breaker in
+ * front of an AIMD concurrency limit.
+ *
+ * <p>
+ * All the state is guarded by a lock only held to update it, never while a request is
+ * sent. Clients without a policy skip the lock entirely.
+ */
+final class OverloadGuard {
+
+	static final OverloadGuard NONE = new OverloadGuard(null, System::nanoTime);
+
+	/** Factor applied to the limit when the server shows signs of overload */
+	private static final double BACKOFF_RATIO = 0.9;
+
+	/** Weight of a new latency in the average, which follows about the last 100 */
+	private static final double LATENCY_WEIGHT = 0.01;
+
+	private final OverloadPolicy policy;
+
+	/**
+	 * Source of the nanosecond ticks latencies and the open duration are measured with
+	 */
+	private final LongSupplier nanoClock;
+
+	private final Object lock = new Object();
+
+	/** Requests waiting for the limit, guarded by {@link #lock} */
+	private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+	/** Whether each of the last requests failed, a ring guarded by {@link #lock} */
+	private final boolean[] outcomes;
+
+	private int outcomeIndex;
+
+	private int outcomeCount;
+
+	private int failureCount;
+
+	private CircuitState state = CircuitState.CLOSED;
+
+	private long openUntil;
+
+	/** Probe requests let through since the circuit breaker became half open */
+	private int probes;
+
+	private int probeSuccesses;
+
+	private double limit;
+
+	/** Average latency of the successful requests in nanoseconds, 0 until the first */
+	private double averageLatency;
+
+	private int inFlight;
+
+	private long rejected;
+
+	private long shortCircuited;
+
+	private OverloadGuard(OverloadPolicy policy, LongSupplier nanoClock) {
+		this.policy = policy;
+		this.nanoClock = nanoClock;
+		this.outcomes = (policy != null && policy.hasCircuitBreaker()) ? new boolean[policy.getWindowSize()] : null;
+		this.limit = (policy != null) ? policy.getInitialLimit() : Integer.MAX_VALUE;
+	}
+
+	static OverloadGuard of(OverloadPolicy policy) {
+		return of(policy, System::nanoTime);
+	}
+
+	static OverloadGuard of(OverloadPolicy policy, LongSupplier nanoClock) {
+		return (policy != null) ? new OverloadGuard(policy, nanoClock) : NONE;
+	}
+
+	/**
+	 * Sends a request once the circuit breaker and the concurrency limit allow it.
+	 * @param request sends the request
+	 * @return the response, or an {@link McpError} if the request is rejected
+	 */
+	<T> Mono<T> guard(Supplier<Mono<T>> request) {
+		if (this.policy == null) {
+			return request.get();
+		}
+		Mono<Boolean> permit = Mono.create(this::acquire);
+		if (this.policy.getMaxQueueSize() > 0) {
+			permit = permit.timeout(this.policy.getQueueTimeout()).onErrorMap(TimeoutException.class, e -> {
+				synchronized (this.lock) {
+					this.rejected++;
+				}
+				return busy("Request waited " + this.policy.getQueueTimeout().toMillis()
+						+ "ms for the concurrency limit of the client");
+			});
+		}
+		return permit.flatMap(probe -> {
+			long start = this.nanoClock.getAsLong();
+			return request.get()
+				.doOnSuccess(result -> complete(start, null, probe))
+				.doOnError(error -> complete(start, error, probe))
+				.doOnCancel(() -> release(probe));
+		});
+	}
+
+	/**
+	 * Grants a permit, telling whether the request probes a half open circuit breaker.
+	 */
+	private void acquire(MonoSink<Boolean> sink) {
+		Waiter waiter = null;
+		Boolean probe = null;
+		McpError rejection = null;
+		synchronized (this.lock) {
+			if (this.state == CircuitState.OPEN && this.nanoClock.getAsLong() - this.openUntil >= 0) {
+				this.state = CircuitState.HALF_OPEN;
+				this.probes = 0;
+				this.probeSuccesses = 0;
+			}
+			if (!admitsRequests()) {
+				this.shortCircuited++;
+				rejection = busy("Circuit breaker of the client is open, the server is failing");
+			}
+			else if (this.inFlight < (int) this.limit) {
+				this.inFlight++;
+				probe = takeProbe();
+			}
+			else if (this.waiters.size() < this.policy.getMaxQueueSize()) {
+				waiter = new Waiter(sink);
+				this.waiters.add(waiter);
+			}
+			else {
+				this.rejected++;
+				rejection = busy("Concurrency limit of the client reached, the server is overloaded");
+			}
+		}
+
+		if (probe != null) {
+			sink.success(probe);
+		}
+		else if (waiter != null) {
+			Waiter queued = waiter;
+			sink.onCancel(() -> {
+				if (queued.claim()) {
+					synchronized (this.lock) {
+						this.waiters.remove(queued);
+					}
+				}
+				else {
+					// The permit was handed over but never delivered, pass it on
+					release(queued.probe);
+				}
+			});
+		}
+		else {
+			sink.error(rejection);
+		}
+	}
+
+	private boolean admitsRequests() {
+		return this.state == CircuitState.CLOSED
+				|| (this.state == CircuitState.HALF_OPEN && this.probes < this.policy.getHalfOpenRequests());
+	}
+
+	private boolean takeProbe() {
+		if (this.state != CircuitState.HALF_OPEN) {
+			return false;
+		}
+		this.probes++;
+		return true;
+	}
+
+	private void complete(long start, Throwable error, boolean probe) {
+		long latency = this.nanoClock.getAsLong() - start;
+		// Errors answered by the server show it is still responsive
+		boolean failure = error != null && !(error instanceof McpError);
+		List<Waiter> shortCircuitedWaiters = null;
+		synchronized (this.lock) {
+			if (this.policy.hasAdaptiveLimit()) {
+				adjustLimit(latency, error == null, failure);
+			}
+			if (this.outcomes != null) {
+				shortCircuitedWaiters = recordOutcome(failure, probe);
+			}
+		}
+		if (shortCircuitedWaiters != null) {
+			for (Waiter waiter : shortCircuitedWaiters) {
+				if (waiter.claim()) {
+					waiter.sink.error(busy("Circuit breaker of the client is open, the server is failing"));
+				}
+			}
+		}
+		release(false);
+	}
+
+	private void adjustLimit(long latency, boolean success, boolean failure) {
+		boolean slow = success && this.averageLatency > 0
+				&& latency > this.averageLatency * this.policy.getLatencyTolerance();
+		if (success) {
+			this.averageLatency = (this.averageLatency == 0) ? latency
+					: this.averageLatency + (latency - this.averageLatency) * LATENCY_WEIGHT;
+		}
+		if (failure || slow) {
+			this.limit = Math.max(this.policy.getMinLimit(), this.limit * BACKOFF_RATIO);
+		}
+		else if (success && this.inFlight * 2 >= this.limit) {
+			this.limit = Math.min(this.policy.getMaxLimit(), this.limit + 1);
+		}
+	}
+
+	/**
+	 * Records the outcome of a request, returning the waiters to reject if the circuit
+	 * breaker opens.
+	 */
+	private List<Waiter> recordOutcome(boolean failure, boolean probe) {
+		if (this.state == CircuitState.HALF_OPEN) {
+			if (!probe) {
+				return null;
+			}
+			if (failure) {
+				return open();
+			}
+			if (++this.probeSuccesses >= this.policy.getHalfOpenRequests()) {
+				this.state = CircuitState.CLOSED;
+			}
+			return null;
+		}
+		if (this.state == CircuitState.OPEN) {
+			return null;
+		}
+		int slot = this.outcomeIndex;
+		if (this.outcomeCount == this.outcomes.length) {
+			if (this.outcomes[slot]) {
+				this.failureCount--;
+			}
+		}
+		else {
+			this.outcomeCount++;
+		}
+		this.outcomes[slot] = failure;
+		if (failure) {
+			this.failureCount++;
+		}
+		this.outcomeIndex = (slot + 1) % this.outcomes.length;
+		if (this.outcomeCount == this.outcomes.length
+				&& (double) this.failureCount / this.outcomes.length >= this.policy.getFailureRateThreshold()) {
+			return open();
+		}
+		return null;
+	}
+
+	private List<Waiter> open() {
+		this.state = CircuitState.OPEN;
+		this.openUntil = this.nanoClock.getAsLong() + this.policy.getOpenDuration().toNanos();
+		this.outcomeIndex = 0;
+		this.outcomeCount = 0;
+		this.failureCount = 0;
+		List<Waiter> drained = new ArrayList<>(this.waiters);
+		this.waiters.clear();
+		this.shortCircuited += drained.size();
+		return drained;
+	}
+
+	/**
+	 * Hands the permit of a terminated request over to the next waiter, or frees it if no
+	 * request is waiting or the limit shrank.
+	 * @param returnProbe whether the request was a probe that never got its response
+	 */
+	private void release(boolean returnProbe) {
+		while (true) {
+			Waiter next = null;
+			boolean probe;
+			synchronized (this.lock) {
+				if (returnProbe && this.state == CircuitState.HALF_OPEN) {
+					this.probes--;
+				}
+				if (this.inFlight <= (int) this.limit && admitsRequests()) {
+					next = this.waiters.poll();
+				}
+				if (next == null) {
+					this.inFlight--;
+					return;
+				}
+				probe = takeProbe();
+			}
+			next.probe = probe;
+			// A waiter cancelled concurrently has already given up its place
+			if (next.claim()) {
+				next.sink.success(probe);
+				return;
+			}
+			returnProbe = probe;
+		}
+	}
+
+	OverloadMetrics metrics() {
+		if (this.policy == null) {
+			return new OverloadMetrics(CircuitState.CLOSED, Integer.MAX_VALUE, 0, 0, 0, 0);
+		}
+		synchronized (this.lock) {
+			return new OverloadMetrics(this.state, (int) this.limit, this.inFlight, this.waiters.size(), this.rejected,
+					this.shortCircuited);
+		}
+	}
+
+	private static McpError busy(String message) {
+		return new McpError(new JSONRPCResponse.JSONRPCError(ErrorCodes.SERVER_BUSY, message, null));
+	}
+
+	/**
+	 * A queued request. Exactly one of granting the permit and cancelling the request
+	 * claims it.
+	 */
+	private static final class Waiter {
+
+		private final MonoSink<Boolean> sink;
+
+		private final AtomicBoolean claimed = new AtomicBoolean();
+
+		/** Whether the permit handed over is a probe, written before claiming */
+		private boolean probe;
+
+		Waiter(MonoSink<Boolean> sink) {
+			this.sink = sink;
+		}
+
+		boolean claim() {
+			return this.claimed.compareAndSet(false, true);
+		}
+
+	}
+
+}
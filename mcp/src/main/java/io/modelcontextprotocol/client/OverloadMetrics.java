@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+/**
+ * Point-in-time snapshot of the overload protection of a client. Counters are cumulative
+ * since the client was created.
+ *
+ * @see McpAsyncClient#getOverloadMetrics()
+ * @see OverloadPolicy
+ */
+public final class OverloadMetrics {
+
+	/**
+	 * State of the circuit breaker.
+	 */
+	public enum CircuitState {
+
+		/** Requests flow normally */
+		CLOSED,
+
+		/** Requests are rejected until the open duration elapsed */
+		OPEN,
+
+		/** A few probe requests decide whether the circuit closes again */
+		HALF_OPEN
+
+	}
+
+	private final CircuitState circuitState;
+
+	private final int concurrencyLimit;
+
+	private final int inFlightRequests;
+
+	private final int queuedRequests;
+
+	private final long rejectedRequests;
+
+	private final long shortCircuitedRequests;
+
+	OverloadMetrics(CircuitState circuitState, int concurrencyLimit, int inFlightRequests, int queuedRequests,
+			long rejectedRequests, long shortCircuitedRequests) {
+		this.circuitState = circuitState;
+		this.concurrencyLimit = concurrencyLimit;
+		this.inFlightRequests = inFlightRequests;
+		this.queuedRequests = queuedRequests;
+		this.rejectedRequests = rejectedRequests;
+		this.shortCircuitedRequests = shortCircuitedRequests;
+	}
+
+	/**
+	 * Returns the state of the circuit breaker.
+	 * @return the state, always {@link CircuitState#CLOSED} without a circuit breaker
+	 */
+	public CircuitState getCircuitState() {
+		return this.circuitState;
+	}
+
+	/**
+	 * Returns the current concurrency limit.
+	 * @return the limit, {@link Integer#MAX_VALUE} when the concurrency is not limited
+	 */
+	public int getConcurrencyLimit() {
+		return this.concurrencyLimit;
+	}
+
+	/**
+	 * Returns the number of requests awaiting a response.
+	 * @return the in flight requests
+	 */
+	public int getInFlightRequests() {
+		return this.inFlightRequests;
+	}
+
+	/**
+	 * Returns the number of requests waiting for the concurrency limit.
+	 * @return the queued requests
+	 */
+	public int getQueuedRequests() {
+		return this.queuedRequests;
+	}
+
+	/**
+	 * Returns the number of requests rejected because the queue was full or they waited
+	 * longer than the queue timeout.
+	 * @return the rejected requests
+	 */
+	public long getRejectedRequests() {
+		return this.rejectedRequests;
+	}
+
+	/**
+	 * Returns the number of requests rejected by the circuit breaker.
+	 * @return the short circuited requests
+	 */
+	public long getShortCircuitedRequests() {
+		return this.shortCircuitedRequests;
+	}
+
+	@Override
+	public String toString() {
+		return "OverloadMetrics{" + "circuitState=" + this.circuitState + ", concurrencyLimit=" + this.concurrencyLimit
+				+ ", inFlightRequests=" + this.inFlightRequests + ", queuedRequests=" + this.queuedRequests
+				+ ", rejectedRequests=" + this.rejectedRequests + ", shortCircuitedRequests="
+				+ this.shortCircuitedRequests + '}';
+	}
+
+}
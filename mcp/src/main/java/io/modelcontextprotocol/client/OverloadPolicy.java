@@ -0,0 +1,285 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.time.Duration;
+
+import io.modelcontextprotocol.util.Assert;
+
+/**
+ * Protects a client, and the server it talks to, from piling requests onto a server that
+ * is degrading. Instead of holding every request until it times out, the client fails
+ * fast or queues within bounds.
+ *
+ * <p>
+ * The circuit breaker counts the requests failing with a timeout or a transport error
+ * among the last {@code windowSize} ones. Once their rate reaches the threshold, it opens
+ * and rejects every request for the open duration, then lets a few probe requests through
+ * and closes again if they all succeed. Errors answered by the server do not count as
+ * failures.
+ *
+ * <p>
+ * The adaptive concurrency limit caps the requests in flight. It follows an AIMD
+ * algorithm driven by the observed latency: the limit grows by one for every request
+ * answered while at least half of the limit is in use, and shrinks by 10% for every
+ * request failing with a timeout or a transport error or answered more than
+ * {@code latencyTolerance} times slower than the average latency. Requests beyond the
+ * limit wait in a bounded queue, and are rejected once it is full or after the queue
+ * timeout.
+ *
+ * <p>
+ * Rejected requests fail with an {@link io.modelcontextprotocol.spec.McpError} with the
+ * {@link io.modelcontextprotocol.spec.jsonrpc.ErrorCodes#SERVER_BUSY SERVER_BUSY} code.
+ *
+ * <pre>{@code
+ * OverloadPolicy policy = OverloadPolicy.builder()
+ *     .circuitBreaker(0.5, 20, Duration.ofSeconds(10))
+ *     .adaptiveLimit(10, 1, 100)
+ *     .queue(50, Duration.ofSeconds(1))
+ *     .build();
+ * McpClient.async(transport).overloadPolicy(policy).build();
+ * }</pre>
+ *
+ * @see McpAsyncClient#getOverloadMetrics()
+ */
+public final class OverloadPolicy {
+
+	private final double failureRateThreshold;
+
+	private final int windowSize;
+
+	private final Duration openDuration;
+
+	private final int halfOpenRequests;
+
+	private final int initialLimit;
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double latencyTolerance;
+
+	private final int maxQueueSize;
+
+	private final Duration queueTimeout;
+
+	private OverloadPolicy(Builder builder) {
+		this.failureRateThreshold = builder.failureRateThreshold;
+		this.windowSize = builder.windowSize;
+		this.openDuration = builder.openDuration;
+		this.halfOpenRequests = builder.halfOpenRequests;
+		this.initialLimit = builder.initialLimit;
+		this.minLimit = builder.minLimit;
+		this.maxLimit = builder.maxLimit;
+		this.latencyTolerance = builder.latencyTolerance;
+		this.maxQueueSize = builder.maxQueueSize;
+		this.queueTimeout = builder.queueTimeout;
+	}
+
+	/**
+	 * Returns the failure rate opening the circuit breaker.
+	 * @return the failure rate, between 0 and 1, or {@link Double#NaN} when the circuit
+	 * breaker is disabled
+	 */
+	public double getFailureRateThreshold() {
+		return this.failureRateThreshold;
+	}
+
+	/**
+	 * Returns the number of recent requests the failure rate is computed over.
+	 * @return the window size
+	 */
+	public int getWindowSize() {
+		return this.windowSize;
+	}
+
+	/**
+	 * Returns how long the circuit breaker rejects requests once open.
+	 * @return the open duration
+	 */
+	public Duration getOpenDuration() {
+		return this.openDuration;
+	}
+
+	/**
+	 * Returns the number of probe requests that must succeed to close the circuit breaker
+	 * again.
+	 * @return the half open requests
+	 */
+	public int getHalfOpenRequests() {
+		return this.halfOpenRequests;
+	}
+
+	/**
+	 * Returns the concurrency limit the client starts with.
+	 * @return the initial limit, {@link Integer#MAX_VALUE} when the concurrency is not
+	 * limited
+	 */
+	public int getInitialLimit() {
+		return this.initialLimit;
+	}
+
+	public int getMinLimit() {
+		return this.minLimit;
+	}
+
+	public int getMaxLimit() {
+		return this.maxLimit;
+	}
+
+	/**
+	 * Returns the ratio to the average latency above which a response signals an
+	 * overloaded server.
+	 * @return the latency tolerance
+	 */
+	public double getLatencyTolerance() {
+		return this.latencyTolerance;
+	}
+
+	/**
+	 * Returns the maximum number of requests waiting for the concurrency limit.
+	 * @return the queue size limit
+	 */
+	public int getMaxQueueSize() {
+		return this.maxQueueSize;
+	}
+
+	/**
+	 * Returns how long a request waits for the concurrency limit before it is rejected.
+	 * @return the queue timeout
+	 */
+	public Duration getQueueTimeout() {
+		return this.queueTimeout;
+	}
+
+	boolean hasCircuitBreaker() {
+		return !Double.isNaN(this.failureRateThreshold);
+	}
+
+	boolean hasAdaptiveLimit() {
+		return this.initialLimit != Integer.MAX_VALUE;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builder for {@link OverloadPolicy}.
+	 */
+	public static class Builder {
+
+		private double failureRateThreshold = Double.NaN;
+
+		private int windowSize = 20;
+
+		private Duration openDuration = Duration.ofSeconds(10);
+
+		private int halfOpenRequests = 1;
+
+		private int initialLimit = Integer.MAX_VALUE;
+
+		private int minLimit = 1;
+
+		private int maxLimit = Integer.MAX_VALUE;
+
+		private double latencyTolerance = 2.0;
+
+		private int maxQueueSize = 0;
+
+		private Duration queueTimeout = Duration.ofSeconds(1);
+
+		private Builder() {
+		}
+
+		/**
+		 * Enables the circuit breaker. Defaults to disabled.
+		 * @param failureRateThreshold the rate of timeouts and transport errors opening
+		 * it. Must be between 0 and 1.
+		 * @param windowSize the number of recent requests the rate is computed over. Must
+		 * be positive.
+		 * @param openDuration how long it rejects requests once open. Must be positive.
+		 * @return this builder
+		 */
+		public Builder circuitBreaker(double failureRateThreshold, int windowSize, Duration openDuration) {
+			Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 1,
+					"Failure rate threshold must be between 0 and 1");
+			Assert.isTrue(windowSize > 0, "Window size must be positive");
+			Assert.isTrue(openDuration != null && !openDuration.isNegative() && !openDuration.isZero(),
+					"Open duration must be positive");
+			this.failureRateThreshold = failureRateThreshold;
+			this.windowSize = windowSize;
+			this.openDuration = openDuration;
+			return this;
+		}
+
+		/**
+		 * Sets the number of probe requests let through once the open duration elapsed,
+		 * which must all succeed to close the circuit breaker. Defaults to 1.
+		 * @param halfOpenRequests the probe requests. Must be positive.
+		 * @return this builder
+		 */
+		public Builder halfOpenRequests(int halfOpenRequests) {
+			Assert.isTrue(halfOpenRequests > 0, "Half open requests must be positive");
+			this.halfOpenRequests = halfOpenRequests;
+			return this;
+		}
+
+		/**
+		 * Enables the adaptive concurrency limit. Defaults to unlimited.
+		 * @param initialLimit the limit the client starts with. Must be between the
+		 * minimum and the maximum.
+		 * @param minLimit the lowest limit. Must be positive.
+		 * @param maxLimit the highest limit.
+		 * @return this builder
+		 */
+		public Builder adaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+			Assert.isTrue(minLimit > 0, "Min limit must be positive");
+			Assert.isTrue(minLimit <= initialLimit && initialLimit <= maxLimit,
+					"Initial limit must be between the min and max limits");
+			Assert.isTrue(maxLimit < Integer.MAX_VALUE, "Max limit must be bounded");
+			this.initialLimit = initialLimit;
+			this.minLimit = minLimit;
+			this.maxLimit = maxLimit;
+			return this;
+		}
+
+		/**
+		 * Sets the ratio to the average latency above which a response shrinks the
+		 * concurrency limit. Defaults to 2.
+		 * @param latencyTolerance the tolerance. Must be greater than 1.
+		 * @return this builder
+		 */
+		public Builder latencyTolerance(double latencyTolerance) {
+			Assert.isTrue(latencyTolerance > 1, "Latency tolerance must be greater than 1");
+			this.latencyTolerance = latencyTolerance;
+			return this;
+		}
+
+		/**
+		 * Lets requests beyond the concurrency limit wait for a slot. Defaults to no
+		 * queue, rejecting such requests right away.
+		 * @param maxQueueSize the queue size limit. Must not be negative.
+		 * @param queueTimeout how long a request waits before it is rejected. Must be
+		 * positive.
+		 * @return this builder
+		 */
+		public Builder queue(int maxQueueSize, Duration queueTimeout) {
+			Assert.isTrue(maxQueueSize >= 0, "Max queue size must not be negative");
+			Assert.isTrue(queueTimeout != null && !queueTimeout.isNegative() && !queueTimeout.isZero(),
+					"Queue timeout must be positive");
+			this.maxQueueSize = maxQueueSize;
+			this.queueTimeout = queueTimeout;
+			return this;
+		}
+
+		public OverloadPolicy build() {
+			return new OverloadPolicy(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.observation.LatencyHistogram;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.retry.Retry;
+
+/**
+ * Applies the {@link RequestPolicy} of each method, and of each tool for
+ * {@code tools/call}, to the requests of a client. Every policy has one retry budget,
+ * shared by its methods, and every method its own latencies.
+ */
+final class RequestPolicies {
+
+	static final RequestPolicies NONE = new RequestPolicies(Map.of(), Map.of());
+
+	/** Latencies observed before hedging at a percentile rather than after the delay */
+	private static final long MIN_SAMPLES = 100;
+
+	private final Map<String, MethodPolicy> methods;
+
+	private final Map<String, MethodPolicy> tools;
+
+	private RequestPolicies(Map<String, MethodPolicy> methods, Map<String, MethodPolicy> tools) {
+		this.methods = methods;
+		this.tools = tools;
+	}
+
+	static RequestPolicies of(Map<String, RequestPolicy> methodPolicies, Map<String, RequestPolicy> toolPolicies) {
+		if (methodPolicies.isEmpty() && toolPolicies.isEmpty()) {
+			return NONE;
+		}
+		Map<RequestPolicy, RetryBudget> budgets = new IdentityHashMap<>();
+		Map<String, MethodPolicy> methods = new HashMap<>();
+		methodPolicies.forEach((method, policy) -> methods.put(method,
+				new MethodPolicy(policy, budgets.computeIfAbsent(policy, RetryBudget::new))));
+		Map<String, MethodPolicy> tools = new HashMap<>();
+		toolPolicies.forEach((tool, policy) -> tools.put(tool,
+				new MethodPolicy(policy, budgets.computeIfAbsent(policy, RetryBudget::new))));
+		return new RequestPolicies(methods, tools);
+	}
+
+	/**
+	 * Sends a request within the policy of its method, if any.
+	 * @param method the method of the request
+	 * @param params the parameters of the request, whose tool name selects the policy of
+	 * {@code tools/call}
+	 * @param request sends one copy of the request, possibly through another connection
+	 * each time
+	 * @return the first response
+	 */
+	<T> Mono<T> send(String method, Object params, Supplier<Mono<T>> request) {
+		MethodPolicy policy = this.methods.get(method);
+		if (McpSchema.METHOD_TOOLS_CALL.equals(method) && params instanceof CallToolRequest) {
+			policy = this.tools.getOrDefault(((CallToolRequest) params).getName(), policy);
+		}
+		return policy == null ? request.get() : policy.send(request);
+	}
+
+	/**
+	 * Token bucket limiting the retries and hedges of a policy to a fraction of its
+	 * requests.
+	 */
+	private static final class RetryBudget {
+
+		private final double ratio;
+
+		private final int capacity;
+
+		private double tokens;
+
+		RetryBudget(RequestPolicy policy) {
+			this.ratio = policy.getBudgetRatio();
+			this.capacity = policy.getBudgetCapacity();
+			this.tokens = this.capacity;
+		}
+
+		synchronized void deposit() {
+			this.tokens = Math.min(this.capacity, this.tokens + this.ratio);
+		}
+
+		synchronized boolean tryWithdraw() {
+			if (this.tokens < 1) {
+				return false;
+			}
+			this.tokens -= 1;
+			return true;
+		}
+
+	}
+
+	/**
+	 * The policy of a method with its latencies.
+	 */
+	private static final class MethodPolicy {
+
+		private final RequestPolicy policy;
+
+		private final RetryBudget budget;
+
+		private final LatencyHistogram latencies = new LatencyHistogram();
+
+		MethodPolicy(RequestPolicy policy, RetryBudget budget) {
+			this.policy = policy;
+			this.budget = budget;
+		}
+
+		<T> Mono<T> send(Supplier<Mono<T>> request) {
+			return Mono.defer(() -> {
+				this.budget.deposit();
+				Mono<T> attempt = this.policy.getHedgeDelay() == null ? Mono.defer(() -> timed(request.get()))
+						: Mono.create(sink -> new Race<>(this, request, sink).start());
+				if (this.policy.getMaxRetries() == 0) {
+					return attempt;
+				}
+				return attempt.retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+					if (signal.totalRetries() >= this.policy.getMaxRetries() || !isRetryable(signal.failure())
+							|| !this.budget.tryWithdraw()) {
+						return Mono.error(signal.failure());
+					}
+					return Mono.delay(this.policy.getRetryBackoff().multipliedBy(1L << signal.totalRetries()));
+				})));
+			});
+		}
+
+		<T> Mono<T> timed(Mono<T> request) {
+			if (Double.isNaN(this.policy.getHedgePercentile())) {
+				return request;
+			}
+			return Mono.defer(() -> {
+				long start = System.nanoTime();
+				return request.doOnSuccess(result -> this.latencies.record(System.nanoTime() - start));
+			});
+		}
+
+		Duration hedgeDelay() {
+			if (Double.isNaN(this.policy.getHedgePercentile()) || this.latencies.getCount() < MIN_SAMPLES) {
+				return this.policy.getHedgeDelay();
+			}
+			return Duration.ofNanos(Math.max(1, this.latencies.getValueAtPercentile(this.policy.getHedgePercentile())));
+		}
+
+		/**
+		 * A response answered by the server, even with an error, shows the request
+		 * reached it; other failures come from the connection or the request timeout.
+		 */
+		private static boolean isRetryable(Throwable error) {
+			return !(error instanceof McpError);
+		}
+
+	}
+
+	/**
+	 * A request racing against its hedge. The first response completes the sink and
+	 * cancels the other request; a failure only completes it when no other request may
+	 * still answer.
+	 */
+	private static final class Race<T> {
+
+		private final MethodPolicy policy;
+
+		private final Supplier<Mono<T>> request;
+
+		private final MonoSink<T> sink;
+
+		private final Disposable.Composite running = Disposables.composite();
+
+		/** Requests sent and not failed yet */
+		private int pending;
+
+		private boolean hedged;
+
+		private boolean done;
+
+		Race(MethodPolicy policy, Supplier<Mono<T>> request, MonoSink<T> sink) {
+			this.policy = policy;
+			this.request = request;
+			this.sink = sink;
+		}
+
+		void start() {
+			this.sink.onCancel(this.running);
+			this.running.add(Mono.delay(this.policy.hedgeDelay()).subscribe(tick -> hedge()));
+			send();
+		}
+
+		private void send() {
+			synchronized (this) {
+				this.pending++;
+			}
+			this.running.add(this.policy.timed(this.request.get())
+				.subscribe(this::answered, this::failed, () -> answered(null)));
+		}
+
+		private void hedge() {
+			synchronized (this) {
+				if (this.done || !this.policy.budget.tryWithdraw()) {
+					return;
+				}
+				this.hedged = true;
+			}
+			send();
+		}
+
+		private void answered(T result) {
+			synchronized (this) {
+				if (this.done) {
+					return;
+				}
+				this.done = true;
+			}
+			this.running.dispose();
+			this.sink.success(result);
+		}
+
+		private void failed(Throwable error) {
+			synchronized (this) {
+				if (this.done || (--this.pending > 0 && this.hedged)) {
+					return;
+				}
+				this.done = true;
+			}
+			this.running.dispose();
+			this.sink.error(error);
+		}
+
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.time.Duration;
+
+import io.modelcontextprotocol.util.Assert;
+
+/**
+ * Retries and hedging applied by a client to the requests of some methods, to hide the
+ * failures and the slow responses of an occasional replica. Only apply it to idempotent
+ * methods, such as {@code tools/list}, {@code resources/read}, {@code prompts/get} or the
+ * calls of tools known to have no side effects, since a request may reach the server more
+ * than once.
+ *
+ * <p>
+ * A hedged request is duplicated when no response arrived after the hedge delay; the
+ * first response wins and the other request is cancelled. The delay is either fixed or
+ * follows a percentile of the latencies observed for the method. A failed request is
+ * retried with an exponential backoff, unless the server answered it with an error.
+ *
+ * <p>
+ * Retries and hedges draw from a retry budget, a token bucket refilled by a fraction of a
+ * token on every request, so that they add at most that fraction of extra load once the
+ * bucket is empty and cannot turn an outage into a retry storm.
+ *
+ * <pre>{@code
+ * RequestPolicy policy = RequestPolicy.builder()
+ *     .hedgeAtPercentile(95, Duration.ofMillis(200))
+ *     .retries(2, Duration.ofMillis(50))
+ *     .retryBudget(0.1, 20)
+ *     .build();
+ * McpClient.async(transport)
+ *     .requestPolicy(policy, McpSchema.METHOD_TOOLS_LIST, McpSchema.METHOD_RESOURCES_READ)
+ *     .toolCallPolicy(policy, "search")
+ *     .build();
+ * }</pre>
+ *
+ * @see McpClient.AsyncSpec#requestPolicy(RequestPolicy, String...)
+ * @see McpClientPool.Builder#requestPolicy(RequestPolicy, String...)
+ */
+public final class RequestPolicy {
+
+	private final int maxRetries;
+
+	private final Duration retryBackoff;
+
+	private final Duration hedgeDelay;
+
+	private final double hedgePercentile;
+
+	private final double budgetRatio;
+
+	private final int budgetCapacity;
+
+	private RequestPolicy(Builder builder) {
+		this.maxRetries = builder.maxRetries;
+		this.retryBackoff = builder.retryBackoff;
+		this.hedgeDelay = builder.hedgeDelay;
+		this.hedgePercentile = builder.hedgePercentile;
+		this.budgetRatio = builder.budgetRatio;
+		this.budgetCapacity = builder.budgetCapacity;
+	}
+
+	/**
+	 * Returns the maximum number of times a failed request is retried.
+	 * @return the retries, 0 when requests are not retried
+	 */
+	public int getMaxRetries() {
+		return this.maxRetries;
+	}
+
+	/**
+	 * Returns the delay before the first retry, doubled for every following one.
+	 * @return the retry backoff
+	 */
+	public Duration getRetryBackoff() {
+		return this.retryBackoff;
+	}
+
+	/**
+	 * Returns the delay after which a request is hedged, or the delay used until enough
+	 * latencies are observed when hedging at a percentile.
+	 * @return the hedge delay, null when requests are not hedged
+	 */
+	public Duration getHedgeDelay() {
+		return this.hedgeDelay;
+	}
+
+	/**
+	 * Returns the percentile of the observed latencies after which a request is hedged.
+	 * @return the percentile, {@link Double#NaN} when the hedge delay is fixed
+	 */
+	public double getHedgePercentile() {
+		return this.hedgePercentile;
+	}
+
+	/**
+	 * Returns the fraction of a token added to the retry budget by every request.
+	 * @return the budget ratio
+	 */
+	public double getBudgetRatio() {
+		return this.budgetRatio;
+	}
+
+	/**
+	 * Returns the maximum number of tokens of the retry budget, which it starts with.
+	 * @return the budget capacity
+	 */
+	public int getBudgetCapacity() {
+		return this.budgetCapacity;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builder for {@link RequestPolicy}.
+	 */
+	public static class Builder {
+
+		private int maxRetries;
+
+		private Duration retryBackoff = Duration.ofMillis(100);
+
+		private Duration hedgeDelay;
+
+		private double hedgePercentile = Double.NaN;
+
+		private double budgetRatio = 0.1;
+
+		private int budgetCapacity = 10;
+
+		private Builder() {
+		}
+
+		/**
+		 * Retries failed requests. Requests answered with an error by the server are not
+		 * retried. Defaults to no retries.
+		 * @param maxRetries the maximum number of retries. Must not be negative.
+		 * @param backoff the delay before the first retry, doubled for every following
+		 * one. Must not be null.
+		 * @return this builder
+		 */
+		public Builder retries(int maxRetries, Duration backoff) {
+			Assert.isTrue(maxRetries >= 0, "Max retries must not be negative");
+			Assert.notNull(backoff, "Backoff must not be null");
+			this.maxRetries = maxRetries;
+			this.retryBackoff = backoff;
+			return this;
+		}
+
+		/**
+		 * Hedges requests still unanswered after a fixed delay. Defaults to no hedging.
+		 * @param delay the hedge delay. Must be positive.
+		 * @return this builder
+		 */
+		public Builder hedgeAfter(Duration delay) {
+			Assert.isTrue(delay != null && !delay.isNegative() && !delay.isZero(), "Hedge delay must be positive");
+			this.hedgeDelay = delay;
+			this.hedgePercentile = Double.NaN;
+			return this;
+		}
+
+		/**
+		 * Hedges requests still unanswered after the given percentile of the latencies
+		 * observed for their method, so that only the slowest requests are duplicated.
+		 * @param percentile the percentile, for example 95. Must be between 0 and 100.
+		 * @param initialDelay the delay used until enough latencies are observed. Must be
+		 * positive.
+		 * @return this builder
+		 */
+		public Builder hedgeAtPercentile(double percentile, Duration initialDelay) {
+			Assert.isTrue(percentile > 0 && percentile < 100, "Percentile must be between 0 and 100");
+			hedgeAfter(initialDelay);
+			this.hedgePercentile = percentile;
+			return this;
+		}
+
+		/**
+		 * Sets the retry budget shared by the retries and hedges of the methods using
+		 * this policy. Defaults to a ratio of 0.1 and a capacity of 10.
+		 * @param ratio the fraction of a token added by every request. Must be positive.
+		 * @param capacity the maximum number of tokens. Must be positive.
+		 * @return this builder
+		 */
+		public Builder retryBudget(double ratio, int capacity) {
+			Assert.isTrue(ratio > 0, "Budget ratio must be positive");
+			Assert.isTrue(capacity > 0, "Budget capacity must be positive");
+			this.budgetRatio = ratio;
+			this.budgetCapacity = capacity;
+			return this;
+		}
+
+		public RequestPolicy build() {
+			return new RequestPolicy(this);
+		}
+
+	}
+
+}
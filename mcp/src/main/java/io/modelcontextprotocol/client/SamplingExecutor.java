@@ -0,0 +1,351 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.jsonrpc.ErrorCodes;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+import io.modelcontextprotocol.spec.sampling.CreateMessageRequest;
+import io.modelcontextprotocol.spec.sampling.CreateMessageResult;
+import io.modelcontextprotocol.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Runs the sampling handlers of one or more clients within a concurrency limit, so that
+ * many servers requesting sampling at once do not flood the language model behind the
+ * handlers.
+ *
+ * <p>
+ * Requests beyond the limit wait in a bounded queue, and are rejected once it is full or
+ * after the queue timeout with an {@link McpError} with the {@link ErrorCodes#SERVER_BUSY
+ * SERVER_BUSY} code, answered to the server. The queue is fair between the server
+ * sessions: every client sharing the executor has its own queue, and a freed slot goes to
+ * the next client in turn rather than to the oldest request, so that a server sending
+ * many requests does not starve the others.
+ *
+ * <p>
+ * Optionally, a request equal to one being handled, which is common when several sessions
+ * of a server ask the same question, waits for its result instead of running the handler
+ * again. Only enable it when the clients sharing the executor answer a given request the
+ * same way.
+ *
+ * <pre>{@code
+ * SamplingExecutor executor = SamplingExecutor.builder()
+ *     .maxConcurrency(4)
+ *     .queue(100, Duration.ofSeconds(30))
+ *     .deduplicate(true)
+ *     .build();
+ * McpClient.async(transport).sampling(handler).samplingExecutor(executor).build();
+ * }</pre>
+ */
+public final class SamplingExecutor {
+
+	private final int maxConcurrency;
+
+	private final int maxQueueSize;
+
+	private final Duration queueTimeout;
+
+	private final boolean deduplicate;
+
+	private final Object lock = new Object();
+
+	/** Waiting requests of every session, guarded by {@link #lock} */
+	private final Map<Object, ArrayDeque<Waiter>> queues = new HashMap<>();
+
+	/** Sessions with waiting requests in the order they are served, guarded by lock */
+	private final ArrayDeque<Object> turns = new ArrayDeque<>();
+
+	/** Requests being handled, shared by the equal requests arriving meanwhile */
+	private final Map<CreateMessageRequest, Mono<CreateMessageResult>> pending = new ConcurrentHashMap<>();
+
+	private int active;
+
+	private int queued;
+
+	private long rejected;
+
+	private long deduplicated;
+
+	private long started;
+
+	private long totalWait;
+
+	private long maxWait;
+
+	private SamplingExecutor(Builder builder) {
+		this.maxConcurrency = builder.maxConcurrency;
+		this.maxQueueSize = builder.maxQueueSize;
+		this.queueTimeout = builder.queueTimeout;
+		this.deduplicate = builder.deduplicate;
+	}
+
+	/**
+	 * Handles a sampling request once the concurrency limit allows it.
+	 * @param session the session the request comes from, which has its own queue
+	 * @param request the request
+	 * @param handler the sampling handler of the client
+	 * @return the result of the handler, or an {@link McpError} if the request is
+	 * rejected
+	 */
+	Mono<CreateMessageResult> execute(Object session, CreateMessageRequest request,
+			Function<CreateMessageRequest, Mono<CreateMessageResult>> handler) {
+		if (!this.deduplicate) {
+			return schedule(session, request, handler);
+		}
+		return Mono.defer(() -> {
+			boolean[] created = new boolean[1];
+			Mono<CreateMessageResult> shared = this.pending.computeIfAbsent(request, key -> {
+				created[0] = true;
+				return schedule(session, key, handler).doFinally(signal -> this.pending.remove(key)).share();
+			});
+			if (!created[0]) {
+				synchronized (this.lock) {
+					this.deduplicated++;
+				}
+			}
+			return shared;
+		});
+	}
+
+	private Mono<CreateMessageResult> schedule(Object session, CreateMessageRequest request,
+			Function<CreateMessageRequest, Mono<CreateMessageResult>> handler) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return Mono.<Boolean>create(sink -> acquire(session, sink))
+				.timeout(this.queueTimeout)
+				.onErrorMap(TimeoutException.class, e -> {
+					synchronized (this.lock) {
+						this.rejected++;
+					}
+					return busy("Sampling request waited " + this.queueTimeout.toMillis()
+							+ "ms for the concurrency limit of the client");
+				})
+				.flatMap(permit -> {
+					recordWait(System.nanoTime() - start);
+					return Mono.defer(() -> handler.apply(request)).doFinally(signal -> release());
+				});
+		});
+	}
+
+	private void acquire(Object session, MonoSink<Boolean> sink) {
+		Waiter waiter = null;
+		boolean granted = false;
+		synchronized (this.lock) {
+			if (this.active < this.maxConcurrency) {
+				this.active++;
+				granted = true;
+			}
+			else if (this.queued < this.maxQueueSize) {
+				waiter = new Waiter(session, sink);
+				this.queues.computeIfAbsent(session, key -> {
+					this.turns.add(key);
+					return new ArrayDeque<>();
+				}).add(waiter);
+				this.queued++;
+			}
+			else {
+				this.rejected++;
+			}
+		}
+
+		if (granted) {
+			sink.success(true);
+		}
+		else if (waiter != null) {
+			Waiter queuedWaiter = waiter;
+			sink.onCancel(() -> {
+				if (queuedWaiter.claim()) {
+					synchronized (this.lock) {
+						remove(queuedWaiter);
+					}
+				}
+				else {
+					// The slot was handed over but never delivered, pass it on
+					release();
+				}
+			});
+		}
+		else {
+			sink.error(busy("Sampling queue of the client is full"));
+		}
+	}
+
+	/**
+	 * Hands the slot of a terminated request over to the next session in turn, or frees
+	 * it if no request is waiting.
+	 */
+	private void release() {
+		while (true) {
+			Waiter next;
+			synchronized (this.lock) {
+				next = poll();
+				if (next == null) {
+					this.active--;
+					return;
+				}
+			}
+			// A waiter cancelled concurrently has already given up its place
+			if (next.claim()) {
+				next.sink.success(true);
+				return;
+			}
+		}
+	}
+
+	/** Takes the oldest request of the next session in turn, under the lock */
+	private Waiter poll() {
+		Object session = this.turns.poll();
+		if (session == null) {
+			return null;
+		}
+		ArrayDeque<Waiter> queue = this.queues.get(session);
+		Waiter next = queue.poll();
+		this.queued--;
+		if (queue.isEmpty()) {
+			this.queues.remove(session);
+		}
+		else {
+			this.turns.add(session);
+		}
+		return next;
+	}
+
+	/** Removes a cancelled request from its queue, under the lock */
+	private void remove(Waiter waiter) {
+		ArrayDeque<Waiter> queue = this.queues.get(waiter.session);
+		if (queue != null && queue.remove(waiter)) {
+			this.queued--;
+			if (queue.isEmpty()) {
+				this.queues.remove(waiter.session);
+				this.turns.remove(waiter.session);
+			}
+		}
+	}
+
+	private void recordWait(long wait) {
+		synchronized (this.lock) {
+			this.started++;
+			this.totalWait += wait;
+			this.maxWait = Math.max(this.maxWait, wait);
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the activity of the executor.
+	 * @return the sampling metrics
+	 */
+	public SamplingMetrics metrics() {
+		synchronized (this.lock) {
+			Duration averageWait = Duration.ofNanos((this.started > 0) ? this.totalWait / this.started : 0);
+			return new SamplingMetrics(this.active, this.queued, this.rejected, this.deduplicated, averageWait,
+					Duration.ofNanos(this.maxWait));
+		}
+	}
+
+	private static McpError busy(String message) {
+		return new McpError(new JSONRPCResponse.JSONRPCError(ErrorCodes.SERVER_BUSY, message, null));
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builder for {@link SamplingExecutor}.
+	 */
+	public static class Builder {
+
+		private int maxConcurrency = 8;
+
+		private int maxQueueSize = 256;
+
+		private Duration queueTimeout = Duration.ofSeconds(60);
+
+		private boolean deduplicate;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the number of sampling requests handled at the same time. Defaults to 8.
+		 * @param maxConcurrency the concurrency limit. Must be positive.
+		 * @return this builder
+		 */
+		public Builder maxConcurrency(int maxConcurrency) {
+			Assert.isTrue(maxConcurrency > 0, "Max concurrency must be positive");
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Sets the queue of the requests beyond the concurrency limit. Defaults to 256
+		 * requests waiting at most 60 seconds.
+		 * @param maxQueueSize the queue size limit, across all the sessions. Must not be
+		 * negative.
+		 * @param queueTimeout how long a request waits before it is rejected. Must be
+		 * positive.
+		 * @return this builder
+		 */
+		public Builder queue(int maxQueueSize, Duration queueTimeout) {
+			Assert.isTrue(maxQueueSize >= 0, "Max queue size must not be negative");
+			Assert.isTrue(queueTimeout != null && !queueTimeout.isNegative() && !queueTimeout.isZero(),
+					"Queue timeout must be positive");
+			this.maxQueueSize = maxQueueSize;
+			this.queueTimeout = queueTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets whether a request equal to one being handled shares its result instead of
+		 * running the handler again. Defaults to false.
+		 * @param deduplicate whether to de-duplicate concurrent requests
+		 * @return this builder
+		 */
+		public Builder deduplicate(boolean deduplicate) {
+			this.deduplicate = deduplicate;
+			return this;
+		}
+
+		public SamplingExecutor build() {
+			return new SamplingExecutor(this);
+		}
+
+	}
+
+	/**
+	 * A queued request. Exactly one of granting the slot and cancelling the request
+	 * claims it.
+	 */
+	private static final class Waiter {
+
+		private final Object session;
+
+		private final MonoSink<Boolean> sink;
+
+		private final AtomicBoolean claimed = new AtomicBoolean();
+
+		Waiter(Object session, MonoSink<Boolean> sink) {
+			this.session = session;
+			this.sink = sink;
+		}
+
+		boolean claim() {
+			return this.claimed.compareAndSet(false, true);
+		}
+
+	}
+
+}
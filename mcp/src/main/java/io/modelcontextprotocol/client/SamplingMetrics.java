@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time snapshot of a {@link SamplingExecutor}. Counters are cumulative since the
+ * executor was created.
+ *
+ * @see SamplingExecutor#metrics()
+ */
+public final class SamplingMetrics {
+
+	private final int activeRequests;
+
+	private final int queuedRequests;
+
+	private final long rejectedRequests;
+
+	private final long deduplicatedRequests;
+
+	private final Duration averageQueueWait;
+
+	private final Duration maxQueueWait;
+
+	SamplingMetrics(int activeRequests, int queuedRequests, long rejectedRequests, long deduplicatedRequests,
+			Duration averageQueueWait, Duration maxQueueWait) {
+		this.activeRequests = activeRequests;
+		this.queuedRequests = queuedRequests;
+		this.rejectedRequests = rejectedRequests;
+		this.deduplicatedRequests = deduplicatedRequests;
+		this.averageQueueWait = averageQueueWait;
+		this.maxQueueWait = maxQueueWait;
+	}
+
+	/**
+	 * Returns the number of sampling requests being handled.
+	 * @return the active requests
+	 */
+	public int getActiveRequests() {
+		return this.activeRequests;
+	}
+
+	/**
+	 * Returns the number of sampling requests waiting for the concurrency limit.
+	 * @return the queue depth
+	 */
+	public int getQueuedRequests() {
+		return this.queuedRequests;
+	}
+
+	/**
+	 * Returns the number of sampling requests rejected because the queue was full or they
+	 * waited longer than the queue timeout.
+	 * @return the rejected requests
+	 */
+	public long getRejectedRequests() {
+		return this.rejectedRequests;
+	}
+
+	/**
+	 * Returns the number of sampling requests that shared the result of an equal request
+	 * instead of running the handler.
+	 * @return the de-duplicated requests
+	 */
+	public long getDeduplicatedRequests() {
+		return this.deduplicatedRequests;
+	}
+
+	/**
+	 * Returns the average time the handled requests waited for the concurrency limit.
+	 * @return the average queue wait
+	 */
+	public Duration getAverageQueueWait() {
+		return this.averageQueueWait;
+	}
+
+	/**
+	 * Returns the longest time a handled request waited for the concurrency limit.
+	 * @return the maximum queue wait
+	 */
+	public Duration getMaxQueueWait() {
+		return this.maxQueueWait;
+	}
+
+	@Override
+	public String toString() {
+		return "SamplingMetrics{" + "activeRequests=" + this.activeRequests + ", queuedRequests=" + this.queuedRequests
+				+ ", rejectedRequests=" + this.rejectedRequests + ", deduplicatedRequests=" + this.deduplicatedRequests
+				+ ", averageQueueWait=" + this.averageQueueWait + ", maxQueueWait=" + this.maxQueueWait + '}';
+	}
+
+}
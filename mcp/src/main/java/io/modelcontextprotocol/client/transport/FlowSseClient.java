@@ -7,6 +7,7 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicReference;
@@ -28,6 +29,10 @@ import java.util.regex.Pattern;
  * </ul>
  *
  * <p>
+ * Streams compressed with gzip or deflate, as requested through an
+ * {@code Accept-Encoding} header of the request builder, are decompressed on the fly.
+ *
+ * <p>
  * Events are delivered to a provided {@link SseEventHandler} which can process events and
  * handle any errors that occur during the connection.
  *
@@ -112,6 +117,12 @@ public class FlowSseClient {
 		 */
 		void onError(Throwable error);
 
+		/**
+		 * Called when the server closes the SSE connection.
+		 */
+		default void onComplete() {
+		}
+
 	}
 
 	/**
@@ -146,8 +157,22 @@ public class FlowSseClient {
 	 * @throws RuntimeException if the connection fails with a non-200 status code
 	 */
 	public void subscribe(String url, SseEventHandler eventHandler) {
+		subscribe(url, "text/event-stream", eventHandler);
+	}
+
+	/**
+	 * Subscribes to an SSE endpoint and processes the event stream, sending the given
+	 * {@code Accept} header.
+	 * @param url the SSE endpoint URL to connect to
+	 * @param accept the media types accepted by the client, including
+	 * {@code text/event-stream}
+	 * @param eventHandler the handler that will receive SSE events and error
+	 * notifications
+	 * @throws RuntimeException if the connection fails with a non-200 status code
+	 */
+	public void subscribe(String url, String accept, SseEventHandler eventHandler) {
 		HttpRequest request = this.requestBuilder.uri(URI.create(url))
-			.header("Accept", "text/event-stream")
+			.header("Accept", accept)
 			.header("Cache-Control", "no-cache")
 			.GET()
 			.build();
@@ -212,6 +237,7 @@ public class FlowSseClient {
 					SseEvent event = new SseEvent(currentEventId.get(), currentEventType.get(), eventData.trim());
 					eventHandler.onEvent(event);
 				}
+				eventHandler.onComplete();
 			}
 		};
 
@@ -219,7 +245,7 @@ public class FlowSseClient {
 			.fromLineSubscriber(subscriber);
 
 		CompletableFuture<HttpResponse<Void>> future = this.httpClient.sendAsync(request,
-				info -> subscriberFactory.apply(lineSubscriber));
+				info -> decoding(info, subscriberFactory.apply(lineSubscriber)));
 
 		future.thenAccept(response -> {
 			int status = response.statusCode();
@@ -232,4 +258,20 @@ public class FlowSseClient {
 		});
 	}
 
+	/**
+	 * Decompresses the body for the given subscriber if the server compressed it.
+	 */
+	private static HttpResponse.BodySubscriber<Void> decoding(HttpResponse.ResponseInfo info,
+			HttpResponse.BodySubscriber<Void> subscriber) {
+		String encoding = info.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+		switch (encoding) {
+			case "gzip":
+				return new InflatingBodySubscriber<>(subscriber, true);
+			case "deflate":
+				return new InflatingBodySubscriber<>(subscriber, false);
+			default:
+				return subscriber;
+		}
+	}
+
 }
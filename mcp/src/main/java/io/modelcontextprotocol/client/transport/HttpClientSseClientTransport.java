@@ -3,6 +3,7 @@
  */
 package io.modelcontextprotocol.client.transport;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -15,19 +16,22 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.client.transport.FlowSseClient.SseEvent;
+import io.modelcontextprotocol.observation.jfr.McpMessageSendEvent;
 import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpCodec;
 import io.modelcontextprotocol.spec.McpError;
-import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
 import io.modelcontextprotocol.util.Assert;
 import io.modelcontextprotocol.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 /**
  * Server-Sent Events (SSE) implementation of the
@@ -69,6 +73,15 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 	/** Default SSE endpoint path */
 	private static final String DEFAULT_SSE_ENDPOINT = "/sse";
 
+	/** Name of the transport in flight recorder events */
+	private static final String TRANSPORT_NAME = "http-sse-client";
+
+	/** Media type of the SSE stream */
+	private static final String SSE_CONTENT_TYPE = "text/event-stream";
+
+	/** Default size from which message bodies are compressed */
+	private static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
 	/** Base URI for the MCP server */
 	private final URI baseUri;
 
@@ -90,6 +103,23 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 	/** JSON object mapper for message serialization/deserialization */
 	protected ObjectMapper objectMapper;
 
+	/**
+	 * Codec for the messages posted to the server, until the server rejects its content
+	 * type
+	 */
+	private volatile McpCodec codec;
+
+	/** Codec for the messages received through the SSE stream, always JSON */
+	private final McpCodec jsonCodec;
+
+	/** Size from which message bodies are gzip compressed, or -1 to never compress */
+	private final int compressionThreshold;
+
+	/**
+	 * Whether message bodies are compressed, until the server rejects a compressed body
+	 */
+	private volatile boolean compressBodies;
+
 	/** Flag indicating if the transport is in closing state */
 	private volatile boolean isClosing = false;
 
@@ -102,6 +132,9 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 	/** Holds the SSE connection future */
 	private final AtomicReference<CompletableFuture<Void>> connectionFuture = new AtomicReference<>();
 
+	/** Completed once the SSE connection is lost */
+	private final Sinks.Empty<Void> disconnectSink = Sinks.empty();
+
 	/**
 	 * Creates a new transport instance with default HTTP client and object mapper.
 	 * @param baseUri the base URI of the MCP server
@@ -174,6 +207,24 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 	 */
 	HttpClientSseClientTransport(HttpClient httpClient, HttpRequest.Builder requestBuilder, String baseUri,
 			String sseEndpoint, ObjectMapper objectMapper) {
+		this(httpClient, requestBuilder, baseUri, sseEndpoint, objectMapper, null, -1);
+	}
+
+	/**
+	 * Creates a new transport instance with custom HTTP client builder, object mapper,
+	 * and codec.
+	 * @param httpClient the HTTP client to use
+	 * @param requestBuilder the HTTP request builder to use
+	 * @param baseUri the base URI of the MCP server
+	 * @param sseEndpoint the SSE endpoint path
+	 * @param objectMapper the object mapper for JSON serialization/deserialization
+	 * @param codec the codec for messages, or {@code null} for JSON
+	 * @param compressionThreshold the size from which message bodies are compressed, or
+	 * -1 to disable compression
+	 * @throws IllegalArgumentException if objectMapper, clientBuilder, or headers is null
+	 */
+	HttpClientSseClientTransport(HttpClient httpClient, HttpRequest.Builder requestBuilder, String baseUri,
+			String sseEndpoint, ObjectMapper objectMapper, McpCodec codec, int compressionThreshold) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		Assert.hasText(baseUri, "baseUri must not be empty");
 		Assert.hasText(sseEndpoint, "sseEndpoint must not be empty");
@@ -182,10 +233,15 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 		this.baseUri = URI.create(baseUri);
 		this.sseEndpoint = sseEndpoint;
 		this.objectMapper = objectMapper;
+		this.jsonCodec = McpCodec.json(objectMapper);
+		this.codec = (codec != null) ? codec : this.jsonCodec;
 		this.httpClient = httpClient;
 		this.requestBuilder = requestBuilder;
+		this.compressionThreshold = compressionThreshold;
+		this.compressBodies = compressionThreshold >= 0;
 
-		this.sseClient = new FlowSseClient(this.httpClient, requestBuilder);
+		this.sseClient = new FlowSseClient(this.httpClient, (compressionThreshold >= 0)
+				? requestBuilder.copy().header("Accept-Encoding", "gzip, deflate") : requestBuilder);
 	}
 
 	/**
@@ -212,6 +268,12 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 
 		private ObjectMapper objectMapper = new ObjectMapper();
 
+		private McpCodec codec;
+
+		private boolean compression;
+
+		private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+
 		private HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
 			.header("Content-Type", "application/json");
 
@@ -312,13 +374,58 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 			return this;
 		}
 
+		/**
+		 * Sets the codec for the messages posted to the server, with the codec's content
+		 * type. Messages received through the SSE stream are always JSON. Servers answer
+		 * 415 to content types they do not support, upon which the message is posted
+		 * again as JSON, and so are all later messages. Defaults to JSON, using the
+		 * object mapper.
+		 * @param codec the codec
+		 * @return this builder
+		 */
+		public Builder codec(McpCodec codec) {
+			Assert.notNull(codec, "codec must not be null");
+			this.codec = codec;
+			return this;
+		}
+
+		/**
+		 * Enables compression. The SSE stream is requested gzip or deflate compressed,
+		 * and message bodies of at least the {@link #compressionThreshold(int) threshold}
+		 * are posted gzip compressed. Once the server rejects a compressed body with 415,
+		 * the body is posted again uncompressed, and so are all later bodies.
+		 * <p>
+		 * Defaults to {@code false}.
+		 * @param compression whether to compress
+		 * @return this builder
+		 */
+		public Builder compression(boolean compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * Sets the size in bytes from which message bodies are compressed when
+		 * {@link #compression(boolean) compression} is enabled. Smaller messages are sent
+		 * as is, since compressing them costs more than it saves.
+		 * <p>
+		 * Defaults to 1024 bytes.
+		 * @param compressionThreshold the threshold in bytes
+		 * @return this builder
+		 */
+		public Builder compressionThreshold(int compressionThreshold) {
+			Assert.isTrue(compressionThreshold >= 0, "compressionThreshold must not be negative");
+			this.compressionThreshold = compressionThreshold;
+			return this;
+		}
+
 		/**
 		 * Builds a new {@link HttpClientSseClientTransport} instance.
 		 * @return a new transport instance
 		 */
 		public HttpClientSseClientTransport build() {
 			return new HttpClientSseClientTransport(clientBuilder.build(), requestBuilder, baseUri, sseEndpoint,
-					objectMapper);
+					objectMapper, codec, compression ? compressionThreshold : -1);
 		}
 
 	}
@@ -342,7 +449,7 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 		connectionFuture.set(future);
 
 		URI clientUri = Utils.resolveUri(this.baseUri, this.sseEndpoint);
-		sseClient.subscribe(clientUri.toString(), new FlowSseClient.SseEventHandler() {
+		sseClient.subscribe(clientUri.toString(), SSE_CONTENT_TYPE, new FlowSseClient.SseEventHandler() {
 			@Override
 			public void onEvent(SseEvent event) {
 				if (isClosing) {
@@ -357,7 +464,7 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 						future.complete(null);
 					}
 					else if (MESSAGE_EVENT_TYPE.equals(event.type())) {
-						JSONRPCMessage message = McpSchema.deserializeJsonRpcMessage(objectMapper, event.data());
+						JSONRPCMessage message = jsonCodec.decodeText(event.data());
 						handler.apply(Mono.just(message)).subscribe();
 					}
 					else {
@@ -375,6 +482,16 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 				if (!isClosing) {
 					logger.error("SSE connection error", error);
 					future.completeExceptionally(error);
+					disconnectSink.tryEmitEmpty();
+				}
+			}
+
+			@Override
+			public void onComplete() {
+				if (!isClosing) {
+					logger.warn("SSE connection closed by the server");
+					future.completeExceptionally(new McpError("SSE connection closed by the server"));
+					disconnectSink.tryEmitEmpty();
 				}
 			}
 		});
@@ -382,6 +499,11 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 		return Mono.fromFuture(future);
 	}
 
+	@Override
+	public Mono<Void> onDisconnect() {
+		return this.disconnectSink.asMono();
+	}
+
 	/**
 	 * Sends a JSON-RPC message to the server.
 	 *
@@ -398,6 +520,7 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 			return Mono.empty();
 		}
 
+		McpMessageSendEvent event = McpMessageSendEvent.enqueued(TRANSPORT_NAME, null);
 		try {
 			if (!closeLatch.await(10, TimeUnit.SECONDS)) {
 				return Mono.error(new McpError("Failed to wait for the message endpoint"));
@@ -413,19 +536,11 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 		}
 
 		try {
-			String jsonText = this.objectMapper.writeValueAsString(message);
 			URI requestUri = Utils.resolveUri(baseUri, endpoint);
-			HttpRequest request = this.requestBuilder.uri(requestUri)
-				.POST(HttpRequest.BodyPublishers.ofString(jsonText))
-				.build();
-
-			return Mono.fromFuture(
-					httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenAccept(response -> {
-						if (response.statusCode() != 200 && response.statusCode() != 201 && response.statusCode() != 202
-								&& response.statusCode() != 206) {
-							logger.error("Error sending message: {}", response.statusCode());
-						}
-					}));
+			if (event != null) {
+				event.writing();
+			}
+			return post(requestUri, message, this.codec, this.compressBodies, event);
 		}
 		catch (IOException e) {
 			if (!isClosing) {
@@ -435,6 +550,70 @@ public class HttpClientSseClientTransport implements McpClientTransport {
 		}
 	}
 
+	/**
+	 * Posts a message with the given codec, gzip compressed from the compression
+	 * threshold if enabled. A message rejected with 415 is posted again uncompressed if
+	 * it was compressed, or else as JSON if it was encoded with another codec, since the
+	 * server does not support them; later messages are then posted the same way.
+	 */
+	private Mono<Void> post(URI requestUri, JSONRPCMessage message, McpCodec codec, boolean compress,
+			McpMessageSendEvent event) throws IOException {
+		byte[] body = codec.encode(message);
+		boolean compressed = compress && body.length >= this.compressionThreshold;
+		HttpRequest.Builder builder = this.requestBuilder.copy()
+			.uri(requestUri)
+			.setHeader("Content-Type", codec.getContentType());
+		if (compressed) {
+			body = gzip(body);
+			builder.setHeader("Content-Encoding", "gzip");
+		}
+		HttpRequest request = builder.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+		long size = body.length;
+
+		return Mono.fromFuture(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+			.flatMap(response -> {
+				if (response.statusCode() == 415 && compressed) {
+					logger.debug("Server rejected a compressed message, sending messages uncompressed");
+					this.compressBodies = false;
+					return repost(requestUri, message, codec, false, event);
+				}
+				if (response.statusCode() == 415 && codec != this.jsonCodec) {
+					logger.debug("Server rejected a message encoded as {}, sending messages as JSON",
+							codec.getContentType());
+					this.codec = this.jsonCodec;
+					return repost(requestUri, message, this.jsonCodec, compress, event);
+				}
+				if (response.statusCode() != 200 && response.statusCode() != 201 && response.statusCode() != 202
+						&& response.statusCode() != 206) {
+					logger.error("Error sending message: {}", response.statusCode());
+				}
+				if (event != null) {
+					event.written(message, size);
+				}
+				return Mono.empty();
+			});
+	}
+
+	private Mono<Void> repost(URI requestUri, JSONRPCMessage message, McpCodec codec, boolean compress,
+			McpMessageSendEvent event) {
+		return Mono.defer(() -> {
+			try {
+				return post(requestUri, message, codec, compress, event);
+			}
+			catch (IOException e) {
+				return Mono.error(e);
+			}
+		});
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		return out.toByteArray();
+	}
+
 	/**
 	 * Gracefully closes the transport connection.
 	 *
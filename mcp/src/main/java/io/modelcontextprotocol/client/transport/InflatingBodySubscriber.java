@@ -0,0 +1,193 @@
+/*
+* Copyright 2024 - 2024 the original author or authors.
+*/
+package io.modelcontextprotocol.client.transport;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Body subscriber decompressing a gzip or deflate encoded response body as it arrives,
+ * before handing it to another body subscriber.
+ *
+ * <p>
+ * Unlike {@link java.util.zip.GZIPInputStream}, decompression never waits for more input
+ * than has been received, so a server flushing its compressor after every SSE event gets
+ * each event delivered immediately.
+ */
+final class InflatingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+	private static final int GZIP_MAGIC_1 = 0x1f;
+
+	private static final int GZIP_MAGIC_2 = 0x8b;
+
+	private static final int GZIP_FIXED_HEADER_LENGTH = 10;
+
+	private final HttpResponse.BodySubscriber<T> downstream;
+
+	private final Inflater inflater;
+
+	private final byte[] buffer = new byte[8192];
+
+	/** Received bytes of a gzip header that is not complete yet, or null once skipped */
+	private byte[] pendingHeader;
+
+	private Flow.Subscription subscription;
+
+	private boolean failed;
+
+	/**
+	 * Creates a subscriber decompressing the body for the given one.
+	 * @param downstream the subscriber receiving the decompressed body
+	 * @param gzip {@code true} for the gzip format, {@code false} for zlib
+	 */
+	InflatingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, boolean gzip) {
+		this.downstream = downstream;
+		this.inflater = new Inflater(gzip);
+		this.pendingHeader = gzip ? new byte[0] : null;
+	}
+
+	@Override
+	public CompletionStage<T> getBody() {
+		return this.downstream.getBody();
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		this.subscription = subscription;
+		this.downstream.onSubscribe(subscription);
+	}
+
+	@Override
+	public void onNext(List<ByteBuffer> items) {
+		if (this.failed) {
+			return;
+		}
+		List<ByteBuffer> inflated = new ArrayList<>();
+		try {
+			for (ByteBuffer item : items) {
+				inflate(item, inflated);
+			}
+		}
+		catch (ZipException e) {
+			this.failed = true;
+			this.subscription.cancel();
+			this.inflater.end();
+			this.downstream.onError(e);
+			return;
+		}
+		if (inflated.isEmpty()) {
+			// Nothing to deliver yet, ask for the rest of the compressed block instead
+			this.subscription.request(1);
+		}
+		else {
+			this.downstream.onNext(inflated);
+		}
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		if (!this.failed) {
+			this.inflater.end();
+			this.downstream.onError(throwable);
+		}
+	}
+
+	@Override
+	public void onComplete() {
+		if (!this.failed) {
+			this.inflater.end();
+			this.downstream.onComplete();
+		}
+	}
+
+	private void inflate(ByteBuffer item, List<ByteBuffer> inflated) throws ZipException {
+		byte[] input = new byte[item.remaining()];
+		item.get(input);
+		int offset = 0;
+		if (this.pendingHeader != null) {
+			input = concat(this.pendingHeader, input);
+			int headerLength = gzipHeaderLength(input);
+			if (headerLength < 0) {
+				this.pendingHeader = input;
+				return;
+			}
+			this.pendingHeader = null;
+			offset = headerLength;
+		}
+		// Bytes after the end of the compressed data, such as the gzip trailer, are
+		// ignored
+		if (this.inflater.finished() || offset == input.length) {
+			return;
+		}
+		this.inflater.setInput(input, offset, input.length - offset);
+		try {
+			while (!this.inflater.finished()) {
+				int count = this.inflater.inflate(this.buffer);
+				if (count > 0) {
+					inflated.add(ByteBuffer.wrap(Arrays.copyOf(this.buffer, count)));
+				}
+				else if (this.inflater.needsInput() || this.inflater.needsDictionary()) {
+					break;
+				}
+			}
+		}
+		catch (DataFormatException e) {
+			throw new ZipException("Invalid compressed response body: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the length of the gzip header at the start of the data, or -1 if the data
+	 * does not hold the whole header yet.
+	 */
+	private static int gzipHeaderLength(byte[] data) throws ZipException {
+		if (data.length < GZIP_FIXED_HEADER_LENGTH) {
+			return -1;
+		}
+		if ((data[0] & 0xff) != GZIP_MAGIC_1 || (data[1] & 0xff) != GZIP_MAGIC_2 || data[2] != 8) {
+			throw new ZipException("Not in gzip format");
+		}
+		int flags = data[3];
+		int position = GZIP_FIXED_HEADER_LENGTH;
+		if ((flags & 4) != 0) {
+			// FEXTRA
+			if (data.length < position + 2) {
+				return -1;
+			}
+			position += 2 + ((data[position] & 0xff) | (data[position + 1] & 0xff) << 8);
+		}
+		for (int flag : new int[] { 8, 16 }) {
+			// FNAME and FCOMMENT are zero terminated
+			if ((flags & flag) != 0) {
+				while (position < data.length && data[position] != 0) {
+					position++;
+				}
+				position++;
+			}
+		}
+		if ((flags & 2) != 0) {
+			// FHCRC
+			position += 2;
+		}
+		return (position <= data.length) ? position : -1;
+	}
+
+	private static byte[] concat(byte[] first, byte[] second) {
+		if (first.length == 0) {
+			return second;
+		}
+		byte[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+
+}
@@ -10,15 +10,20 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.observation.jfr.McpMessageSendEvent;
+import io.modelcontextprotocol.observation.jfr.McpStdioFrameEvent;
 import io.modelcontextprotocol.spec.McpClientTransport;
-import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpCodec;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
 import io.modelcontextprotocol.util.Assert;
 import org.slf4j.Logger;
@@ -41,14 +46,22 @@ public class StdioClientTransport implements McpClientTransport {
 
 	private static final Logger logger = LoggerFactory.getLogger(StdioClientTransport.class);
 
+	/** Name of the transport in flight recorder events */
+	private static final String TRANSPORT_NAME = "stdio-client";
+
 	private final Sinks.Many<JSONRPCMessage> inboundSink;
 
 	private final Sinks.Many<JSONRPCMessage> outboundSink;
 
+	/** Flight recorder events of the queued messages, while recording */
+	private final Map<JSONRPCMessage, McpMessageSendEvent> sendEvents = Collections
+		.synchronizedMap(new IdentityHashMap<>());
+
 	/** The server process being communicated with */
 	private Process process;
 
-	private ObjectMapper objectMapper;
+	/** Codec of the newline delimited messages */
+	private final McpCodec codec;
 
 	/** Scheduler for handling inbound messages from the server process */
 	private Scheduler inboundScheduler;
@@ -66,6 +79,9 @@ public class StdioClientTransport implements McpClientTransport {
 
 	private volatile boolean isClosing = false;
 
+	/** Emits the exit code of the server process once it exits */
+	private final Sinks.One<Integer> exitSink = Sinks.one();
+
 	// visible for tests
 	private Consumer<String> stdErrorHandler = error -> logger.info("STDERR Message received: {}", error);
 
@@ -84,15 +100,26 @@ public class StdioClientTransport implements McpClientTransport {
 	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
 	 */
 	public StdioClientTransport(ServerParameters params, ObjectMapper objectMapper) {
+		this(params, McpCodec.json(objectMapper));
+	}
+
+	/**
+	 * Creates a new StdioClientTransport with the specified parameters and codec.
+	 * Messages are delimited by newlines, so the codec must produce text.
+	 * @param params The parameters for configuring the server process
+	 * @param codec The codec to use for message serialization/deserialization
+	 */
+	public StdioClientTransport(ServerParameters params, McpCodec codec) {
 		Assert.notNull(params, "The params can not be null");
-		Assert.notNull(objectMapper, "The ObjectMapper can not be null");
+		Assert.notNull(codec, "The codec can not be null");
+		Assert.isTrue(!codec.isBinary(), "Binary codecs can not frame stdio messages");
 
 		this.inboundSink = Sinks.many().unicast().onBackpressureBuffer();
 		this.outboundSink = Sinks.many().unicast().onBackpressureBuffer();
 
 		this.params = params;
 
-		this.objectMapper = objectMapper;
+		this.codec = codec;
 
 		this.errorSink = Sinks.many().unicast().onBackpressureBuffer();
 
@@ -138,6 +165,8 @@ public class StdioClientTransport implements McpClientTransport {
 				throw new RuntimeException("Process input or output stream is null");
 			}
 
+			this.process.onExit().thenAccept(exited -> this.exitSink.tryEmitValue(exited.exitValue()));
+
 			// Start threads
 			startInboundProcessing();
 			startOutboundProcessing();
@@ -167,6 +196,20 @@ public class StdioClientTransport implements McpClientTransport {
 		this.stdErrorHandler = errorHandler;
 	}
 
+	/**
+	 * Returns a Mono emitting the exit code of the server process once it exits, whether
+	 * it was closed or crashed.
+	 * @return the exit code of the server process
+	 */
+	public Mono<Integer> onExit() {
+		return this.exitSink.asMono();
+	}
+
+	@Override
+	public Mono<Void> onDisconnect() {
+		return onExit().then();
+	}
+
 	/**
 	 * Waits for the server process to exit.
 	 * @throws RuntimeException if the process is interrupted while waiting
@@ -234,7 +277,11 @@ public class StdioClientTransport implements McpClientTransport {
 
 	@Override
 	public Mono<Void> sendMessage(JSONRPCMessage message) {
-		if (this.outboundSink.tryEmitNext(message).isSuccess()) {
+		McpMessageSendEvent event = McpMessageSendEvent.enqueued(TRANSPORT_NAME, null);
+		if (event != null) {
+			this.sendEvents.put(message, event);
+		}
+		if (emitOutbound(message)) {
 			// TODO: essentially we could reschedule ourselves in some time and make
 			// another attempt with the already read data but pause reading until
 			// success
@@ -243,10 +290,23 @@ public class StdioClientTransport implements McpClientTransport {
 			return Mono.empty();
 		}
 		else {
+			if (event != null) {
+				this.sendEvents.remove(message);
+			}
 			return Mono.error(new RuntimeException("Failed to enqueue message"));
 		}
 	}
 
+	/**
+	 * Queues a message for the outbound thread. Requests may be sent from several threads
+	 * at once, while the sink only accepts one emission at a time.
+	 */
+	private boolean emitOutbound(JSONRPCMessage message) {
+		synchronized (this.outboundSink) {
+			return this.outboundSink.tryEmitNext(message).isSuccess();
+		}
+	}
+
 	/**
 	 * Starts the inbound processing thread that reads JSON-RPC messages from the
 	 * process's input stream. Messages are deserialized and emitted to the inbound sink.
@@ -255,9 +315,15 @@ public class StdioClientTransport implements McpClientTransport {
 		this.inboundScheduler.schedule(() -> {
 			try (BufferedReader processReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
 				String line;
+				long readStart = System.nanoTime();
 				while (!isClosing && (line = processReader.readLine()) != null) {
 					try {
-						JSONRPCMessage message = McpSchema.deserializeJsonRpcMessage(this.objectMapper, line);
+						McpStdioFrameEvent event = McpStdioFrameEvent.parsing(TRANSPORT_NAME,
+								System.nanoTime() - readStart, line);
+						JSONRPCMessage message = this.codec.decodeText(line);
+						if (event != null) {
+							event.parsed(message);
+						}
 						if (!this.inboundSink.tryEmitNext(message).isSuccess()) {
 							if (!isClosing) {
 								logger.error("Failed to enqueue inbound message: {}", message);
@@ -271,6 +337,7 @@ public class StdioClientTransport implements McpClientTransport {
 						}
 						break;
 					}
+					readStart = System.nanoTime();
 				}
 			}
 			catch (IOException e) {
@@ -297,20 +364,28 @@ public class StdioClientTransport implements McpClientTransport {
 			.publishOn(outboundScheduler)
 			.handle((message, s) -> {
 				if (message != null && !isClosing) {
+					McpMessageSendEvent event = this.sendEvents.isEmpty() ? null : this.sendEvents.remove(message);
+					if (event != null) {
+						event.writing();
+					}
 					try {
-						String jsonMessage = objectMapper.writeValueAsString(message);
+						String jsonMessage = codec.encodeToText(message);
 						// Escape any embedded newlines in the JSON message as per spec:
 						// https://spec.modelcontextprotocol.io/specification/basic/transports/#stdio
 						// - Messages are delimited by newlines, and MUST NOT contain
 						// embedded newlines.
 						jsonMessage = jsonMessage.replace("\r\n", "\\n").replace("\n", "\\n").replace("\r", "\\n");
 
+						byte[] bytes = jsonMessage.getBytes(StandardCharsets.UTF_8);
 						var os = this.process.getOutputStream();
 						synchronized (os) {
-							os.write(jsonMessage.getBytes(StandardCharsets.UTF_8));
+							os.write(bytes);
 							os.write("\n".getBytes(StandardCharsets.UTF_8));
 							os.flush();
 						}
+						if (event != null) {
+							event.written(message, bytes.length + 1);
+						}
 						s.next(message);
 					}
 					catch (IOException e) {
@@ -388,7 +463,7 @@ public class StdioClientTransport implements McpClientTransport {
 
 	@Override
 	public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
-		return this.objectMapper.convertValue(data, typeRef);
+		return this.codec.convertValue(data, typeRef);
 	}
 
 }
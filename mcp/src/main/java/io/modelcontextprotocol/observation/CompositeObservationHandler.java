@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation;
+
+import java.util.List;
+
+/**
+ * Handler passing every message to several handlers.
+ *
+ * @see McpObservationHandler#composite(McpObservationHandler...)
+ */
+final class CompositeObservationHandler implements McpObservationHandler {
+
+	private final McpObservationHandler[] handlers;
+
+	CompositeObservationHandler(List<McpObservationHandler> handlers) {
+		this.handlers = handlers.toArray(new McpObservationHandler[0]);
+	}
+
+	@Override
+	public McpObservation onReceive(McpObservationContext context) {
+		McpObservation[] observations = new McpObservation[this.handlers.length];
+		for (int i = 0; i < this.handlers.length; i++) {
+			observations[i] = this.handlers[i].onReceive(context);
+		}
+		return new CompositeObservation(observations);
+	}
+
+	@Override
+	public McpObservation onSend(McpObservationContext context) {
+		McpObservation[] observations = new McpObservation[this.handlers.length];
+		for (int i = 0; i < this.handlers.length; i++) {
+			observations[i] = this.handlers[i].onSend(context);
+		}
+		return new CompositeObservation(observations);
+	}
+
+	private static final class CompositeObservation implements McpObservation {
+
+		private final McpObservation[] observations;
+
+		CompositeObservation(McpObservation[] observations) {
+			this.observations = observations;
+		}
+
+		@Override
+		public void onDispatch() {
+			for (McpObservation observation : this.observations) {
+				observation.onDispatch();
+			}
+		}
+
+		@Override
+		public void onHandled(Throwable error) {
+			for (McpObservation observation : this.observations) {
+				observation.onHandled(error);
+			}
+		}
+
+		@Override
+		public void onWrite() {
+			for (McpObservation observation : this.observations) {
+				observation.onWrite();
+			}
+		}
+
+		@Override
+		public void onComplete(Throwable error) {
+			for (McpObservation observation : this.observations) {
+				observation.onComplete(error);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation;
+
+/**
+ * Observation of a single message, created by an {@link McpObservationHandler}.
+ *
+ * <p>
+ * An incoming request goes through {@link #onDispatch()}, {@link #onHandled(Throwable)}
+ * and {@link #onWrite()} of its response before {@link #onComplete(Throwable)}; an
+ * incoming notification has no response to write. An outgoing request is written first,
+ * and completes when the response arrives. Phases may be skipped, for example when no
+ * handler is registered for the method, but every observation completes exactly once.
+ */
+public interface McpObservation {
+
+	/**
+	 * Observation ignoring all phases.
+	 */
+	McpObservation NOOP = error -> {
+	};
+
+	/**
+	 * Called when the message is handed to the handler registered for its method.
+	 */
+	default void onDispatch() {
+	}
+
+	/**
+	 * Called when the handler of the message has completed.
+	 * @param error the failure of the handler, or {@code null} on success
+	 */
+	default void onHandled(Throwable error) {
+	}
+
+	/**
+	 * Called when a message is handed to the transport, which serializes and writes it:
+	 * the response of an incoming request, or an outgoing request itself.
+	 */
+	default void onWrite() {
+	}
+
+	/**
+	 * Called when the exchange is over: the response of an incoming request has been
+	 * written, an incoming notification has been handled, or the response of an outgoing
+	 * request has been received.
+	 * @param error the failure of the exchange, including error responses, or
+	 * {@code null} on success
+	 */
+	void onComplete(Throwable error);
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+
+/**
+ * Describes an observed message.
+ */
+public final class McpObservationContext {
+
+	/**
+	 * The side of the session observing the message.
+	 */
+	public enum Side {
+
+		CLIENT, SERVER
+
+	}
+
+	/**
+	 * The kind of the observed message.
+	 */
+	public enum Kind {
+
+		/** A request received from the peer */
+		REQUEST,
+
+		/** A notification received from the peer */
+		NOTIFICATION,
+
+		/** A request sent to the peer */
+		OUTGOING_REQUEST
+
+	}
+
+	private final Side side;
+
+	private final Kind kind;
+
+	private final String sessionId;
+
+	private final String method;
+
+	private final Object requestId;
+
+	private final String toolName;
+
+	private final boolean methodHandled;
+
+	private final boolean toolRegistered;
+
+	private final long startNanos;
+
+	/**
+	 * Creates the context of a message.
+	 * @param side the side of the observing session
+	 * @param kind the kind of the message
+	 * @param sessionId the server session id, or {@code null} on the client side
+	 * @param method the JSON-RPC method
+	 * @param requestId the request id, or {@code null} for notifications
+	 * @param params the message parameters, used to tell the called tool
+	 */
+	public McpObservationContext(Side side, Kind kind, String sessionId, String method, Object requestId,
+			Object params) {
+		this(side, kind, sessionId, method, requestId, params, null, null);
+	}
+
+	/**
+	 * Creates the context of a message received by a session that knows the methods it
+	 * handles and, on the server side, its tools.
+	 * @param side the side of the observing session
+	 * @param kind the kind of the message
+	 * @param sessionId the server session id, or {@code null} on the client side
+	 * @param method the JSON-RPC method
+	 * @param requestId the request id, or {@code null} for notifications
+	 * @param params the message parameters, used to tell the called tool
+	 * @param handledMethods tells the methods handled by the session, or {@code null} to
+	 * consider every method handled
+	 * @param registeredTools tells the tools registered on the server, or {@code null} to
+	 * consider every called tool registered
+	 */
+	public McpObservationContext(Side side, Kind kind, String sessionId, String method, Object requestId, Object params,
+			Predicate<String> handledMethods, Predicate<String> registeredTools) {
+		this.side = side;
+		this.kind = kind;
+		this.sessionId = sessionId;
+		this.method = method;
+		this.methodHandled = handledMethods == null || handledMethods.test(method);
+		this.requestId = requestId;
+		this.toolName = McpSchema.METHOD_TOOLS_CALL.equals(method) ? toolName(params) : null;
+		this.toolRegistered = this.toolName != null && (registeredTools == null || registeredTools.test(this.toolName));
+		this.startNanos = System.nanoTime();
+	}
+
+	private static String toolName(Object params) {
+		if (params instanceof CallToolRequest) {
+			return ((CallToolRequest) params).getName();
+		}
+		if (params instanceof Map) {
+			Object name = ((Map<?, ?>) params).get("name");
+			return (name != null) ? name.toString() : null;
+		}
+		return null;
+	}
+
+	public Side getSide() {
+		return this.side;
+	}
+
+	public Kind getKind() {
+		return this.kind;
+	}
+
+	/**
+	 * Returns the id of the server session, or {@code null} on the client side.
+	 * @return the session id
+	 */
+	public String getSessionId() {
+		return this.sessionId;
+	}
+
+	public String getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Tells whether the session handles the method of the message. Messages with other
+	 * methods are answered with an error or dropped, and their method is chosen by the
+	 * peer.
+	 * @return {@code true} if the method is handled
+	 */
+	public boolean isMethodHandled() {
+		return this.methodHandled;
+	}
+
+	/**
+	 * Returns the id of the request, or {@code null} for notifications.
+	 * @return the request id
+	 */
+	public Object getRequestId() {
+		return this.requestId;
+	}
+
+	/**
+	 * Returns the name of the called tool for {@code tools/call} requests.
+	 * @return the tool name, or {@code null} for other methods
+	 */
+	public String getToolName() {
+		return this.toolName;
+	}
+
+	/**
+	 * Tells whether the called tool is registered on the server. The name of a tool that
+	 * is not registered is chosen by the peer, and should not be used as a metric tag.
+	 * @return {@code true} for {@code tools/call} requests to a registered tool
+	 */
+	public boolean isToolRegistered() {
+		return this.toolRegistered;
+	}
+
+	/**
+	 * Returns the {@link System#nanoTime()} at which the message was received or sent.
+	 * @return the start time in nanoseconds
+	 */
+	public long getStartNanos() {
+		return this.startNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "McpObservationContext{" + "side=" + this.side + ", kind=" + this.kind + ", sessionId='" + this.sessionId
+				+ '\'' + ", method='" + this.method + '\'' + ", requestId=" + this.requestId + ", toolName='"
+				+ this.toolName + '\'' + '}';
+	}
+
+}
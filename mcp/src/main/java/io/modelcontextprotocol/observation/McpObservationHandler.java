@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.modelcontextprotocol.util.Assert;
+
+/**
+ * Observes the JSON-RPC messages exchanged by a client or server session.
+ *
+ * <p>
+ * The session calls the handler when a request or notification is received, and when it
+ * sends a request to its peer. The returned {@link McpObservation} then follows the
+ * message through dispatching, handling and writing of the response. Sessions without a
+ * handler skip all of this, so instrumentation costs nothing unless it is configured.
+ *
+ * <p>
+ * Handlers are called on the threads processing the messages and must neither block nor
+ * throw.
+ *
+ * @see MetricsObservationHandler
+ * @see io.modelcontextprotocol.observation.jfr.JfrObservationHandler
+ */
+public interface McpObservationHandler {
+
+	/**
+	 * Handler that observes nothing, used when none is configured.
+	 */
+	McpObservationHandler NOOP = new McpObservationHandler() {
+
+		@Override
+		public McpObservation onReceive(McpObservationContext context) {
+			return McpObservation.NOOP;
+		}
+
+		@Override
+		public McpObservation onSend(McpObservationContext context) {
+			return McpObservation.NOOP;
+		}
+
+	};
+
+	/**
+	 * Called when a request or notification is received, before it is dispatched to its
+	 * handler.
+	 * @param context the received message
+	 * @return the observation of the message
+	 */
+	McpObservation onReceive(McpObservationContext context);
+
+	/**
+	 * Called when a request is about to be sent to the peer. The observation completes
+	 * once the response is received.
+	 * @param context the sent request
+	 * @return the observation of the request
+	 */
+	McpObservation onSend(McpObservationContext context);
+
+	/**
+	 * Returns a handler passing every message to all the given handlers, in order.
+	 * @param handlers the handlers to combine
+	 * @return the combined handler
+	 */
+	static McpObservationHandler composite(McpObservationHandler... handlers) {
+		Assert.notNull(handlers, "Handlers must not be null");
+		List<McpObservationHandler> delegates = new ArrayList<>();
+		for (McpObservationHandler handler : handlers) {
+			Assert.notNull(handler, "Handler must not be null");
+			if (handler != NOOP) {
+				delegates.add(handler);
+			}
+		}
+		if (delegates.isEmpty()) {
+			return NOOP;
+		}
+		if (delegates.size() == 1) {
+			return delegates.get(0);
+		}
+		return new CompositeObservationHandler(delegates);
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the metrics kept by a {@link MetricsObservationHandler} for one method, or
+ * one tool for {@code tools/call}.
+ */
+public final class MethodMetrics {
+
+	private final McpObservationContext.Side side;
+
+	private final McpObservationContext.Kind kind;
+
+	private final String method;
+
+	private final String toolName;
+
+	private final long count;
+
+	private final long errorCount;
+
+	private final long inFlight;
+
+	private final Duration totalTime;
+
+	private final Duration p50;
+
+	private final Duration p90;
+
+	private final Duration p99;
+
+	private final Duration max;
+
+	MethodMetrics(McpObservationContext.Side side, McpObservationContext.Kind kind, String method, String toolName,
+			long errorCount, long inFlight, LatencyHistogram latencies) {
+		this.side = side;
+		this.kind = kind;
+		this.method = method;
+		this.toolName = toolName;
+		this.count = latencies.getCount();
+		this.errorCount = errorCount;
+		this.inFlight = inFlight;
+		this.totalTime = Duration.ofNanos(latencies.getTotal());
+		this.p50 = Duration.ofNanos(latencies.getValueAtPercentile(0.5));
+		this.p90 = Duration.ofNanos(latencies.getValueAtPercentile(0.9));
+		this.p99 = Duration.ofNanos(latencies.getValueAtPercentile(0.99));
+		this.max = Duration.ofNanos(latencies.getMax());
+	}
+
+	public McpObservationContext.Side getSide() {
+		return this.side;
+	}
+
+	public McpObservationContext.Kind getKind() {
+		return this.kind;
+	}
+
+	public String getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Returns the tool the metrics are about, for {@code tools/call}.
+	 * @return the tool name, or {@code null}
+	 */
+	public String getToolName() {
+		return this.toolName;
+	}
+
+	/**
+	 * Returns the number of completed exchanges.
+	 * @return the count
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the number of completed exchanges that failed.
+	 * @return the error count
+	 */
+	public long getErrorCount() {
+		return this.errorCount;
+	}
+
+	/**
+	 * Returns the number of exchanges in progress.
+	 * @return the in-flight count
+	 */
+	public long getInFlight() {
+		return this.inFlight;
+	}
+
+	public Duration getTotalTime() {
+		return this.totalTime;
+	}
+
+	/**
+	 * Returns the median latency, rounded up to the histogram precision.
+	 * @return the median latency
+	 */
+	public Duration getP50() {
+		return this.p50;
+	}
+
+	/**
+	 * Returns the 90th percentile latency, rounded up to the histogram precision.
+	 * @return the 90th percentile latency
+	 */
+	public Duration getP90() {
+		return this.p90;
+	}
+
+	/**
+	 * Returns the 99th percentile latency, rounded up to the histogram precision.
+	 * @return the 99th percentile latency
+	 */
+	public Duration getP99() {
+		return this.p99;
+	}
+
+	public Duration getMax() {
+		return this.max;
+	}
+
+	@Override
+	public String toString() {
+		return "MethodMetrics{" + "side=" + this.side + ", kind=" + this.kind + ", method='" + this.method + '\''
+				+ ", toolName='" + this.toolName + '\'' + ", count=" + this.count + ", errorCount=" + this.errorCount
+				+ ", inFlight=" + this.inFlight + ", p50=" + this.p50 + ", p90=" + this.p90 + ", p99=" + this.p99
+				+ ", max=" + this.max + '}';
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link McpObservationHandler} keeping request rates, error rates, in-flight counts and
+ * latency histograms per method, and per tool for {@code tools/call}. Latencies span from
+ * receiving a message to writing its response, or from sending a request to receiving its
+ * response. Received messages with methods the session does not handle, and calls to
+ * tools that are not registered on the server, are counted under {@value #OTHER}, so that
+ * peers cannot grow the metrics without bound.
+ *
+ * <p>
+ * All counters are lock-free, and the same handler can be shared by any number of clients
+ * and servers:
+ *
+ * <pre>{@code
+ * MetricsObservationHandler metrics = new MetricsObservationHandler();
+ * McpServer.sync(transportProvider).observationHandler(metrics).build();
+ * ...
+ * metrics.getMetrics().forEach(m -> log.info("{}", m));
+ * }</pre>
+ */
+public class MetricsObservationHandler implements McpObservationHandler {
+
+	/**
+	 * The method and tool name under which unhandled methods and calls to unregistered
+	 * tools are counted.
+	 */
+	public static final String OTHER = "other";
+
+	private final ConcurrentHashMap<Key, Stats> stats = new ConcurrentHashMap<>();
+
+	@Override
+	public McpObservation onReceive(McpObservationContext context) {
+		return observe(context);
+	}
+
+	@Override
+	public McpObservation onSend(McpObservationContext context) {
+		return observe(context);
+	}
+
+	private McpObservation observe(McpObservationContext context) {
+		String toolName = context.getToolName();
+		if (toolName != null && !context.isToolRegistered()) {
+			toolName = OTHER;
+		}
+		String method = context.isMethodHandled() ? context.getMethod() : OTHER;
+		Key key = new Key(context.getSide(), context.getKind(), method, toolName);
+		Stats methodStats = this.stats.computeIfAbsent(key, k -> new Stats());
+		methodStats.inFlight.increment();
+		AtomicBoolean completed = new AtomicBoolean();
+		return error -> {
+			if (completed.compareAndSet(false, true)) {
+				methodStats.inFlight.decrement();
+				if (error != null) {
+					methodStats.errors.increment();
+				}
+				methodStats.latencies.record(System.nanoTime() - context.getStartNanos());
+			}
+		};
+	}
+
+	/**
+	 * Returns a snapshot of the metrics of every observed method.
+	 * @return the metrics
+	 */
+	public List<MethodMetrics> getMetrics() {
+		List<MethodMetrics> metrics = new ArrayList<>(this.stats.size());
+		this.stats.forEach((key, value) -> metrics.add(new MethodMetrics(key.side, key.kind, key.method, key.toolName,
+				value.errors.sum(), value.inFlight.sum(), value.latencies)));
+		return metrics;
+	}
+
+	/**
+	 * Discards all metrics. Exchanges in progress at that time are not counted.
+	 */
+	public void reset() {
+		this.stats.clear();
+	}
+
+	private static final class Stats {
+
+		private final LatencyHistogram latencies = new LatencyHistogram();
+
+		private final LongAdder errors = new LongAdder();
+
+		private final LongAdder inFlight = new LongAdder();
+
+	}
+
+	private static final class Key {
+
+		private final McpObservationContext.Side side;
+
+		private final McpObservationContext.Kind kind;
+
+		private final String method;
+
+		private final String toolName;
+
+		Key(McpObservationContext.Side side, McpObservationContext.Kind kind, String method, String toolName) {
+			this.side = side;
+			this.kind = kind;
+			this.method = method;
+			this.toolName = toolName;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return this.side == other.side && this.kind == other.kind && Objects.equals(this.method, other.method)
+					&& Objects.equals(this.toolName, other.toolName);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.side, this.kind, this.method, this.toolName);
+		}
+
+	}
+
+}
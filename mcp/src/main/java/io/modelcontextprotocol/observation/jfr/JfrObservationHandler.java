@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.modelcontextprotocol.observation.McpObservation;
+import io.modelcontextprotocol.observation.McpObservationContext;
+import io.modelcontextprotocol.observation.McpObservationHandler;
+import jdk.jfr.EventType;
+
+/**
+ * {@link McpObservationHandler} reporting requests and notifications to Java Flight
+ * Recorder as {@link McpRequestEvent} and {@link McpNotificationEvent}, and requests that
+ * time out or are cancelled as {@link McpRequestTimeoutEvent} and
+ * {@link McpRequestCancelledEvent}.
+ *
+ * <p>
+ * Request and notification events are only committed when they exceed their threshold, 10
+ * ms by default, and messages are not observed at all while no recording enables the
+ * events, so that the handler can stay configured in production:
+ *
+ * <pre>{@code
+ * McpServer.sync(transportProvider).observationHandler(new JfrObservationHandler()).build();
+ * }</pre>
+ *
+ * The transports report their own events, such as {@link McpMessageSendEvent}, without
+ * needing a handler.
+ */
+public class JfrObservationHandler implements McpObservationHandler {
+
+	private static final EventType REQUEST = EventType.getEventType(McpRequestEvent.class);
+
+	private static final EventType NOTIFICATION = EventType.getEventType(McpNotificationEvent.class);
+
+	private static final EventType TIMEOUT = EventType.getEventType(McpRequestTimeoutEvent.class);
+
+	private static final EventType CANCELLED = EventType.getEventType(McpRequestCancelledEvent.class);
+
+	@Override
+	public McpObservation onReceive(McpObservationContext context) {
+		return observe(context);
+	}
+
+	@Override
+	public McpObservation onSend(McpObservationContext context) {
+		return observe(context);
+	}
+
+	private McpObservation observe(McpObservationContext context) {
+		if (context.getKind() == McpObservationContext.Kind.NOTIFICATION) {
+			if (!NOTIFICATION.isEnabled()) {
+				return McpObservation.NOOP;
+			}
+			McpNotificationEvent event = new McpNotificationEvent();
+			event.begin();
+			return new OnceObservation(error -> {
+				event.end();
+				if (event.shouldCommit()) {
+					event.side = side(context);
+					event.method = context.getMethod();
+					event.sessionId = context.getSessionId();
+					event.error = describe(error);
+					event.commit();
+				}
+			});
+		}
+
+		boolean aborts = TIMEOUT.isEnabled() || CANCELLED.isEnabled();
+		if (!REQUEST.isEnabled() && !aborts) {
+			return McpObservation.NOOP;
+		}
+		McpRequestEvent event = new McpRequestEvent();
+		event.begin();
+		return new OnceObservation(error -> {
+			event.end();
+			if (event.shouldCommit()) {
+				event.side = side(context);
+				event.outgoing = context.getKind() == McpObservationContext.Kind.OUTGOING_REQUEST;
+				event.method = context.getMethod();
+				event.tool = context.getToolName();
+				event.sessionId = context.getSessionId();
+				event.requestId = requestId(context);
+				event.error = describe(error);
+				event.commit();
+			}
+			if (error instanceof TimeoutException) {
+				timedOut(context);
+			}
+			else if (error instanceof CancellationException) {
+				cancelled(context);
+			}
+		});
+	}
+
+	private static void timedOut(McpObservationContext context) {
+		McpRequestTimeoutEvent event = new McpRequestTimeoutEvent();
+		if (event.isEnabled()) {
+			event.side = side(context);
+			event.outgoing = context.getKind() == McpObservationContext.Kind.OUTGOING_REQUEST;
+			event.method = context.getMethod();
+			event.tool = context.getToolName();
+			event.sessionId = context.getSessionId();
+			event.requestId = requestId(context);
+			event.elapsed = System.nanoTime() - context.getStartNanos();
+			event.commit();
+		}
+	}
+
+	private static void cancelled(McpObservationContext context) {
+		McpRequestCancelledEvent event = new McpRequestCancelledEvent();
+		if (event.isEnabled()) {
+			event.side = side(context);
+			event.outgoing = context.getKind() == McpObservationContext.Kind.OUTGOING_REQUEST;
+			event.method = context.getMethod();
+			event.tool = context.getToolName();
+			event.sessionId = context.getSessionId();
+			event.requestId = requestId(context);
+			event.elapsed = System.nanoTime() - context.getStartNanos();
+			event.commit();
+		}
+	}
+
+	private static String side(McpObservationContext context) {
+		return (context.getSide() == McpObservationContext.Side.SERVER) ? "server" : "client";
+	}
+
+	private static String requestId(McpObservationContext context) {
+		return (context.getRequestId() != null) ? String.valueOf(context.getRequestId()) : null;
+	}
+
+	private static String describe(Throwable error) {
+		if (error == null) {
+			return null;
+		}
+		return (error.getMessage() != null) ? error.getClass().getSimpleName() + ": " + error.getMessage()
+				: error.getClass().getSimpleName();
+	}
+
+	/**
+	 * Observation completing at most once, as responses may fail after being written.
+	 */
+	private static final class OnceObservation implements McpObservation {
+
+		private final McpObservation delegate;
+
+		private final AtomicBoolean completed = new AtomicBoolean();
+
+		OnceObservation(McpObservation delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void onComplete(Throwable error) {
+			if (this.completed.compareAndSet(false, true)) {
+				this.delegate.onComplete(error);
+			}
+		}
+
+	}
+
+}
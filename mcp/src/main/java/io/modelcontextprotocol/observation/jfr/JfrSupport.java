@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCNotification;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCRequest;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+
+/**
+ * Helpers shared by the MCP flight recorder events.
+ */
+final class JfrSupport {
+
+	private JfrSupport() {
+	}
+
+	/**
+	 * Describes a message by its method, or as a response.
+	 */
+	static String describe(JSONRPCMessage message) {
+		if (message instanceof JSONRPCRequest) {
+			return ((JSONRPCRequest) message).getMethod();
+		}
+		if (message instanceof JSONRPCNotification) {
+			return ((JSONRPCNotification) message).getMethod();
+		}
+		if (message instanceof JSONRPCResponse) {
+			return (((JSONRPCResponse) message).getError() != null) ? "error response" : "response";
+		}
+		return null;
+	}
+
+}
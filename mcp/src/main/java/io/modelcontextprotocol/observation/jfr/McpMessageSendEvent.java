@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * A message sent by a transport, from the moment it is handed to the transport until it
+ * has been written.
+ *
+ * <pre>{@code
+ * McpMessageSendEvent event = McpMessageSendEvent.enqueued("stdio-client", null);
+ * ...
+ * if (event != null) {
+ * 	event.writing();
+ * }
+ * ... write the message ...
+ * if (event != null) {
+ * 	event.written(message, bytes);
+ * }
+ * }</pre>
+ */
+@Name(McpMessageSendEvent.NAME)
+@Label("MCP Message Send")
+@Description("JSON-RPC message written by an MCP transport")
+@Category({ "MCP", "Transport" })
+@StackTrace(false)
+@Threshold("10 ms")
+public final class McpMessageSendEvent extends Event {
+
+	static final String NAME = "io.modelcontextprotocol.MessageSend";
+
+	@Label("Transport")
+	String transport;
+
+	@Label("Session Id")
+	String sessionId;
+
+	@Label("Message")
+	@Description("Method of the message, or response")
+	String message;
+
+	@Label("Size")
+	@DataAmount
+	long bytes;
+
+	@Label("Queue Time")
+	@Description("Time the message waited before being written")
+	@Timespan
+	long queueTime;
+
+	private transient long enqueuedNanos;
+
+	/**
+	 * Starts the event of a message handed to a transport.
+	 * @param transport the name of the transport
+	 * @param sessionId the session id, or {@code null} if the transport has none
+	 * @return the started event, or {@code null} if the event is disabled
+	 */
+	public static McpMessageSendEvent enqueued(String transport, String sessionId) {
+		McpMessageSendEvent event = new McpMessageSendEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.transport = transport;
+		event.sessionId = sessionId;
+		event.enqueuedNanos = System.nanoTime();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Marks the end of the wait, when the transport starts writing the message.
+	 */
+	public void writing() {
+		this.queueTime = System.nanoTime() - this.enqueuedNanos;
+	}
+
+	/**
+	 * Ends the event once the message has been written, committing it if it took longer
+	 * than the threshold.
+	 * @param message the written message
+	 * @param bytes the number of bytes written, or -1 if unknown
+	 */
+	public void written(JSONRPCMessage message, long bytes) {
+		end();
+		if (shouldCommit()) {
+			this.message = JfrSupport.describe(message);
+			this.bytes = bytes;
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A notification handled by a session, from its receipt until its handler completes.
+ */
+@Name(McpNotificationEvent.NAME)
+@Label("MCP Notification")
+@Description("JSON-RPC notification received by an MCP session")
+@Category({ "MCP", "Session" })
+@StackTrace(false)
+@Threshold("10 ms")
+public final class McpNotificationEvent extends Event {
+
+	static final String NAME = "io.modelcontextprotocol.Notification";
+
+	@Label("Side")
+	@Description("Side of the session, client or server")
+	String side;
+
+	@Label("Method")
+	String method;
+
+	@Label("Session Id")
+	String sessionId;
+
+	@Label("Error")
+	@Description("Failure of the handler, if any")
+	String error;
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A request that was cancelled.
+ */
+@Name(McpRequestCancelledEvent.NAME)
+@Label("MCP Request Cancelled")
+@Description("JSON-RPC request of an MCP session that was cancelled")
+@Category({ "MCP", "Session" })
+@StackTrace(false)
+public final class McpRequestCancelledEvent extends Event {
+
+	static final String NAME = "io.modelcontextprotocol.RequestCancelled";
+
+	@Label("Side")
+	@Description("Side of the session, client or server")
+	String side;
+
+	@Label("Outgoing")
+	@Description("Whether the request was sent to the peer rather than received from it")
+	boolean outgoing;
+
+	@Label("Method")
+	String method;
+
+	@Label("Tool")
+	@Description("Name of the called tool, for tools/call")
+	String tool;
+
+	@Label("Session Id")
+	String sessionId;
+
+	@Label("Request Id")
+	String requestId;
+
+	@Label("Elapsed")
+	@Description("Time from the start of the request until it was cancelled")
+	@Timespan
+	long elapsed;
+
+}
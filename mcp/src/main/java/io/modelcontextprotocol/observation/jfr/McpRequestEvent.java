@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A request handled by a session, from its receipt to the write of its response, or a
+ * request sent by a session, until its response is received.
+ */
+@Name(McpRequestEvent.NAME)
+@Label("MCP Request")
+@Description("JSON-RPC request exchanged by an MCP session")
+@Category({ "MCP", "Session" })
+@StackTrace(false)
+@Threshold("10 ms")
+public final class McpRequestEvent extends Event {
+
+	static final String NAME = "io.modelcontextprotocol.Request";
+
+	@Label("Side")
+	@Description("Side of the session, client or server")
+	String side;
+
+	@Label("Outgoing")
+	@Description("Whether the request was sent to the peer rather than received from it")
+	boolean outgoing;
+
+	@Label("Method")
+	String method;
+
+	@Label("Tool")
+	@Description("Name of the called tool, for tools/call")
+	String tool;
+
+	@Label("Session Id")
+	String sessionId;
+
+	@Label("Request Id")
+	String requestId;
+
+	@Label("Error")
+	@Description("Failure of the request, if any")
+	String error;
+
+}
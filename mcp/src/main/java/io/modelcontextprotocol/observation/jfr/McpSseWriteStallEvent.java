@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * A Server-Sent Event that took long to write, typically because the client reads the
+ * stream slowly or concurrent writes to the same stream queue up.
+ */
+@Name(McpSseWriteStallEvent.NAME)
+@Label("MCP SSE Write Stall")
+@Description("Server-Sent Event of an MCP session that was slow to write")
+@Category({ "MCP", "Transport" })
+@StackTrace(false)
+@Threshold("20 ms")
+public final class McpSseWriteStallEvent extends Event {
+
+	static final String NAME = "io.modelcontextprotocol.SseWriteStall";
+
+	@Label("Session Id")
+	String sessionId;
+
+	@Label("Message")
+	@Description("Method of the message, or response")
+	String message;
+
+	@Label("Lock Wait")
+	@Description("Time spent waiting for concurrent writes to the stream")
+	@Timespan
+	long lockWait;
+
+	private transient long startNanos;
+
+	/**
+	 * Starts the event of a message about to be written to an event stream.
+	 * @param sessionId the session id
+	 * @return the started event, or {@code null} if the event is disabled
+	 */
+	public static McpSseWriteStallEvent writing(String sessionId) {
+		McpSseWriteStallEvent event = new McpSseWriteStallEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.sessionId = sessionId;
+		event.startNanos = System.nanoTime();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Marks the moment the stream is acquired for writing.
+	 */
+	public void locked() {
+		this.lockWait = System.nanoTime() - this.startNanos;
+	}
+
+	/**
+	 * Ends the event once the event has been written and flushed, committing it if it
+	 * took longer than the threshold.
+	 * @param message the written message
+	 */
+	public void written(JSONRPCMessage message) {
+		end();
+		if (shouldCommit()) {
+			this.message = JfrSupport.describe(message);
+			commit();
+		}
+	}
+
+}
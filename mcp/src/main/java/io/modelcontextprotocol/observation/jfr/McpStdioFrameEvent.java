@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * A newline delimited frame read by a stdio transport. The event lasts while the frame is
+ * parsed, so that the threshold only retains frames that are slow to parse; the time
+ * spent reading the frame, including waiting for the peer, is recorded alongside.
+ */
+@Name(McpStdioFrameEvent.NAME)
+@Label("MCP Stdio Frame")
+@Description("JSON-RPC frame read and parsed by an MCP stdio transport")
+@Category({ "MCP", "Transport" })
+@StackTrace(false)
+@Threshold("1 ms")
+public final class McpStdioFrameEvent extends Event {
+
+	static final String NAME = "io.modelcontextprotocol.StdioFrame";
+
+	@Label("Transport")
+	String transport;
+
+	@Label("Message")
+	@Description("Method of the message, or response")
+	String message;
+
+	@Label("Length")
+	@Description("Number of characters in the frame")
+	long length;
+
+	@Label("Read Time")
+	@Description("Time spent reading the frame, including waiting for the peer")
+	@Timespan
+	long readTime;
+
+	/**
+	 * Starts the event of a frame about to be parsed.
+	 * @param transport the name of the transport
+	 * @param readTime the time spent reading the frame, in nanoseconds
+	 * @param frame the frame
+	 * @return the started event, or {@code null} if the event is disabled
+	 */
+	public static McpStdioFrameEvent parsing(String transport, long readTime, String frame) {
+		McpStdioFrameEvent event = new McpStdioFrameEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.transport = transport;
+		event.readTime = readTime;
+		event.length = frame.length();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event once the frame has been parsed, committing it if parsing took longer
+	 * than the threshold.
+	 * @param message the parsed message
+	 */
+	public void parsed(JSONRPCMessage message) {
+		end();
+		if (shouldCommit()) {
+			this.message = JfrSupport.describe(message);
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.spec.autocomplete.CompleteReference;
+import io.modelcontextprotocol.spec.autocomplete.CompleteRequest;
+import io.modelcontextprotocol.spec.autocomplete.CompleteResult;
+import io.modelcontextprotocol.spec.autocomplete.CompleteResultCompleteCompletion;
+import io.modelcontextprotocol.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * Completion provider answering {@code completion/complete} requests from in-memory
+ * candidate values, for prompts and resource templates whose arguments take values from a
+ * known, possibly large, set.
+ *
+ * <p>
+ * The candidates of every argument are kept in an array sorted by value, along with a
+ * segment tree of their weights: the candidates starting with the typed prefix form a
+ * range found by binary search, from which the heaviest ones are picked in
+ * {@code O(k log n)}, so a completion takes microseconds even across millions of
+ * candidates. Ties are broken by value.
+ *
+ * <p>
+ * Candidates come from static values or from a loader, and are replaced as a whole by
+ * {@link #refresh()} or changed incrementally by
+ * {@link #update(String, Map, Collection)}. Completions are served from immutable
+ * snapshots, so updates never block them.
+ *
+ * <pre>{@code
+ * CompletionIndex index = CompletionIndex.builder()
+ *     .values("language", List.of("java", "javascript", "python"))
+ *     .loader("city", () -> citiesByPopulation())
+ *     .build();
+ * McpServer.async(transportProvider)
+ *     .completions(index.asyncSpecification(new PromptReference("travel")))
+ *     .build();
+ * }</pre>
+ */
+public final class CompletionIndex {
+
+	/** Upper bound of the completions of a response, set by the specification */
+	private static final int MAX_COMPLETIONS = 100;
+
+	private static final Candidates EMPTY = new Candidates(new String[0], new String[0], new double[0]);
+
+	private final Map<String, Supplier<? extends Map<String, ? extends Number>>> loaders;
+
+	private final int maxResults;
+
+	private final boolean ignoreCase;
+
+	/** Snapshot of the candidates of every argument, replaced on update */
+	private final ConcurrentHashMap<String, Candidates> candidates = new ConcurrentHashMap<>();
+
+	private CompletionIndex(Builder builder) {
+		this.loaders = Map.copyOf(builder.loaders);
+		this.maxResults = builder.maxResults;
+		this.ignoreCase = builder.ignoreCase;
+		builder.values
+			.forEach((argument, values) -> this.candidates.put(argument, Candidates.of(values, this.ignoreCase)));
+		refresh();
+	}
+
+	/**
+	 * Returns the heaviest candidates of an argument starting with the given prefix.
+	 * @param argument the name of the argument
+	 * @param prefix the value typed so far, null meaning any value
+	 * @return the completions, heaviest first, with their weight as score. Empty for
+	 * unknown arguments.
+	 */
+	public CompleteResult complete(String argument, String prefix) {
+		Candidates snapshot = this.candidates.getOrDefault(argument, EMPTY);
+		String key = (prefix == null) ? "" : normalize(prefix);
+		return new CompleteResult(snapshot.top(key, this.maxResults));
+	}
+
+	/**
+	 * Answers a completion request with the candidates of its argument.
+	 * @param request the completion request
+	 * @return the completions
+	 */
+	public CompleteResult complete(CompleteRequest request) {
+		if (request.getArgument() == null) {
+			return new CompleteResult(List.of());
+		}
+		return complete(request.getArgument().getName(), request.getArgument().getValue());
+	}
+
+	/**
+	 * Creates a completion specification served by this index.
+	 * @param reference the prompt or resource template to complete the arguments of
+	 * @return the completion specification to register on an asynchronous server
+	 */
+	public McpServerFeatures.AsyncCompletionSpecification asyncSpecification(CompleteReference reference) {
+		Assert.notNull(reference, "Reference must not be null");
+		return new McpServerFeatures.AsyncCompletionSpecification(reference,
+				(exchange, request) -> Mono.fromSupplier(() -> complete(request)));
+	}
+
+	/**
+	 * Creates a completion specification served by this index.
+	 * @param reference the prompt or resource template to complete the arguments of
+	 * @return the completion specification to register on a synchronous server
+	 */
+	public McpServerFeatures.SyncCompletionSpecification syncSpecification(CompleteReference reference) {
+		Assert.notNull(reference, "Reference must not be null");
+		return new McpServerFeatures.SyncCompletionSpecification(reference, (exchange, request) -> complete(request));
+	}
+
+	/**
+	 * Adds, reweights and removes candidates of an argument. The cost is linear in the
+	 * number of candidates, without sorting them again.
+	 * @param argument the name of the argument
+	 * @param upserts the candidates to add or reweight, with their weight
+	 * @param removals the candidates to remove
+	 */
+	public void update(String argument, Map<String, ? extends Number> upserts, Collection<String> removals) {
+		Assert.notNull(argument, "Argument must not be null");
+		Assert.notNull(upserts, "Upserts must not be null");
+		Assert.notNull(removals, "Removals must not be null");
+		Set<String> replaced = new HashSet<>(removals);
+		replaced.addAll(upserts.keySet());
+		Candidates added = Candidates.of(upserts, this.ignoreCase);
+		this.candidates.compute(argument,
+				(name, current) -> ((current != null) ? current : EMPTY).merge(added, replaced));
+	}
+
+	/**
+	 * Reloads the candidates of the arguments backed by a loader. Loaders run on the
+	 * calling thread.
+	 */
+	public void refresh() {
+		this.loaders.forEach((argument, loader) -> {
+			Map<String, ? extends Number> values = loader.get();
+			Assert.notNull(values, "Loader of argument '" + argument + "' returned null");
+			this.candidates.put(argument, Candidates.of(values, this.ignoreCase));
+		});
+	}
+
+	/**
+	 * Returns the number of candidates of an argument.
+	 * @param argument the name of the argument
+	 * @return the number of candidates, 0 for unknown arguments
+	 */
+	public int size(String argument) {
+		return this.candidates.getOrDefault(argument, EMPTY).texts.length;
+	}
+
+	private String normalize(String value) {
+		return this.ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builder for {@link CompletionIndex}.
+	 */
+	public static class Builder {
+
+		private final Map<String, Map<String, ? extends Number>> values = new HashMap<>();
+
+		private final Map<String, Supplier<? extends Map<String, ? extends Number>>> loaders = new HashMap<>();
+
+		private int maxResults = MAX_COMPLETIONS;
+
+		private boolean ignoreCase;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the candidates of an argument, all with the same weight, so that they are
+		 * completed in alphabetical order.
+		 * @param argument the name of the argument
+		 * @param values the candidates
+		 * @return this builder
+		 */
+		public Builder values(String argument, Collection<String> values) {
+			Assert.notNull(values, "Values must not be null");
+			Map<String, Integer> weighted = new HashMap<>();
+			for (String value : values) {
+				weighted.put(value, 0);
+			}
+			return values(argument, weighted);
+		}
+
+		/**
+		 * Sets the candidates of an argument with their weight, the heaviest being
+		 * completed first.
+		 * @param argument the name of the argument
+		 * @param weightedValues the candidates and their weight
+		 * @return this builder
+		 */
+		public Builder values(String argument, Map<String, ? extends Number> weightedValues) {
+			Assert.notNull(argument, "Argument must not be null");
+			Assert.notNull(weightedValues, "Weighted values must not be null");
+			this.values.put(argument, weightedValues);
+			this.loaders.remove(argument);
+			return this;
+		}
+
+		/**
+		 * Loads the candidates of an argument with their weight, when the index is built
+		 * and on every {@link CompletionIndex#refresh()}.
+		 * @param argument the name of the argument
+		 * @param loader loads the candidates and their weight
+		 * @return this builder
+		 */
+		public Builder loader(String argument, Supplier<? extends Map<String, ? extends Number>> loader) {
+			Assert.notNull(argument, "Argument must not be null");
+			Assert.notNull(loader, "Loader must not be null");
+			this.loaders.put(argument, loader);
+			this.values.remove(argument);
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of completions returned. Defaults to 100, the maximum
+		 * allowed by the specification.
+		 * @param maxResults the maximum number of completions. Must be between 1 and 100.
+		 * @return this builder
+		 */
+		public Builder maxResults(int maxResults) {
+			Assert.isTrue(maxResults > 0 && maxResults <= MAX_COMPLETIONS, "Max results must be between 1 and 100");
+			this.maxResults = maxResults;
+			return this;
+		}
+
+		/**
+		 * Sets whether prefixes match candidates regardless of case. Defaults to false.
+		 * @param ignoreCase whether to ignore case
+		 * @return this builder
+		 */
+		public Builder ignoreCase(boolean ignoreCase) {
+			this.ignoreCase = ignoreCase;
+			return this;
+		}
+
+		public CompletionIndex build() {
+			return new CompletionIndex(this);
+		}
+
+	}
+
+	/**
+	 * Immutable candidates of an argument, sorted by key then by text, where the key is
+	 * the text as matched against prefixes.
+	 */
+	private static final class Candidates {
+
+		private final String[] keys;
+
+		private final String[] texts;
+
+		private final double[] weights;
+
+		/**
+		 * Segment tree of the heaviest candidate of every range, the leaves at
+		 * {@code length + i}.
+		 */
+		private final int[] tree;
+
+		Candidates(String[] keys, String[] texts, double[] weights) {
+			this.keys = keys;
+			this.texts = texts;
+			this.weights = weights;
+			int length = texts.length;
+			this.tree = new int[2 * length];
+			for (int i = 0; i < length; i++) {
+				this.tree[length + i] = i;
+			}
+			for (int node = length - 1; node > 0; node--) {
+				this.tree[node] = heavier(this.tree[2 * node], this.tree[2 * node + 1]);
+			}
+		}
+
+		static Candidates of(Map<String, ? extends Number> values, boolean ignoreCase) {
+			List<Candidate> sorted = new ArrayList<>(values.size());
+			values.forEach((text, weight) -> {
+				Assert.notNull(text, "Values must not contain null");
+				String key = ignoreCase ? text.toLowerCase(Locale.ROOT) : text;
+				sorted.add(new Candidate(key, text, (weight != null) ? weight.doubleValue() : 0));
+			});
+			sorted.sort(Candidate.ORDER);
+			String[] keys = new String[sorted.size()];
+			String[] texts = new String[sorted.size()];
+			double[] weights = new double[sorted.size()];
+			for (int i = 0; i < keys.length; i++) {
+				Candidate candidate = sorted.get(i);
+				keys[i] = candidate.key;
+				texts[i] = candidate.text;
+				weights[i] = candidate.weight;
+			}
+			return new Candidates(keys, texts, weights);
+		}
+
+		/**
+		 * Merges sorted candidates into these, dropping the replaced texts of these.
+		 */
+		Candidates merge(Candidates added, Set<String> replaced) {
+			int capacity = this.texts.length + added.texts.length;
+			String[] mergedKeys = new String[capacity];
+			String[] mergedTexts = new String[capacity];
+			double[] mergedWeights = new double[capacity];
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < this.texts.length || j < added.texts.length) {
+				if (i < this.texts.length && replaced.contains(this.texts[i])) {
+					i++;
+					continue;
+				}
+				boolean takeAdded = i == this.texts.length || (j < added.texts.length
+						&& compare(added.keys[j], added.texts[j], this.keys[i], this.texts[i]) < 0);
+				Candidates source = takeAdded ? added : this;
+				int index = takeAdded ? j++ : i++;
+				mergedKeys[count] = source.keys[index];
+				mergedTexts[count] = source.texts[index];
+				mergedWeights[count] = source.weights[index];
+				count++;
+			}
+			return new Candidates(Arrays.copyOf(mergedKeys, count), Arrays.copyOf(mergedTexts, count),
+					Arrays.copyOf(mergedWeights, count));
+		}
+
+		/**
+		 * Returns the heaviest candidates whose key starts with the prefix.
+		 */
+		List<CompleteResultCompleteCompletion> top(String prefix, int limit) {
+			int from = lowerBound(prefix);
+			int to = prefixEnd(prefix, from);
+			if (from >= to) {
+				return List.of();
+			}
+			List<CompleteResultCompleteCompletion> completions = new ArrayList<>(Math.min(limit, to - from));
+			// Ranges ordered by their heaviest candidate, split around every candidate
+			// taken
+			PriorityQueue<int[]> ranges = new PriorityQueue<>(
+					(a, b) -> (a[2] == b[2]) ? 0 : (heavier(a[2], b[2]) == a[2]) ? -1 : 1);
+			ranges.add(new int[] { from, to, heaviest(from, to) });
+			while (completions.size() < limit && !ranges.isEmpty()) {
+				int[] range = ranges.poll();
+				int index = range[2];
+				completions.add(new CompleteResultCompleteCompletion(this.texts[index], this.weights[index]));
+				if (range[0] < index) {
+					ranges.add(new int[] { range[0], index, heaviest(range[0], index) });
+				}
+				if (index + 1 < range[1]) {
+					ranges.add(new int[] { index + 1, range[1], heaviest(index + 1, range[1]) });
+				}
+			}
+			return completions;
+		}
+
+		/** First index whose key is not less than the prefix */
+		private int lowerBound(String prefix) {
+			int low = 0;
+			int high = this.keys.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (this.keys[middle].compareTo(prefix) < 0) {
+					low = middle + 1;
+				}
+				else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		/** First index from the given one whose key does not start with the prefix */
+		private int prefixEnd(String prefix, int from) {
+			int low = from;
+			int high = this.keys.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (this.keys[middle].startsWith(prefix)) {
+					low = middle + 1;
+				}
+				else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		/** Heaviest candidate of the range [from, to) */
+		private int heaviest(int from, int to) {
+			int best = from;
+			for (int low = from + this.texts.length, high = to + this.texts.length; low < high; low >>= 1, high >>= 1) {
+				if ((low & 1) == 1) {
+					best = heavier(best, this.tree[low++]);
+				}
+				if ((high & 1) == 1) {
+					best = heavier(best, this.tree[--high]);
+				}
+			}
+			return best;
+		}
+
+		private int heavier(int a, int b) {
+			if (this.weights[a] != this.weights[b]) {
+				return (this.weights[a] > this.weights[b]) ? a : b;
+			}
+			return Math.min(a, b);
+		}
+
+		private static int compare(String key, String text, String otherKey, String otherText) {
+			int byKey = key.compareTo(otherKey);
+			return (byKey != 0) ? byKey : text.compareTo(otherText);
+		}
+
+	}
+
+	private static final class Candidate {
+
+		static final Comparator<Candidate> ORDER = (a, b) -> Candidates.compare(a.key, a.text, b.key, b.text);
+
+		private final String key;
+
+		private final String text;
+
+		private final double weight;
+
+		Candidate(String key, String text, double weight) {
+			this.key = key;
+			this.text = text;
+			this.weight = weight;
+		}
+
+	}
+
+}
@@ -0,0 +1,885 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.common.BinarySource;
+import io.modelcontextprotocol.spec.resource.BlobResourceContents;
+import io.modelcontextprotocol.spec.resource.ReadResourceResult;
+import io.modelcontextprotocol.spec.resource.Resource;
+import io.modelcontextprotocol.spec.resource.ResourceContents;
+import io.modelcontextprotocol.spec.resource.TextResourceContents;
+import io.modelcontextprotocol.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Serves the files of a directory tree as MCP resources.
+ *
+ * <p>
+ * Files from the {@link Builder#mapThreshold(long) map threshold} up are read through
+ * memory-mapped regions that are kept until the file changes, so repeated reads neither
+ * copy the file into the heap nor wait for a blocking read: binary files are handed to
+ * the transport as a {@link BinarySource} over the mapping and base64 encoded while the
+ * response is written, text files are decoded straight from the mapping. Smaller files
+ * are read into the heap, which is cheaper than mapping them. Mappings are unmapped once
+ * they are evicted and no longer read. As reading a mapping past the end of a truncated
+ * file faults, a file that changed since it was mapped is read from disk again. MIME
+ * types are detected once per file extension.
+ *
+ * <p>
+ * The tree is registered either as one resource per file or, with
+ * {@link Builder#templates(boolean)}, as one resource template per directory. A
+ * {@link WatchService} keeps the registration current: changes are collected until the
+ * tree has been quiet for the debounce interval and then applied at once, with a single
+ * {@code list_changed} notification followed by an {@code updated} notification for each
+ * modified file.
+ *
+ * <pre>{@code
+ * FileSystemResourceProvider docs = FileSystemResourceProvider.builder(Path.of("docs")).build();
+ * docs.register(server).block();
+ * // ...
+ * docs.close();
+ * }</pre>
+ */
+public final class FileSystemResourceProvider implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileSystemResourceProvider.class);
+
+	private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+	private static final Map<String, String> KNOWN_MIME_TYPES = Map.ofEntries(Map.entry("txt", "text/plain"),
+			Map.entry("md", "text/markdown"), Map.entry("csv", "text/csv"), Map.entry("html", "text/html"),
+			Map.entry("htm", "text/html"), Map.entry("css", "text/css"), Map.entry("js", "text/javascript"),
+			Map.entry("java", "text/x-java"), Map.entry("py", "text/x-python"), Map.entry("json", "application/json"),
+			Map.entry("xml", "application/xml"), Map.entry("yaml", "application/yaml"),
+			Map.entry("yml", "application/yaml"), Map.entry("svg", "image/svg+xml"), Map.entry("png", "image/png"),
+			Map.entry("jpg", "image/jpeg"), Map.entry("jpeg", "image/jpeg"), Map.entry("gif", "image/gif"),
+			Map.entry("webp", "image/webp"), Map.entry("pdf", "application/pdf"), Map.entry("zip", "application/zip"));
+
+	private static final Set<String> TEXT_MIME_TYPES = Set.of("application/json", "application/xml", "application/yaml",
+			"application/javascript");
+
+	/** Upper bound of the debounce delay, relative to the debounce interval */
+	private static final int MAX_DEBOUNCE_FACTOR = 10;
+
+	/** Unmaps evicted mappings, or leaves them to the garbage collector */
+	private static final Consumer<MappedByteBuffer> UNMAPPER = unmapper();
+
+	private final Path root;
+
+	private final String uriPrefix;
+
+	private final boolean templates;
+
+	private final boolean watch;
+
+	private final Duration debounce;
+
+	private final Charset charset;
+
+	private final long mapThreshold;
+
+	private final Predicate<Path> filter;
+
+	private final Map<String, String> mimeTypeOverrides;
+
+	/** MIME types by lower-case file extension */
+	private final ConcurrentHashMap<String, String> mimeTypes = new ConcurrentHashMap<>();
+
+	/** Mappings of the files read so far, dropped when a file changes */
+	private final ConcurrentHashMap<Path, MappedFile> mappings = new ConcurrentHashMap<>();
+
+	/** URIs of the registered files, or of the directory templates in template mode */
+	private final ConcurrentHashMap<Path, String> registered = new ConcurrentHashMap<>();
+
+	private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+
+	private final Object lifecycleLock = new Object();
+
+	private McpAsyncServer server;
+
+	private WatchService watchService;
+
+	private volatile boolean closed;
+
+	private FileSystemResourceProvider(Builder builder) {
+		this.root = builder.root;
+		this.uriPrefix = (builder.uriPrefix != null) ? builder.uriPrefix : builder.root.toUri().toString();
+		this.templates = builder.templates;
+		this.watch = builder.watch;
+		this.debounce = builder.debounce;
+		this.charset = builder.charset;
+		this.mapThreshold = builder.mapThreshold;
+		this.filter = builder.filter;
+		this.mimeTypeOverrides = new HashMap<>(builder.mimeTypes);
+	}
+
+	/**
+	 * Creates a builder for a provider serving the given directory.
+	 * @param root the directory to serve
+	 * @return a new builder
+	 */
+	public static Builder builder(Path root) {
+		return new Builder(root);
+	}
+
+	/**
+	 * Returns the directory served by this provider.
+	 * @return the absolute, normalized root directory
+	 */
+	public Path getRoot() {
+		return this.root;
+	}
+
+	/**
+	 * Returns the prefix of the resource URIs, followed by the path relative to the root.
+	 * @return the URI prefix
+	 */
+	public String getUriPrefix() {
+		return this.uriPrefix;
+	}
+
+	/**
+	 * Registers the tree with the server and starts watching it. A provider can only be
+	 * registered with one server.
+	 * @param server the server to register the resources with
+	 * @return Mono that completes when clients have been notified of the new resources
+	 */
+	public Mono<Void> register(McpAsyncServer server) {
+		Assert.notNull(server, "Server must not be null");
+		return Mono.fromCallable(() -> {
+			synchronized (this.lifecycleLock) {
+				if (this.closed) {
+					throw new IllegalStateException("Provider is closed");
+				}
+				if (this.server != null) {
+					throw new IllegalStateException("Provider is already registered");
+				}
+				this.server = server;
+				if (this.watch) {
+					this.watchService = this.root.getFileSystem().newWatchService();
+				}
+				List<McpServerFeatures.AsyncResourceSpecification> added = new ArrayList<>();
+				scan(this.root, added);
+				if (this.watch) {
+					Thread watcher = new Thread(this::watch, "mcp-fs-watcher-" + this.root.getFileName());
+					watcher.setDaemon(true);
+					watcher.start();
+				}
+				return added;
+			}
+		}).subscribeOn(Schedulers.boundedElastic()).flatMap(added -> server.updateResources(added, List.of()));
+	}
+
+	/**
+	 * Registers the tree with the server and starts watching it. A provider can only be
+	 * registered with one server.
+	 * @param server the server to register the resources with
+	 */
+	public void register(McpSyncServer server) {
+		Assert.notNull(server, "Server must not be null");
+		register(server.getAsyncServer()).block();
+	}
+
+	/**
+	 * Stops watching the tree and unmaps the cached mappings once they are no longer
+	 * read. Registered resources stay available and are read without caching.
+	 */
+	@Override
+	public void close() {
+		synchronized (this.lifecycleLock) {
+			this.closed = true;
+			if (this.watchService != null) {
+				try {
+					this.watchService.close();
+				}
+				catch (IOException e) {
+					logger.warn("Failed to close watch service for {}", this.root, e);
+				}
+			}
+		}
+		evictMappings(file -> true);
+	}
+
+	// ---------------------------------------
+	// Registration
+	// ---------------------------------------
+
+	/**
+	 * Registers the files, or directory templates, below the given directory that are not
+	 * registered yet.
+	 */
+	private void scan(Path directory, List<McpServerFeatures.AsyncResourceSpecification> added) throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+				if (!dir.equals(root) && !filter.test(dir)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				if (watchService != null && watchedDirectories.add(dir)) {
+					dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+							StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+				}
+				if (templates && !registered.containsKey(dir)) {
+					McpServerFeatures.AsyncResourceSpecification specification = directorySpecification(dir);
+					registered.put(dir, specification.resource().getUri());
+					added.add(specification);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				if (!templates && attributes.isRegularFile() && filter.test(file) && !registered.containsKey(file)) {
+					McpServerFeatures.AsyncResourceSpecification specification = fileSpecification(file);
+					registered.put(file, specification.resource().getUri());
+					added.add(specification);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				logger.warn("Skipping unreadable path {}", file, e);
+				return FileVisitResult.CONTINUE;
+			}
+
+		});
+	}
+
+	/**
+	 * Unregisters the paths at or below the given path that no longer exist.
+	 */
+	private void removeMissing(Path path, Set<String> removed) {
+		this.registered.entrySet().removeIf(entry -> {
+			if (entry.getKey().startsWith(path) && !Files.exists(entry.getKey())) {
+				removed.add(entry.getValue());
+				return true;
+			}
+			return false;
+		});
+		this.watchedDirectories.removeIf(directory -> directory.startsWith(path) && !Files.exists(directory));
+		evictMappings(file -> file.startsWith(path));
+	}
+
+	private McpServerFeatures.AsyncResourceSpecification fileSpecification(Path file) {
+		String uri = uriOf(file, false);
+		Resource resource = new Resource(uri, relativeName(file), null, mimeType(file), null);
+		return new McpServerFeatures.AsyncResourceSpecification(resource, (exchange, request) -> read(file, uri));
+	}
+
+	private McpServerFeatures.AsyncResourceSpecification directorySpecification(Path directory) {
+		String directoryUri = uriOf(directory, true);
+		String name = directory.equals(this.root) ? String.valueOf(this.root.getFileName()) : relativeName(directory);
+		Resource resource = new Resource(directoryUri + "{name}", name, "Files in " + name, null, null);
+		return new McpServerFeatures.AsyncResourceSpecification(resource, (exchange, request) -> {
+			String uri = request.getUri();
+			String fileName = decode(uri.substring(Math.min(directoryUri.length(), uri.length())));
+			if (fileName.isEmpty() || fileName.equals(".") || fileName.equals("..") || fileName.indexOf('/') >= 0
+					|| fileName.indexOf('\\') >= 0) {
+				return Mono.error(new McpError("Resource not found: " + uri));
+			}
+			Path file = directory.resolve(fileName);
+			if (!Files.isRegularFile(file) || !this.filter.test(file)) {
+				return Mono.error(new McpError("Resource not found: " + uri));
+			}
+			return read(file, uri);
+		});
+	}
+
+	private String relativeName(Path path) {
+		return this.root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+	}
+
+	private String uriOf(Path path, boolean directory) {
+		StringBuilder uri = new StringBuilder(this.uriPrefix);
+		for (Path segment : this.root.relativize(path)) {
+			String name = segment.toString();
+			if (!name.isEmpty()) {
+				uri.append(URLEncoder.encode(name, StandardCharsets.UTF_8).replace("+", "%20")).append('/');
+			}
+		}
+		if (!directory && uri.length() > this.uriPrefix.length()) {
+			uri.setLength(uri.length() - 1);
+		}
+		return uri.toString();
+	}
+
+	private static String decode(String segment) {
+		return URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+	}
+
+	// ---------------------------------------
+	// Reading
+	// ---------------------------------------
+
+	private Mono<ReadResourceResult> read(Path file, String uri) {
+		return Mono.fromCallable(() -> new ReadResourceResult(List.of(readContents(file, uri))))
+			.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private ResourceContents readContents(Path file, String uri) throws IOException {
+		String mimeType = mimeType(file);
+		BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		if (attributes.size() < this.mapThreshold) {
+			byte[] content = Files.readAllBytes(file);
+			return isText(mimeType) ? new TextResourceContents(uri, mimeType, decodeText(ByteBuffer.wrap(content)))
+					: BlobResourceContents.of(uri, mimeType, BinarySource.of(content));
+		}
+		if (attributes.size() > Integer.MAX_VALUE) {
+			if (isText(mimeType)) {
+				throw new McpError("Resource is too large to be read as text: " + uri);
+			}
+			return BlobResourceContents.of(uri, mimeType, BinarySource.of(file));
+		}
+
+		MappedFile mapped = map(file, attributes);
+		try {
+			if (!isText(mimeType)) {
+				return BlobResourceContents.of(uri, mimeType, mappedSource(file, mapped));
+			}
+			try {
+				return new TextResourceContents(uri, mimeType, decodeText(mapped.buffer.duplicate()));
+			}
+			catch (InternalError e) {
+				// Reading a mapping past the end of a file truncated since it was mapped
+				// faults, read the file again instead
+				evict(file, mapped);
+				return new TextResourceContents(uri, mimeType, decodeText(ByteBuffer.wrap(Files.readAllBytes(file))));
+			}
+		}
+		finally {
+			mapped.release();
+		}
+	}
+
+	private String decodeText(ByteBuffer content) throws IOException {
+		return this.charset.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE)
+			.decode(content)
+			.toString();
+	}
+
+	/**
+	 * Returns the file's mapping, mapping it if it has not been mapped yet or has changed
+	 * since. The caller must {@link MappedFile#release() release} the returned mapping.
+	 */
+	private MappedFile map(Path file, BasicFileAttributes attributes) throws IOException {
+		MappedFile mapped = this.mappings.get(file);
+		if (mapped != null && mapped.matches(attributes) && mapped.acquire()) {
+			return mapped;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			mapped = new MappedFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), attributes);
+		}
+		mapped.acquire();
+		MappedFile previous = this.mappings.put(file, mapped);
+		if (previous != null) {
+			previous.retire();
+		}
+		if (this.closed) {
+			evict(file, mapped);
+		}
+		return mapped;
+	}
+
+	/**
+	 * Returns a source reading the mapping, or the file once the mapping has been evicted
+	 * or the file has changed.
+	 */
+	private BinarySource mappedSource(Path file, MappedFile mapped) {
+		return BinarySource.of(() -> {
+			if (!mapped.matches(Files.readAttributes(file, BasicFileAttributes.class))) {
+				evict(file, mapped);
+			}
+			return mapped.acquire() ? new MappedInputStream(file, mapped) : BinarySource.of(file).openStream();
+		}, mapped.size);
+	}
+
+	private void evict(Path file, MappedFile mapped) {
+		this.mappings.remove(file, mapped);
+		mapped.retire();
+	}
+
+	private void evictMappings(Predicate<Path> files) {
+		this.mappings.forEach((file, mapped) -> {
+			if (files.test(file)) {
+				evict(file, mapped);
+			}
+		});
+	}
+
+	private static Consumer<MappedByteBuffer> unmapper() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			Object unsafe = field.get(null);
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			return buffer -> {
+				try {
+					invokeCleaner.invoke(unsafe, buffer);
+				}
+				catch (ReflectiveOperationException e) {
+					logger.debug("Failed to unmap buffer", e);
+				}
+			};
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			logger.debug("Evicted mappings are left to the garbage collector to unmap", e);
+			return buffer -> {
+			};
+		}
+	}
+
+	private String mimeType(Path file) {
+		String name = file.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		if (dot <= 0) {
+			return DEFAULT_MIME_TYPE;
+		}
+		return this.mimeTypes.computeIfAbsent(name.substring(dot + 1).toLowerCase(Locale.ROOT),
+				extension -> detectMimeType(file, extension));
+	}
+
+	private String detectMimeType(Path file, String extension) {
+		String mimeType = this.mimeTypeOverrides.get(extension);
+		if (mimeType == null) {
+			mimeType = KNOWN_MIME_TYPES.get(extension);
+		}
+		if (mimeType == null) {
+			try {
+				mimeType = Files.probeContentType(file);
+			}
+			catch (IOException e) {
+				logger.debug("Failed to probe content type of {}", file, e);
+			}
+		}
+		if (mimeType == null) {
+			mimeType = URLConnection.guessContentTypeFromName(file.getFileName().toString());
+		}
+		return (mimeType != null) ? mimeType : DEFAULT_MIME_TYPE;
+	}
+
+	private static boolean isText(String mimeType) {
+		return mimeType.startsWith("text/") || mimeType.endsWith("+json") || mimeType.endsWith("+xml")
+				|| TEXT_MIME_TYPES.contains(mimeType);
+	}
+
+	// ---------------------------------------
+	// Watching
+	// ---------------------------------------
+
+	private void watch() {
+		long debounceNanos = this.debounce.toNanos();
+		Set<Path> pending = new LinkedHashSet<>();
+		boolean rescan = false;
+		long firstChange = 0;
+		while (!this.closed) {
+			WatchKey key;
+			try {
+				if (pending.isEmpty() && !rescan) {
+					key = this.watchService.take();
+					firstChange = System.nanoTime();
+				}
+				else {
+					// Flush once the tree has been quiet, but do not defer a steady
+					// stream
+					// of changes indefinitely
+					long wait = Math.min(debounceNanos,
+							firstChange + MAX_DEBOUNCE_FACTOR * debounceNanos - System.nanoTime());
+					key = (wait > 0) ? this.watchService.poll(wait, TimeUnit.NANOSECONDS) : null;
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (ClosedWatchServiceException e) {
+				return;
+			}
+
+			if (key != null) {
+				Path directory = (Path) key.watchable();
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						rescan = true;
+					}
+					else {
+						pending.add(directory.resolve((Path) event.context()));
+					}
+				}
+				if (!key.reset()) {
+					// The directory is gone, watch it again should it be recreated
+					this.watchedDirectories.remove(directory);
+				}
+				continue;
+			}
+
+			try {
+				applyChanges(pending, rescan);
+			}
+			catch (Exception e) {
+				logger.warn("Failed to apply changes in {}", this.root, e);
+			}
+			pending.clear();
+			rescan = false;
+		}
+	}
+
+	private void applyChanges(Set<Path> changed, boolean rescan) throws IOException {
+		List<McpServerFeatures.AsyncResourceSpecification> added = new ArrayList<>();
+		Set<String> removed = new LinkedHashSet<>();
+		Set<String> updated = new LinkedHashSet<>();
+
+		if (rescan) {
+			evictMappings(file -> true);
+			removeMissing(this.root, removed);
+			scan(this.root, added);
+		}
+		for (Path path : changed) {
+			MappedFile stale = this.mappings.remove(path);
+			if (stale != null) {
+				stale.retire();
+			}
+			if (Files.isDirectory(path)) {
+				if (!this.watchedDirectories.contains(path) && this.filter.test(path)) {
+					scan(path, added);
+				}
+			}
+			else if (Files.isRegularFile(path)) {
+				if (!this.filter.test(path)) {
+					continue;
+				}
+				if (this.templates) {
+					if (this.registered.containsKey(path.getParent())) {
+						updated.add(uriOf(path, false));
+					}
+				}
+				else if (this.registered.containsKey(path)) {
+					updated.add(this.registered.get(path));
+				}
+				else if (this.watchedDirectories.contains(path.getParent())) {
+					McpServerFeatures.AsyncResourceSpecification specification = fileSpecification(path);
+					this.registered.put(path, specification.resource().getUri());
+					added.add(specification);
+				}
+			}
+			else {
+				removeMissing(path, removed);
+			}
+		}
+
+		if (added.isEmpty() && removed.isEmpty() && updated.isEmpty()) {
+			return;
+		}
+		logger.debug("Applying changes in {}: {} added, {} removed, {} updated", this.root, added.size(),
+				removed.size(), updated.size());
+		Mono<Void> listChanged = (added.isEmpty() && removed.isEmpty()) ? Mono.empty()
+				: this.server.updateResources(added, new ArrayList<>(removed));
+		listChanged.thenMany(Flux.fromIterable(updated).concatMap(this.server::notifyResourcesUpdated)).then().block();
+	}
+
+	/**
+	 * A mapped file, along with the attributes it had when it was mapped. The mapping is
+	 * unmapped once it has been retired and its last reader has released it.
+	 */
+	private static final class MappedFile {
+
+		private final MappedByteBuffer buffer;
+
+		private final long size;
+
+		private final FileTime lastModified;
+
+		private int readers;
+
+		private boolean retired;
+
+		MappedFile(MappedByteBuffer buffer, BasicFileAttributes attributes) {
+			this.buffer = buffer;
+			this.size = attributes.size();
+			this.lastModified = attributes.lastModifiedTime();
+		}
+
+		boolean matches(BasicFileAttributes attributes) {
+			return this.size == attributes.size() && this.lastModified.equals(attributes.lastModifiedTime());
+		}
+
+		/**
+		 * Registers a reader of the mapping.
+		 * @return {@code false} if the mapping has been retired and must not be read
+		 */
+		synchronized boolean acquire() {
+			if (this.retired) {
+				return false;
+			}
+			this.readers++;
+			return true;
+		}
+
+		synchronized void release() {
+			if (--this.readers == 0 && this.retired) {
+				UNMAPPER.accept(this.buffer);
+			}
+		}
+
+		synchronized void retire() {
+			if (!this.retired) {
+				this.retired = true;
+				if (this.readers == 0) {
+					UNMAPPER.accept(this.buffer);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Reads a mapping, failing with an {@link IOException} if reading it faults because
+	 * the file was truncated while it is read.
+	 */
+	private final class MappedInputStream extends InputStream {
+
+		private final Path file;
+
+		private final MappedFile mapped;
+
+		private final ByteBuffer buffer;
+
+		private boolean closed;
+
+		MappedInputStream(Path file, MappedFile mapped) {
+			this.file = file;
+			this.mapped = mapped;
+			this.buffer = mapped.buffer.duplicate();
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return (read(b, 0, 1) < 0) ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (this.closed) {
+				throw new IOException("Stream closed");
+			}
+			if (len == 0) {
+				return 0;
+			}
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, this.buffer.remaining());
+			try {
+				this.buffer.get(b, off, n);
+			}
+			catch (InternalError e) {
+				evict(this.file, this.mapped);
+				throw new IOException("File was truncated while being read: " + this.file, e);
+			}
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return this.closed ? 0 : this.buffer.remaining();
+		}
+
+		@Override
+		public void close() {
+			if (!this.closed) {
+				this.closed = true;
+				this.mapped.release();
+			}
+		}
+
+	}
+
+	/**
+	 * Builder for {@link FileSystemResourceProvider}.
+	 */
+	public static class Builder {
+
+		private final Path root;
+
+		private String uriPrefix;
+
+		private boolean templates;
+
+		private boolean watch = true;
+
+		private Duration debounce = Duration.ofMillis(200);
+
+		private Charset charset = StandardCharsets.UTF_8;
+
+		private long mapThreshold = 64 * 1024;
+
+		private Predicate<Path> filter = path -> true;
+
+		private final Map<String, String> mimeTypes = new HashMap<>();
+
+		private Builder(Path root) {
+			Assert.notNull(root, "Root must not be null");
+			this.root = root.toAbsolutePath().normalize();
+		}
+
+		/**
+		 * Sets the prefix of the resource URIs. Defaults to the {@code file:} URI of the
+		 * root directory.
+		 * @param uriPrefix the URI prefix, typically ending with a slash
+		 * @return this builder
+		 */
+		public Builder uriPrefix(String uriPrefix) {
+			Assert.hasText(uriPrefix, "URI prefix must not be empty");
+			this.uriPrefix = uriPrefix;
+			return this;
+		}
+
+		/**
+		 * Registers one resource template per directory instead of one resource per file.
+		 * Templates keep the resource list short for large trees, at the cost of clients
+		 * having to know the file names. Defaults to {@code false}.
+		 * @param templates whether to register directory templates
+		 * @return this builder
+		 */
+		public Builder templates(boolean templates) {
+			this.templates = templates;
+			return this;
+		}
+
+		/**
+		 * Sets whether the tree is watched for changes. Defaults to {@code true}.
+		 * @param watch whether to watch the tree
+		 * @return this builder
+		 */
+		public Builder watch(boolean watch) {
+			this.watch = watch;
+			return this;
+		}
+
+		/**
+		 * Sets how long the tree must be quiet before changes are applied. Changes are
+		 * never deferred longer than ten times this interval. Defaults to 200ms.
+		 * @param debounce the debounce interval. Must be positive.
+		 * @return this builder
+		 */
+		public Builder debounce(Duration debounce) {
+			Assert.notNull(debounce, "Debounce must not be null");
+			Assert.isTrue(!debounce.isNegative() && !debounce.isZero(), "Debounce must be positive");
+			this.debounce = debounce;
+			return this;
+		}
+
+		/**
+		 * Sets the charset of text files. Defaults to UTF-8.
+		 * @param charset the charset
+		 * @return this builder
+		 */
+		public Builder charset(Charset charset) {
+			Assert.notNull(charset, "Charset must not be null");
+			this.charset = charset;
+			return this;
+		}
+
+		/**
+		 * Sets the size from which files are memory-mapped, with the mapping kept until
+		 * the file changes. Smaller files are read into the heap on every read, which is
+		 * cheaper than mapping them. Defaults to 64 KiB.
+		 * @param mapThreshold the size in bytes. Must not be negative.
+		 * @return this builder
+		 */
+		public Builder mapThreshold(long mapThreshold) {
+			Assert.isTrue(mapThreshold >= 0, "Map threshold must not be negative");
+			this.mapThreshold = mapThreshold;
+			return this;
+		}
+
+		/**
+		 * Sets which files and directories are served. Directories rejected by the filter
+		 * are skipped entirely. Defaults to serving everything.
+		 * @param filter the filter
+		 * @return this builder
+		 */
+		public Builder filter(Predicate<Path> filter) {
+			Assert.notNull(filter, "Filter must not be null");
+			this.filter = filter;
+			return this;
+		}
+
+		/**
+		 * Sets the MIME type of files with the given extension, overriding detection.
+		 * Files with a {@code text/*}, JSON, XML or YAML type are served as text, all
+		 * others as base64 encoded blobs.
+		 * @param extension the file extension, without the dot
+		 * @param mimeType the MIME type
+		 * @return this builder
+		 */
+		public Builder mimeType(String extension, String mimeType) {
+			Assert.hasText(extension, "Extension must not be empty");
+			Assert.hasText(mimeType, "MIME type must not be empty");
+			this.mimeTypes.put(extension.toLowerCase(Locale.ROOT), mimeType);
+			return this;
+		}
+
+		/**
+		 * Builds the provider.
+		 * @return a new provider
+		 * @throws IllegalArgumentException if the root is not a directory
+		 */
+		public FileSystemResourceProvider build() {
+			Assert.isTrue(Files.isDirectory(this.root), "Root must be a directory: " + this.root);
+			return new FileSystemResourceProvider(this);
+		}
+
+	}
+
+}
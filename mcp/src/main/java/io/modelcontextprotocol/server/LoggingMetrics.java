@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+/**
+ * Point-in-time snapshot of the logging counters of a session. Counters are cumulative
+ * since the session was initialized.
+ *
+ * @see McpAsyncServerExchange#getLoggingMetrics()
+ */
+public final class LoggingMetrics {
+
+	private final long sentMessages;
+
+	private final long sentNotifications;
+
+	private final long rateLimitedMessages;
+
+	private final long overflowedMessages;
+
+	private final int queuedMessages;
+
+	LoggingMetrics(long sentMessages, long sentNotifications, long rateLimitedMessages, long overflowedMessages,
+			int queuedMessages) {
+		this.sentMessages = sentMessages;
+		this.sentNotifications = sentNotifications;
+		this.rateLimitedMessages = rateLimitedMessages;
+		this.overflowedMessages = overflowedMessages;
+		this.queuedMessages = queuedMessages;
+	}
+
+	/**
+	 * Returns the number of messages written to the client.
+	 * @return the sent messages
+	 */
+	public long getSentMessages() {
+		return this.sentMessages;
+	}
+
+	/**
+	 * Returns the number of notifications the sent messages were written in, lower than
+	 * the number of messages when bursts were coalesced.
+	 * @return the sent notifications
+	 */
+	public long getSentNotifications() {
+		return this.sentNotifications;
+	}
+
+	/**
+	 * Returns the number of messages dropped by the rate limit.
+	 * @return the rate limited messages
+	 */
+	public long getRateLimitedMessages() {
+		return this.rateLimitedMessages;
+	}
+
+	/**
+	 * Returns the number of messages dropped because too many were waiting to be written.
+	 * @return the overflowed messages
+	 */
+	public long getOverflowedMessages() {
+		return this.overflowedMessages;
+	}
+
+	/**
+	 * Returns the number of messages currently waiting to be written.
+	 * @return the queued messages
+	 */
+	public int getQueuedMessages() {
+		return this.queuedMessages;
+	}
+
+	@Override
+	public String toString() {
+		return "LoggingMetrics{" + "sentMessages=" + this.sentMessages + ", sentNotifications=" + this.sentNotifications
+				+ ", rateLimitedMessages=" + this.rateLimitedMessages + ", overflowedMessages="
+				+ this.overflowedMessages + ", queuedMessages=" + this.queuedMessages + '}';
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import io.modelcontextprotocol.util.Assert;
+
+/**
+ * Limits applied to the logging notifications of each session, so that a chatty tool
+ * cannot flood the connection of its client.
+ *
+ * <p>
+ * Messages below the level set by the client are discarded before anything else. The
+ * remaining ones take a token from a bucket refilled at a steady rate, and are dropped
+ * when it is empty. Accepted messages are written one notification at a time; those
+ * queued meanwhile with the same level and logger may be coalesced into a single
+ * notification whose data holds their lines. Dropped messages are counted in the
+ * {@link LoggingMetrics} of the session.
+ *
+ * <pre>{@code
+ * LoggingPolicy policy = LoggingPolicy.builder()
+ *     .rateLimit(100, 500)
+ *     .maxBatchSize(50)
+ *     .build();
+ * }</pre>
+ *
+ * @see McpAsyncServerExchange#loggingNotification(io.modelcontextprotocol.spec.logging.LoggingMessageNotification)
+ */
+public final class LoggingPolicy {
+
+	private static final LoggingPolicy UNLIMITED = builder().build();
+
+	private final double messagesPerSecond;
+
+	private final int burst;
+
+	private final int maxBatchSize;
+
+	private final int maxQueueSize;
+
+	private LoggingPolicy(Builder builder) {
+		this.messagesPerSecond = builder.messagesPerSecond;
+		this.burst = builder.burst;
+		this.maxBatchSize = builder.maxBatchSize;
+		this.maxQueueSize = builder.maxQueueSize;
+	}
+
+	/**
+	 * Returns the policy applied by default: no rate limit, and one notification per
+	 * message.
+	 * @return the unlimited policy
+	 */
+	public static LoggingPolicy unlimited() {
+		return UNLIMITED;
+	}
+
+	/**
+	 * Returns the steady rate of messages accepted per session.
+	 * @return the rate per second, {@link Double#POSITIVE_INFINITY} when unlimited
+	 */
+	public double getMessagesPerSecond() {
+		return this.messagesPerSecond;
+	}
+
+	/**
+	 * Returns the number of messages a session may send in a burst above the steady rate.
+	 * @return the capacity of the token bucket
+	 */
+	public int getBurst() {
+		return this.burst;
+	}
+
+	/**
+	 * Returns the maximum number of queued messages coalesced into one notification.
+	 * @return the batch size limit, 1 when messages are never coalesced
+	 */
+	public int getMaxBatchSize() {
+		return this.maxBatchSize;
+	}
+
+	/**
+	 * Returns the maximum number of messages of a session waiting to be written.
+	 * @return the queue size limit
+	 */
+	public int getMaxQueueSize() {
+		return this.maxQueueSize;
+	}
+
+	boolean isRateLimited() {
+		return this.messagesPerSecond != Double.POSITIVE_INFINITY;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builder for {@link LoggingPolicy}.
+	 */
+	public static class Builder {
+
+		private double messagesPerSecond = Double.POSITIVE_INFINITY;
+
+		private int burst = Integer.MAX_VALUE;
+
+		private int maxBatchSize = 1;
+
+		private int maxQueueSize = 10_000;
+
+		private Builder() {
+		}
+
+		/**
+		 * Limits the messages of each session with a token bucket. Defaults to no limit.
+		 * @param messagesPerSecond the steady rate. Must be positive.
+		 * @param burst the number of messages accepted at once after a quiet period. Must
+		 * be positive.
+		 * @return this builder
+		 */
+		public Builder rateLimit(double messagesPerSecond, int burst) {
+			Assert.isTrue(messagesPerSecond > 0, "Messages per second must be positive");
+			Assert.isTrue(burst > 0, "Burst must be positive");
+			this.messagesPerSecond = messagesPerSecond;
+			this.burst = burst;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of queued messages with the same level and logger
+		 * coalesced into one notification, their data separated by line breaks. Defaults
+		 * to 1, sending every message on its own.
+		 * @param maxBatchSize the batch size limit. Must be positive.
+		 * @return this builder
+		 */
+		public Builder maxBatchSize(int maxBatchSize) {
+			Assert.isTrue(maxBatchSize > 0, "Max batch size must be positive");
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of messages of a session waiting to be written, beyond
+		 * which new messages are dropped. Defaults to 10000.
+		 * @param maxQueueSize the queue size limit. Must be positive.
+		 * @return this builder
+		 */
+		public Builder maxQueueSize(int maxQueueSize) {
+			Assert.isTrue(maxQueueSize > 0, "Max queue size must be positive");
+			this.maxQueueSize = maxQueueSize;
+			return this;
+		}
+
+		public LoggingPolicy build() {
+			return new LoggingPolicy(this);
+		}
+
+	}
+
+}
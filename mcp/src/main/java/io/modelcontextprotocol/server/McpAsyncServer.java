@@ -6,18 +6,19 @@ package io.modelcontextprotocol.server;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.observation.McpObservationHandler;
 import io.modelcontextprotocol.spec.McpClientSession;
 import io.modelcontextprotocol.spec.McpError;
 import io.modelcontextprotocol.spec.McpSchema;
@@ -34,23 +35,25 @@ import io.modelcontextprotocol.spec.initialization.Implementation;
 import io.modelcontextprotocol.spec.initialization.InitializeRequest;
 import io.modelcontextprotocol.spec.initialization.InitializeResult;
 import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
-import io.modelcontextprotocol.spec.logging.LoggingLevel;
 import io.modelcontextprotocol.spec.logging.LoggingMessageNotification;
 import io.modelcontextprotocol.spec.logging.SetLevelRequest;
 import io.modelcontextprotocol.spec.prompt.GetPromptRequest;
 import io.modelcontextprotocol.spec.prompt.GetPromptResult;
 import io.modelcontextprotocol.spec.prompt.ListPromptsResult;
+import io.modelcontextprotocol.spec.prompt.PromptArgument;
 import io.modelcontextprotocol.spec.resource.ListResourceTemplatesResult;
 import io.modelcontextprotocol.spec.resource.ListResourcesResult;
 import io.modelcontextprotocol.spec.resource.ReadResourceRequest;
 import io.modelcontextprotocol.spec.resource.ReadResourceResult;
 import io.modelcontextprotocol.spec.resource.ResourceTemplate;
+import io.modelcontextprotocol.spec.resource.ResourcesUpdatedNotification;
 import io.modelcontextprotocol.spec.tool.CallToolRequest;
 import io.modelcontextprotocol.spec.tool.CallToolResult;
 import io.modelcontextprotocol.spec.tool.ListToolsResult;
 import io.modelcontextprotocol.spec.tool.Tool;
 import io.modelcontextprotocol.util.DeafaultMcpUriTemplateManagerFactory;
 import io.modelcontextprotocol.util.McpUriTemplateManagerFactory;
+import io.modelcontextprotocol.util.SessionIdGenerator;
 import io.modelcontextprotocol.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -115,43 +118,59 @@ public class McpAsyncServer {
 
 	private final CopyOnWriteArrayList<McpServerFeatures.AsyncToolSpecification> tools = new CopyOnWriteArrayList<>();
 
+	/** Bulkheads of the registered tools, keyed by tool name */
+	private final ConcurrentHashMap<String, ToolBulkhead> toolBulkheads = new ConcurrentHashMap<>();
+
 	private final CopyOnWriteArrayList<ResourceTemplate> resourceTemplates = new CopyOnWriteArrayList<>();
 
 	private final ConcurrentHashMap<String, McpServerFeatures.AsyncResourceSpecification> resources = new ConcurrentHashMap<>();
 
 	private final ConcurrentHashMap<String, McpServerFeatures.AsyncPromptSpecification> prompts = new ConcurrentHashMap<>();
 
-	// FIXME: this field is deprecated and should be remvoed together with the
-	// broadcasting loggingNotification.
-	private LoggingLevel minLoggingLevel = LoggingLevel.DEBUG;
-
 	private final ConcurrentHashMap<CompleteReference, McpServerFeatures.AsyncCompletionSpecification> completions = new ConcurrentHashMap<>();
 
+	/**
+	 * Argument names of the completed prompts and resources, so that completion requests
+	 * neither parse URI templates nor scan prompt arguments on every keystroke. Entries
+	 * are evicted when their prompt or resource is removed or replaced.
+	 */
+	private final ConcurrentHashMap<CompleteReference, CompletionArguments> completionArguments = new ConcurrentHashMap<>();
+
 	private List<String> protocolVersions = List.of(McpSchema.LATEST_PROTOCOL_VERSION);
 
 	private McpUriTemplateManagerFactory uriTemplateManagerFactory = new DeafaultMcpUriTemplateManagerFactory();
 
+	private final SessionIdGenerator sessionIdGenerator;
+
 	/**
 	 * Create a new McpAsyncServer with the given transport provider and capabilities.
 	 * @param mcpTransportProvider The transport layer implementation for MCP
 	 * communication.
 	 * @param features The MCP server supported features.
 	 * @param objectMapper The ObjectMapper to use for JSON serialization/deserialization
+	 * @param sessionIdGenerator The generator for the identifiers of new sessions
+	 * @param observationHandler The handler observing the messages of every session
+	 * @param loggingPolicy The limits of the logging notifications of every session
 	 */
 	McpAsyncServer(McpServerTransportProvider mcpTransportProvider, ObjectMapper objectMapper,
 			McpServerFeatures.Async features, Duration requestTimeout,
-			McpUriTemplateManagerFactory uriTemplateManagerFactory) {
+			McpUriTemplateManagerFactory uriTemplateManagerFactory, SessionIdGenerator sessionIdGenerator,
+			McpObservationHandler observationHandler, LoggingPolicy loggingPolicy) {
 		this.mcpTransportProvider = mcpTransportProvider;
 		this.objectMapper = objectMapper;
 		this.serverInfo = features.serverInfo();
 		this.serverCapabilities = features.serverCapabilities();
 		this.instructions = features.instructions();
 		this.tools.addAll(features.tools());
+		for (McpServerFeatures.AsyncToolSpecification tool : features.tools()) {
+			this.toolBulkheads.put(tool.getTool().getName(), new ToolBulkhead(tool));
+		}
 		this.resources.putAll(features.resources());
 		this.resourceTemplates.addAll(features.resourceTemplates());
 		this.prompts.putAll(features.prompts());
 		this.completions.putAll(features.completions());
 		this.uriTemplateManagerFactory = uriTemplateManagerFactory;
+		this.sessionIdGenerator = sessionIdGenerator;
 
 		Map<String, McpServerSession.RequestHandler<?>> requestHandlers = new HashMap<>();
 
@@ -192,6 +211,10 @@ public class McpAsyncServer {
 		Map<String, McpServerSession.NotificationHandler> notificationHandlers = new HashMap<>();
 
 		notificationHandlers.put(McpSchema.METHOD_NOTIFICATION_INITIALIZED, (exchange, params) -> Mono.empty());
+		// The session disposes the handler of the cancelled request, and sends no
+		// response
+		notificationHandlers.put(McpSchema.METHOD_NOTIFICATION_CANCELLED,
+				(exchange, params) -> Mono.fromRunnable(() -> logger.debug("Client cancelled a request: {}", params)));
 
 		List<BiFunction<McpAsyncServerExchange, List<Root>, Mono<Void>>> rootsChangeConsumers = features
 			.rootsChangeConsumers();
@@ -204,9 +227,9 @@ public class McpAsyncServer {
 		notificationHandlers.put(McpSchema.METHOD_NOTIFICATION_ROOTS_LIST_CHANGED,
 				asyncRootsListChangedNotificationHandler(rootsChangeConsumers));
 
-		mcpTransportProvider.setSessionFactory(
-				transport -> new McpServerSession(UUID.randomUUID().toString(), requestTimeout, transport,
-						this::asyncInitializeRequestHandler, Mono::empty, requestHandlers, notificationHandlers));
+		mcpTransportProvider.setSessionFactory(transport -> new McpServerSession(this.sessionIdGenerator.generate(),
+				requestTimeout, transport, this::asyncInitializeRequestHandler, Mono::empty, requestHandlers,
+				notificationHandlers, observationHandler, loggingPolicy, this.toolBulkheads::containsKey));
 	}
 
 	// ---------------------------------------
@@ -273,7 +296,8 @@ public class McpAsyncServer {
 
 	private McpServerSession.NotificationHandler asyncRootsListChangedNotificationHandler(
 			List<BiFunction<McpAsyncServerExchange, List<Root>, Mono<Void>>> rootsChangeConsumers) {
-		return (exchange, params) -> exchange.listRoots()
+		return (exchange, params) -> Mono.fromRunnable(exchange::invalidateRoots)
+			.then(exchange.listRoots())
 			.flatMap(listRootsResult -> Flux.fromIterable(rootsChangeConsumers)
 				.flatMap(consumer -> consumer.apply(exchange, listRootsResult.getRoots()))
 				.onErrorResume(error -> {
@@ -315,6 +339,7 @@ public class McpAsyncServer {
 			}
 
 			this.tools.add(toolSpecification);
+			this.toolBulkheads.put(toolSpecification.getTool().getName(), new ToolBulkhead(toolSpecification));
 			logger.debug("Added tool handler: {}", toolSpecification.getTool().getName());
 
 			if (this.serverCapabilities.getTools().getListChanged()) {
@@ -341,6 +366,7 @@ public class McpAsyncServer {
 			boolean removed = this.tools
 				.removeIf(toolSpecification -> toolSpecification.getTool().getName().equals(toolName));
 			if (removed) {
+				this.toolBulkheads.remove(toolName);
 				logger.debug("Removed tool handler: {}", toolName);
 				if (this.serverCapabilities.getTools().getListChanged()) {
 					return notifyToolsListChanged();
@@ -371,22 +397,38 @@ public class McpAsyncServer {
 
 	private McpServerSession.RequestHandler<CallToolResult> toolsCallRequestHandler() {
 		return (exchange, params) -> {
-			CallToolRequest callToolRequest = objectMapper.convertValue(params, new TypeReference<CallToolRequest>() {
-			});
+			CallToolRequest callToolRequest = convertParams(params, CallToolRequest.class);
 
-			Optional<McpServerFeatures.AsyncToolSpecification> toolSpecification = this.tools.stream()
-				.filter(tr -> callToolRequest.getName().equals(tr.getTool().getName()))
-				.findAny();
-
-			if (toolSpecification.isEmpty()) {
+			ToolBulkhead bulkhead = this.toolBulkheads.get(callToolRequest.getName());
+			if (bulkhead == null) {
 				return Mono.error(new McpError("Tool not found: " + callToolRequest.getName()));
 			}
 
-			return toolSpecification.map(tool -> tool.getCall().apply(exchange, callToolRequest.getArguments()))
-				.orElse(Mono.error(new McpError("Tool not found: " + callToolRequest.getName())));
+			return bulkhead.call(exchange, callToolRequest.getArguments());
 		};
 	}
 
+	/**
+	 * Returns the execution counters of a tool, reflecting the limits of its
+	 * {@link ToolExecutionPolicy}.
+	 * @param toolName The name of the tool
+	 * @return A snapshot of the counters, or {@code null} if no such tool is registered
+	 */
+	public ToolExecutionMetrics getToolExecutionMetrics(String toolName) {
+		ToolBulkhead bulkhead = this.toolBulkheads.get(toolName);
+		return (bulkhead != null) ? bulkhead.metrics() : null;
+	}
+
+	/**
+	 * Returns the execution counters of all registered tools.
+	 * @return Snapshots of the counters, keyed by tool name
+	 */
+	public Map<String, ToolExecutionMetrics> getToolExecutionMetrics() {
+		Map<String, ToolExecutionMetrics> metrics = new HashMap<>();
+		this.toolBulkheads.forEach((name, bulkhead) -> metrics.put(name, bulkhead.metrics()));
+		return metrics;
+	}
+
 	// ---------------------------------------
 	// Resource Management
 	// ---------------------------------------
@@ -434,6 +476,7 @@ public class McpAsyncServer {
 		return Mono.defer(() -> {
 			McpServerFeatures.AsyncResourceSpecification removed = this.resources.remove(resourceUri);
 			if (removed != null) {
+				this.completionArguments.remove(new ResourceReference(resourceUri));
 				logger.debug("Removed resource handler: {}", resourceUri);
 				if (this.serverCapabilities.getResources().getListChanged()) {
 					return notifyResourcesListChanged();
@@ -444,6 +487,38 @@ public class McpAsyncServer {
 		});
 	}
 
+	/**
+	 * Adds and removes several resource handlers at once, notifying clients of the change
+	 * only once.
+	 * @param added The resource handlers to add, replacing existing handlers with the
+	 * same URI
+	 * @param removed The URIs of the resource handlers to remove
+	 * @return Mono that completes when clients have been notified of the change
+	 */
+	Mono<Void> updateResources(List<McpServerFeatures.AsyncResourceSpecification> added, List<String> removed) {
+		if (this.serverCapabilities.getResources() == null) {
+			return Mono.error(new McpError("Server must be configured with resource capabilities"));
+		}
+
+		return Mono.defer(() -> {
+			boolean changed = false;
+			for (String resourceUri : removed) {
+				changed |= this.resources.remove(resourceUri) != null;
+				this.completionArguments.remove(new ResourceReference(resourceUri));
+			}
+			for (McpServerFeatures.AsyncResourceSpecification resourceSpecification : added) {
+				this.resources.put(resourceSpecification.resource().getUri(), resourceSpecification);
+				this.completionArguments.remove(new ResourceReference(resourceSpecification.resource().getUri()));
+				changed = true;
+			}
+			logger.debug("Updated resource handlers: {} added, {} removed", added.size(), removed.size());
+			if (changed && this.serverCapabilities.getResources().getListChanged()) {
+				return notifyResourcesListChanged();
+			}
+			return Mono.empty();
+		});
+	}
+
 	/**
 	 * Notifies clients that the list of available resources has changed.
 	 * @return A Mono that completes when all clients have been notified
@@ -452,6 +527,19 @@ public class McpAsyncServer {
 		return this.mcpTransportProvider.notifyClients(McpSchema.METHOD_NOTIFICATION_RESOURCES_LIST_CHANGED, null);
 	}
 
+	/**
+	 * Notifies clients that the content of a resource has changed.
+	 * @param resourceUri The URI of the updated resource
+	 * @return A Mono that completes when all clients have been notified
+	 */
+	public Mono<Void> notifyResourcesUpdated(String resourceUri) {
+		if (resourceUri == null) {
+			return Mono.error(new McpError("Resource URI must not be null"));
+		}
+		return this.mcpTransportProvider.notifyClients(McpSchema.METHOD_NOTIFICATION_RESOURCES_UPDATED,
+				new ResourcesUpdatedNotification(resourceUri));
+	}
+
 	private McpServerSession.RequestHandler<ListResourcesResult> resourcesListRequestHandler() {
 		return (exchange, params) -> {
 			var resourceList = this.resources.values()
@@ -487,18 +575,20 @@ public class McpAsyncServer {
 
 	private McpServerSession.RequestHandler<ReadResourceResult> resourcesReadRequestHandler() {
 		return (exchange, params) -> {
-			ReadResourceRequest resourceRequest = objectMapper.convertValue(params,
-					new TypeReference<ReadResourceRequest>() {
-					});
+			ReadResourceRequest resourceRequest = convertParams(params, ReadResourceRequest.class);
 			var resourceUri = resourceRequest.getUri();
 
-			McpServerFeatures.AsyncResourceSpecification specification = this.resources.values()
-				.stream()
-				.filter(resourceSpecification -> this.uriTemplateManagerFactory
-					.create(resourceSpecification.resource().getUri())
-					.matches(resourceUri))
-				.findFirst()
-				.orElseThrow(() -> new McpError("Resource not found: " + resourceUri));
+			// Plain resources are keyed by their URI, only templates need matching
+			McpServerFeatures.AsyncResourceSpecification specification = this.resources.get(resourceUri);
+			if (specification == null) {
+				specification = this.resources.values()
+					.stream()
+					.filter(resourceSpecification -> this.uriTemplateManagerFactory
+						.create(resourceSpecification.resource().getUri())
+						.matches(resourceUri))
+					.findFirst()
+					.orElseThrow(() -> new McpError("Resource not found: " + resourceUri));
+			}
 
 			return specification.readHandler().apply(exchange, resourceRequest);
 		};
@@ -558,6 +648,7 @@ public class McpAsyncServer {
 			McpServerFeatures.AsyncPromptSpecification removed = this.prompts.remove(promptName);
 
 			if (removed != null) {
+				this.completionArguments.remove(new PromptReference(promptName));
 				logger.debug("Removed prompt handler: {}", promptName);
 				// Servers that declared the listChanged capability SHOULD send a
 				// notification, when the list of available prompts changes
@@ -596,8 +687,7 @@ public class McpAsyncServer {
 
 	private McpServerSession.RequestHandler<GetPromptResult> promptsGetRequestHandler() {
 		return (exchange, params) -> {
-			GetPromptRequest promptRequest = objectMapper.convertValue(params, new TypeReference<GetPromptRequest>() {
-			});
+			GetPromptRequest promptRequest = convertParams(params, GetPromptRequest.class);
 
 			// Implement prompt retrieval logic here
 			McpServerFeatures.AsyncPromptSpecification specification = this.prompts.get(promptRequest.getName());
@@ -614,15 +704,16 @@ public class McpAsyncServer {
 	// ---------------------------------------
 
 	/**
-	 * This implementation would, incorrectly, broadcast the logging message to all
-	 * connected clients, using a single minLoggingLevel for all of them. Similar to the
-	 * sampling and roots, the logging level should be set per client session and use the
-	 * ServerExchange to send the logging message to the right client.
+	 * Send a logging message notification to every initialized session whose minimum
+	 * logging level admits it, within the {@link LoggingPolicy} of each session. The
+	 * message is broadcast to every client if the transport provider does not expose its
+	 * sessions.
 	 * @param loggingMessageNotification The logging message to send
-	 * @return A Mono that completes when the notification has been sent
+	 * @return A Mono that completes when the notification has been sent to or dropped by
+	 * every session
 	 * @deprecated Use
 	 * {@link McpAsyncServerExchange#loggingNotification(LoggingMessageNotification)}
-	 * instead.
+	 * instead, which sends the message to the client it concerns only.
 	 */
 	@Deprecated
 	public Mono<Void> loggingNotification(LoggingMessageNotification loggingMessageNotification) {
@@ -631,28 +722,32 @@ public class McpAsyncServer {
 			return Mono.error(new McpError("Logging message must not be null"));
 		}
 
-		if (loggingMessageNotification.getLevel().ordinal() < minLoggingLevel.ordinal()) {
-			return Mono.empty();
-		}
-
-		return this.mcpTransportProvider.notifyClients(McpSchema.METHOD_NOTIFICATION_MESSAGE,
-				loggingMessageNotification);
+		return Mono.defer(() -> {
+			Collection<McpServerSession> sessions = this.mcpTransportProvider.getSessions();
+			if (sessions == null) {
+				// Providers that don't expose their sessions can only broadcast the
+				// message
+				return this.mcpTransportProvider.notifyClients(McpSchema.METHOD_NOTIFICATION_MESSAGE,
+						loggingMessageNotification);
+			}
+			return Flux.fromIterable(sessions)
+				.flatMap(session -> Mono.justOrEmpty(session.getExchange()))
+				.flatMap(exchange -> exchange.loggingNotification(loggingMessageNotification).onErrorResume(error -> {
+					logger.debug("Failed to send logging notification: {}", error.getMessage());
+					return Mono.empty();
+				}))
+				.then();
+		});
 	}
 
 	private McpServerSession.RequestHandler<Object> setLoggerRequestHandler() {
 		return (exchange, params) -> {
 			return Mono.defer(() -> {
 
-				SetLevelRequest newMinLoggingLevel = objectMapper.convertValue(params,
-						new TypeReference<SetLevelRequest>() {
-						});
+				SetLevelRequest newMinLoggingLevel = convertParams(params, SetLevelRequest.class);
 
 				exchange.setMinLoggingLevel(newMinLoggingLevel.getLevel());
 
-				// FIXME: this field is deprecated and should be removed together
-				// with the broadcasting loggingNotification.
-				this.minLoggingLevel = newMinLoggingLevel.getLevel();
-
 				return Mono.just(Map.of());
 			});
 		};
@@ -681,13 +776,13 @@ public class McpAsyncServer {
 				if (promptSpec == null) {
 					return Mono.error(new McpError("Prompt not found: " + promptReference.getName()));
 				}
-				if (!promptSpec.prompt()
-					.getArguments()
-					.stream()
-					.filter(arg -> arg.getName().equals(argumentName))
-					.findFirst()
-					.isPresent()) {
-
+				Set<String> argumentNames = completionArgumentNames(promptReference, promptSpec,
+						() -> promptSpec.prompt()
+							.getArguments()
+							.stream()
+							.map(PromptArgument::getName)
+							.collect(Collectors.toSet()));
+				if (!argumentNames.contains(argumentName)) {
 					return Mono.error(new McpError("Argument not found: " + argumentName));
 				}
 			}
@@ -699,9 +794,9 @@ public class McpAsyncServer {
 				if (resourceSpec == null) {
 					return Mono.error(new McpError("Resource not found: " + resourceReference.getUri()));
 				}
-				if (!uriTemplateManagerFactory.create(resourceSpec.resource().getUri())
-					.getVariableNames()
-					.contains(argumentName)) {
+				Set<String> argumentNames = completionArgumentNames(resourceReference, resourceSpec, () -> Set
+					.copyOf(uriTemplateManagerFactory.create(resourceSpec.resource().getUri()).getVariableNames()));
+				if (!argumentNames.contains(argumentName)) {
 					return Mono.error(new McpError("Argument not found: " + argumentName));
 				}
 
@@ -717,6 +812,34 @@ public class McpAsyncServer {
 		};
 	}
 
+	/**
+	 * Returns the argument names of a prompt or resource, computed once for as long as
+	 * the same specification is registered.
+	 */
+	private Set<String> completionArgumentNames(CompleteReference reference, Object specification,
+			Supplier<Set<String>> argumentNames) {
+		CompletionArguments cached = this.completionArguments.get(reference);
+		if (cached == null || cached.specification != specification) {
+			cached = new CompletionArguments(specification, argumentNames.get());
+			this.completionArguments.put(reference, cached);
+		}
+		return cached.names;
+	}
+
+	/**
+	 * Converts the parameters of a request to the given type. Parameters received from an
+	 * in-process client may already have that type, in which case they are used as is.
+	 * @param params the raw request parameters
+	 * @param type the request type
+	 * @return the typed request
+	 */
+	private <T> T convertParams(Object params, Class<T> type) {
+		if (type.isInstance(params)) {
+			return type.cast(params);
+		}
+		return this.objectMapper.convertValue(params, type);
+	}
+
 	/**
 	 * Parses the raw JSON-RPC request parameters into a {@link CompleteRequest} object.
 	 * <p>
@@ -730,6 +853,9 @@ public class McpAsyncServer {
 	 */
 	@SuppressWarnings("unchecked")
 	private CompleteRequest parseCompletionParams(Object object) {
+		if (object instanceof CompleteRequest) {
+			return (CompleteRequest) object;
+		}
 		Map<String, Object> params = (Map<String, Object>) object;
 		Map<String, Object> refMap = (Map<String, Object>) params.get("ref");
 		Map<String, Object> argMap = (Map<String, Object>) params.get("argument");
@@ -764,4 +890,21 @@ public class McpAsyncServer {
 		this.protocolVersions = protocolVersions;
 	}
 
+	/**
+	 * Argument names of a prompt or resource, along with the specification they were read
+	 * from.
+	 */
+	private static final class CompletionArguments {
+
+		private final Object specification;
+
+		private final Set<String> names;
+
+		CompletionArguments(Object specification, Set<String> names) {
+			this.specification = specification;
+			this.names = names;
+		}
+
+	}
+
 }
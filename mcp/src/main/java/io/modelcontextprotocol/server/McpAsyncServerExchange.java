@@ -4,6 +4,10 @@
 
 package io.modelcontextprotocol.server;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.modelcontextprotocol.spec.McpError;
 import io.modelcontextprotocol.spec.McpSchema;
@@ -34,7 +38,13 @@ public class McpAsyncServerExchange {
 
 	private final Implementation clientInfo;
 
-	private volatile LoggingLevel minLoggingLevel = LoggingLevel.INFO;
+	private final SessionLogPipeline logPipeline;
+
+	/**
+	 * Roots of the client, fetched once and shared until it notifies that they changed.
+	 * Null until the first request.
+	 */
+	private final AtomicReference<Mono<ListRootsResult>> roots = new AtomicReference<>();
 
 	private static final TypeReference<CreateMessageResult> CREATE_MESSAGE_RESULT_TYPE_REF = new TypeReference<>() {
 	};
@@ -42,6 +52,8 @@ public class McpAsyncServerExchange {
 	private static final TypeReference<ListRootsResult> LIST_ROOTS_RESULT_TYPE_REF = new TypeReference<>() {
 	};
 
+	private static final Duration CACHE_FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+
 	/**
 	 * Create a new asynchronous exchange with the client.
 	 * @param session The server session representing a 1-1 interaction.
@@ -51,9 +63,25 @@ public class McpAsyncServerExchange {
 	 */
 	public McpAsyncServerExchange(McpServerSession session, ClientCapabilities clientCapabilities,
 			Implementation clientInfo) {
+		this(session, clientCapabilities, clientInfo, LoggingPolicy.unlimited());
+	}
+
+	/**
+	 * Create a new asynchronous exchange with the client whose logging notifications are
+	 * subject to the given policy.
+	 * @param session The server session representing a 1-1 interaction.
+	 * @param clientCapabilities The client capabilities that define the supported
+	 * features and functionality.
+	 * @param clientInfo The client implementation information.
+	 * @param loggingPolicy The limits of the logging notifications sent to the client.
+	 */
+	public McpAsyncServerExchange(McpServerSession session, ClientCapabilities clientCapabilities,
+			Implementation clientInfo, LoggingPolicy loggingPolicy) {
+		Assert.notNull(loggingPolicy, "Logging policy must not be null");
 		this.session = session;
 		this.clientCapabilities = clientCapabilities;
 		this.clientInfo = clientInfo;
+		this.logPipeline = new SessionLogPipeline(session, loggingPolicy);
 	}
 
 	/**
@@ -100,11 +128,26 @@ public class McpAsyncServerExchange {
 	}
 
 	/**
-	 * Retrieves the list of all roots provided by the client.
+	 * Retrieves the list of all roots provided by the client. When the client notifies
+	 * the changes of its roots, the list is cached until the next
+	 * {@code notifications/roots/list_changed}, and concurrent calls share a single
+	 * request.
 	 * @return A Mono that emits the list of roots result.
 	 */
 	public Mono<ListRootsResult> listRoots() {
-		return this.listRoots(null);
+		if (!notifiesRootsChanges()) {
+			return this.listRoots(null);
+		}
+		return Mono.defer(() -> {
+			Mono<ListRootsResult> cached = this.roots.get();
+			if (cached == null) {
+				// Errors are not cached, the next call asks the client again
+				Mono<ListRootsResult> request = this.listRoots(null)
+					.cache(result -> CACHE_FOREVER, error -> Duration.ZERO, () -> Duration.ZERO);
+				cached = this.roots.compareAndSet(null, request) ? request : this.roots.get();
+			}
+			return (cached != null) ? cached : this.listRoots(null);
+		});
 	}
 
 	/**
@@ -118,10 +161,11 @@ public class McpAsyncServerExchange {
 	}
 
 	/**
-	 * Send a logging message notification to all connected clients. Messages below the
-	 * current minimum logging level will be filtered out.
+	 * Send a logging message notification to the client. Messages below the current
+	 * minimum logging level of the client will be filtered out, and messages beyond the
+	 * limits of the {@link LoggingPolicy} of the server are dropped.
 	 * @param loggingMessageNotification The logging message to send
-	 * @return A Mono that completes when the notification has been sent
+	 * @return A Mono that completes when the notification has been sent or dropped
 	 */
 	public Mono<Void> loggingNotification(LoggingMessageNotification loggingMessageNotification) {
 
@@ -129,12 +173,51 @@ public class McpAsyncServerExchange {
 			return Mono.error(new McpError("Logging message must not be null"));
 		}
 
-		return Mono.defer(() -> {
-			if (this.isNotificationForLevelAllowed(loggingMessageNotification.getLevel())) {
-				return this.session.sendNotification(McpSchema.METHOD_NOTIFICATION_MESSAGE, loggingMessageNotification);
-			}
-			return Mono.empty();
-		});
+		return this.logPipeline.log(loggingMessageNotification.getLevel(), () -> loggingMessageNotification);
+	}
+
+	/**
+	 * Send a logging message notification to the client, building its data only if the
+	 * message is not filtered out or dropped.
+	 * @param level The level of the message
+	 * @param logger The name of the logger, may be null
+	 * @param data Supplies the data of the message
+	 * @return A Mono that completes when the notification has been sent or dropped
+	 */
+	public Mono<Void> loggingNotification(LoggingLevel level, String logger, Supplier<String> data) {
+		Assert.notNull(level, "Level must not be null");
+		Assert.notNull(data, "Data supplier must not be null");
+		return this.logPipeline.log(level, () -> new LoggingMessageNotification(level, logger, data.get()));
+	}
+
+	/**
+	 * Tells whether messages of the given level would be sent to the client, so that
+	 * callers can skip building messages that would be filtered out.
+	 * @param level The level of the message
+	 * @return whether the level is at or above the minimum logging level of the client
+	 */
+	public boolean isLoggingEnabled(LoggingLevel level) {
+		return this.logPipeline.isEnabled(level);
+	}
+
+	/**
+	 * Returns a snapshot of the logging counters of this session.
+	 * @return the logging metrics
+	 */
+	public LoggingMetrics getLoggingMetrics() {
+		return this.logPipeline.metrics();
+	}
+
+	/**
+	 * Forgets the cached roots, once the client notified that they changed.
+	 */
+	void invalidateRoots() {
+		this.roots.set(null);
+	}
+
+	private boolean notifiesRootsChanges() {
+		return this.clientCapabilities != null && this.clientCapabilities.getRoots() != null
+				&& Boolean.TRUE.equals(this.clientCapabilities.getRoots().getListChanged());
 	}
 
 	/**
@@ -143,12 +226,7 @@ public class McpAsyncServerExchange {
 	 * @param minLoggingLevel The minimum logging level
 	 */
 	void setMinLoggingLevel(LoggingLevel minLoggingLevel) {
-		Assert.notNull(minLoggingLevel, "minLoggingLevel must not be null");
-		this.minLoggingLevel = minLoggingLevel;
-	}
-
-	private boolean isNotificationForLevelAllowed(LoggingLevel loggingLevel) {
-		return loggingLevel.ordinal() >= this.minLoggingLevel.ordinal();
+		this.logPipeline.setMinLoggingLevel(minLoggingLevel);
 	}
 
 }
@@ -14,6 +14,7 @@ import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.observation.McpObservationHandler;
 import io.modelcontextprotocol.spec.McpServerTransportProvider;
 import io.modelcontextprotocol.spec.autocomplete.CompleteReference;
 import io.modelcontextprotocol.spec.common.Root;
@@ -23,9 +24,12 @@ import io.modelcontextprotocol.spec.resource.ResourceTemplate;
 import io.modelcontextprotocol.spec.tool.CallToolResult;
 import io.modelcontextprotocol.spec.tool.Tool;
 import io.modelcontextprotocol.util.Assert;
+import io.modelcontextprotocol.util.McpSchedulers;
 import io.modelcontextprotocol.util.DeafaultMcpUriTemplateManagerFactory;
 import io.modelcontextprotocol.util.McpUriTemplateManagerFactory;
+import io.modelcontextprotocol.util.SessionIdGenerator;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * Factory class for creating Model Context Protocol (MCP) servers. MCP servers expose
@@ -163,6 +167,12 @@ public interface McpServer {
 
 		private McpUriTemplateManagerFactory uriTemplateManagerFactory = new DeafaultMcpUriTemplateManagerFactory();
 
+		private SessionIdGenerator sessionIdGenerator = SessionIdGenerator.defaultGenerator();
+
+		private McpObservationHandler observationHandler = McpObservationHandler.NOOP;
+
+		private LoggingPolicy loggingPolicy = LoggingPolicy.unlimited();
+
 		private ObjectMapper objectMapper;
 
 		private Implementation serverInfo = DEFAULT_SERVER_INFO;
@@ -224,6 +234,45 @@ public interface McpServer {
 			return this;
 		}
 
+		/**
+		 * Sets the generator for the identifiers of new sessions. Defaults to
+		 * {@link SessionIdGenerator#defaultGenerator()}.
+		 * @param sessionIdGenerator The generator to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if sessionIdGenerator is null
+		 */
+		public AsyncSpecification sessionIdGenerator(SessionIdGenerator sessionIdGenerator) {
+			Assert.notNull(sessionIdGenerator, "Session ID generator must not be null");
+			this.sessionIdGenerator = sessionIdGenerator;
+			return this;
+		}
+
+		/**
+		 * Sets the handler observing the messages exchanged by every session of the
+		 * server. By default messages are not observed.
+		 * @param observationHandler The handler to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if observationHandler is null
+		 */
+		public AsyncSpecification observationHandler(McpObservationHandler observationHandler) {
+			Assert.notNull(observationHandler, "Observation handler must not be null");
+			this.observationHandler = observationHandler;
+			return this;
+		}
+
+		/**
+		 * Sets the limits applied to the logging notifications of every session. By
+		 * default messages are neither rate limited nor coalesced.
+		 * @param loggingPolicy The policy to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if loggingPolicy is null
+		 */
+		public AsyncSpecification loggingPolicy(LoggingPolicy loggingPolicy) {
+			Assert.notNull(loggingPolicy, "Logging policy must not be null");
+			this.loggingPolicy = loggingPolicy;
+			return this;
+		}
+
 		/**
 		 * Sets the duration to wait for server responses before timing out requests. This
 		 * timeout applies to all requests made through the client, including tool calls,
@@ -637,7 +686,8 @@ public interface McpServer {
 					this.instructions);
 			var mapper = this.objectMapper != null ? this.objectMapper : new ObjectMapper();
 			return new McpAsyncServer(this.transportProvider, mapper, features, this.requestTimeout,
-					this.uriTemplateManagerFactory);
+					this.uriTemplateManagerFactory, this.sessionIdGenerator, this.observationHandler,
+					this.loggingPolicy);
 		}
 
 	}
@@ -651,6 +701,12 @@ public interface McpServer {
 
 		private McpUriTemplateManagerFactory uriTemplateManagerFactory = new DeafaultMcpUriTemplateManagerFactory();
 
+		private SessionIdGenerator sessionIdGenerator = SessionIdGenerator.defaultGenerator();
+
+		private McpObservationHandler observationHandler = McpObservationHandler.NOOP;
+
+		private LoggingPolicy loggingPolicy = LoggingPolicy.unlimited();
+
 		private final McpServerTransportProvider transportProvider;
 
 		private ObjectMapper objectMapper;
@@ -696,6 +752,8 @@ public interface McpServer {
 
 		private Duration requestTimeout = Duration.ofSeconds(10); // Default timeout
 
+		private Scheduler executionScheduler = McpSchedulers.defaultScheduler();
+
 		private SyncSpecification(McpServerTransportProvider transportProvider) {
 			Assert.notNull(transportProvider, "Transport provider must not be null");
 			this.transportProvider = transportProvider;
@@ -714,6 +772,63 @@ public interface McpServer {
 			return this;
 		}
 
+		/**
+		 * Sets the generator for the identifiers of new sessions. Defaults to
+		 * {@link SessionIdGenerator#defaultGenerator()}.
+		 * @param sessionIdGenerator The generator to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if sessionIdGenerator is null
+		 */
+		public SyncSpecification sessionIdGenerator(SessionIdGenerator sessionIdGenerator) {
+			Assert.notNull(sessionIdGenerator, "Session ID generator must not be null");
+			this.sessionIdGenerator = sessionIdGenerator;
+			return this;
+		}
+
+		/**
+		 * Sets the scheduler the blocking handlers of this server are offloaded to, so
+		 * that they never run on the transport threads. Defaults to
+		 * {@link McpSchedulers#defaultScheduler()}. Use
+		 * {@link McpSchedulers#virtualThreads()} to run every handler on its own virtual
+		 * thread, or {@link reactor.core.scheduler.Schedulers#fromExecutor} to use an
+		 * existing executor. Handler specifications created with their own scheduler are
+		 * offloaded to that scheduler instead.
+		 * @param executionScheduler The scheduler to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if executionScheduler is null
+		 */
+		public SyncSpecification executionScheduler(Scheduler executionScheduler) {
+			Assert.notNull(executionScheduler, "Execution scheduler must not be null");
+			this.executionScheduler = executionScheduler;
+			return this;
+		}
+
+		/**
+		 * Sets the handler observing the messages exchanged by every session of the
+		 * server. By default messages are not observed.
+		 * @param observationHandler The handler to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if observationHandler is null
+		 */
+		public SyncSpecification observationHandler(McpObservationHandler observationHandler) {
+			Assert.notNull(observationHandler, "Observation handler must not be null");
+			this.observationHandler = observationHandler;
+			return this;
+		}
+
+		/**
+		 * Sets the limits applied to the logging notifications of every session. By
+		 * default messages are neither rate limited nor coalesced.
+		 * @param loggingPolicy The policy to use. Must not be null.
+		 * @return This builder instance for method chaining
+		 * @throws IllegalArgumentException if loggingPolicy is null
+		 */
+		public SyncSpecification loggingPolicy(LoggingPolicy loggingPolicy) {
+			Assert.notNull(loggingPolicy, "Logging policy must not be null");
+			this.loggingPolicy = loggingPolicy;
+			return this;
+		}
+
 		/**
 		 * Sets the duration to wait for server responses before timing out requests. This
 		 * timeout applies to all requests made through the client, including tool calls,
@@ -1124,12 +1239,14 @@ public interface McpServer {
 			McpServerFeatures.Sync syncFeatures = new McpServerFeatures.Sync(this.serverInfo, this.serverCapabilities,
 					this.tools, this.resources, this.resourceTemplates, this.prompts, this.completions,
 					this.rootsChangeHandlers, this.instructions);
-			McpServerFeatures.Async asyncFeatures = McpServerFeatures.Async.fromSync(syncFeatures);
+			McpServerFeatures.Async asyncFeatures = McpServerFeatures.Async.fromSync(syncFeatures,
+					this.executionScheduler);
 			var mapper = this.objectMapper != null ? this.objectMapper : new ObjectMapper();
 			var asyncServer = new McpAsyncServer(this.transportProvider, mapper, asyncFeatures, this.requestTimeout,
-					this.uriTemplateManagerFactory);
+					this.uriTemplateManagerFactory, this.sessionIdGenerator, this.observationHandler,
+					this.loggingPolicy);
 
-			return new McpSyncServer(asyncServer);
+			return new McpSyncServer(asyncServer, this.executionScheduler);
 		}
 
 	}
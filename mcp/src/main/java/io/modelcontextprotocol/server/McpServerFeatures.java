@@ -27,9 +27,10 @@ import io.modelcontextprotocol.spec.resource.ResourceTemplate;
 import io.modelcontextprotocol.spec.tool.CallToolResult;
 import io.modelcontextprotocol.spec.tool.Tool;
 import io.modelcontextprotocol.util.Assert;
+import io.modelcontextprotocol.util.McpSchedulers;
 import io.modelcontextprotocol.util.Utils;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * MCP server features specification that a particular server can choose to support.
@@ -159,24 +160,38 @@ public class McpServerFeatures {
 		 * user.
 		 */
 		static Async fromSync(Sync syncSpec) {
+			return fromSync(syncSpec, McpSchedulers.defaultScheduler());
+		}
+
+		/**
+		 * Convert a synchronous specification into an asynchronous one, offloading the
+		 * blocking handlers to the given scheduler. Handlers whose specification carries
+		 * its own scheduler are offloaded to that scheduler instead.
+		 * @param syncSpec a potentially blocking, synchronous specification.
+		 * @param scheduler the scheduler to run the synchronous handlers on.
+		 * @return a specification which is protected from blocking calls specified by the
+		 * user.
+		 */
+		static Async fromSync(Sync syncSpec, Scheduler scheduler) {
+			Assert.notNull(scheduler, "Scheduler must not be null");
 			List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
 			for (var tool : syncSpec.tools()) {
-				tools.add(AsyncToolSpecification.fromSync(tool));
+				tools.add(AsyncToolSpecification.fromSync(tool, scheduler));
 			}
 
 			Map<String, AsyncResourceSpecification> resources = new HashMap<>();
 			syncSpec.resources().forEach((key, resource) -> {
-				resources.put(key, AsyncResourceSpecification.fromSync(resource));
+				resources.put(key, AsyncResourceSpecification.fromSync(resource, scheduler));
 			});
 
 			Map<String, AsyncPromptSpecification> prompts = new HashMap<>();
 			syncSpec.prompts().forEach((key, prompt) -> {
-				prompts.put(key, AsyncPromptSpecification.fromSync(prompt));
+				prompts.put(key, AsyncPromptSpecification.fromSync(prompt, scheduler));
 			});
 
 			Map<CompleteReference, McpServerFeatures.AsyncCompletionSpecification> completions = new HashMap<>();
 			syncSpec.completions().forEach((key, completion) -> {
-				completions.put(key, AsyncCompletionSpecification.fromSync(completion));
+				completions.put(key, AsyncCompletionSpecification.fromSync(completion, scheduler));
 			});
 
 			List<BiFunction<McpAsyncServerExchange, List<Root>, Mono<Void>>> rootChangeConsumers = new ArrayList<>();
@@ -184,7 +199,7 @@ public class McpServerFeatures {
 			for (var rootChangeConsumer : syncSpec.rootsChangeConsumers()) {
 				rootChangeConsumers.add((exchange, list) -> Mono
 					.<Void>fromRunnable(() -> rootChangeConsumer.accept(new McpSyncServerExchange(exchange), list))
-					.subscribeOn(Schedulers.boundedElastic()));
+					.subscribeOn(scheduler));
 			}
 
 			return new Async(syncSpec.serverInfo(), syncSpec.serverCapabilities(), tools, resources,
@@ -312,10 +327,43 @@ public class McpServerFeatures {
 
 		private final BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<CallToolResult>> call;
 
+		private final ToolExecutionPolicy executionPolicy;
+
+		/** Blocking handler of a specification converted from a synchronous one */
+		private final BiFunction<McpAsyncServerExchange, Map<String, Object>, CallToolResult> blockingCall;
+
+		/** Scheduler running {@link #blockingCall} */
+		private final Scheduler blockingScheduler;
+
 		public AsyncToolSpecification(Tool tool,
 				BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<CallToolResult>> call) {
+			this(tool, call, null);
+		}
+
+		/**
+		 * Create a tool specification whose calls are subject to the given execution
+		 * policy.
+		 * @param tool the tool definition
+		 * @param call the call handler
+		 * @param executionPolicy the concurrency, queueing and timeout limits of the
+		 * tool, or {@code null} for no limits
+		 */
+		public AsyncToolSpecification(Tool tool,
+				BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<CallToolResult>> call,
+				ToolExecutionPolicy executionPolicy) {
+			this(tool, call, executionPolicy, null, null);
+		}
+
+		private AsyncToolSpecification(Tool tool,
+				BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<CallToolResult>> call,
+				ToolExecutionPolicy executionPolicy,
+				BiFunction<McpAsyncServerExchange, Map<String, Object>, CallToolResult> blockingCall,
+				Scheduler blockingScheduler) {
 			this.tool = tool;
 			this.call = call;
+			this.executionPolicy = executionPolicy;
+			this.blockingCall = blockingCall;
+			this.blockingScheduler = blockingScheduler;
 		}
 
 		public Tool getTool() {
@@ -326,14 +374,42 @@ public class McpServerFeatures {
 			return this.call;
 		}
 
+		public ToolExecutionPolicy getExecutionPolicy() {
+			return this.executionPolicy;
+		}
+
+		BiFunction<McpAsyncServerExchange, Map<String, Object>, CallToolResult> getBlockingCall() {
+			return this.blockingCall;
+		}
+
+		Scheduler getBlockingScheduler() {
+			return this.blockingScheduler;
+		}
+
 		static AsyncToolSpecification fromSync(SyncToolSpecification tool) {
+			return fromSync(tool, McpSchedulers.defaultScheduler());
+		}
+
+		static AsyncToolSpecification fromSync(SyncToolSpecification tool, Scheduler defaultScheduler) {
 			if (tool == null) {
 				return null;
 			}
-			return new AsyncToolSpecification(tool.getTool(),
-					(exchange, map) -> Mono
-						.fromCallable(() -> tool.getCall().apply(new McpSyncServerExchange(exchange), map))
-						.subscribeOn(Schedulers.boundedElastic()));
+			ToolExecutionPolicy policy = tool.getExecutionPolicy();
+			Scheduler scheduler = defaultScheduler;
+			if (tool.getScheduler() != null) {
+				scheduler = tool.getScheduler();
+			}
+			else if (policy != null && policy.getScheduler() != null) {
+				scheduler = policy.getScheduler();
+			}
+			Scheduler callScheduler = scheduler;
+			BiFunction<McpAsyncServerExchange, Map<String, Object>, CallToolResult> blockingCall = (exchange,
+					map) -> tool.getCall().apply(new McpSyncServerExchange(exchange), map);
+			// The server runs the blocking call itself, the asynchronous one serves
+			// direct callers of the specification
+			return new AsyncToolSpecification(tool.getTool(), (exchange,
+					map) -> Mono.fromCallable(() -> blockingCall.apply(exchange, map)).subscribeOn(callScheduler),
+					policy, blockingCall, callScheduler);
 		}
 
 	}
@@ -386,14 +462,19 @@ public class McpServerFeatures {
 		}
 
 		static AsyncResourceSpecification fromSync(SyncResourceSpecification resource) {
+			return fromSync(resource, McpSchedulers.defaultScheduler());
+		}
+
+		static AsyncResourceSpecification fromSync(SyncResourceSpecification resource, Scheduler defaultScheduler) {
 			// FIXME: This is temporary, proper validation should be implemented
 			if (resource == null) {
 				return null;
 			}
+			Scheduler scheduler = (resource.scheduler() != null) ? resource.scheduler() : defaultScheduler;
 			return new AsyncResourceSpecification(resource.resource(),
 					(exchange, req) -> Mono
 						.fromCallable(() -> resource.readHandler().apply(new McpSyncServerExchange(exchange), req))
-						.subscribeOn(Schedulers.boundedElastic()));
+						.subscribeOn(scheduler));
 		}
 
 	}
@@ -450,14 +531,19 @@ public class McpServerFeatures {
 		}
 
 		static AsyncPromptSpecification fromSync(SyncPromptSpecification prompt) {
+			return fromSync(prompt, McpSchedulers.defaultScheduler());
+		}
+
+		static AsyncPromptSpecification fromSync(SyncPromptSpecification prompt, Scheduler defaultScheduler) {
 			// FIXME: This is temporary, proper validation should be implemented
 			if (prompt == null) {
 				return null;
 			}
+			Scheduler scheduler = (prompt.scheduler() != null) ? prompt.scheduler() : defaultScheduler;
 			return new AsyncPromptSpecification(prompt.prompt(),
 					(exchange, req) -> Mono
 						.fromCallable(() -> prompt.promptHandler().apply(new McpSyncServerExchange(exchange), req))
-						.subscribeOn(Schedulers.boundedElastic()));
+						.subscribeOn(scheduler));
 		}
 
 	}
@@ -507,13 +593,28 @@ public class McpServerFeatures {
 		 * {@code null} if input is null
 		 */
 		static AsyncCompletionSpecification fromSync(SyncCompletionSpecification completion) {
+			return fromSync(completion, McpSchedulers.defaultScheduler());
+		}
+
+		/**
+		 * Converts a synchronous {@link SyncCompletionSpecification} into an
+		 * {@link AsyncCompletionSpecification} running the handler on the scheduler of
+		 * the specification, or on the given scheduler if the specification has none.
+		 * @param completion the synchronous completion specification
+		 * @param defaultScheduler the scheduler to use if the specification has none
+		 * @return an asynchronous wrapper of the provided sync specification, or
+		 * {@code null} if input is null
+		 */
+		static AsyncCompletionSpecification fromSync(SyncCompletionSpecification completion,
+				Scheduler defaultScheduler) {
 			if (completion == null) {
 				return null;
 			}
+			Scheduler scheduler = (completion.scheduler() != null) ? completion.scheduler() : defaultScheduler;
 			return new AsyncCompletionSpecification(completion.referenceKey(),
 					(exchange, request) -> Mono.fromCallable(
 							() -> completion.completionHandler().apply(new McpSyncServerExchange(exchange), request))
-						.subscribeOn(Schedulers.boundedElastic()));
+						.subscribeOn(scheduler));
 		}
 
 	}
@@ -524,10 +625,45 @@ public class McpServerFeatures {
 
 		private final BiFunction<McpSyncServerExchange, Map<String, Object>, CallToolResult> call;
 
+		private final Scheduler scheduler;
+
+		private final ToolExecutionPolicy executionPolicy;
+
 		public SyncToolSpecification(Tool tool,
 				BiFunction<McpSyncServerExchange, Map<String, Object>, CallToolResult> call) {
+			this(tool, call, null);
+		}
+
+		/**
+		 * Create a tool specification whose calls are offloaded to a dedicated scheduler,
+		 * isolating the tool from the other handlers of the server.
+		 * @param tool the tool definition
+		 * @param call the blocking call handler
+		 * @param scheduler the scheduler to run the handler on, or {@code null} to use
+		 * the scheduler configured on the server
+		 */
+		public SyncToolSpecification(Tool tool,
+				BiFunction<McpSyncServerExchange, Map<String, Object>, CallToolResult> call, Scheduler scheduler) {
+			this(tool, call, scheduler, null);
+		}
+
+		/**
+		 * Create a tool specification whose calls are subject to the given execution
+		 * policy.
+		 * @param tool the tool definition
+		 * @param call the blocking call handler
+		 * @param scheduler the scheduler to run the handler on, or {@code null} to use
+		 * the scheduler of the policy or, failing that, of the server
+		 * @param executionPolicy the concurrency, queueing and timeout limits of the
+		 * tool, or {@code null} for no limits
+		 */
+		public SyncToolSpecification(Tool tool,
+				BiFunction<McpSyncServerExchange, Map<String, Object>, CallToolResult> call, Scheduler scheduler,
+				ToolExecutionPolicy executionPolicy) {
 			this.tool = tool;
 			this.call = call;
+			this.scheduler = scheduler;
+			this.executionPolicy = executionPolicy;
 		}
 
 		public Tool getTool() {
@@ -538,6 +674,14 @@ public class McpServerFeatures {
 			return this.call;
 		}
 
+		public Scheduler getScheduler() {
+			return this.scheduler;
+		}
+
+		public ToolExecutionPolicy getExecutionPolicy() {
+			return this.executionPolicy;
+		}
+
 	}
 
 	/**
@@ -574,10 +718,27 @@ public class McpServerFeatures {
 
 		private final BiFunction<McpSyncServerExchange, ReadResourceRequest, ReadResourceResult> readHandler;
 
+		private final Scheduler scheduler;
+
 		public SyncResourceSpecification(Resource resource,
 				BiFunction<McpSyncServerExchange, ReadResourceRequest, ReadResourceResult> readHandler) {
+			this(resource, readHandler, null);
+		}
+
+		/**
+		 * Create a resource specification whose reads are offloaded to a dedicated
+		 * scheduler.
+		 * @param resource the resource definition
+		 * @param readHandler the blocking read handler
+		 * @param scheduler the scheduler to run the handler on, or {@code null} to use
+		 * the scheduler configured on the server
+		 */
+		public SyncResourceSpecification(Resource resource,
+				BiFunction<McpSyncServerExchange, ReadResourceRequest, ReadResourceResult> readHandler,
+				Scheduler scheduler) {
 			this.resource = resource;
 			this.readHandler = readHandler;
+			this.scheduler = scheduler;
 		}
 
 		public Resource resource() {
@@ -588,6 +749,10 @@ public class McpServerFeatures {
 			return this.readHandler;
 		}
 
+		public Scheduler scheduler() {
+			return this.scheduler;
+		}
+
 	}
 
 	/**
@@ -627,10 +792,27 @@ public class McpServerFeatures {
 
 		private final BiFunction<McpSyncServerExchange, GetPromptRequest, GetPromptResult> promptHandler;
 
+		private final Scheduler scheduler;
+
 		public SyncPromptSpecification(Prompt prompt,
 				BiFunction<McpSyncServerExchange, GetPromptRequest, GetPromptResult> promptHandler) {
+			this(prompt, promptHandler, null);
+		}
+
+		/**
+		 * Create a prompt specification whose requests are offloaded to a dedicated
+		 * scheduler.
+		 * @param prompt the prompt definition
+		 * @param promptHandler the blocking prompt handler
+		 * @param scheduler the scheduler to run the handler on, or {@code null} to use
+		 * the scheduler configured on the server
+		 */
+		public SyncPromptSpecification(Prompt prompt,
+				BiFunction<McpSyncServerExchange, GetPromptRequest, GetPromptResult> promptHandler,
+				Scheduler scheduler) {
 			this.prompt = prompt;
 			this.promptHandler = promptHandler;
+			this.scheduler = scheduler;
 		}
 
 		public Prompt prompt() {
@@ -641,6 +823,10 @@ public class McpServerFeatures {
 			return this.promptHandler;
 		}
 
+		public Scheduler scheduler() {
+			return this.scheduler;
+		}
+
 	}
 
 	/**
@@ -658,10 +844,27 @@ public class McpServerFeatures {
 
 		private final BiFunction<McpSyncServerExchange, CompleteRequest, CompleteResult> completionHandler;
 
+		private final Scheduler scheduler;
+
 		public SyncCompletionSpecification(CompleteReference referenceKey,
 				BiFunction<McpSyncServerExchange, CompleteRequest, CompleteResult> completionHandler) {
+			this(referenceKey, completionHandler, null);
+		}
+
+		/**
+		 * Create a completion specification whose requests are offloaded to a dedicated
+		 * scheduler.
+		 * @param referenceKey the completion reference
+		 * @param completionHandler the blocking completion handler
+		 * @param scheduler the scheduler to run the handler on, or {@code null} to use
+		 * the scheduler configured on the server
+		 */
+		public SyncCompletionSpecification(CompleteReference referenceKey,
+				BiFunction<McpSyncServerExchange, CompleteRequest, CompleteResult> completionHandler,
+				Scheduler scheduler) {
 			this.referenceKey = referenceKey;
 			this.completionHandler = completionHandler;
+			this.scheduler = scheduler;
 		}
 
 		public CompleteReference referenceKey() {
@@ -672,6 +875,10 @@ public class McpServerFeatures {
 			return this.completionHandler;
 		}
 
+		public Scheduler scheduler() {
+			return this.scheduler;
+		}
+
 	}
 
 	public interface RootsChangeHandler extends BiFunction<McpSyncServerExchange, List<Root>, Mono<Void>> {
@@ -8,6 +8,8 @@ import io.modelcontextprotocol.spec.initialization.Implementation;
 import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
 import io.modelcontextprotocol.spec.logging.LoggingMessageNotification;
 import io.modelcontextprotocol.util.Assert;
+import io.modelcontextprotocol.util.McpSchedulers;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * A synchronous implementation of the Model Context Protocol (MCP) server that wraps
@@ -55,13 +57,30 @@ public class McpSyncServer {
 	 */
 	private final McpAsyncServer asyncServer;
 
+	/**
+	 * The scheduler the handlers added at runtime are offloaded to.
+	 */
+	private final Scheduler executionScheduler;
+
 	/**
 	 * Creates a new synchronous server that wraps the provided async server.
 	 * @param asyncServer The async server to wrap
 	 */
 	public McpSyncServer(McpAsyncServer asyncServer) {
+		this(asyncServer, McpSchedulers.defaultScheduler());
+	}
+
+	/**
+	 * Creates a new synchronous server that wraps the provided async server.
+	 * @param asyncServer The async server to wrap
+	 * @param executionScheduler The scheduler the handlers added at runtime are offloaded
+	 * to, unless their specification carries its own scheduler
+	 */
+	public McpSyncServer(McpAsyncServer asyncServer, Scheduler executionScheduler) {
 		Assert.notNull(asyncServer, "Async server must not be null");
+		Assert.notNull(executionScheduler, "Execution scheduler must not be null");
 		this.asyncServer = asyncServer;
+		this.executionScheduler = executionScheduler;
 	}
 
 	/**
@@ -69,7 +88,9 @@ public class McpSyncServer {
 	 * @param toolHandler The tool handler to add
 	 */
 	public void addTool(McpServerFeatures.SyncToolSpecification toolHandler) {
-		this.asyncServer.addTool(McpServerFeatures.AsyncToolSpecification.fromSync(toolHandler)).block();
+		this.asyncServer
+			.addTool(McpServerFeatures.AsyncToolSpecification.fromSync(toolHandler, this.executionScheduler))
+			.block();
 	}
 
 	/**
@@ -80,12 +101,25 @@ public class McpSyncServer {
 		this.asyncServer.removeTool(toolName).block();
 	}
 
+	/**
+	 * Returns the execution counters of a tool.
+	 * @param toolName The name of the tool
+	 * @return A snapshot of the counters, or {@code null} if no such tool is registered
+	 * @see McpAsyncServer#getToolExecutionMetrics(String)
+	 */
+	public ToolExecutionMetrics getToolExecutionMetrics(String toolName) {
+		return this.asyncServer.getToolExecutionMetrics(toolName);
+	}
+
 	/**
 	 * Add a new resource handler.
 	 * @param resourceHandler The resource handler to add
 	 */
 	public void addResource(McpServerFeatures.SyncResourceSpecification resourceHandler) {
-		this.asyncServer.addResource(McpServerFeatures.AsyncResourceSpecification.fromSync(resourceHandler)).block();
+		this.asyncServer
+			.addResource(
+					McpServerFeatures.AsyncResourceSpecification.fromSync(resourceHandler, this.executionScheduler))
+			.block();
 	}
 
 	/**
@@ -101,7 +135,10 @@ public class McpSyncServer {
 	 * @param promptSpecification The prompt specification to add
 	 */
 	public void addPrompt(McpServerFeatures.SyncPromptSpecification promptSpecification) {
-		this.asyncServer.addPrompt(McpServerFeatures.AsyncPromptSpecification.fromSync(promptSpecification)).block();
+		this.asyncServer
+			.addPrompt(
+					McpServerFeatures.AsyncPromptSpecification.fromSync(promptSpecification, this.executionScheduler))
+			.block();
 	}
 
 	/**
@@ -142,6 +179,14 @@ public class McpSyncServer {
 		this.asyncServer.notifyResourcesListChanged().block();
 	}
 
+	/**
+	 * Notify clients that the content of a resource has changed.
+	 * @param resourceUri The URI of the updated resource
+	 */
+	public void notifyResourcesUpdated(String resourceUri) {
+		this.asyncServer.notifyResourcesUpdated(resourceUri).block();
+	}
+
 	/**
 	 * Notify clients that the list of available prompts has changed.
 	 */
@@ -150,14 +195,12 @@ public class McpSyncServer {
 	}
 
 	/**
-	 * This implementation would, incorrectly, broadcast the logging message to all
-	 * connected clients, using a single minLoggingLevel for all of them. Similar to the
-	 * sampling and roots, the logging level should be set per client session and use the
-	 * ServerExchange to send the logging message to the right client.
+	 * Send a logging message notification to every initialized session whose minimum
+	 * logging level admits it, within the {@link LoggingPolicy} of each session.
 	 * @param loggingMessageNotification The logging message to send
 	 * @deprecated Use
 	 * {@link McpSyncServerExchange#loggingNotification(LoggingMessageNotification)}
-	 * instead.
+	 * instead, which sends the message to the client it concerns only.
 	 */
 	@Deprecated
 	public void loggingNotification(LoggingMessageNotification loggingMessageNotification) {
@@ -4,9 +4,12 @@
 
 package io.modelcontextprotocol.server;
 
+import java.util.function.Supplier;
+
 import io.modelcontextprotocol.spec.common.ListRootsResult;
 import io.modelcontextprotocol.spec.initialization.ClientCapabilities;
 import io.modelcontextprotocol.spec.initialization.Implementation;
+import io.modelcontextprotocol.spec.logging.LoggingLevel;
 import io.modelcontextprotocol.spec.logging.LoggingMessageNotification;
 import io.modelcontextprotocol.spec.sampling.CreateMessageRequest;
 import io.modelcontextprotocol.spec.sampling.CreateMessageResult;
@@ -68,7 +71,8 @@ public class McpSyncServerExchange {
 	}
 
 	/**
-	 * Retrieves the list of all roots provided by the client.
+	 * Retrieves the list of all roots provided by the client, cached as described in
+	 * {@link McpAsyncServerExchange#listRoots()}.
 	 * @return The list of roots result.
 	 */
 	public ListRootsResult listRoots() {
@@ -85,12 +89,42 @@ public class McpSyncServerExchange {
 	}
 
 	/**
-	 * Send a logging message notification to all connected clients. Messages below the
-	 * current minimum logging level will be filtered out.
+	 * Send a logging message notification to the client. Messages below the current
+	 * minimum logging level of the client will be filtered out, and messages beyond the
+	 * limits of the {@link LoggingPolicy} of the server are dropped.
 	 * @param loggingMessageNotification The logging message to send
 	 */
 	public void loggingNotification(LoggingMessageNotification loggingMessageNotification) {
 		this.exchange.loggingNotification(loggingMessageNotification).block();
 	}
 
+	/**
+	 * Send a logging message notification to the client, building its data only if the
+	 * message is not filtered out or dropped.
+	 * @param level The level of the message
+	 * @param logger The name of the logger, may be null
+	 * @param data Supplies the data of the message
+	 */
+	public void loggingNotification(LoggingLevel level, String logger, Supplier<String> data) {
+		this.exchange.loggingNotification(level, logger, data).block();
+	}
+
+	/**
+	 * Tells whether messages of the given level would be sent to the client, so that
+	 * callers can skip building messages that would be filtered out.
+	 * @param level The level of the message
+	 * @return whether the level is at or above the minimum logging level of the client
+	 */
+	public boolean isLoggingEnabled(LoggingLevel level) {
+		return this.exchange.isLoggingEnabled(level);
+	}
+
+	/**
+	 * Returns a snapshot of the logging counters of this session.
+	 * @return the logging metrics
+	 */
+	public LoggingMetrics getLoggingMetrics() {
+		return this.exchange.getLoggingMetrics();
+	}
+
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.logging.LoggingLevel;
+import io.modelcontextprotocol.spec.logging.LoggingMessageNotification;
+import io.modelcontextprotocol.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Sends the logging notifications of one session within the limits of its
+ * {@link LoggingPolicy}.
+ *
+ * <p>
+ * Messages are written one notification at a time by whichever thread finds the writer
+ * idle, so that a burst queues up instead of competing for the connection, and can be
+ * coalesced. The lock is only held to update the token bucket and the queue, never while
+ * writing.
+ */
+final class SessionLogPipeline {
+
+	private final McpServerSession session;
+
+	private final LoggingPolicy policy;
+
+	private volatile LoggingLevel minLoggingLevel = LoggingLevel.INFO;
+
+	private final Object lock = new Object();
+
+	/** Messages waiting to be written, guarded by {@link #lock} */
+	private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+
+	/** Tokens left in the bucket, guarded by {@link #lock} */
+	private double tokens;
+
+	/** Time of the last refill of the bucket, guarded by {@link #lock} */
+	private long refilledAt;
+
+	/** Whether a notification is being written, guarded by {@link #lock} */
+	private boolean writing;
+
+	private final AtomicInteger drainRequests = new AtomicInteger();
+
+	private final LongAdder sentMessages = new LongAdder();
+
+	private final LongAdder sentNotifications = new LongAdder();
+
+	private final LongAdder rateLimited = new LongAdder();
+
+	private final LongAdder overflowed = new LongAdder();
+
+	SessionLogPipeline(McpServerSession session, LoggingPolicy policy) {
+		this.session = session;
+		this.policy = policy;
+		this.tokens = policy.getBurst();
+		this.refilledAt = System.nanoTime();
+	}
+
+	void setMinLoggingLevel(LoggingLevel minLoggingLevel) {
+		Assert.notNull(minLoggingLevel, "minLoggingLevel must not be null");
+		this.minLoggingLevel = minLoggingLevel;
+	}
+
+	boolean isEnabled(LoggingLevel level) {
+		return level.ordinal() >= this.minLoggingLevel.ordinal();
+	}
+
+	/**
+	 * Sends a message unless it is filtered out or dropped.
+	 * @param level the level of the message
+	 * @param message builds the message, only called once the message is accepted
+	 * @return a Mono that completes once the message is written or dropped
+	 */
+	Mono<Void> log(LoggingLevel level, Supplier<LoggingMessageNotification> message) {
+		return Mono.create(sink -> {
+			if (!isEnabled(level) || !tryAcquire()) {
+				sink.success();
+				return;
+			}
+			Pending pending = new Pending(message.get(), sink);
+			synchronized (this.lock) {
+				if (this.queue.size() >= this.policy.getMaxQueueSize()) {
+					pending = null;
+				}
+				else {
+					this.queue.add(pending);
+				}
+			}
+			if (pending == null) {
+				this.overflowed.increment();
+				sink.success();
+				return;
+			}
+			drain();
+		});
+	}
+
+	private boolean tryAcquire() {
+		if (!this.policy.isRateLimited()) {
+			return true;
+		}
+		synchronized (this.lock) {
+			long now = System.nanoTime();
+			this.tokens = Math.min(this.policy.getBurst(),
+					this.tokens + (now - this.refilledAt) / 1e9 * this.policy.getMessagesPerSecond());
+			this.refilledAt = now;
+			if (this.tokens >= 1) {
+				this.tokens -= 1;
+				return true;
+			}
+		}
+		this.rateLimited.increment();
+		return false;
+	}
+
+	/**
+	 * Writes the queued messages until the queue is empty or a write is pending. Writes
+	 * completing on the calling thread are picked up by the loop rather than by
+	 * recursion.
+	 */
+	private void drain() {
+		if (this.drainRequests.getAndIncrement() != 0) {
+			return;
+		}
+		int missed = 1;
+		do {
+			List<Pending> batch;
+			while ((batch = nextBatch()) != null) {
+				write(batch);
+			}
+			missed = this.drainRequests.addAndGet(-missed);
+		}
+		while (missed != 0);
+	}
+
+	private List<Pending> nextBatch() {
+		synchronized (this.lock) {
+			if (this.writing || this.queue.isEmpty()) {
+				return null;
+			}
+			List<Pending> batch = new ArrayList<>();
+			Pending first = this.queue.poll();
+			batch.add(first);
+			while (batch.size() < this.policy.getMaxBatchSize() && !this.queue.isEmpty()
+					&& first.coalescesWith(this.queue.peek())) {
+				batch.add(this.queue.poll());
+			}
+			this.writing = true;
+			return batch;
+		}
+	}
+
+	private void write(List<Pending> batch) {
+		LoggingMessageNotification notification = batch.get(0).message;
+		if (batch.size() > 1) {
+			StringBuilder data = new StringBuilder();
+			for (Pending pending : batch) {
+				if (data.length() > 0) {
+					data.append('\n');
+				}
+				data.append(pending.message.getData());
+			}
+			notification = new LoggingMessageNotification(notification.getLevel(), notification.getLogger(),
+					data.toString());
+		}
+		this.session.sendNotification(McpSchema.METHOD_NOTIFICATION_MESSAGE, notification)
+			.subscribe(null, error -> written(batch, error), () -> written(batch, null));
+	}
+
+	private void written(List<Pending> batch, Throwable error) {
+		if (error == null) {
+			this.sentMessages.add(batch.size());
+			this.sentNotifications.increment();
+		}
+		synchronized (this.lock) {
+			this.writing = false;
+		}
+		for (Pending pending : batch) {
+			if (error == null) {
+				pending.sink.success();
+			}
+			else {
+				pending.sink.error(error);
+			}
+		}
+		drain();
+	}
+
+	LoggingMetrics metrics() {
+		int queued;
+		synchronized (this.lock) {
+			queued = this.queue.size();
+		}
+		return new LoggingMetrics(this.sentMessages.sum(), this.sentNotifications.sum(), this.rateLimited.sum(),
+				this.overflowed.sum(), queued);
+	}
+
+	/**
+	 * A message waiting to be written, with the sink of its caller.
+	 */
+	private static final class Pending {
+
+		private final LoggingMessageNotification message;
+
+		private final MonoSink<Void> sink;
+
+		Pending(LoggingMessageNotification message, MonoSink<Void> sink) {
+			this.message = message;
+			this.sink = sink;
+		}
+
+		boolean coalescesWith(Pending other) {
+			return this.message.getLevel() == other.message.getLevel()
+					&& Objects.equals(this.message.getLogger(), other.message.getLogger());
+		}
+
+	}
+
+}
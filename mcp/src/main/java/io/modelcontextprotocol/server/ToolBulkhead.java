@@ -0,0 +1,264 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.jsonrpc.ErrorCodes;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Invokes a tool within the limits of its {@link ToolExecutionPolicy} and keeps its
+ * execution counters.
+ *
+ * <p>
+ * Slots are handed out under a lock that is only held to update the counters and the wait
+ * queue, never while a call runs. Tools without a concurrency limit skip the lock
+ * entirely.
+ */
+final class ToolBulkhead {
+
+	private final McpServerFeatures.AsyncToolSpecification specification;
+
+	private final ToolExecutionPolicy policy;
+
+	private final String toolName;
+
+	private final Object lock = new Object();
+
+	/** Calls waiting for a slot, guarded by {@link #lock} */
+	private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final LongAdder completed = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final LongAdder rejected = new LongAdder();
+
+	private final LongAdder timedOut = new LongAdder();
+
+	ToolBulkhead(McpServerFeatures.AsyncToolSpecification specification) {
+		this.specification = specification;
+		this.policy = (specification.getExecutionPolicy() != null) ? specification.getExecutionPolicy()
+				: ToolExecutionPolicy.unlimited();
+		this.toolName = specification.getTool().getName();
+	}
+
+	/**
+	 * Calls the tool once a slot is free, unless its result is cached.
+	 * @param exchange the exchange of the calling session
+	 * @param arguments the call arguments
+	 * @return the call result, or an {@link McpError} if the tool is saturated or the
+	 * call times out
+	 */
+	Mono<CallToolResult> call(McpAsyncServerExchange exchange, Map<String, Object> arguments) {
+		ToolResultCache cache = this.policy.getResultCache();
+		if (cache != null) {
+			return cache.get(this.toolName, arguments, () -> execute(exchange, arguments));
+		}
+		return execute(exchange, arguments);
+	}
+
+	private Mono<CallToolResult> execute(McpAsyncServerExchange exchange, Map<String, Object> arguments) {
+		Mono<CallToolResult> holdingSlot;
+		if (this.specification.getBlockingCall() != null) {
+			holdingSlot = Mono.create(sink -> runBlocking(sink, exchange, arguments));
+		}
+		else {
+			Mono<CallToolResult> call = Mono.defer(() -> this.specification.getCall().apply(exchange, arguments));
+			holdingSlot = track(
+					(this.policy.getScheduler() != null) ? call.subscribeOn(this.policy.getScheduler()) : call);
+		}
+
+		Mono<CallToolResult> guarded;
+		if (this.policy.isUnlimited()) {
+			guarded = Mono.defer(() -> {
+				this.active.incrementAndGet();
+				return holdingSlot;
+			});
+		}
+		else {
+			guarded = Mono.<Boolean>create(this::acquire).flatMap(acquired -> holdingSlot);
+		}
+
+		if (this.policy.getTimeout() == null) {
+			return guarded;
+		}
+		return guarded.timeout(this.policy.getTimeout()).onErrorMap(TimeoutException.class, e -> {
+			this.timedOut.increment();
+			return new McpError(new JSONRPCResponse.JSONRPCError(ErrorCodes.REQUEST_TIMEOUT,
+					"Tool '" + this.toolName + "' timed out after " + this.policy.getTimeout().toMillis() + "ms",
+					null));
+		});
+	}
+
+	/**
+	 * Counts the outcome of a call that holds a slot, and frees the slot once it
+	 * terminates or is cancelled.
+	 */
+	private Mono<CallToolResult> track(Mono<CallToolResult> call) {
+		return call.doFinally(signal -> {
+			if (signal == SignalType.ON_COMPLETE) {
+				this.completed.increment();
+			}
+			else if (signal == SignalType.ON_ERROR) {
+				this.failed.increment();
+			}
+			release();
+		});
+	}
+
+	/**
+	 * Runs the handler of a synchronous tool on its scheduler. Cancelling the call
+	 * interrupts the handler, but its slot is only freed once the handler has returned,
+	 * so that handlers ignoring the interruption still count against the limit.
+	 */
+	private void runBlocking(MonoSink<CallToolResult> sink, McpAsyncServerExchange exchange,
+			Map<String, Object> arguments) {
+		// Claimed by whichever of the task starting and the call being cancelled comes
+		// first
+		AtomicBoolean claimed = new AtomicBoolean();
+		Disposable task;
+		try {
+			task = this.specification.getBlockingScheduler().schedule(() -> {
+				if (!claimed.compareAndSet(false, true)) {
+					return;
+				}
+				try {
+					CallToolResult result = this.specification.getBlockingCall().apply(exchange, arguments);
+					this.completed.increment();
+					sink.success(result);
+				}
+				catch (Throwable error) {
+					this.failed.increment();
+					sink.error(error);
+				}
+				finally {
+					release();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			this.failed.increment();
+			release();
+			sink.error(e);
+			return;
+		}
+		sink.onCancel(() -> {
+			if (claimed.compareAndSet(false, true)) {
+				release();
+			}
+			task.dispose();
+		});
+	}
+
+	private void acquire(MonoSink<Boolean> sink) {
+		Waiter waiter = null;
+		boolean acquired = false;
+		synchronized (this.lock) {
+			if (this.active.get() < this.policy.getMaxConcurrency()) {
+				this.active.incrementAndGet();
+				acquired = true;
+			}
+			else if (this.waiters.size() < this.policy.getMaxQueueSize()) {
+				waiter = new Waiter(sink);
+				this.waiters.add(waiter);
+			}
+		}
+
+		if (acquired) {
+			sink.success(true);
+		}
+		else if (waiter != null) {
+			Waiter queued = waiter;
+			sink.onCancel(() -> {
+				if (queued.claim()) {
+					synchronized (this.lock) {
+						this.waiters.remove(queued);
+					}
+				}
+				else {
+					// The slot was handed over but never delivered, pass it on
+					release();
+				}
+			});
+		}
+		else {
+			this.rejected.increment();
+			sink.error(new McpError(new JSONRPCResponse.JSONRPCError(ErrorCodes.SERVER_BUSY,
+					"Tool '" + this.toolName + "' is saturated, try again later", null)));
+		}
+	}
+
+	/**
+	 * Hands the slot of a terminated call over to the next waiter, or frees it if no call
+	 * is waiting.
+	 */
+	private void release() {
+		if (this.policy.isUnlimited()) {
+			this.active.decrementAndGet();
+			return;
+		}
+		while (true) {
+			Waiter next;
+			synchronized (this.lock) {
+				next = this.waiters.poll();
+				if (next == null) {
+					this.active.decrementAndGet();
+					return;
+				}
+			}
+			// A waiter cancelled concurrently has already given up its place
+			if (next.claim()) {
+				next.sink.success(true);
+				return;
+			}
+		}
+	}
+
+	ToolExecutionMetrics metrics() {
+		int queued;
+		synchronized (this.lock) {
+			queued = this.waiters.size();
+		}
+		return new ToolExecutionMetrics(this.toolName, this.policy.getMaxConcurrency(), this.policy.getMaxQueueSize(),
+				this.active.get(), queued, this.completed.sum(), this.failed.sum(), this.rejected.sum(),
+				this.timedOut.sum());
+	}
+
+	/**
+	 * A queued call. Exactly one of granting the slot and cancelling the call claims it.
+	 */
+	private static final class Waiter {
+
+		private final MonoSink<Boolean> sink;
+
+		private final AtomicBoolean claimed = new AtomicBoolean();
+
+		Waiter(MonoSink<Boolean> sink) {
+			this.sink = sink;
+		}
+
+		boolean claim() {
+			return this.claimed.compareAndSet(false, true);
+		}
+
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+/**
+ * Point-in-time snapshot of the execution counters of a tool. Counters are cumulative
+ * since the tool was registered with the server.
+ *
+ * @see McpAsyncServer#getToolExecutionMetrics(String)
+ */
+public final class ToolExecutionMetrics {
+
+	private final String toolName;
+
+	private final int maxConcurrency;
+
+	private final int maxQueueSize;
+
+	private final int activeCalls;
+
+	private final int queuedCalls;
+
+	private final long completedCalls;
+
+	private final long failedCalls;
+
+	private final long rejectedCalls;
+
+	private final long timedOutCalls;
+
+	ToolExecutionMetrics(String toolName, int maxConcurrency, int maxQueueSize, int activeCalls, int queuedCalls,
+			long completedCalls, long failedCalls, long rejectedCalls, long timedOutCalls) {
+		this.toolName = toolName;
+		this.maxConcurrency = maxConcurrency;
+		this.maxQueueSize = maxQueueSize;
+		this.activeCalls = activeCalls;
+		this.queuedCalls = queuedCalls;
+		this.completedCalls = completedCalls;
+		this.failedCalls = failedCalls;
+		this.rejectedCalls = rejectedCalls;
+		this.timedOutCalls = timedOutCalls;
+	}
+
+	public String getToolName() {
+		return this.toolName;
+	}
+
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+
+	public int getMaxQueueSize() {
+		return this.maxQueueSize;
+	}
+
+	/**
+	 * Returns the number of calls currently running.
+	 * @return the active calls
+	 */
+	public int getActiveCalls() {
+		return this.activeCalls;
+	}
+
+	/**
+	 * Returns the number of calls currently waiting for a free slot.
+	 * @return the queued calls
+	 */
+	public int getQueuedCalls() {
+		return this.queuedCalls;
+	}
+
+	/**
+	 * Returns the number of calls that completed successfully.
+	 * @return the completed calls
+	 */
+	public long getCompletedCalls() {
+		return this.completedCalls;
+	}
+
+	/**
+	 * Returns the number of calls that failed with an error, excluding timeouts.
+	 * @return the failed calls
+	 */
+	public long getFailedCalls() {
+		return this.failedCalls;
+	}
+
+	/**
+	 * Returns the number of calls rejected because the tool was saturated.
+	 * @return the rejected calls
+	 */
+	public long getRejectedCalls() {
+		return this.rejectedCalls;
+	}
+
+	/**
+	 * Returns the number of calls cancelled because they exceeded the timeout.
+	 * @return the timed out calls
+	 */
+	public long getTimedOutCalls() {
+		return this.timedOutCalls;
+	}
+
+	/**
+	 * Returns the share of the concurrency limit in use.
+	 * @return a value between 0 and 1, always 0 for tools without a limit
+	 */
+	public double getSaturation() {
+		if (this.maxConcurrency == Integer.MAX_VALUE) {
+			return 0;
+		}
+		return (double) this.activeCalls / this.maxConcurrency;
+	}
+
+	@Override
+	public String toString() {
+		return "ToolExecutionMetrics{" + "toolName='" + this.toolName + '\'' + ", maxConcurrency=" + this.maxConcurrency
+				+ ", maxQueueSize=" + this.maxQueueSize + ", activeCalls=" + this.activeCalls + ", queuedCalls="
+				+ this.queuedCalls + ", completedCalls=" + this.completedCalls + ", failedCalls=" + this.failedCalls
+				+ ", rejectedCalls=" + this.rejectedCalls + ", timedOutCalls=" + this.timedOutCalls + '}';
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.time.Duration;
+
+import io.modelcontextprotocol.util.Assert;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Execution limits applied by the server to the calls of a single tool. Each tool is
+ * isolated in its own bulkhead: at most {@link #getMaxConcurrency() maxConcurrency} calls
+ * run at the same time, up to {@link #getMaxQueueSize() maxQueueSize} further calls wait
+ * for a free slot, and any call beyond that is rejected right away with a
+ * {@link io.modelcontextprotocol.spec.jsonrpc.ErrorCodes#SERVER_BUSY SERVER_BUSY} error.
+ * Calls that do not complete within the {@link #getTimeout() timeout}, including the time
+ * spent queued, are cancelled and fail with a
+ * {@link io.modelcontextprotocol.spec.jsonrpc.ErrorCodes#REQUEST_TIMEOUT REQUEST_TIMEOUT}
+ * error. Idempotent tools may additionally serve repeated calls from a
+ * {@link ToolResultCache}.
+ *
+ * <pre>{@code
+ * ToolExecutionPolicy policy = ToolExecutionPolicy.builder()
+ *     .maxConcurrency(4)
+ *     .maxQueueSize(16)
+ *     .timeout(Duration.ofSeconds(30))
+ *     .build();
+ * }</pre>
+ *
+ * @see McpServerFeatures.AsyncToolSpecification
+ * @see ToolExecutionMetrics
+ */
+public final class ToolExecutionPolicy {
+
+	private static final ToolExecutionPolicy UNLIMITED = builder().build();
+
+	private final int maxConcurrency;
+
+	private final int maxQueueSize;
+
+	private final Duration timeout;
+
+	private final Scheduler scheduler;
+
+	private final ToolResultCache resultCache;
+
+	private ToolExecutionPolicy(Builder builder) {
+		this.maxConcurrency = builder.maxConcurrency;
+		this.maxQueueSize = builder.maxQueueSize;
+		this.timeout = builder.timeout;
+		this.scheduler = builder.scheduler;
+		this.resultCache = builder.resultCache;
+	}
+
+	/**
+	 * Returns the policy applied to tools without an explicit policy: no concurrency
+	 * limit and no timeout.
+	 * @return the unlimited policy
+	 */
+	public static ToolExecutionPolicy unlimited() {
+		return UNLIMITED;
+	}
+
+	/**
+	 * Returns the maximum number of concurrent calls.
+	 * @return the concurrency limit, {@link Integer#MAX_VALUE} when unlimited
+	 */
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+
+	/**
+	 * Returns the maximum number of calls waiting for a free slot.
+	 * @return the queue size limit
+	 */
+	public int getMaxQueueSize() {
+		return this.maxQueueSize;
+	}
+
+	/**
+	 * Returns the deadline of a call, measured from the moment it is received.
+	 * @return the timeout, or {@code null} if calls never time out
+	 */
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * Returns the scheduler dedicated to the tool.
+	 * @return the scheduler, or {@code null} to use the scheduler of the server
+	 */
+	public Scheduler getScheduler() {
+		return this.scheduler;
+	}
+
+	/**
+	 * Returns the cache serving repeated calls with identical arguments.
+	 * @return the cache, or {@code null} if results are not cached
+	 */
+	public ToolResultCache getResultCache() {
+		return this.resultCache;
+	}
+
+	boolean isUnlimited() {
+		return this.maxConcurrency == Integer.MAX_VALUE;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builder for {@link ToolExecutionPolicy}.
+	 */
+	public static class Builder {
+
+		private int maxConcurrency = Integer.MAX_VALUE;
+
+		private int maxQueueSize = 0;
+
+		private Duration timeout;
+
+		private Scheduler scheduler;
+
+		private ToolResultCache resultCache;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the maximum number of calls of the tool running at the same time. Defaults
+		 * to unlimited.
+		 * @param maxConcurrency the concurrency limit. Must be positive.
+		 * @return this builder
+		 */
+		public Builder maxConcurrency(int maxConcurrency) {
+			Assert.isTrue(maxConcurrency > 0, "Max concurrency must be positive");
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of calls waiting for a free slot once the concurrency
+		 * limit is reached. Defaults to 0, rejecting such calls right away.
+		 * @param maxQueueSize the queue size limit. Must not be negative.
+		 * @return this builder
+		 */
+		public Builder maxQueueSize(int maxQueueSize) {
+			Assert.isTrue(maxQueueSize >= 0, "Max queue size must not be negative");
+			this.maxQueueSize = maxQueueSize;
+			return this;
+		}
+
+		/**
+		 * Sets the deadline of a call, including the time spent queued. Calls exceeding
+		 * it are cancelled. Defaults to no timeout.
+		 * @param timeout the timeout. Must be positive.
+		 * @return this builder
+		 */
+		public Builder timeout(Duration timeout) {
+			Assert.notNull(timeout, "Timeout must not be null");
+			Assert.isTrue(!timeout.isNegative() && !timeout.isZero(), "Timeout must be positive");
+			this.timeout = timeout;
+			return this;
+		}
+
+		/**
+		 * Sets a scheduler dedicated to the tool, isolating its threads from the other
+		 * handlers of the server.
+		 * @param scheduler the scheduler. Must not be null.
+		 * @return this builder
+		 */
+		public Builder scheduler(Scheduler scheduler) {
+			Assert.notNull(scheduler, "Scheduler must not be null");
+			this.scheduler = scheduler;
+			return this;
+		}
+
+		/**
+		 * Enables caching of the results of the tool, which must be idempotent and
+		 * independent of the calling client. Cached results are served without taking a
+		 * concurrency slot.
+		 * @param resultCache the cache. Must not be null.
+		 * @return this builder
+		 */
+		public Builder resultCache(ToolResultCache resultCache) {
+			Assert.notNull(resultCache, "Result cache must not be null");
+			this.resultCache = resultCache;
+			return this;
+		}
+
+		public ToolExecutionPolicy build() {
+			return new ToolExecutionPolicy(this);
+		}
+
+	}
+
+}
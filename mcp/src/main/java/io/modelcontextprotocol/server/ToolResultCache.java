@@ -0,0 +1,448 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.modelcontextprotocol.spec.common.BinarySource;
+import io.modelcontextprotocol.spec.content.Content;
+import io.modelcontextprotocol.spec.content.EmbeddedResource;
+import io.modelcontextprotocol.spec.content.ImageContent;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.resource.BlobResourceContents;
+import io.modelcontextprotocol.spec.resource.ResourceContents;
+import io.modelcontextprotocol.spec.resource.TextResourceContents;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache for the results of idempotent tools, such as pure lookups that agents tend to
+ * call repeatedly with the same arguments. A cache is enabled for a tool through its
+ * {@link ToolExecutionPolicy.Builder#resultCache(ToolResultCache) execution policy}.
+ *
+ * <p>
+ * Results are keyed by the tool name and a SHA-256 hash of the canonical JSON form of the
+ * call arguments, in which object keys are sorted, so argument maps that only differ in
+ * key order share an entry. The cache is bounded both by the number of entries and by the
+ * estimated size of the results, evicting the least recently used entries first, and
+ * entries optionally expire after a time to live. Failed calls and results flagged as
+ * errors are never cached.
+ *
+ * <p>
+ * Lookups do not lock: entries live in a concurrent map and a hit only records its access
+ * time. Only stores that exceed a limit serialize on eviction, which scans the entries
+ * for the least recently used ones.
+ *
+ * <p>
+ * Concurrent calls with identical arguments are coalesced: while a call is in flight,
+ * further identical calls wait for its result instead of invoking the tool again. A
+ * coalesced call keeps running even if the request that started it is cancelled, as other
+ * requests may be waiting for it.
+ *
+ * <p>
+ * Cached results are shared by all sessions, so a cache must only be used for tools whose
+ * result does not depend on the calling client. A cache may be shared by several tools.
+ */
+public final class ToolResultCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(ToolResultCache.class);
+
+	/** Rough per-entry overhead of the map node, key and entry objects */
+	private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+	/** Rough overhead of a content item besides its text or data */
+	private static final int CONTENT_OVERHEAD_BYTES = 64;
+
+	private final int maxEntries;
+
+	private final long maxBytes;
+
+	private final Duration timeToLive;
+
+	private final ObjectMapper objectMapper;
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Calls in flight by key. Invalidation detaches the calls it affects from this map,
+	 * and a call only keeps its stored result while it is still attached.
+	 */
+	private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+	/** Source of the access times that order entries for eviction */
+	private final AtomicLong accessClock = new AtomicLong();
+
+	private final AtomicLong bytes = new AtomicLong();
+
+	private final Object evictionLock = new Object();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private ToolResultCache(Builder builder) {
+		this.maxEntries = builder.maxEntries;
+		this.maxBytes = builder.maxBytes;
+		this.timeToLive = builder.timeToLive;
+		this.objectMapper = builder.objectMapper.copy().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+	}
+
+	/**
+	 * Returns the cached result of a call, or invokes the tool and caches its result.
+	 * @param toolName the name of the tool
+	 * @param arguments the call arguments
+	 * @param call invokes the tool
+	 * @return the result of the call
+	 */
+	Mono<CallToolResult> get(String toolName, Map<String, Object> arguments, Supplier<Mono<CallToolResult>> call) {
+		return Mono.defer(() -> {
+			String key = key(toolName, arguments);
+			if (key == null) {
+				return call.get();
+			}
+
+			CallToolResult cached = lookup(key);
+			if (cached != null) {
+				this.hits.increment();
+				return Mono.just(cached);
+			}
+			this.misses.increment();
+
+			return this.inFlight.computeIfAbsent(key, k -> {
+				AtomicReference<Flight> flight = new AtomicReference<>();
+				flight.set(new Flight(toolName,
+						call.get()
+							.doOnNext(result -> store(k, toolName, result, flight.get()))
+							.doFinally(signal -> this.inFlight.remove(k, flight.get()))
+							.cache()));
+				return flight.get();
+			}).result;
+		});
+	}
+
+	/**
+	 * Removes the cached result of a call, and detaches identical calls in flight so that
+	 * their result is not cached.
+	 * @param toolName the name of the tool
+	 * @param arguments the call arguments
+	 */
+	public void invalidate(String toolName, Map<String, Object> arguments) {
+		String key = key(toolName, arguments);
+		if (key == null) {
+			return;
+		}
+		this.inFlight.remove(key);
+		Entry removed = this.entries.get(key);
+		if (removed != null) {
+			remove(key, removed);
+		}
+	}
+
+	/**
+	 * Removes all cached results of a tool, and detaches its calls in flight so that
+	 * their result is not cached.
+	 * @param toolName the name of the tool
+	 */
+	public void invalidateAll(String toolName) {
+		this.inFlight.values().removeIf(flight -> flight.toolName.equals(toolName));
+		this.entries.forEach((key, entry) -> {
+			if (entry.toolName.equals(toolName)) {
+				remove(key, entry);
+			}
+		});
+	}
+
+	/**
+	 * Removes all cached results, and detaches all calls in flight so that their result
+	 * is not cached.
+	 */
+	public void invalidateAll() {
+		this.inFlight.clear();
+		this.entries.forEach(this::remove);
+	}
+
+	/**
+	 * Returns the number of cached results, including expired results not yet evicted.
+	 * @return the number of entries
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Returns the estimated memory held by the cached results.
+	 * @return the size in bytes
+	 */
+	public long sizeInBytes() {
+		return this.bytes.get();
+	}
+
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return this.evictions.sum();
+	}
+
+	private CallToolResult lookup(String key) {
+		Entry entry = this.entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiresAt != 0 && System.nanoTime() - entry.expiresAt >= 0) {
+			remove(key, entry);
+			return null;
+		}
+		entry.lastAccess = this.accessClock.incrementAndGet();
+		return entry.result;
+	}
+
+	private void store(String key, String toolName, CallToolResult result, Flight flight) {
+		if (Boolean.TRUE.equals(result.isError())) {
+			return;
+		}
+		long size = estimateSize(result);
+		if (size > this.maxBytes) {
+			return;
+		}
+		long expiresAt = 0;
+		if (this.timeToLive != null) {
+			// 0 marks entries without expiry
+			expiresAt = (System.nanoTime() + this.timeToLive.toNanos()) | 1;
+		}
+
+		Entry entry = new Entry(toolName, result, size, expiresAt, this.accessClock.incrementAndGet());
+		Entry previous = this.entries.put(key, entry);
+		this.bytes.addAndGet(size - ((previous != null) ? previous.size : 0));
+		// Checked after publishing, so that an invalidation racing with this store either
+		// removes the entry or detaches the flight before this check
+		if (this.inFlight.get(key) != flight) {
+			remove(key, entry);
+			return;
+		}
+		if (this.entries.size() > this.maxEntries || this.bytes.get() > this.maxBytes) {
+			evict();
+		}
+	}
+
+	private void evict() {
+		synchronized (this.evictionLock) {
+			while (this.entries.size() > this.maxEntries || this.bytes.get() > this.maxBytes) {
+				String eldestKey = null;
+				Entry eldest = null;
+				for (Map.Entry<String, Entry> candidate : this.entries.entrySet()) {
+					if (eldest == null || candidate.getValue().lastAccess < eldest.lastAccess) {
+						eldestKey = candidate.getKey();
+						eldest = candidate.getValue();
+					}
+				}
+				if (eldest == null) {
+					return;
+				}
+				if (remove(eldestKey, eldest)) {
+					this.evictions.increment();
+				}
+			}
+		}
+	}
+
+	private boolean remove(String key, Entry entry) {
+		if (this.entries.remove(key, entry)) {
+			this.bytes.addAndGet(-entry.size);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Estimates the memory held by a result from the length of its text and binary
+	 * content, without serializing it again.
+	 */
+	private static long estimateSize(CallToolResult result) {
+		long size = ENTRY_OVERHEAD_BYTES;
+		if (result.getContent() == null) {
+			return size;
+		}
+		for (Content content : result.getContent()) {
+			size += CONTENT_OVERHEAD_BYTES;
+			if (content instanceof TextContent) {
+				size += length(((TextContent) content).getText());
+			}
+			else if (content instanceof ImageContent) {
+				size += length(((ImageContent) content).getDataSource());
+			}
+			else if (content instanceof EmbeddedResource) {
+				ResourceContents resource = ((EmbeddedResource) content).getResource();
+				if (resource instanceof TextResourceContents) {
+					size += length(((TextResourceContents) resource).getText());
+				}
+				else if (resource instanceof BlobResourceContents) {
+					size += length(((BlobResourceContents) resource).getBlobSource());
+				}
+			}
+		}
+		return size;
+	}
+
+	private static long length(String text) {
+		return (text != null) ? text.length() : 0;
+	}
+
+	private static long length(BinarySource source) {
+		return (source != null) ? Math.max(source.length(), 0) : 0;
+	}
+
+	/**
+	 * Computes the cache key of a call.
+	 * @return the key, or {@code null} if the arguments cannot be serialized
+	 */
+	private String key(String toolName, Map<String, Object> arguments) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(toolName.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(this.objectMapper.writeValueAsBytes(arguments != null ? arguments : Map.of()));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+		}
+		catch (JsonProcessingException e) {
+			logger.debug("Not caching call of tool {} with arguments that cannot be serialized", toolName, e);
+			return null;
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private static final class Entry {
+
+		private final String toolName;
+
+		private final CallToolResult result;
+
+		private final long size;
+
+		private final long expiresAt;
+
+		private volatile long lastAccess;
+
+		Entry(String toolName, CallToolResult result, long size, long expiresAt, long lastAccess) {
+			this.toolName = toolName;
+			this.result = result;
+			this.size = size;
+			this.expiresAt = expiresAt;
+			this.lastAccess = lastAccess;
+		}
+
+	}
+
+	private static final class Flight {
+
+		private final String toolName;
+
+		private final Mono<CallToolResult> result;
+
+		Flight(String toolName, Mono<CallToolResult> result) {
+			this.toolName = toolName;
+			this.result = result;
+		}
+
+	}
+
+	/**
+	 * Builder for {@link ToolResultCache}.
+	 */
+	public static class Builder {
+
+		private int maxEntries = 1000;
+
+		private long maxBytes = 16 * 1024 * 1024;
+
+		private Duration timeToLive;
+
+		private ObjectMapper objectMapper = new ObjectMapper();
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the maximum number of cached results. Defaults to 1000.
+		 * @param maxEntries the entry limit. Must be positive.
+		 * @return this builder
+		 */
+		public Builder maxEntries(int maxEntries) {
+			Assert.isTrue(maxEntries > 0, "Max entries must be positive");
+			this.maxEntries = maxEntries;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum estimated memory held by the cached results, measured by the
+		 * length of their text and binary content. Defaults to 16 MiB.
+		 * @param maxBytes the size limit in bytes. Must be positive.
+		 * @return this builder
+		 */
+		public Builder maxBytes(long maxBytes) {
+			Assert.isTrue(maxBytes > 0, "Max bytes must be positive");
+			this.maxBytes = maxBytes;
+			return this;
+		}
+
+		/**
+		 * Sets how long results stay cached. Defaults to no expiry.
+		 * @param timeToLive the time to live. Must be positive.
+		 * @return this builder
+		 */
+		public Builder timeToLive(Duration timeToLive) {
+			Assert.notNull(timeToLive, "Time to live must not be null");
+			Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "Time to live must be positive");
+			this.timeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Sets the ObjectMapper used to serialize the arguments into cache keys.
+		 * @param objectMapper the ObjectMapper. Must not be null.
+		 * @return this builder
+		 */
+		public Builder objectMapper(ObjectMapper objectMapper) {
+			Assert.notNull(objectMapper, "ObjectMapper must not be null");
+			this.objectMapper = objectMapper;
+			return this;
+		}
+
+		public ToolResultCache build() {
+			return new ToolResultCache(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server.transport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content encodings shared by the HTTP server transports: the gzip or deflate compression
+ * of SSE streams, negotiated through the {@code Accept-Encoding} header, and the
+ * inflation of compressed message bodies up to a size limit.
+ */
+public final class ContentEncodings {
+
+	/** Content encoding of gzip compressed streams */
+	public static final String GZIP = "gzip";
+
+	/** Content encoding of zlib compressed streams */
+	public static final String DEFLATE = "deflate";
+
+	/** Content encoding of uncompressed streams */
+	public static final String IDENTITY = "identity";
+
+	/** Default limit of the inflated size of compressed message bodies */
+	public static final long DEFAULT_MAX_INFLATED_MESSAGE_SIZE = 16 * 1024 * 1024;
+
+	private ContentEncodings() {
+	}
+
+	/**
+	 * Returns the compression to apply to an SSE stream, preferring gzip, or {@code null}
+	 * if the client accepts neither gzip nor deflate.
+	 * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be
+	 * {@code null}
+	 * @return {@link #GZIP}, {@link #DEFLATE} or {@code null}
+	 */
+	public static String acceptedEncoding(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return null;
+		}
+		boolean deflate = false;
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim().toLowerCase(Locale.ROOT);
+			boolean refused = parts.length > 1 && parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+			if (refused) {
+				continue;
+			}
+			if (GZIP.equals(name)) {
+				return GZIP;
+			}
+			deflate |= DEFLATE.equals(name);
+		}
+		return deflate ? DEFLATE : null;
+	}
+
+	/**
+	 * Tells whether a message body with the given {@code Content-Encoding} is gzip or
+	 * deflate compressed.
+	 * @param contentEncoding the content encoding, may be {@code null}
+	 * @return {@code true} for gzip and deflate
+	 */
+	public static boolean isCompressed(String contentEncoding) {
+		return GZIP.equalsIgnoreCase(contentEncoding) || DEFLATE.equalsIgnoreCase(contentEncoding);
+	}
+
+	/**
+	 * Tells whether a message body with the given {@code Content-Encoding} can be read,
+	 * that is whether it is not encoded, or compressed while compression is enabled.
+	 * @param contentEncoding the content encoding, may be {@code null}
+	 * @param compression whether compressed message bodies are accepted
+	 * @return {@code true} if the body can be read
+	 */
+	public static boolean isSupported(String contentEncoding, boolean compression) {
+		return contentEncoding == null || IDENTITY.equalsIgnoreCase(contentEncoding)
+				|| (compression && isCompressed(contentEncoding));
+	}
+
+	/**
+	 * Wraps an SSE stream into a compressing stream that sync flushes on every flush, so
+	 * that each event reaches the client as soon as it is written instead of when the
+	 * deflater's buffer fills up. Closing the returned stream writes the trailer of the
+	 * compressed stream.
+	 * @param out the stream to compress into
+	 * @param encoding {@link #GZIP} or {@link #DEFLATE}
+	 * @return the compressing stream
+	 * @throws IOException if the gzip header cannot be written
+	 */
+	public static OutputStream compress(OutputStream out, String encoding) throws IOException {
+		return GZIP.equals(encoding) ? new GZIPOutputStream(out, true) : new DeflaterOutputStream(out, true);
+	}
+
+	/**
+	 * Inflates a gzip or deflate compressed message body, failing with a
+	 * {@link MessageTooLargeException} once it exceeds the given inflated size.
+	 * @param in the compressed body
+	 * @param encoding {@link #GZIP} or {@link #DEFLATE}
+	 * @param maxInflatedSize the limit of the inflated size in bytes
+	 * @return the inflated body
+	 * @throws IOException if the gzip header cannot be read
+	 */
+	public static InputStream inflate(InputStream in, String encoding, long maxInflatedSize) throws IOException {
+		InputStream inflated = GZIP.equalsIgnoreCase(encoding) ? new GZIPInputStream(in) : new InflaterInputStream(in);
+		return new SizeLimitedInputStream(inflated, maxInflatedSize);
+	}
+
+	/**
+	 * Tells whether an error, or one of its causes, is a
+	 * {@link MessageTooLargeException}.
+	 * @param error the error
+	 * @return {@code true} if the message exceeded its inflated size limit
+	 */
+	public static boolean isTooLarge(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof MessageTooLargeException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Input stream failing with a {@link MessageTooLargeException} once more than a
+	 * limited number of bytes have been read.
+	 */
+	private static final class SizeLimitedInputStream extends FilterInputStream {
+
+		private final long limit;
+
+		private long remaining;
+
+		SizeLimitedInputStream(InputStream in, long limit) {
+			super(in);
+			this.limit = limit;
+			this.remaining = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				consumed(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				consumed(n);
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			consumed(skipped);
+			return skipped;
+		}
+
+		private void consumed(long n) throws MessageTooLargeException {
+			this.remaining -= n;
+			if (this.remaining < 0) {
+				throw new MessageTooLargeException(this.limit);
+			}
+		}
+
+	}
+
+	/**
+	 * Thrown when a compressed message body inflates beyond the configured limit.
+	 */
+	public static final class MessageTooLargeException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		MessageTooLargeException(long limit) {
+			super("Message exceeds " + limit + " bytes once inflated");
+		}
+
+	}
+
+}
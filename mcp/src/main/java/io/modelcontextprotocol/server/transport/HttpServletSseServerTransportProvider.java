@@ -3,16 +3,25 @@
  */
 package io.modelcontextprotocol.server.transport;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.modelcontextprotocol.observation.jfr.McpSseWriteStallEvent;
+import io.modelcontextprotocol.spec.McpCodec;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpServerSession;
 import io.modelcontextprotocol.spec.McpServerTransport;
@@ -22,6 +31,7 @@ import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse.JSONRPCError;
 import io.modelcontextprotocol.util.Assert;
+import io.modelcontextprotocol.util.SessionIdGenerator;
 import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -51,9 +61,15 @@ import reactor.core.publisher.Mono;
  * Features:
  * <ul>
  * <li>Asynchronous message handling using Servlet 6.0 async support</li>
- * <li>Session management for multiple client connections</li>
+ * <li>Session management for multiple client connections, optionally shared across nodes
+ * through a {@link SessionRegistry}</li>
  * <li>Graceful shutdown support</li>
  * <li>Error handling and response formatting</li>
+ * <li>Optional binary message codecs for posted messages, selected by their
+ * {@code Content-Type}. Other content types than JSON are answered with 415, upon which
+ * clients post as JSON. The SSE stream always carries JSON.</li>
+ * <li>Optional gzip or deflate compression of the SSE stream, negotiated through the
+ * {@code Accept-Encoding} header, and compressed message bodies</li>
  * </ul>
  *
  * @author Christian Tzolov
@@ -85,9 +101,29 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 
 	public static final String DEFAULT_BASE_URL = "";
 
+	/** Content encoding of gzip compressed streams */
+	public static final String GZIP = ContentEncodings.GZIP;
+
+	/** Content encoding of zlib compressed streams */
+	public static final String DEFLATE = ContentEncodings.DEFLATE;
+
+	/** Default limit of the inflated size of compressed message bodies */
+	public static final long DEFAULT_MAX_INFLATED_MESSAGE_SIZE = ContentEncodings.DEFAULT_MAX_INFLATED_MESSAGE_SIZE;
+
 	/** JSON object mapper for serialization/deserialization */
 	private final ObjectMapper objectMapper;
 
+	/**
+	 * Writer serializing messages straight into the SSE stream, leaving it open
+	 */
+	private final ObjectWriter messageWriter;
+
+	/** JSON codec, used unless a client asks for another one */
+	private final McpCodec jsonCodec;
+
+	/** Codecs supported in addition to JSON, keyed by lower case media type */
+	private final Map<String, McpCodec> codecs;
+
 	/** Base URL for the server transport */
 	private final String baseUrl;
 
@@ -97,8 +133,17 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 	/** The endpoint path for handling SSE connections */
 	private final String sseEndpoint;
 
-	/** Map of active client sessions, keyed by session ID */
-	private final Map<String, McpServerSession> sessions = new ConcurrentHashMap<>();
+	/** Registry of active client sessions, keyed by session ID */
+	private final SessionRegistry sessions;
+
+	/** Generator for the IDs of new sessions */
+	private final SessionIdGenerator sessionIdGenerator;
+
+	/** Whether SSE streams are compressed for clients accepting it */
+	private final boolean compression;
+
+	/** Limit of the inflated size of compressed message bodies */
+	private final long maxInflatedMessageSize;
 
 	/** Flag indicating if the transport is in the process of shutting down */
 	private final AtomicBoolean isClosing = new AtomicBoolean(false);
@@ -130,10 +175,101 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 	 */
 	public HttpServletSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
 			String sseEndpoint) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, new LocalSessionRegistry());
+	}
+
+	/**
+	 * Creates a new HttpServletSseServerTransportProvider instance that keeps its
+	 * sessions in the given registry.
+	 * @param objectMapper The JSON object mapper to use for message
+	 * serialization/deserialization
+	 * @param baseUrl The base URL for the server transport
+	 * @param messageEndpoint The endpoint path where clients will send their messages
+	 * @param sseEndpoint The endpoint path where clients will establish SSE connections
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes
+	 */
+	public HttpServletSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, sessionRegistry,
+				SessionIdGenerator.defaultGenerator());
+	}
+
+	/**
+	 * Creates a new HttpServletSseServerTransportProvider instance that keeps its
+	 * sessions in the given registry and identifies them with the given generator.
+	 * @param objectMapper The JSON object mapper to use for message
+	 * serialization/deserialization
+	 * @param baseUrl The base URL for the server transport
+	 * @param messageEndpoint The endpoint path where clients will send their messages
+	 * @param sseEndpoint The endpoint path where clients will establish SSE connections
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes
+	 * @param sessionIdGenerator The generator for the IDs of new sessions
+	 */
+	public HttpServletSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry, SessionIdGenerator sessionIdGenerator) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, sessionRegistry, sessionIdGenerator, List.of());
+	}
+
+	/**
+	 * Creates a new HttpServletSseServerTransportProvider instance that supports the
+	 * given codecs in addition to JSON.
+	 * @param objectMapper The JSON object mapper to use for message
+	 * serialization/deserialization
+	 * @param baseUrl The base URL for the server transport
+	 * @param messageEndpoint The endpoint path where clients will send their messages
+	 * @param sseEndpoint The endpoint path where clients will establish SSE connections
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes
+	 * @param sessionIdGenerator The generator for the IDs of new sessions
+	 * @param codecs The codecs clients may post messages with instead of JSON
+	 */
+	public HttpServletSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry, SessionIdGenerator sessionIdGenerator,
+			List<McpCodec> codecs) {
+		this(objectMapper, baseUrl, messageEndpoint, sseEndpoint, sessionRegistry, sessionIdGenerator, codecs, false,
+				DEFAULT_MAX_INFLATED_MESSAGE_SIZE);
+	}
+
+	/**
+	 * Creates a new HttpServletSseServerTransportProvider instance that supports the
+	 * given codecs in addition to JSON, and optionally compresses SSE streams and accepts
+	 * compressed message bodies.
+	 * @param objectMapper The JSON object mapper to use for message
+	 * serialization/deserialization
+	 * @param baseUrl The base URL for the server transport
+	 * @param messageEndpoint The endpoint path where clients will send their messages
+	 * @param sseEndpoint The endpoint path where clients will establish SSE connections
+	 * @param sessionRegistry The registry used to look up sessions and to forward
+	 * messages for sessions owned by other nodes
+	 * @param sessionIdGenerator The generator for the IDs of new sessions
+	 * @param codecs The codecs clients may post messages with instead of JSON
+	 * @param compression Whether SSE streams are compressed for clients that accept gzip
+	 * or deflate, and gzip or deflate compressed message bodies are accepted
+	 * @param maxInflatedMessageSize The limit of the inflated size of compressed message
+	 * bodies
+	 */
+	public HttpServletSseServerTransportProvider(ObjectMapper objectMapper, String baseUrl, String messageEndpoint,
+			String sseEndpoint, SessionRegistry sessionRegistry, SessionIdGenerator sessionIdGenerator,
+			List<McpCodec> codecs, boolean compression, long maxInflatedMessageSize) {
+		Assert.notNull(sessionRegistry, "Session registry must not be null");
+		Assert.notNull(sessionIdGenerator, "Session ID generator must not be null");
+		Assert.notNull(codecs, "Codecs must not be null");
 		this.objectMapper = objectMapper;
+		this.messageWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.jsonCodec = McpCodec.json(objectMapper);
+		this.codecs = new LinkedHashMap<>();
+		for (McpCodec codec : codecs) {
+			this.codecs.put(codec.getContentType().toLowerCase(Locale.ROOT), codec);
+		}
 		this.baseUrl = baseUrl;
 		this.messageEndpoint = messageEndpoint;
 		this.sseEndpoint = sseEndpoint;
+		this.sessions = sessionRegistry;
+		this.sessionIdGenerator = sessionIdGenerator;
+		this.compression = compression;
+		this.maxInflatedMessageSize = maxInflatedMessageSize;
 	}
 
 	/**
@@ -156,6 +292,15 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 		this.sessionFactory = sessionFactory;
 	}
 
+	/**
+	 * Returns the sessions connected to this node.
+	 * @return the sessions registered in the {@link SessionRegistry}
+	 */
+	@Override
+	public Collection<McpServerSession> getSessions() {
+		return this.sessions.getSessions();
+	}
+
 	/**
 	 * Broadcasts a notification to all connected clients.
 	 * @param method The method name for the notification
@@ -164,14 +309,15 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 	 */
 	@Override
 	public Mono<Void> notifyClients(String method, Object params) {
-		if (sessions.isEmpty()) {
+		Collection<McpServerSession> activeSessions = sessions.getSessions();
+		if (activeSessions.isEmpty()) {
 			logger.debug("No active sessions to broadcast message to");
 			return Mono.empty();
 		}
 
-		logger.debug("Attempting to broadcast message to {} active sessions", sessions.size());
+		logger.debug("Attempting to broadcast message to {} active sessions", activeSessions.size());
 
-		return Flux.fromIterable(sessions.values())
+		return Flux.fromIterable(activeSessions)
 			.flatMap(session -> session.sendNotification(method, params)
 				.doOnError(
 						e -> logger.error("Failed to send message to session {}: {}", session.getId(), e.getMessage()))
@@ -211,11 +357,23 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 		response.setHeader("Connection", "keep-alive");
 		response.setHeader("Access-Control-Allow-Origin", "*");
 
-		String sessionId = UUID.randomUUID().toString();
+		String encoding = this.compression ? ContentEncodings.acceptedEncoding(request.getHeader("Accept-Encoding"))
+				: null;
+
+		String sessionId = this.sessionIdGenerator.generate();
 		AsyncContext asyncContext = request.startAsync();
 		asyncContext.setTimeout(0);
 
-		PrintWriter writer = response.getWriter();
+		PrintWriter writer;
+		if (encoding == null) {
+			writer = response.getWriter();
+		}
+		else {
+			response.setHeader("Content-Encoding", encoding);
+			response.setHeader("Vary", "Accept-Encoding");
+			OutputStream compressed = ContentEncodings.compress(response.getOutputStream(), encoding);
+			writer = new PrintWriter(new OutputStreamWriter(compressed, StandardCharsets.UTF_8));
+		}
 
 		// Create a new session transport
 		HttpServletMcpSessionTransport sessionTransport = new HttpServletMcpSessionTransport(sessionId, asyncContext,
@@ -223,7 +381,7 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 
 		// Create a new session using the session factory
 		McpServerSession session = sessionFactory.create(sessionTransport);
-		this.sessions.put(sessionId, session);
+		this.sessions.register(sessionId, session);
 
 		// Send initial endpoint event
 		this.sendEvent(writer, ENDPOINT_EVENT_TYPE, this.baseUrl + this.messageEndpoint + "?sessionId=" + sessionId);
@@ -233,8 +391,9 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 	 * Handles POST requests for client messages.
 	 * <p>
 	 * This method processes incoming messages from clients, routes them through the
-	 * session handler, and sends back the appropriate response. It handles error cases
-	 * and formats error responses according to the MCP specification.
+	 * session handler, and sends back the appropriate response. Messages for sessions
+	 * owned by another node are forwarded through the {@link SessionRegistry}. It handles
+	 * error cases and formats error responses according to the MCP specification.
 	 * @param request The HTTP servlet request
 	 * @param response The HTTP servlet response
 	 * @throws ServletException If a servlet-specific error occurs
@@ -262,15 +421,30 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 			return;
 		}
 
-		McpServerSession session = sessions.get(sessionId);
-		if (session == null) {
-			sendJsonError(response, HttpServletResponse.SC_NOT_FOUND, "Invalid or expired sessionId",
-					ErrorCodes.INVALID_REQUEST);
+		McpServerSession session = sessions.getSession(sessionId);
+
+		McpCodec codec = codecFor(request.getContentType());
+		if (codec == null) {
+			sendJsonError(response, HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+					"Unsupported content type: " + request.getContentType(), ErrorCodes.INVALID_REQUEST);
 			return;
 		}
+		String encoding = request.getHeader("Content-Encoding");
+		if (!ContentEncodings.isSupported(encoding, this.compression)) {
+			sendJsonError(response, HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+					"Unsupported content encoding: " + encoding, ErrorCodes.INVALID_REQUEST);
+			return;
+		}
+
+		try (InputStream in = ContentEncodings.isCompressed(encoding)
+				? ContentEncodings.inflate(request.getInputStream(), encoding, this.maxInflatedMessageSize)
+				: request.getInputStream()) {
+			JSONRPCMessage message = codec.decode(in);
 
-		try (BufferedReader reader = request.getReader()) {
-			JSONRPCMessage message = objectMapper.readValue(reader, JSONRPCMessage.class);
+			if (session == null) {
+				forward(request, response, sessionId, message);
+				return;
+			}
 
 			session.handle(message).subscribe(null, error -> {
 				try {
@@ -287,12 +461,79 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 			});
 		}
 		catch (Exception e) {
+			if (ContentEncodings.isTooLarge(e)) {
+				sendJsonError(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+						"Message exceeds " + this.maxInflatedMessageSize + " bytes once inflated",
+						ErrorCodes.INVALID_REQUEST);
+				return;
+			}
 			logger.error("Error processing message: {}", e.getMessage(), e);
 			sendJsonError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid message format",
 					ErrorCodes.PARSE_ERROR);
 		}
 	}
 
+	/**
+	 * Forwards a message to the node owning its session without holding the container
+	 * thread, answering 202 once the owner accepted it.
+	 */
+	private void forward(HttpServletRequest request, HttpServletResponse response, String sessionId,
+			JSONRPCMessage message) {
+		AsyncContext asyncContext = request.startAsync();
+		sessions.forward(sessionId, message).defaultIfEmpty(false).subscribe(forwarded -> {
+			try {
+				if (forwarded) {
+					response.setStatus(HttpServletResponse.SC_ACCEPTED);
+					response.setContentType(APPLICATION_JSON);
+					response.setCharacterEncoding(UTF_8);
+				}
+				else {
+					sendJsonError(response, HttpServletResponse.SC_NOT_FOUND, "Invalid or expired sessionId",
+							ErrorCodes.INVALID_REQUEST);
+				}
+			}
+			catch (IOException e) {
+				logger.error(FAILED_TO_SEND_ERROR_RESPONSE, e.getMessage(), e);
+			}
+			finally {
+				asyncContext.complete();
+			}
+		}, error -> {
+			logger.error("Failed to forward message for session {}: {}", sessionId, error.getMessage());
+			try {
+				sendJsonError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Failed to forward message",
+						ErrorCodes.INTERNAL_ERROR);
+			}
+			catch (IOException e) {
+				logger.error(FAILED_TO_SEND_ERROR_RESPONSE, e.getMessage(), e);
+			}
+			finally {
+				asyncContext.complete();
+			}
+		});
+	}
+
+	/**
+	 * Returns the codec of a posted message, or {@code null} if its content type is not
+	 * supported. Messages without a content type are read as JSON.
+	 */
+	private McpCodec codecFor(String contentType) {
+		if (contentType == null) {
+			return this.jsonCodec;
+		}
+		String mediaType = mediaType(contentType);
+		McpCodec codec = this.codecs.get(mediaType);
+		if (codec != null) {
+			return codec;
+		}
+		return McpCodec.isJson(mediaType) ? this.jsonCodec : null;
+	}
+
+	private static String mediaType(String value) {
+		int parameters = value.indexOf(';');
+		return ((parameters >= 0) ? value.substring(0, parameters) : value).trim().toLowerCase(Locale.ROOT);
+	}
+
 	private void sendJsonError(HttpServletResponse response, int httpStatus, String message, int mcpCode)
 			throws IOException {
 		response.setStatus(httpStatus);
@@ -313,9 +554,10 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 	@Override
 	public Mono<Void> closeGracefully() {
 		isClosing.set(true);
-		logger.debug("Initiating graceful shutdown with {} active sessions", sessions.size());
+		Collection<McpServerSession> activeSessions = sessions.getSessions();
+		logger.debug("Initiating graceful shutdown with {} active sessions", activeSessions.size());
 
-		return Flux.fromIterable(sessions.values()).flatMap(McpServerSession::closeGracefully).then();
+		return Flux.fromIterable(activeSessions).flatMap(McpServerSession::closeGracefully).then();
 	}
 
 	/**
@@ -373,16 +615,27 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 		}
 
 		/**
-		 * Sends a JSON-RPC message to the client through the SSE connection.
+		 * Sends a JSON-RPC message to the client through the SSE connection. The message
+		 * is serialized straight into the stream, so binary contents backed by a
+		 * {@link io.modelcontextprotocol.spec.common.BinarySource} are base64 encoded on
+		 * the fly instead of being materialized as a String first.
 		 * @param message The JSON-RPC message to send
 		 * @return A Mono that completes when the message has been sent
 		 */
 		@Override
 		public Mono<Void> sendMessage(JSONRPCMessage message) {
 			return Mono.fromRunnable(() -> {
+				McpSseWriteStallEvent event = McpSseWriteStallEvent.writing(this.sessionId);
 				try {
-					String jsonMessage = objectMapper.writeValueAsString(message);
-					sendEvent(this.writer, MESSAGE_EVENT_TYPE, jsonMessage);
+					synchronized (this.writer) {
+						if (event != null) {
+							event.locked();
+						}
+						sendMessageEvent(message);
+					}
+					if (event != null) {
+						event.written(message);
+					}
 				}
 				catch (IOException e) {
 					throw new RuntimeException("Failed to send message", e);
@@ -390,6 +643,23 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 			});
 		}
 
+		private void sendMessageEvent(JSONRPCMessage message) throws IOException {
+			this.writer.write("event: " + MESSAGE_EVENT_TYPE + "\n");
+			this.writer.write("data: ");
+			try {
+				messageWriter.writeValue(this.writer, message);
+			}
+			finally {
+				// Terminate the event even if serialization failed half-way, so that
+				// subsequent events stay parseable
+				this.writer.write("\n\n");
+				this.writer.flush();
+			}
+			if (this.writer.checkError()) {
+				throw new IOException("Client disconnected");
+			}
+		}
+
 		/**
 		 * Converts data from one type to another using the configured ObjectMapper.
 		 * @param data The source data object to convert
@@ -411,7 +681,8 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 			return Mono.fromRunnable(() -> {
 				logger.debug("Closing session transport: {}", sessionId);
 				try {
-					sessions.remove(sessionId);
+					sessions.unregister(sessionId);
+					finishStream();
 					asyncContext.complete();
 					logger.debug("Successfully completed async context for session {}", sessionId);
 				}
@@ -421,13 +692,23 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 			});
 		}
 
+		/**
+		 * Closes the SSE writer, which writes the trailer of compressed streams.
+		 */
+		private void finishStream() {
+			synchronized (this.writer) {
+				this.writer.close();
+			}
+		}
+
 		/**
 		 * Closes the transport immediately.
 		 */
 		@Override
 		public void close() {
 			try {
-				sessions.remove(sessionId);
+				sessions.unregister(sessionId);
+				finishStream();
 				asyncContext.complete();
 				logger.debug("Successfully completed async context for session {}", sessionId);
 			}
@@ -463,6 +744,16 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 
 		private String sseEndpoint = DEFAULT_SSE_ENDPOINT;
 
+		private SessionRegistry sessionRegistry = new LocalSessionRegistry();
+
+		private SessionIdGenerator sessionIdGenerator = SessionIdGenerator.defaultGenerator();
+
+		private List<McpCodec> codecs = List.of();
+
+		private boolean compression;
+
+		private long maxInflatedMessageSize = DEFAULT_MAX_INFLATED_MESSAGE_SIZE;
+
 		/**
 		 * Sets the JSON object mapper to use for message serialization/deserialization.
 		 * @param objectMapper The object mapper to use
@@ -510,6 +801,78 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 			return this;
 		}
 
+		/**
+		 * Sets the registry used to keep track of sessions. Several nodes sharing a
+		 * distributed registry can serve the message endpoint of any session without
+		 * sticky routing.
+		 * <p>
+		 * If not specified, a {@link LocalSessionRegistry} will be used.
+		 * @param sessionRegistry The session registry
+		 * @return This builder instance for method chaining
+		 */
+		public Builder sessionRegistry(SessionRegistry sessionRegistry) {
+			Assert.notNull(sessionRegistry, "Session registry must not be null");
+			this.sessionRegistry = sessionRegistry;
+			return this;
+		}
+
+		/**
+		 * Sets the generator for the IDs of new sessions.
+		 * <p>
+		 * If not specified, {@link SessionIdGenerator#defaultGenerator()} will be used.
+		 * @param sessionIdGenerator The session ID generator
+		 * @return This builder instance for method chaining
+		 */
+		public Builder sessionIdGenerator(SessionIdGenerator sessionIdGenerator) {
+			Assert.notNull(sessionIdGenerator, "Session ID generator must not be null");
+			this.sessionIdGenerator = sessionIdGenerator;
+			return this;
+		}
+
+		/**
+		 * Sets the codecs clients may post messages with instead of JSON, such as a
+		 * {@link io.modelcontextprotocol.spec.JacksonMcpCodec} for Smile or CBOR. JSON is
+		 * always supported, and is the only format of the SSE stream.
+		 * @param codecs The additional codecs
+		 * @return This builder instance for method chaining
+		 */
+		public Builder codecs(McpCodec... codecs) {
+			Assert.notNull(codecs, "Codecs must not be null");
+			this.codecs = List.of(codecs);
+			return this;
+		}
+
+		/**
+		 * Sets whether SSE streams are compressed with gzip or deflate for clients that
+		 * accept it. Every event is flushed through the compressor, so compression does
+		 * not delay messages. Gzip or deflate compressed message bodies are only accepted
+		 * with compression enabled, and are rejected with 413 once their inflated size
+		 * exceeds the {@link #maxInflatedMessageSize(long) limit}.
+		 * <p>
+		 * Defaults to {@code false}.
+		 * @param compression Whether to compress SSE streams and accept compressed
+		 * message bodies
+		 * @return This builder instance for method chaining
+		 */
+		public Builder compression(boolean compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * Sets the limit of the inflated size of compressed message bodies, which guards
+		 * against bodies that inflate to far more than they take on the wire.
+		 * <p>
+		 * Defaults to {@link #DEFAULT_MAX_INFLATED_MESSAGE_SIZE}.
+		 * @param maxInflatedMessageSize The limit in bytes. Must be positive.
+		 * @return This builder instance for method chaining
+		 */
+		public Builder maxInflatedMessageSize(long maxInflatedMessageSize) {
+			Assert.isTrue(maxInflatedMessageSize > 0, "Max inflated message size must be positive");
+			this.maxInflatedMessageSize = maxInflatedMessageSize;
+			return this;
+		}
+
 		/**
 		 * Builds a new instance of HttpServletSseServerTransportProvider with the
 		 * configured settings.
@@ -523,7 +886,8 @@ public class HttpServletSseServerTransportProvider extends HttpServlet implement
 			if (messageEndpoint == null) {
 				throw new IllegalStateException("MessageEndpoint must be set");
 			}
-			return new HttpServletSseServerTransportProvider(objectMapper, baseUrl, messageEndpoint, sseEndpoint);
+			return new HttpServletSseServerTransportProvider(objectMapper, baseUrl, messageEndpoint, sseEndpoint,
+					sessionRegistry, sessionIdGenerator, codecs, compression, maxInflatedMessageSize);
 		}
 
 	}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server.transport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * MCP transport provider for clients and servers living in the same JVM. Messages are
+ * handed over as {@link JSONRPCMessage} objects, without being serialized, and are
+ * processed on the thread of the caller, so that an in-process call costs little more
+ * than invoking the handler directly.
+ *
+ * <p>
+ * Each client transport obtained from {@link #createClientTransport()} opens its own
+ * server session when connected:
+ *
+ * <pre>{@code
+ * InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+ * McpSyncServer server = McpServer.sync(transportProvider).tools(...).build();
+ * McpSyncClient client = McpClient.sync(transportProvider.createClientTransport()).build();
+ * }</pre>
+ *
+ * <p>
+ * As messages are shared, the peers must not modify the parameters and results they
+ * exchange. When they cannot be trusted to, defensive copying makes every message go
+ * through a JSON round trip, which also gives exactly the behaviour of a remote
+ * transport.
+ */
+public class InMemoryServerTransportProvider implements McpServerTransportProvider {
+
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryServerTransportProvider.class);
+
+	private final ObjectMapper objectMapper;
+
+	private final boolean copyMessages;
+
+	private final Map<String, McpServerSession> sessions = new ConcurrentHashMap<>();
+
+	private volatile McpServerSession.Factory sessionFactory;
+
+	private volatile boolean isClosing;
+
+	/**
+	 * Creates a new InMemoryServerTransportProvider with a default ObjectMapper that
+	 * shares messages between the peers.
+	 */
+	public InMemoryServerTransportProvider() {
+		this(new ObjectMapper(), false);
+	}
+
+	/**
+	 * Creates a new InMemoryServerTransportProvider.
+	 * @param objectMapper The ObjectMapper used when messages must be converted or copied
+	 * @param copyMessages Whether messages are copied through a JSON round trip instead
+	 * of being shared between the peers
+	 */
+	public InMemoryServerTransportProvider(ObjectMapper objectMapper, boolean copyMessages) {
+		Assert.notNull(objectMapper, "ObjectMapper must not be null");
+		this.objectMapper = objectMapper;
+		this.copyMessages = copyMessages;
+	}
+
+	@Override
+	public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	/**
+	 * Creates a client transport connected to this provider. Every client transport gets
+	 * its own server session when it connects, which ends when the transport is closed.
+	 * @return a new client transport
+	 */
+	public McpClientTransport createClientTransport() {
+		return new InMemoryClientTransport();
+	}
+
+	/**
+	 * Returns the number of connected client transports.
+	 * @return the number of active sessions
+	 */
+	public int getSessionCount() {
+		return this.sessions.size();
+	}
+
+	@Override
+	public Mono<Void> notifyClients(String method, Object params) {
+		if (this.sessions.isEmpty()) {
+			logger.debug("No active sessions to broadcast message to");
+			return Mono.empty();
+		}
+
+		return Flux.fromIterable(this.sessions.values())
+			.flatMap(session -> session.sendNotification(method, params)
+				.doOnError(
+						e -> logger.error("Failed to send message to session {}: {}", session.getId(), e.getMessage()))
+				.onErrorComplete())
+			.then();
+	}
+
+	@Override
+	public Collection<McpServerSession> getSessions() {
+		return new ArrayList<>(this.sessions.values());
+	}
+
+	@Override
+	public Mono<Void> closeGracefully() {
+		this.isClosing = true;
+		return Flux.fromIterable(this.sessions.values()).flatMap(McpServerSession::closeGracefully).then();
+	}
+
+	private JSONRPCMessage copy(JSONRPCMessage message) {
+		if (!this.copyMessages) {
+			return message;
+		}
+		try {
+			return McpSchema.deserializeJsonRpcMessage(this.objectMapper,
+					this.objectMapper.writeValueAsString(message));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to copy message", e);
+		}
+	}
+
+	/**
+	 * Converts data received from the peer, returning it unchanged if it already has the
+	 * requested type.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T unmarshal(Object data, TypeReference<T> typeRef) {
+		JavaType type = this.objectMapper.getTypeFactory().constructType(typeRef);
+		if (data != null && !type.hasGenericTypes() && type.getRawClass().isInstance(data)) {
+			return (T) data;
+		}
+		return this.objectMapper.convertValue(data, type);
+	}
+
+	/**
+	 * Client side of an in-memory connection. Messages sent by the client are handled by
+	 * its server session on the sending thread.
+	 */
+	private class InMemoryClientTransport implements McpClientTransport {
+
+		private volatile McpServerSession session;
+
+		private volatile Function<Mono<JSONRPCMessage>, Mono<JSONRPCMessage>> handler;
+
+		private volatile boolean closed;
+
+		@Override
+		public Mono<Void> connect(Function<Mono<JSONRPCMessage>, Mono<JSONRPCMessage>> handler) {
+			return Mono.fromRunnable(() -> {
+				McpServerSession.Factory factory = sessionFactory;
+				if (factory == null) {
+					throw new McpError("Transport provider is not attached to a server");
+				}
+				if (isClosing) {
+					throw new McpError("Transport provider is closing");
+				}
+				if (this.session != null) {
+					throw new McpError("Client transport is already connected");
+				}
+				this.handler = handler;
+				McpServerSession newSession = factory.create(new InMemoryServerTransport(this));
+				this.session = newSession;
+				sessions.put(newSession.getId(), newSession);
+				logger.debug("Connected in-memory session {}", newSession.getId());
+			});
+		}
+
+		@Override
+		public Mono<Void> sendMessage(JSONRPCMessage message) {
+			return Mono.defer(() -> {
+				McpServerSession current = this.session;
+				if (current == null || this.closed) {
+					return Mono.error(new McpError("Client transport is not connected"));
+				}
+				return current.handle(copy(message));
+			});
+		}
+
+		@Override
+		public Mono<Void> closeGracefully() {
+			return Mono.defer(() -> {
+				this.closed = true;
+				McpServerSession current = this.session;
+				if (current == null || !sessions.remove(current.getId(), current)) {
+					return Mono.empty();
+				}
+				return current.closeGracefully();
+			});
+		}
+
+		@Override
+		public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+			return unmarshal(data, typeRef);
+		}
+
+	}
+
+	/**
+	 * Server side of an in-memory connection. Messages sent by the server are handled by
+	 * the client on the sending thread.
+	 */
+	private class InMemoryServerTransport implements McpServerTransport {
+
+		private final InMemoryClientTransport client;
+
+		InMemoryServerTransport(InMemoryClientTransport client) {
+			this.client = client;
+		}
+
+		@Override
+		public Mono<Void> sendMessage(JSONRPCMessage message) {
+			return Mono.defer(() -> {
+				if (this.client.closed) {
+					return Mono.error(new McpError("Client transport is closed"));
+				}
+				return this.client.handler.apply(Mono.just(copy(message))).then();
+			});
+		}
+
+		@Override
+		public Mono<Void> closeGracefully() {
+			return Mono.fromRunnable(() -> {
+				this.client.closed = true;
+				McpServerSession current = this.client.session;
+				if (current != null) {
+					sessions.remove(current.getId(), current);
+				}
+			});
+		}
+
+		@Override
+		public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+			return unmarshal(data, typeRef);
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server.transport;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reference {@link SessionRegistry} for several nodes living in the same JVM.
+ *
+ * <p>
+ * Nodes are obtained from a shared {@link Cluster}, which plays the role of the directory
+ * a distributed implementation would keep in an external store: it maps every session
+ * identifier to the node owning the SSE stream. Forwarding hands the message directly to
+ * the owner's session, where a distributed implementation would send it over the network.
+ * It is primarily useful for testing multi-node deployments and as a template for such
+ * implementations.
+ *
+ * <pre>{@code
+ * InProcessSessionRegistry.Cluster cluster = new InProcessSessionRegistry.Cluster();
+ * SessionRegistry nodeA = cluster.join("node-a");
+ * SessionRegistry nodeB = cluster.join("node-b");
+ * }</pre>
+ */
+public class InProcessSessionRegistry extends LocalSessionRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(InProcessSessionRegistry.class);
+
+	private final String nodeId;
+
+	private final Cluster cluster;
+
+	private InProcessSessionRegistry(String nodeId, Cluster cluster) {
+		this.nodeId = nodeId;
+		this.cluster = cluster;
+	}
+
+	/**
+	 * Returns the identifier this node joined the cluster with.
+	 * @return the node identifier
+	 */
+	public String getNodeId() {
+		return this.nodeId;
+	}
+
+	@Override
+	public void register(String sessionId, McpServerSession session) {
+		super.register(sessionId, session);
+		this.cluster.owners.put(sessionId, this);
+	}
+
+	@Override
+	public void unregister(String sessionId) {
+		super.unregister(sessionId);
+		this.cluster.owners.remove(sessionId, this);
+	}
+
+	@Override
+	public Mono<Boolean> forward(String sessionId, JSONRPCMessage message) {
+		return Mono.defer(() -> {
+			InProcessSessionRegistry owner = this.cluster.owners.get(sessionId);
+			McpServerSession session = (owner != null && owner != this) ? owner.getSession(sessionId) : null;
+			if (session == null) {
+				return Mono.just(false);
+			}
+			logger.debug("Forwarding message for session {} from node {} to node {}", sessionId, this.nodeId,
+					owner.nodeId);
+			// The owner replies through the client's stream, only the hand-over is
+			// awaited
+			session.handle(message)
+				.subscribe(null, error -> logger.error("Error handling message forwarded to node {}: {}", owner.nodeId,
+						error.getMessage()));
+			return Mono.just(true);
+		});
+	}
+
+	/**
+	 * Directory shared by the nodes of an in-process cluster.
+	 */
+	public static class Cluster {
+
+		private final Map<String, InProcessSessionRegistry> owners = new ConcurrentHashMap<>();
+
+		private final Map<String, InProcessSessionRegistry> nodes = new ConcurrentHashMap<>();
+
+		/**
+		 * Adds a node to the cluster.
+		 * @param nodeId the node identifier. Must be unique within the cluster.
+		 * @return the registry to configure on the node's transport provider
+		 * @throws IllegalArgumentException if nodeId is empty or already taken
+		 */
+		public InProcessSessionRegistry join(String nodeId) {
+			Assert.hasText(nodeId, "Node ID must not be empty");
+			InProcessSessionRegistry node = new InProcessSessionRegistry(nodeId, this);
+			if (this.nodes.putIfAbsent(nodeId, node) != null) {
+				throw new IllegalArgumentException("Node " + nodeId + " already joined the cluster");
+			}
+			return node;
+		}
+
+		/**
+		 * Returns the identifier of the node owning the given session.
+		 * @param sessionId the session identifier
+		 * @return the owning node's identifier, or {@code null} if the session is unknown
+		 */
+		public String getOwner(String sessionId) {
+			InProcessSessionRegistry owner = this.owners.get(sessionId);
+			return owner != null ? owner.nodeId : null;
+		}
+
+	}
+
+}
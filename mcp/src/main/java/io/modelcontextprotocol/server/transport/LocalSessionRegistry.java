@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server.transport;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link SessionRegistry} for a single node. Sessions are kept in a
+ * {@link ConcurrentHashMap} and messages for sessions owned elsewhere are never
+ * forwarded. This is the default registry of the SSE transport providers.
+ */
+public class LocalSessionRegistry implements SessionRegistry {
+
+	/** Map of active client sessions, keyed by session ID */
+	private final ConcurrentHashMap<String, McpServerSession> sessions = new ConcurrentHashMap<>();
+
+	@Override
+	public void register(String sessionId, McpServerSession session) {
+		Assert.hasText(sessionId, "Session ID must not be empty");
+		Assert.notNull(session, "Session must not be null");
+		this.sessions.put(sessionId, session);
+	}
+
+	@Override
+	public void unregister(String sessionId) {
+		this.sessions.remove(sessionId);
+	}
+
+	@Override
+	public McpServerSession getSession(String sessionId) {
+		return this.sessions.get(sessionId);
+	}
+
+	@Override
+	public Collection<McpServerSession> getSessions() {
+		return new ArrayList<>(this.sessions.values());
+	}
+
+	/**
+	 * A single node cannot reach sessions it does not own, so this always emits
+	 * {@code false}.
+	 * @param sessionId the session identifier
+	 * @param message the message received from the client
+	 * @return a Mono emitting {@code false}
+	 */
+	@Override
+	public Mono<Boolean> forward(String sessionId, JSONRPCMessage message) {
+		return Mono.just(false);
+	}
+
+}
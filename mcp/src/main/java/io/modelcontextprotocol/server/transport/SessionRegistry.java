@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server.transport;
+
+import java.util.Collection;
+
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps track of the sessions served by an SSE transport provider and routes client
+ * messages to the node that owns the session's event stream.
+ *
+ * <p>
+ * With the HTTP with SSE transport a client opens a long-lived GET stream on one node and
+ * then POSTs its messages to the endpoint it was given. Behind a load balancer without
+ * sticky routing those POSTs may land on any node. A registry shared across nodes lets
+ * the receiving node hand the message over to the owner, which processes it and replies
+ * through the client's stream.
+ *
+ * <p>
+ * Lookups through {@link #getSession(String)} and {@link #getSessions()} only ever return
+ * sessions registered on this node; sessions owned elsewhere are reachable through
+ * {@link #forward(String, JSONRPCMessage)}.
+ *
+ * @see LocalSessionRegistry
+ * @see InProcessSessionRegistry
+ */
+public interface SessionRegistry {
+
+	/**
+	 * Registers a session whose SSE stream is served by this node.
+	 * @param sessionId the session identifier handed to the client
+	 * @param session the session
+	 */
+	void register(String sessionId, McpServerSession session);
+
+	/**
+	 * Removes a session previously registered on this node. Unknown identifiers are
+	 * ignored.
+	 * @param sessionId the session identifier
+	 */
+	void unregister(String sessionId);
+
+	/**
+	 * Returns the session registered on this node under the given identifier.
+	 * @param sessionId the session identifier
+	 * @return the local session, or {@code null} if this node does not own it
+	 */
+	McpServerSession getSession(String sessionId);
+
+	/**
+	 * Returns a snapshot of all sessions registered on this node.
+	 * @return the local sessions
+	 */
+	Collection<McpServerSession> getSessions();
+
+	/**
+	 * Hands a message over to the node that owns the given session. The owner processes
+	 * the message as if it had received the POST itself, and replies through the client's
+	 * stream.
+	 * @param sessionId the session identifier
+	 * @param message the message received from the client
+	 * @return a Mono emitting {@code true} once the owner accepted the message, without
+	 * waiting for it to be handled, or {@code false} if no node owns the session
+	 */
+	Mono<Boolean> forward(String sessionId, JSONRPCMessage message);
+
+}
@@ -10,12 +10,20 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.observation.jfr.McpMessageSendEvent;
+import io.modelcontextprotocol.observation.jfr.McpStdioFrameEvent;
+import io.modelcontextprotocol.spec.McpCodec;
 import io.modelcontextprotocol.spec.McpError;
 import io.modelcontextprotocol.spec.McpServerSession;
 import io.modelcontextprotocol.spec.McpServerTransport;
@@ -41,7 +49,10 @@ public class StdioServerTransportProvider implements McpServerTransportProvider
 
 	private static final Logger logger = LoggerFactory.getLogger(StdioServerTransportProvider.class);
 
-	private final ObjectMapper objectMapper;
+	/** Name of the transport in flight recorder events */
+	private static final String TRANSPORT_NAME = "stdio-server";
+
+	private final McpCodec codec;
 
 	private final InputStream inputStream;
 
@@ -78,11 +89,23 @@ public class StdioServerTransportProvider implements McpServerTransportProvider
 	 * @param outputStream The output stream to write to
 	 */
 	public StdioServerTransportProvider(ObjectMapper objectMapper, InputStream inputStream, OutputStream outputStream) {
-		Assert.notNull(objectMapper, "The ObjectMapper can not be null");
+		this(McpCodec.json(objectMapper), inputStream, outputStream);
+	}
+
+	/**
+	 * Creates a new StdioServerTransportProvider with the specified codec and streams.
+	 * Messages are delimited by newlines, so the codec must produce text.
+	 * @param codec The codec to use for message serialization/deserialization
+	 * @param inputStream The input stream to read from
+	 * @param outputStream The output stream to write to
+	 */
+	public StdioServerTransportProvider(McpCodec codec, InputStream inputStream, OutputStream outputStream) {
+		Assert.notNull(codec, "The codec can not be null");
+		Assert.isTrue(!codec.isBinary(), "Binary codecs can not frame stdio messages");
 		Assert.notNull(inputStream, "The InputStream can not be null");
 		Assert.notNull(outputStream, "The OutputStream can not be null");
 
-		this.objectMapper = objectMapper;
+		this.codec = codec;
 		this.inputStream = inputStream;
 		this.outputStream = outputStream;
 	}
@@ -104,6 +127,12 @@ public class StdioServerTransportProvider implements McpServerTransportProvider
 			.doOnError(e -> logger.error("Failed to send notification: {}", e.getMessage()));
 	}
 
+	@Override
+	public Collection<McpServerSession> getSessions() {
+		McpServerSession current = this.session;
+		return (current != null) ? List.of(current) : List.of();
+	}
+
 	@Override
 	public Mono<Void> closeGracefully() {
 		if (this.session == null) {
@@ -121,6 +150,10 @@ public class StdioServerTransportProvider implements McpServerTransportProvider
 
 		private final Sinks.Many<JSONRPCMessage> outboundSink;
 
+		/** Flight recorder events of the queued messages, while recording */
+		private final Map<JSONRPCMessage, McpMessageSendEvent> sendEvents = Collections
+			.synchronizedMap(new IdentityHashMap<>());
+
 		private final AtomicBoolean isStarted = new AtomicBoolean(false);
 
 		/** Scheduler for handling inbound messages */
@@ -146,19 +179,37 @@ public class StdioServerTransportProvider implements McpServerTransportProvider
 		@Override
 		public Mono<Void> sendMessage(JSONRPCMessage message) {
 
+			McpMessageSendEvent event = McpMessageSendEvent.enqueued(TRANSPORT_NAME, null);
 			return Mono.zip(inboundReady.asMono(), outboundReady.asMono()).then(Mono.defer(() -> {
-				if (outboundSink.tryEmitNext(message).isSuccess()) {
+				if (event != null) {
+					this.sendEvents.put(message, event);
+				}
+				if (emitOutbound(message)) {
 					return Mono.empty();
 				}
 				else {
+					if (event != null) {
+						this.sendEvents.remove(message);
+					}
 					return Mono.error(new RuntimeException("Failed to enqueue message"));
 				}
 			}));
 		}
 
+		/**
+		 * Queues a message for the outbound thread. Responses and notifications are sent
+		 * from the threads of their handlers, while the sink only accepts one emission at
+		 * a time.
+		 */
+		private boolean emitOutbound(JSONRPCMessage message) {
+			synchronized (this.outboundSink) {
+				return this.outboundSink.tryEmitNext(message).isSuccess();
+			}
+		}
+
 		@Override
 		public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
-			return objectMapper.convertValue(data, typeRef);
+			return codec.convertValue(data, typeRef);
 		}
 
 		@Override
@@ -203,6 +254,7 @@ public class StdioServerTransportProvider implements McpServerTransportProvider
 						reader = new BufferedReader(new InputStreamReader(inputStream));
 						while (!isClosing.get()) {
 							try {
+								long readStart = System.nanoTime();
 								String line = reader.readLine();
 								if (line == null || isClosing.get()) {
 									break;
@@ -211,7 +263,12 @@ public class StdioServerTransportProvider implements McpServerTransportProvider
 								logger.debug("Received JSON message: {}", line);
 
 								try {
-									JSONRPCMessage message = objectMapper.readValue(line, JSONRPCMessage.class);
+									McpStdioFrameEvent event = McpStdioFrameEvent.parsing(TRANSPORT_NAME,
+											System.nanoTime() - readStart, line);
+									JSONRPCMessage message = codec.decodeText(line);
+									if (event != null) {
+										event.parsed(message);
+									}
 									if (!this.inboundSink.tryEmitNext(message).isSuccess()) {
 										// logIfNotClosing("Failed to enqueue message");
 										break;
@@ -253,16 +310,24 @@ public class StdioServerTransportProvider implements McpServerTransportProvider
 				 .publishOn(outboundScheduler)
 				 .handle((message, sink) -> {
 					 if (message != null && !isClosing.get()) {
+						 McpMessageSendEvent event = this.sendEvents.isEmpty() ? null : this.sendEvents.remove(message);
+						 if (event != null) {
+							 event.writing();
+						 }
 						 try {
-							 String jsonMessage = objectMapper.writeValueAsString(message);
+							 String jsonMessage = codec.encodeToText(message);
 							 // Escape any embedded newlines in the JSON message as per spec
 							 jsonMessage = jsonMessage.replace("\r\n", "\\n").replace("\n", "\\n").replace("\r", "\\n");
+							 byte[] bytes = jsonMessage.getBytes(StandardCharsets.UTF_8);
 	
 							 synchronized (outputStream) {
-								 outputStream.write(jsonMessage.getBytes(StandardCharsets.UTF_8));
+								 outputStream.write(bytes);
 								 outputStream.write("\n".getBytes(StandardCharsets.UTF_8));
 								 outputStream.flush();
 							 }
+							 if (event != null) {
+								 event.written(message, bytes.length + 1);
+							 }
 							 sink.next(message);
 						 }
 						 catch (IOException e) {
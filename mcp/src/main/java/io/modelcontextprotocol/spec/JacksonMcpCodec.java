@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.spec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.util.Assert;
+
+/**
+ * {@link McpCodec} for any data format supported by Jackson. The format is the one of the
+ * ObjectMapper's factory, so besides JSON the binary Jackson data formats can be used for
+ * links between peers that both support them:
+ *
+ * <pre>{@code
+ * McpCodec smile = new JacksonMcpCodec(new ObjectMapper(new SmileFactory()), JacksonMcpCodec.SMILE_CONTENT_TYPE);
+ * McpCodec cbor = new JacksonMcpCodec(new ObjectMapper(new CBORFactory()), JacksonMcpCodec.CBOR_CONTENT_TYPE);
+ * }</pre>
+ *
+ * The binary formats need the corresponding {@code jackson-dataformat-smile} or
+ * {@code jackson-dataformat-cbor} module on the classpath.
+ */
+public final class JacksonMcpCodec implements McpCodec {
+
+	/** Media type of JSON */
+	public static final String JSON_CONTENT_TYPE = "application/json";
+
+	/** Media type of Jackson's Smile binary JSON format */
+	public static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
+
+	/** Media type of CBOR */
+	public static final String CBOR_CONTENT_TYPE = "application/cbor";
+
+	private final ObjectMapper objectMapper;
+
+	private final ObjectWriter writer;
+
+	private final String contentType;
+
+	private final boolean binary;
+
+	/**
+	 * Creates a codec for the format of the given ObjectMapper.
+	 * @param objectMapper the ObjectMapper
+	 * @param contentType the media type of the format
+	 */
+	public JacksonMcpCodec(ObjectMapper objectMapper, String contentType) {
+		Assert.notNull(objectMapper, "ObjectMapper must not be null");
+		Assert.hasText(contentType, "Content type must not be empty");
+		this.objectMapper = objectMapper;
+		this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.contentType = contentType;
+		this.binary = objectMapper.getFactory().canHandleBinaryNatively();
+	}
+
+	/**
+	 * Returns the ObjectMapper of this codec.
+	 * @return the ObjectMapper
+	 */
+	public ObjectMapper getObjectMapper() {
+		return this.objectMapper;
+	}
+
+	@Override
+	public String getContentType() {
+		return this.contentType;
+	}
+
+	@Override
+	public boolean isBinary() {
+		return this.binary;
+	}
+
+	@Override
+	public void encode(JSONRPCMessage message, OutputStream out) throws IOException {
+		this.writer.writeValue(out, message);
+	}
+
+	@Override
+	public byte[] encode(JSONRPCMessage message) throws IOException {
+		return this.writer.writeValueAsBytes(message);
+	}
+
+	@Override
+	public JSONRPCMessage decode(InputStream in) throws IOException {
+		return McpSchema.deserializeJsonRpcMessage(this.objectMapper, in);
+	}
+
+	@Override
+	public <T> T convertValue(Object data, TypeReference<T> typeRef) {
+		return this.objectMapper.convertValue(data, typeRef);
+	}
+
+	@Override
+	public String toString() {
+		return "JacksonMcpCodec{" + "contentType='" + this.contentType + '\'' + '}';
+	}
+
+}
@@ -6,12 +6,15 @@ package io.modelcontextprotocol.spec;
 
 import java.time.Duration;
 import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import io.modelcontextprotocol.observation.McpObservation;
+import io.modelcontextprotocol.observation.McpObservationContext;
+import io.modelcontextprotocol.observation.McpObservationHandler;
+import io.modelcontextprotocol.spec.common.CancelledNotification;
 import io.modelcontextprotocol.spec.jsonrpc.ErrorCodes;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCNotification;
@@ -62,12 +65,12 @@ public class McpClientSession implements McpSession {
 	/** Map of notification handlers keyed by method name */
 	private final ConcurrentHashMap<String, NotificationHandler> notificationHandlers = new ConcurrentHashMap<>();
 
-	/** Session-specific prefix for request IDs */
-	private final String sessionPrefix = UUID.randomUUID().toString().substring(0, 8);
-
 	/** Atomic counter for generating unique request IDs */
 	private final AtomicLong requestCounter = new AtomicLong(0);
 
+	/** Handler observing the messages of the session */
+	private final SessionObserver observer;
+
 	private final Disposable connection;
 
 	/**
@@ -113,6 +116,20 @@ public class McpClientSession implements McpSession {
 	 */
 	public McpClientSession(Duration requestTimeout, McpClientTransport transport,
 			Map<String, RequestHandler<?>> requestHandlers, Map<String, NotificationHandler> notificationHandlers) {
+		this(requestTimeout, transport, requestHandlers, notificationHandlers, McpObservationHandler.NOOP);
+	}
+
+	/**
+	 * Creates a new McpClientSession whose messages are observed by the given handler.
+	 * @param requestTimeout Duration to wait for responses
+	 * @param transport Transport implementation for message exchange
+	 * @param requestHandlers Map of method names to request handlers
+	 * @param notificationHandlers Map of method names to notification handlers
+	 * @param observationHandler Handler observing the messages of the session
+	 */
+	public McpClientSession(Duration requestTimeout, McpClientTransport transport,
+			Map<String, RequestHandler<?>> requestHandlers, Map<String, NotificationHandler> notificationHandlers,
+			McpObservationHandler observationHandler) {
 
 		Assert.notNull(requestTimeout, "The requestTimeout can not be null");
 		Assert.notNull(transport, "The transport can not be null");
@@ -123,12 +140,10 @@ public class McpClientSession implements McpSession {
 		this.transport = transport;
 		this.requestHandlers.putAll(requestHandlers);
 		this.notificationHandlers.putAll(notificationHandlers);
+		this.observer = new SessionObserver(observationHandler, McpObservationContext.Side.CLIENT, null,
+				method -> this.requestHandlers.containsKey(method) || this.notificationHandlers.containsKey(method),
+				null);
 
-		// TODO: consider mono.transformDeferredContextual where the Context contains
-		// the
-		// Observation associated with the individual message - it can be used to
-		// create child Observation and emit it together with the message to the
-		// consumer
 		this.connection = this.transport.connect(mono -> mono.doOnNext(this::handle)).subscribe();
 	}
 
@@ -136,7 +151,7 @@ public class McpClientSession implements McpSession {
 		if (message instanceof JSONRPCResponse) {
 			JSONRPCResponse response = (JSONRPCResponse) message;
 			logger.debug("Received Response: {}", response);
-			var sink = pendingResponses.remove(response.getId());
+			var sink = pendingResponses.remove(pendingResponseKey(response.getId()));
 			if (sink == null) {
 				logger.warn("Unexpected response for unknown id {}", response.getId());
 			}
@@ -147,16 +162,20 @@ public class McpClientSession implements McpSession {
 		else if (message instanceof JSONRPCRequest) {
 			JSONRPCRequest request = (JSONRPCRequest) message;
 			logger.debug("Received request: {}", request);
-			handleIncomingRequest(request).onErrorResume(error -> {
+			McpObservation observation = this.observer.observe(McpObservationContext.Kind.REQUEST, request.getMethod(),
+					request.getId(), request.getParams());
+			handleIncomingRequest(request, observation).onErrorResume(error -> {
 				var errorResponse = new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(), null,
 						new JSONRPCError(ErrorCodes.INTERNAL_ERROR, error.getMessage(), null));
-				return this.transport.sendMessage(errorResponse).then(Mono.empty());
-			}).flatMap(this.transport::sendMessage).subscribe();
+				return SessionObserver.sendResponse(this.transport, errorResponse, observation).then(Mono.empty());
+			}).flatMap(response -> SessionObserver.sendResponse(this.transport, response, observation)).subscribe();
 		}
 		else if (message instanceof JSONRPCNotification) {
 			JSONRPCNotification notification = (JSONRPCNotification) message;
 			logger.debug("Received notification: {}", notification);
-			handleIncomingNotification(notification)
+			McpObservation observation = this.observer.observe(McpObservationContext.Kind.NOTIFICATION,
+					notification.getMethod(), null, notification.getParams());
+			SessionObserver.observed(handleIncomingNotification(notification, observation), observation)
 				.doOnError(error -> logger.error("Error handling notification: {}", error.getMessage()))
 				.subscribe();
 		}
@@ -168,9 +187,10 @@ public class McpClientSession implements McpSession {
 	/**
 	 * Handles an incoming JSON-RPC request by routing it to the appropriate handler.
 	 * @param request The incoming JSON-RPC request
+	 * @param observation The observation of the request
 	 * @return A Mono containing the JSON-RPC response
 	 */
-	private Mono<JSONRPCResponse> handleIncomingRequest(JSONRPCRequest request) {
+	private Mono<JSONRPCResponse> handleIncomingRequest(JSONRPCRequest request, McpObservation observation) {
 		return Mono.defer(() -> {
 			var handler = this.requestHandlers.get(request.getMethod());
 			if (handler == null) {
@@ -179,7 +199,13 @@ public class McpClientSession implements McpSession {
 						new JSONRPCError(ErrorCodes.METHOD_NOT_FOUND, error.message(), error.data())));
 			}
 
-			return handler.handle(request.getParams())
+			observation.onDispatch();
+			Mono<?> resultMono = handler.handle(request.getParams());
+			if (observation != McpObservation.NOOP) {
+				resultMono = resultMono.doOnSuccess(result -> observation.onHandled(null))
+					.doOnError(observation::onHandled);
+			}
+			return resultMono
 				.map(result -> new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(), result, null))
 				.onErrorResume(error -> Mono.just(new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(), null,
 						new JSONRPCError(ErrorCodes.INTERNAL_ERROR, error.getMessage(), null)))); // TODO:
@@ -232,26 +258,47 @@ public class McpClientSession implements McpSession {
 	/**
 	 * Handles an incoming JSON-RPC notification by routing it to the appropriate handler.
 	 * @param notification The incoming JSON-RPC notification
+	 * @param observation The observation of the notification
 	 * @return A Mono that completes when the notification is processed
 	 */
-	private Mono<Void> handleIncomingNotification(JSONRPCNotification notification) {
+	private Mono<Void> handleIncomingNotification(JSONRPCNotification notification, McpObservation observation) {
 		return Mono.defer(() -> {
 			var handler = notificationHandlers.get(notification.getMethod());
 			if (handler == null) {
 				logger.error("No handler registered for notification method: {}", notification.getMethod());
 				return Mono.empty();
 			}
-			return handler.handle(notification.getParams());
+			observation.onDispatch();
+			if (observation == McpObservation.NOOP) {
+				return handler.handle(notification.getParams());
+			}
+			return handler.handle(notification.getParams())
+				.doOnSuccess(v -> observation.onHandled(null))
+				.doOnError(observation::onHandled);
 		});
 	}
 
 	/**
-	 * Generates a unique request ID in a non-blocking way. Combines a session-specific
-	 * prefix with an atomic counter to ensure uniqueness.
-	 * @return A unique request ID string
+	 * Generates a unique request ID in a non-blocking way. Request IDs only need to be
+	 * unique within the session, so a numeric counter is sufficient.
+	 * @return A unique request ID
+	 */
+	private Long generateRequestId() {
+		return this.requestCounter.getAndIncrement();
+	}
+
+	/**
+	 * Returns the key under which the pending response for the given request id is
+	 * stored. Request ids are issued as {@code Long} values, but may come back as any
+	 * integral type once they have been through a JSON parser.
+	 * @param id the request id
+	 * @return the pending response key
 	 */
-	private String generateRequestId() {
-		return this.sessionPrefix + "-" + this.requestCounter.getAndIncrement();
+	private static Object pendingResponseKey(Object id) {
+		if (id instanceof Integer || id instanceof Short || id instanceof Byte) {
+			return ((Number) id).longValue();
+		}
+		return id;
 	}
 
 	/**
@@ -264,34 +311,48 @@ public class McpClientSession implements McpSession {
 	 */
 	@Override
 	public <T> Mono<T> sendRequest(String method, Object requestParams, TypeReference<T> typeRef) {
-		String requestId = this.generateRequestId();
-
-		return Mono.deferContextual(ctx -> Mono.<JSONRPCResponse>create(sink -> {
-			this.pendingResponses.put(requestId, sink);
-			JSONRPCRequest jsonrpcRequest = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, method, requestId,
-					requestParams);
-			this.transport.sendMessage(jsonrpcRequest)
-				.contextWrite(ctx)
-				// TODO: It's most efficient to create a dedicated Subscriber here
-				.subscribe(v -> {
-				}, error -> {
-					this.pendingResponses.remove(requestId);
-					sink.error(error);
-				});
-		})).timeout(this.requestTimeout).handle((jsonRpcResponse, sink) -> {
-			if (jsonRpcResponse.getError() != null) {
-				logger.error("Error handling request: {}", jsonRpcResponse.getError());
-				sink.error(new McpError(jsonRpcResponse.getError()));
-			}
-			else {
-				try {
-					T result = this.transport.unmarshalFrom(jsonRpcResponse.getResult(), typeRef);
-					sink.next(result);
+		Long requestId = this.generateRequestId();
+		return Mono.defer(() -> {
+			McpObservation observation = this.observer.observe(McpObservationContext.Kind.OUTGOING_REQUEST, method,
+					requestId, requestParams);
+			return SessionObserver.observed(Mono.deferContextual(ctx -> Mono.<JSONRPCResponse>create(sink -> {
+				this.pendingResponses.put(requestId, sink);
+				// Hedged and timed out requests are cancelled, the server may still be
+				// working on them. The initialize request must not be cancelled.
+				if (!McpSchema.METHOD_INITIALIZE.equals(method)) {
+					sink.onCancel(() -> this
+						.sendNotification(McpSchema.METHOD_NOTIFICATION_CANCELLED,
+								new CancelledNotification(requestId, "The response is no longer awaited"))
+						.subscribe(null, error -> logger.debug("Failed to cancel request {}: {}", requestId,
+								error.getMessage())));
 				}
-				catch (IllegalArgumentException e) {
-					sink.error(new McpError("Failed to convert response: " + e.getMessage()));
+				sink.onDispose(() -> this.pendingResponses.remove(requestId, sink));
+				JSONRPCRequest jsonrpcRequest = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, method, requestId,
+						requestParams);
+				observation.onWrite();
+				this.transport.sendMessage(jsonrpcRequest)
+					.contextWrite(ctx)
+					// TODO: It's most efficient to create a dedicated Subscriber here
+					.subscribe(v -> {
+					}, error -> {
+						this.pendingResponses.remove(requestId);
+						sink.error(error);
+					});
+			})).timeout(this.requestTimeout).handle((jsonRpcResponse, sink) -> {
+				if (jsonRpcResponse.getError() != null) {
+					logger.error("Error handling request: {}", jsonRpcResponse.getError());
+					sink.error(new McpError(jsonRpcResponse.getError()));
 				}
-			}
+				else {
+					try {
+						T result = this.transport.unmarshalFrom(jsonRpcResponse.getResult(), typeRef);
+						sink.next(result);
+					}
+					catch (IllegalArgumentException e) {
+						sink.error(new McpError("Failed to convert response: " + e.getMessage()));
+					}
+				}
+			}), observation);
 		});
 	}
 
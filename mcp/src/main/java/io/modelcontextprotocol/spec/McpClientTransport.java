@@ -18,4 +18,15 @@ public interface McpClientTransport extends McpTransport {
 
 	Mono<Void> connect(Function<Mono<JSONRPCMessage>, Mono<JSONRPCMessage>> handler);
 
+	/**
+	 * Returns a Mono completing once the connection to the server is lost, for example
+	 * because the server process exited or closed its event stream, taking the session
+	 * with it. It may also complete when the transport is closed. Transports that cannot
+	 * tell never complete it.
+	 * @return a Mono completing when the connection is lost
+	 */
+	default Mono<Void> onDisconnect() {
+		return Mono.never();
+	}
+
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.spec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+
+/**
+ * Encodes and decodes JSON-RPC messages for transports.
+ *
+ * <p>
+ * Transports use a codec instead of serializing messages themselves, so that links whose
+ * both ends are under control can use a more compact encoding than JSON text. Each codec
+ * is identified by the media type sent as {@code Content-Type} of encoded messages.
+ * Binary codecs are only used where messages travel as raw bytes, such as the bodies of
+ * posted messages. Text framings such as SSE events and stdio lines always carry text
+ * codecs, as base64 encoding binary output would outweigh its savings.
+ *
+ * @see JacksonMcpCodec
+ */
+public interface McpCodec {
+
+	/**
+	 * Returns the media type of the encoded messages.
+	 * @return the media type, for example {@code application/json}
+	 */
+	String getContentType();
+
+	/**
+	 * Returns whether encoded messages are binary, as opposed to UTF-8 text.
+	 * @return {@code true} for binary encodings
+	 */
+	boolean isBinary();
+
+	/**
+	 * Encodes a message.
+	 * @param message the message to encode
+	 * @param out the stream to write to, which is not closed
+	 * @throws IOException if the message cannot be encoded or written
+	 */
+	void encode(JSONRPCMessage message, OutputStream out) throws IOException;
+
+	/**
+	 * Decodes a message.
+	 * @param in the stream holding exactly one encoded message
+	 * @return the message
+	 * @throws IOException if the message cannot be read or decoded
+	 */
+	JSONRPCMessage decode(InputStream in) throws IOException;
+
+	/**
+	 * Converts loosely typed message content, such as the parameters of a decoded
+	 * request, to the given type.
+	 * @param <T> the target type
+	 * @param data the data to convert
+	 * @param typeRef the target type
+	 * @return the converted data
+	 */
+	<T> T convertValue(Object data, TypeReference<T> typeRef);
+
+	/**
+	 * Encodes a message into a byte array.
+	 * @param message the message to encode
+	 * @return the encoded message
+	 * @throws IOException if the message cannot be encoded
+	 */
+	byte[] encode(JSONRPCMessage message) throws IOException;
+
+	/**
+	 * Decodes a message from a byte array.
+	 * @param data the encoded message
+	 * @return the message
+	 * @throws IOException if the message cannot be decoded
+	 */
+	default JSONRPCMessage decode(byte[] data) throws IOException {
+		return decode(new ByteArrayInputStream(data));
+	}
+
+	/**
+	 * Encodes a message for a text framing.
+	 * @param message the message to encode
+	 * @return the encoded message
+	 * @throws IOException if the message cannot be encoded
+	 * @throws IllegalStateException if this codec is binary
+	 */
+	default String encodeToText(JSONRPCMessage message) throws IOException {
+		if (isBinary()) {
+			throw new IllegalStateException("Binary codec " + getContentType() + " cannot encode text");
+		}
+		return new String(encode(message), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes a message produced by {@link #encodeToText(JSONRPCMessage)}.
+	 * @param text the encoded message
+	 * @return the message
+	 * @throws IOException if the message cannot be decoded
+	 * @throws IllegalStateException if this codec is binary
+	 */
+	default JSONRPCMessage decodeText(String text) throws IOException {
+		if (isBinary()) {
+			throw new IllegalStateException("Binary codec " + getContentType() + " cannot decode text");
+		}
+		return decode(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Tells whether a media type denotes JSON, that is {@code application/json} or a
+	 * {@code +json} structured syntax suffix.
+	 * @param mediaType the media type without parameters, may be {@code null}
+	 * @return {@code true} for JSON media types
+	 */
+	static boolean isJson(String mediaType) {
+		if (mediaType == null) {
+			return false;
+		}
+		String type = mediaType.trim().toLowerCase(Locale.ROOT);
+		return type.equals(JacksonMcpCodec.JSON_CONTENT_TYPE) || type.endsWith("+json");
+	}
+
+	/**
+	 * Returns the JSON codec backed by the given ObjectMapper.
+	 * @param objectMapper the ObjectMapper
+	 * @return the JSON codec
+	 */
+	static McpCodec json(ObjectMapper objectMapper) {
+		return new JacksonMcpCodec(objectMapper, JacksonMcpCodec.JSON_CONTENT_TYPE);
+	}
+
+}
@@ -5,7 +5,9 @@
 package io.modelcontextprotocol.spec;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.Map;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -46,6 +48,8 @@ public final class McpSchema {
 
 	public static final String METHOD_PING = "ping";
 
+	public static final String METHOD_NOTIFICATION_CANCELLED = "notifications/cancelled";
+
 	// Tool Methods
 	public static final String METHOD_TOOLS_LIST = "tools/list";
 
@@ -60,6 +64,8 @@ public final class McpSchema {
 
 	public static final String METHOD_NOTIFICATION_RESOURCES_LIST_CHANGED = "notifications/resources/list_changed";
 
+	public static final String METHOD_NOTIFICATION_RESOURCES_UPDATED = "notifications/resources/updated";
+
 	public static final String METHOD_RESOURCES_TEMPLATES_LIST = "resources/templates/list";
 
 	public static final String METHOD_RESOURCES_SUBSCRIBE = "resources/subscribe";
@@ -106,8 +112,26 @@ public final class McpSchema {
 
 		logger.debug("Received JSON message: {}", jsonText);
 
-		var map = objectMapper.readValue(jsonText, MAP_TYPE_REF);
+		return toJsonRpcMessage(objectMapper, objectMapper.readValue(jsonText, MAP_TYPE_REF));
+	}
+
+	/**
+	 * Deserializes an encoded message into a JSONRPCMessage object. The data may be in
+	 * any format understood by the ObjectMapper, such as JSON or a binary Jackson format.
+	 * @param objectMapper The ObjectMapper instance to use for deserialization
+	 * @param data The encoded message
+	 * @return A JSONRPCMessage instance using either the {@link JSONRPCRequest},
+	 * {@link JSONRPCNotification}, or {@link JSONRPCResponse} classes.
+	 * @throws IOException If there's an error during deserialization
+	 * @throws IllegalArgumentException If the structure doesn't match any known message
+	 * type
+	 */
+	public static JSONRPCMessage deserializeJsonRpcMessage(ObjectMapper objectMapper, InputStream data)
+			throws IOException {
+		return toJsonRpcMessage(objectMapper, objectMapper.readValue(data, MAP_TYPE_REF));
+	}
 
+	private static JSONRPCMessage toJsonRpcMessage(ObjectMapper objectMapper, Map<String, Object> map) {
 		// Determine message type based on specific JSON structure
 		if (map.containsKey("method") && map.containsKey("id")) {
 			return objectMapper.convertValue(map, JSONRPCRequest.class);
@@ -119,7 +143,7 @@ public final class McpSchema {
 			return objectMapper.convertValue(map, JSONRPCResponse.class);
 		}
 
-		throw new IllegalArgumentException("Cannot deserialize JSONRPCMessage: " + jsonText);
+		throw new IllegalArgumentException("Cannot deserialize JSONRPCMessage: " + map);
 	}
 
 }
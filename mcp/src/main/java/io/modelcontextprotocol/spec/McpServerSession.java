@@ -2,13 +2,20 @@ package io.modelcontextprotocol.spec;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import io.modelcontextprotocol.observation.McpObservation;
+import io.modelcontextprotocol.observation.McpObservationContext;
+import io.modelcontextprotocol.observation.McpObservationHandler;
+import io.modelcontextprotocol.server.LoggingPolicy;
 import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.spec.common.CancelledNotification;
 import io.modelcontextprotocol.spec.initialization.ClientCapabilities;
 import io.modelcontextprotocol.spec.initialization.Implementation;
 import io.modelcontextprotocol.spec.initialization.InitializeRequest;
@@ -35,6 +42,9 @@ public class McpServerSession implements McpSession {
 
 	private final ConcurrentHashMap<Object, MonoSink<JSONRPCResponse>> pendingResponses = new ConcurrentHashMap<>();
 
+	/** Requests being handled, by id, signalled when the client cancels them */
+	private final ConcurrentHashMap<Object, Sinks.One<CancelledNotification>> inFlightRequests = new ConcurrentHashMap<>();
+
 	private final String id;
 
 	/** Duration to wait for request responses before timing out */
@@ -52,8 +62,14 @@ public class McpServerSession implements McpSession {
 
 	private final McpServerTransport transport;
 
+	private final SessionObserver observer;
+
+	private final LoggingPolicy loggingPolicy;
+
 	private final Sinks.One<McpAsyncServerExchange> exchangeSink = Sinks.one();
 
+	private volatile McpAsyncServerExchange exchange;
+
 	private final AtomicReference<ClientCapabilities> clientCapabilities = new AtomicReference<>();
 
 	private final AtomicReference<Implementation> clientInfo = new AtomicReference<>();
@@ -81,6 +97,75 @@ public class McpServerSession implements McpSession {
 	public McpServerSession(String id, Duration requestTimeout, McpServerTransport transport,
 			InitRequestHandler initHandler, InitNotificationHandler initNotificationHandler,
 			Map<String, RequestHandler<?>> requestHandlers, Map<String, NotificationHandler> notificationHandlers) {
+		this(id, requestTimeout, transport, initHandler, initNotificationHandler, requestHandlers, notificationHandlers,
+				McpObservationHandler.NOOP);
+	}
+
+	/**
+	 * Creates a new server session whose messages are observed by the given handler.
+	 * @param id session id
+	 * @param transport the transport to use
+	 * @param initHandler called when a
+	 * {@link io.modelcontextprotocol.spec.InitializeRequest} is received by the server
+	 * @param initNotificationHandler called when a
+	 * {@link io.modelcontextprotocol.spec.McpSchema#METHOD_NOTIFICATION_INITIALIZED} is
+	 * received.
+	 * @param requestHandlers map of request handlers to use
+	 * @param notificationHandlers map of notification handlers to use
+	 * @param observationHandler the handler observing the messages of the session
+	 */
+	public McpServerSession(String id, Duration requestTimeout, McpServerTransport transport,
+			InitRequestHandler initHandler, InitNotificationHandler initNotificationHandler,
+			Map<String, RequestHandler<?>> requestHandlers, Map<String, NotificationHandler> notificationHandlers,
+			McpObservationHandler observationHandler) {
+		this(id, requestTimeout, transport, initHandler, initNotificationHandler, requestHandlers, notificationHandlers,
+				observationHandler, LoggingPolicy.unlimited());
+	}
+
+	/**
+	 * Creates a new server session whose logging notifications are subject to the given
+	 * policy.
+	 * @param id session id
+	 * @param transport the transport to use
+	 * @param initHandler called when a
+	 * {@link io.modelcontextprotocol.spec.InitializeRequest} is received by the server
+	 * @param initNotificationHandler called when a
+	 * {@link io.modelcontextprotocol.spec.McpSchema#METHOD_NOTIFICATION_INITIALIZED} is
+	 * received.
+	 * @param requestHandlers map of request handlers to use
+	 * @param notificationHandlers map of notification handlers to use
+	 * @param observationHandler the handler observing the messages of the session
+	 * @param loggingPolicy the limits of the logging notifications of the session
+	 */
+	public McpServerSession(String id, Duration requestTimeout, McpServerTransport transport,
+			InitRequestHandler initHandler, InitNotificationHandler initNotificationHandler,
+			Map<String, RequestHandler<?>> requestHandlers, Map<String, NotificationHandler> notificationHandlers,
+			McpObservationHandler observationHandler, LoggingPolicy loggingPolicy) {
+		this(id, requestTimeout, transport, initHandler, initNotificationHandler, requestHandlers, notificationHandlers,
+				observationHandler, loggingPolicy, null);
+	}
+
+	/**
+	 * Creates a new server session that tells the observation handler which called tools
+	 * are registered on the server.
+	 * @param id session id
+	 * @param transport the transport to use
+	 * @param initHandler called when a
+	 * {@link io.modelcontextprotocol.spec.InitializeRequest} is received by the server
+	 * @param initNotificationHandler called when a
+	 * {@link io.modelcontextprotocol.spec.McpSchema#METHOD_NOTIFICATION_INITIALIZED} is
+	 * received.
+	 * @param requestHandlers map of request handlers to use
+	 * @param notificationHandlers map of notification handlers to use
+	 * @param observationHandler the handler observing the messages of the session
+	 * @param loggingPolicy the limits of the logging notifications of the session
+	 * @param registeredTools tells the tools registered on the server, or {@code null} to
+	 * consider every called tool registered
+	 */
+	public McpServerSession(String id, Duration requestTimeout, McpServerTransport transport,
+			InitRequestHandler initHandler, InitNotificationHandler initNotificationHandler,
+			Map<String, RequestHandler<?>> requestHandlers, Map<String, NotificationHandler> notificationHandlers,
+			McpObservationHandler observationHandler, LoggingPolicy loggingPolicy, Predicate<String> registeredTools) {
 		this.id = id;
 		this.requestTimeout = requestTimeout;
 		this.transport = transport;
@@ -88,6 +173,18 @@ public class McpServerSession implements McpSession {
 		this.initNotificationHandler = initNotificationHandler;
 		this.requestHandlers = requestHandlers;
 		this.notificationHandlers = notificationHandlers;
+		this.observer = new SessionObserver(observationHandler, McpObservationContext.Side.SERVER, id, this::handles,
+				registeredTools);
+		this.loggingPolicy = (loggingPolicy != null) ? loggingPolicy : LoggingPolicy.unlimited();
+	}
+
+	/**
+	 * Tells whether the session handles the given method, so that the observation handler
+	 * can bucket the others.
+	 */
+	private boolean handles(String method) {
+		return McpSchema.METHOD_INITIALIZE.equals(method) || McpSchema.METHOD_NOTIFICATION_INITIALIZED.equals(method)
+				|| this.requestHandlers.containsKey(method) || this.notificationHandlers.containsKey(method);
 	}
 
 	/**
@@ -98,6 +195,15 @@ public class McpServerSession implements McpSession {
 		return this.id;
 	}
 
+	/**
+	 * Returns the exchange with the client of this session.
+	 * @return the exchange, or {@code null} until the client has confirmed the
+	 * initialization
+	 */
+	public McpAsyncServerExchange getExchange() {
+		return this.exchange;
+	}
+
 	/**
 	 * Called upon successful initialization sequence between the client and the server
 	 * with the client capabilities and information.
@@ -113,35 +219,53 @@ public class McpServerSession implements McpSession {
 		this.clientInfo.lazySet(clientInfo);
 	}
 
-	private String generateRequestId() {
-		return this.id + "-" + this.requestCounter.getAndIncrement();
+	private Long generateRequestId() {
+		return this.requestCounter.getAndIncrement();
+	}
+
+	/**
+	 * Returns the key under which the pending response for the given request id is
+	 * stored. Request ids are issued as {@code Long} values, but may come back as any
+	 * integral type once they have been through a JSON parser.
+	 * @param id the request id
+	 * @return the pending response key
+	 */
+	private static Object pendingResponseKey(Object id) {
+		if (id instanceof Integer || id instanceof Short || id instanceof Byte) {
+			return ((Number) id).longValue();
+		}
+		return id;
 	}
 
 	@Override
 	public <T> Mono<T> sendRequest(String method, Object requestParams, TypeReference<T> typeRef) {
-		String requestId = this.generateRequestId();
-
-		return Mono.<JSONRPCResponse>create(sink -> {
-			this.pendingResponses.put(requestId, sink);
-			JSONRPCRequest jsonrpcRequest = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, method, requestId,
-					requestParams);
-			this.transport.sendMessage(jsonrpcRequest).subscribe(v -> {
-			}, error -> {
-				this.pendingResponses.remove(requestId);
-				sink.error(error);
-			});
-		}).timeout(requestTimeout).handle((jsonRpcResponse, sink) -> {
-			if (jsonRpcResponse.getError() != null) {
-				sink.error(new McpError(jsonRpcResponse.getError()));
-			}
-			else {
-				if (typeRef.getType().equals(Void.class)) {
-					sink.complete();
+		Long requestId = this.generateRequestId();
+		return Mono.defer(() -> {
+			McpObservation observation = this.observer.observe(McpObservationContext.Kind.OUTGOING_REQUEST, method,
+					requestId, requestParams);
+			return SessionObserver.observed(Mono.<JSONRPCResponse>create(sink -> {
+				this.pendingResponses.put(requestId, sink);
+				JSONRPCRequest jsonrpcRequest = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, method, requestId,
+						requestParams);
+				observation.onWrite();
+				this.transport.sendMessage(jsonrpcRequest).subscribe(v -> {
+				}, error -> {
+					this.pendingResponses.remove(requestId);
+					sink.error(error);
+				});
+			}).timeout(requestTimeout).handle((jsonRpcResponse, sink) -> {
+				if (jsonRpcResponse.getError() != null) {
+					sink.error(new McpError(jsonRpcResponse.getError()));
 				}
 				else {
-					sink.next(this.transport.unmarshalFrom(jsonRpcResponse.getResult(), typeRef));
+					if (typeRef.getType().equals(Void.class)) {
+						sink.complete();
+					}
+					else {
+						sink.next(this.transport.unmarshalFrom(jsonRpcResponse.getResult(), typeRef));
+					}
 				}
-			}
+			}), observation);
 		});
 	}
 
@@ -168,7 +292,7 @@ public class McpServerSession implements McpSession {
 			if (message instanceof JSONRPCResponse) {
 				JSONRPCResponse response = (JSONRPCResponse) message;
 				logger.debug("Received Response: {}", response);
-				var sink = pendingResponses.remove(response.getId());
+				var sink = pendingResponses.remove(pendingResponseKey(response.getId()));
 				if (sink == null) {
 					logger.warn("Unexpected response for unknown id {}", response.getId());
 				}
@@ -180,20 +304,24 @@ public class McpServerSession implements McpSession {
 			else if (message instanceof JSONRPCRequest) {
 				JSONRPCRequest request = (JSONRPCRequest) message;
 				logger.debug("Received request: {}", request);
-				return handleIncomingRequest(request).onErrorResume(error -> {
+				McpObservation observation = this.observer.observe(McpObservationContext.Kind.REQUEST,
+						request.getMethod(), request.getId(), request.getParams());
+				return handleIncomingRequest(request, observation).onErrorResume(error -> {
 					var errorResponse = new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(), null,
-							new JSONRPCResponse.JSONRPCError(ErrorCodes.INTERNAL_ERROR, error.getMessage(), null));
+							toJsonRpcError(error));
 					// TODO: Should the error go to SSE or back as POST return?
-					return this.transport.sendMessage(errorResponse).then(Mono.empty());
-				}).flatMap(this.transport::sendMessage);
+					return SessionObserver.sendResponse(this.transport, errorResponse, observation).then(Mono.empty());
+				}).flatMap(response -> SessionObserver.sendResponse(this.transport, response, observation));
 			}
 			else if (message instanceof JSONRPCNotification) {
 				JSONRPCNotification notification = (JSONRPCNotification) message;
 				// TODO handle errors for communication to without initialization
 				// happening first
 				logger.debug("Received notification: {}", notification);
+				McpObservation observation = this.observer.observe(McpObservationContext.Kind.NOTIFICATION,
+						notification.getMethod(), null, notification.getParams());
 				// TODO: in case of error, should the POST request be signalled?
-				return handleIncomingNotification(notification)
+				return SessionObserver.observed(handleIncomingNotification(notification, observation), observation)
 					.doOnError(error -> logger.error("Error handling notification: {}", error.getMessage()));
 			}
 			else {
@@ -206,9 +334,10 @@ public class McpServerSession implements McpSession {
 	/**
 	 * Handles an incoming JSON-RPC request by routing it to the appropriate handler.
 	 * @param request The incoming JSON-RPC request
+	 * @param observation The observation of the request
 	 * @return A Mono containing the JSON-RPC response
 	 */
-	private Mono<JSONRPCResponse> handleIncomingRequest(JSONRPCRequest request) {
+	private Mono<JSONRPCResponse> handleIncomingRequest(JSONRPCRequest request, McpObservation observation) {
 		return Mono.defer(() -> {
 			Mono<?> resultMono;
 			if (McpSchema.METHOD_INITIALIZE.equals(request.getMethod())) {
@@ -219,6 +348,7 @@ public class McpServerSession implements McpSession {
 
 				this.state.lazySet(STATE_INITIALIZING);
 				this.init(initializeRequest.getCapabilities(), initializeRequest.getClientInfo());
+				observation.onDispatch();
 				resultMono = this.initRequestHandler.handle(initializeRequest);
 			}
 			else {
@@ -232,45 +362,104 @@ public class McpServerSession implements McpSession {
 									error.data())));
 				}
 
-				resultMono = this.exchangeSink.asMono()
-					.flatMap(exchange -> handler.handle(exchange, request.getParams()));
+				resultMono = this.exchangeSink.asMono().flatMap(exchange -> {
+					observation.onDispatch();
+					return handler.handle(exchange, request.getParams());
+				});
+			}
+			if (observation != McpObservation.NOOP) {
+				resultMono = resultMono.doOnSuccess(result -> observation.onHandled(null))
+					.doOnError(observation::onHandled);
+			}
+			if (!McpSchema.METHOD_INITIALIZE.equals(request.getMethod())) {
+				// A request cancelled by the client disposes its handler, and gets no
+				// response
+				Object key = pendingResponseKey(request.getId());
+				Sinks.One<CancelledNotification> cancelled = Sinks.one();
+				this.inFlightRequests.put(key, cancelled);
+				resultMono = resultMono
+					.takeUntilOther(cancelled.asMono()
+						.doOnNext(notification -> observation
+							.onComplete(new CancellationException("Cancelled by the client"))))
+					.doFinally(signal -> this.inFlightRequests.remove(key, cancelled));
 			}
 			return resultMono
 				.map(result -> new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(), result, null))
-				.onErrorResume(error -> Mono.just(new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(), null,
-						new JSONRPCResponse.JSONRPCError(ErrorCodes.INTERNAL_ERROR, error.getMessage(), null)))); // TODO:
-																													// add
-																													// error
-																													// message
-																													// through
-																													// the
-																													// data
-																													// field
+				.onErrorResume(error -> Mono.just(
+						new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(), null, toJsonRpcError(error))));
 		});
 	}
 
+	/**
+	 * Maps a handler failure to the error returned to the client. An {@link McpError}
+	 * carrying a JSON-RPC error, such as a rejection or timeout of a tool call, keeps its
+	 * code; any other failure is reported as an internal error.
+	 * @param error the failure
+	 * @return the JSON-RPC error
+	 */
+	private static JSONRPCResponse.JSONRPCError toJsonRpcError(Throwable error) {
+		if (error instanceof McpError && ((McpError) error).getJsonRpcError() != null) {
+			return ((McpError) error).getJsonRpcError();
+		}
+		// TODO: add error message through the data field
+		return new JSONRPCResponse.JSONRPCError(ErrorCodes.INTERNAL_ERROR, error.getMessage(), null);
+	}
+
 	/**
 	 * Handles an incoming JSON-RPC notification by routing it to the appropriate handler.
 	 * @param notification The incoming JSON-RPC notification
+	 * @param observation The observation of the notification
 	 * @return A Mono that completes when the notification is processed
 	 */
-	private Mono<Void> handleIncomingNotification(JSONRPCNotification notification) {
+	private Mono<Void> handleIncomingNotification(JSONRPCNotification notification, McpObservation observation) {
 		return Mono.defer(() -> {
+			Mono<Void> handled;
 			if (McpSchema.METHOD_NOTIFICATION_INITIALIZED.equals(notification.getMethod())) {
 				this.state.lazySet(STATE_INITIALIZED);
-				exchangeSink.tryEmitValue(new McpAsyncServerExchange(this, clientCapabilities.get(), clientInfo.get()));
-				return this.initNotificationHandler.handle();
+				McpAsyncServerExchange newExchange = new McpAsyncServerExchange(this, clientCapabilities.get(),
+						clientInfo.get(), this.loggingPolicy);
+				this.exchange = newExchange;
+				exchangeSink.tryEmitValue(newExchange);
+				observation.onDispatch();
+				handled = this.initNotificationHandler.handle();
 			}
-
-			var handler = notificationHandlers.get(notification.getMethod());
-			if (handler == null) {
-				logger.error("No handler registered for notification method: {}", notification.getMethod());
-				return Mono.empty();
+			else {
+				if (McpSchema.METHOD_NOTIFICATION_CANCELLED.equals(notification.getMethod())) {
+					cancelRequest(notification.getParams());
+				}
+				var handler = notificationHandlers.get(notification.getMethod());
+				if (handler == null) {
+					logger.error("No handler registered for notification method: {}", notification.getMethod());
+					return Mono.empty();
+				}
+				handled = this.exchangeSink.asMono().flatMap(exchange -> {
+					observation.onDispatch();
+					return handler.handle(exchange, notification.getParams());
+				});
+			}
+			if (observation == McpObservation.NOOP) {
+				return handled;
 			}
-			return this.exchangeSink.asMono().flatMap(exchange -> handler.handle(exchange, notification.getParams()));
+			return handled.doOnSuccess(v -> observation.onHandled(null)).doOnError(observation::onHandled);
 		});
 	}
 
+	/**
+	 * Disposes the handler of a request cancelled by the client, if it is still running.
+	 * @param params the parameters of the cancelled notification
+	 */
+	private void cancelRequest(Object params) {
+		CancelledNotification notification = this.transport.unmarshalFrom(params,
+				new TypeReference<CancelledNotification>() {
+				});
+		Sinks.One<CancelledNotification> cancelled = this.inFlightRequests
+			.remove(pendingResponseKey(notification.getRequestId()));
+		if (cancelled != null) {
+			logger.debug("Client cancelled request {}: {}", notification.getRequestId(), notification.getReason());
+			cancelled.tryEmitValue(notification);
+		}
+	}
+
 	private static class MethodNotFoundError {
 
 		private final String method;
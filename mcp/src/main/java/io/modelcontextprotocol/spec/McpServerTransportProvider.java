@@ -1,5 +1,6 @@
 package io.modelcontextprotocol.spec;
 
+import java.util.Collection;
 import java.util.Map;
 
 import reactor.core.publisher.Mono;
@@ -48,6 +49,16 @@ public interface McpServerTransportProvider {
 	 */
 	Mono<Void> notifyClients(String method, Object params);
 
+	/**
+	 * Returns the sessions of the clients currently connected through this provider, for
+	 * features that address each client on its own terms. Sessions leave the collection
+	 * as soon as their client disconnects.
+	 * @return the connected sessions, or null if the provider does not keep track of them
+	 */
+	default Collection<McpServerSession> getSessions() {
+		return null;
+	}
+
 	/**
 	 * Immediately closes all the transports with connected clients and releases any
 	 * associated resources.
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.spec;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
+
+import io.modelcontextprotocol.observation.McpObservation;
+import io.modelcontextprotocol.observation.McpObservationContext;
+import io.modelcontextprotocol.observation.McpObservationHandler;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Observes the messages exchanged by a client or server session on behalf of its
+ * {@link McpObservationHandler}.
+ */
+final class SessionObserver {
+
+	private final McpObservationHandler handler;
+
+	private final McpObservationContext.Side side;
+
+	private final String sessionId;
+
+	private final Predicate<String> handledMethods;
+
+	private final Predicate<String> registeredTools;
+
+	/**
+	 * Creates an observer for the messages of a session.
+	 * @param handler the handler observing the messages, may be {@code null}
+	 * @param side the side of the connection the session belongs to
+	 * @param sessionId the id of the session, or {@code null} on the client side
+	 * @param handledMethods tells the methods of the received messages the session
+	 * handles
+	 * @param registeredTools tells the tools registered on the server, or {@code null} on
+	 * the client side
+	 */
+	SessionObserver(McpObservationHandler handler, McpObservationContext.Side side, String sessionId,
+			Predicate<String> handledMethods, Predicate<String> registeredTools) {
+		this.handler = (handler != null) ? handler : McpObservationHandler.NOOP;
+		this.side = side;
+		this.sessionId = sessionId;
+		this.handledMethods = handledMethods;
+		this.registeredTools = registeredTools;
+	}
+
+	/**
+	 * Starts observing a message, unless no observation handler is configured.
+	 */
+	McpObservation observe(McpObservationContext.Kind kind, String method, Object requestId, Object params) {
+		if (this.handler == McpObservationHandler.NOOP) {
+			return McpObservation.NOOP;
+		}
+		if (kind == McpObservationContext.Kind.OUTGOING_REQUEST) {
+			return this.handler.onSend(new McpObservationContext(this.side, kind, this.sessionId, method, requestId,
+					params, null, this.registeredTools));
+		}
+		return this.handler.onReceive(new McpObservationContext(this.side, kind, this.sessionId, method, requestId,
+				params, this.handledMethods, this.registeredTools));
+	}
+
+	/**
+	 * Completes the observation of a message once the given exchange terminates.
+	 */
+	static <T> Mono<T> observed(Mono<T> exchange, McpObservation observation) {
+		if (observation == McpObservation.NOOP) {
+			return exchange;
+		}
+		return exchange.doOnSuccess(result -> observation.onComplete(null))
+			.doOnError(observation::onComplete)
+			.doOnCancel(() -> observation.onComplete(new CancellationException("Cancelled")));
+	}
+
+	/**
+	 * Writes the response to a request, completing its observation once it is written.
+	 */
+	static Mono<Void> sendResponse(McpTransport transport, JSONRPCResponse response, McpObservation observation) {
+		if (observation == McpObservation.NOOP) {
+			return transport.sendMessage(response);
+		}
+		observation.onWrite();
+		return transport.sendMessage(response)
+			.doOnSuccess(v -> observation
+				.onComplete((response.getError() != null) ? new McpError(response.getError()) : null))
+			.doOnError(observation::onComplete)
+			.doOnCancel(() -> observation.onComplete(new CancellationException("Cancelled")));
+	}
+
+}
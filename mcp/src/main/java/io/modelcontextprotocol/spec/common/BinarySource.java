@@ -0,0 +1,126 @@
+package io.modelcontextprotocol.spec.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.modelcontextprotocol.util.Assert;
+
+/**
+ * 二进制内容的来源，用于{@link io.modelcontextprotocol.spec.resource.BlobResourceContents}
+ * 和{@link io.modelcontextprotocol.spec.content.ImageContent}。
+ *
+ * <p>
+ * 序列化时由{@link BinarySourceSerializer}将内容以base64流式写入JSON输出，不会在内存中生成完整的base64字符串，
+ * 因此大文件可以以恒定内存发送。
+ *
+ * <pre>{@code
+ * BlobResourceContents.of(uri, "application/pdf", BinarySource.of(Path.of("report.pdf")));
+ * }</pre>
+ *
+ * <p>
+ * 内存中的来源（base64字符串、字节数组和缓冲区）按解码后的内容比较，同一内容的不同形式相等；文件和输入流来源不读取内容，仅与自身相等。
+ */
+@JsonSerialize(using = BinarySourceSerializer.class)
+public interface BinarySource {
+
+	/**
+	 * 内容的字节数。
+	 * @return 字节数，未知时返回-1
+	 */
+	long length();
+
+	/**
+	 * 打开一个读取内容的新流，由调用方负责关闭。
+	 * @return 输入流
+	 * @throws IOException 打开失败时抛出
+	 */
+	InputStream openStream() throws IOException;
+
+	/**
+	 * 将内容编码为base64字符串。会将全部内容读入内存，仅用于兼容基于字符串的API。
+	 * @return base64编码的内容
+	 * @throws java.io.UncheckedIOException 读取失败时抛出
+	 */
+	default String toBase64() {
+		return BinarySources.toBase64(this);
+	}
+
+	/**
+	 * 已经是base64编码的内容，序列化时原样写出。
+	 * @param base64 base64编码的内容
+	 * @return 二进制来源
+	 */
+	static BinarySource ofBase64(String base64) {
+		Assert.notNull(base64, "Base64 content must not be null");
+		return new BinarySources.Base64Source(base64);
+	}
+
+	/**
+	 * 字节数组，不会被复制，调用方之后不应再修改。
+	 * @param bytes 内容
+	 * @return 二进制来源
+	 */
+	static BinarySource of(byte[] bytes) {
+		Assert.notNull(bytes, "Bytes must not be null");
+		return new BinarySources.ByteArraySource(bytes);
+	}
+
+	/**
+	 * 缓冲区中从position到limit的内容，支持堆外和内存映射缓冲区。缓冲区本身的position不会改变。
+	 * @param buffer 缓冲区
+	 * @return 二进制来源
+	 */
+	static BinarySource of(ByteBuffer buffer) {
+		Assert.notNull(buffer, "Buffer must not be null");
+		return new BinarySources.ByteBufferSource(buffer);
+	}
+
+	/**
+	 * 整个文件，每次序列化时重新读取。
+	 * @param file 文件路径
+	 * @return 二进制来源
+	 */
+	static BinarySource of(Path file) {
+		Assert.notNull(file, "File must not be null");
+		return new BinarySources.FileRegionSource(file, 0, -1);
+	}
+
+	/**
+	 * 文件的一个区间，每次序列化时重新读取。
+	 * @param file 文件路径
+	 * @param position 区间起始偏移
+	 * @param length 区间字节数
+	 * @return 二进制来源
+	 */
+	static BinarySource of(Path file, long position, long length) {
+		Assert.notNull(file, "File must not be null");
+		Assert.isTrue(position >= 0, "Position must not be negative");
+		Assert.isTrue(length >= 0, "Length must not be negative");
+		return new BinarySources.FileRegionSource(file, position, length);
+	}
+
+	/**
+	 * 由输入流提供者产生的内容，每次序列化时打开一个新流。
+	 * @param supplier 输入流提供者
+	 * @param length 字节数，未知时为-1
+	 * @return 二进制来源
+	 */
+	static BinarySource of(StreamSupplier supplier, long length) {
+		Assert.notNull(supplier, "Stream supplier must not be null");
+		return new BinarySources.StreamSource(supplier, length);
+	}
+
+	/**
+	 * 输入流提供者。
+	 */
+	@FunctionalInterface
+	interface StreamSupplier {
+
+		InputStream get() throws IOException;
+
+	}
+
+}
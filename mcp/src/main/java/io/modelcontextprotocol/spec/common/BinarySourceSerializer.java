@@ -0,0 +1,37 @@
+package io.modelcontextprotocol.spec.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * 将{@link BinarySource}序列化为base64字符串。内容以流的方式边读边编码写入输出，不生成中间字符串。
+ */
+public class BinarySourceSerializer extends StdSerializer<BinarySource> {
+
+	public BinarySourceSerializer() {
+		super(BinarySource.class);
+	}
+
+	@Override
+	public void serialize(BinarySource value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		if (value instanceof BinarySources.Base64Source) {
+			gen.writeString(((BinarySources.Base64Source) value).base64);
+			return;
+		}
+		if (value instanceof BinarySources.ByteArraySource) {
+			byte[] bytes = ((BinarySources.ByteArraySource) value).bytes;
+			gen.writeBinary(provider.getConfig().getBase64Variant(), bytes, 0, bytes.length);
+			return;
+		}
+		long length = value.length();
+		try (InputStream in = value.openStream()) {
+			gen.writeBinary(provider.getConfig().getBase64Variant(), in,
+					(length >= 0 && length <= Integer.MAX_VALUE) ? (int) length : -1);
+		}
+	}
+
+}
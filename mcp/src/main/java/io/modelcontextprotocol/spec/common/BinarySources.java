@@ -0,0 +1,338 @@
+package io.modelcontextprotocol.spec.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+
+/**
+ * {@link BinarySource}的内置实现。
+ */
+final class BinarySources {
+
+	private BinarySources() {
+	}
+
+	static String toBase64(BinarySource source) {
+		if (source instanceof Base64Source) {
+			return ((Base64Source) source).base64;
+		}
+		if (source instanceof ByteArraySource) {
+			return Base64.getEncoder().encodeToString(((ByteArraySource) source).bytes);
+		}
+		try (InputStream in = source.openStream()) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			in.transferTo(out);
+			return Base64.getEncoder().encodeToString(out.toByteArray());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to read binary content", e);
+		}
+	}
+
+	/**
+	 * 内容在内存中的来源，按解码后的字节比较，因此base64字符串与相同字节的数组或缓冲区相等。
+	 */
+	abstract static class InMemorySource implements BinarySource {
+
+		/**
+		 * 内容的只读视图。
+		 * @return 从position到limit为全部内容的缓冲区
+		 */
+		abstract ByteBuffer content();
+
+		@Override
+		public final boolean equals(Object obj) {
+			return obj instanceof InMemorySource && content().equals(((InMemorySource) obj).content());
+		}
+
+		@Override
+		public final int hashCode() {
+			return content().hashCode();
+		}
+
+	}
+
+	/**
+	 * 已编码的base64字符串，比较时解码一次并缓存结果。
+	 */
+	static final class Base64Source extends InMemorySource {
+
+		final String base64;
+
+		private volatile byte[] decoded;
+
+		Base64Source(String base64) {
+			this.base64 = base64;
+		}
+
+		@Override
+		ByteBuffer content() {
+			byte[] bytes = this.decoded;
+			if (bytes == null) {
+				bytes = Base64.getMimeDecoder().decode(this.base64);
+				this.decoded = bytes;
+			}
+			return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+		}
+
+		@Override
+		public long length() {
+			return -1;
+		}
+
+		@Override
+		public InputStream openStream() {
+			return Base64.getMimeDecoder()
+				.wrap(new ByteArrayInputStream(this.base64.getBytes(StandardCharsets.ISO_8859_1)));
+		}
+
+		@Override
+		public String toString() {
+			return this.base64;
+		}
+
+	}
+
+	/**
+	 * 字节数组。
+	 */
+	static final class ByteArraySource extends InMemorySource {
+
+		final byte[] bytes;
+
+		ByteArraySource(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		ByteBuffer content() {
+			return ByteBuffer.wrap(this.bytes).asReadOnlyBuffer();
+		}
+
+		@Override
+		public long length() {
+			return this.bytes.length;
+		}
+
+		@Override
+		public InputStream openStream() {
+			return new ByteArrayInputStream(this.bytes);
+		}
+
+		@Override
+		public String toString() {
+			return "BinarySource[bytes=" + this.bytes.length + "]";
+		}
+
+	}
+
+	/**
+	 * 缓冲区，读取时使用副本，不影响原缓冲区的position。
+	 */
+	static final class ByteBufferSource extends InMemorySource {
+
+		final ByteBuffer buffer;
+
+		ByteBufferSource(ByteBuffer buffer) {
+			this.buffer = buffer.slice();
+		}
+
+		@Override
+		ByteBuffer content() {
+			return this.buffer.asReadOnlyBuffer();
+		}
+
+		@Override
+		public long length() {
+			return this.buffer.remaining();
+		}
+
+		@Override
+		public InputStream openStream() {
+			return new ByteBufferInputStream(this.buffer.duplicate());
+		}
+
+		@Override
+		public String toString() {
+			return "BinarySource[buffer=" + this.buffer.remaining() + "]";
+		}
+
+	}
+
+	/**
+	 * 文件区间，length为-1表示从position到文件末尾。
+	 */
+	static final class FileRegionSource implements BinarySource {
+
+		private final Path file;
+
+		private final long position;
+
+		private final long length;
+
+		FileRegionSource(Path file, long position, long length) {
+			this.file = file;
+			this.position = position;
+			this.length = length;
+		}
+
+		@Override
+		public long length() {
+			if (this.length >= 0) {
+				return this.length;
+			}
+			try {
+				return Math.max(0, Files.size(this.file) - this.position);
+			}
+			catch (IOException e) {
+				return -1;
+			}
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ);
+			try {
+				channel.position(this.position);
+				InputStream in = Channels.newInputStream(channel);
+				return (this.length >= 0) ? new BoundedInputStream(in, this.length) : in;
+			}
+			catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "BinarySource[file=" + this.file + ", position=" + this.position + ", length=" + this.length + "]";
+		}
+
+	}
+
+	/**
+	 * 输入流提供者。
+	 */
+	static final class StreamSource implements BinarySource {
+
+		private final BinarySource.StreamSupplier supplier;
+
+		private final long length;
+
+		StreamSource(BinarySource.StreamSupplier supplier, long length) {
+			this.supplier = supplier;
+			this.length = length;
+		}
+
+		@Override
+		public long length() {
+			return this.length;
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			return this.supplier.get();
+		}
+
+		@Override
+		public String toString() {
+			return "BinarySource[stream, length=" + this.length + "]";
+		}
+
+	}
+
+	/**
+	 * 读取缓冲区剩余内容的输入流。
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return this.buffer.hasRemaining() ? this.buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+
+	}
+
+	/**
+	 * 最多读取指定字节数的输入流。
+	 */
+	private static final class BoundedInputStream extends InputStream {
+
+		private final InputStream in;
+
+		private long remaining;
+
+		BoundedInputStream(InputStream in, long limit) {
+			this.in = in;
+			this.remaining = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (this.remaining <= 0) {
+				return -1;
+			}
+			int b = this.in.read();
+			if (b >= 0) {
+				this.remaining--;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (this.remaining <= 0) {
+				return -1;
+			}
+			int n = this.in.read(b, off, (int) Math.min(len, this.remaining));
+			if (n > 0) {
+				this.remaining -= n;
+			}
+			return n;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.in.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,57 @@
+package io.modelcontextprotocol.spec.common;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Objects;
+
+/**
+ * 取消通知，告知对方不再等待先前请求的响应。
+ *
+ * @param requestId 被取消请求的ID
+ * @param reason 取消的可选原因
+ */
+@JsonInclude(JsonInclude.Include.NON_ABSENT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CancelledNotification {
+
+	@JsonProperty("requestId")
+	private final Object requestId;
+
+	@JsonProperty("reason")
+	private final String reason;
+
+	public CancelledNotification(@JsonProperty("requestId") Object requestId, @JsonProperty("reason") String reason) {
+		this.requestId = requestId;
+		this.reason = reason;
+	}
+
+	public Object getRequestId() {
+		return requestId;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (o == null || getClass() != o.getClass())
+			return false;
+		CancelledNotification that = (CancelledNotification) o;
+		return Objects.equals(requestId, that.requestId) && Objects.equals(reason, that.reason);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(requestId, reason);
+	}
+
+	@Override
+	public String toString() {
+		return "CancelledNotification{" + "requestId=" + requestId + ", reason='" + reason + '\'' + '}';
+	}
+
+}
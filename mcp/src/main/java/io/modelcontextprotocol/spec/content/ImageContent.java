@@ -4,7 +4,9 @@ import java.util.List;
 import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.modelcontextprotocol.spec.common.BinarySource;
 import io.modelcontextprotocol.spec.common.Role;
 
 /**
@@ -12,7 +14,7 @@ import io.modelcontextprotocol.spec.common.Role;
  *
  * @param audience 目标受众
  * @param priority 优先级
- * @param data 数据
+ * @param data base64编码的数据，或者序列化时流式编码的{@link BinarySource}
  * @param mimeType 媒体类型
  */
 public final class ImageContent implements Content {
@@ -21,19 +23,35 @@ public final class ImageContent implements Content {
 
 	private final Double priority;
 
-	private final String data;
+	private final BinarySource data;
 
 	private final String mimeType;
 
 	@JsonCreator
 	public ImageContent(@JsonProperty("audience") List<Role> audience, @JsonProperty("priority") Double priority,
 			@JsonProperty("data") String data, @JsonProperty("mimeType") String mimeType) {
+		this(audience, priority, (data != null) ? BinarySource.ofBase64(data) : null, mimeType);
+	}
+
+	private ImageContent(List<Role> audience, Double priority, BinarySource data, String mimeType) {
 		this.audience = audience;
 		this.priority = priority;
 		this.data = data;
 		this.mimeType = mimeType;
 	}
 
+	/**
+	 * 使用二进制来源创建，序列化时内容以base64流式写出，不生成中间字符串。
+	 * @param audience 目标受众
+	 * @param priority 优先级
+	 * @param data 图片数据
+	 * @param mimeType 媒体类型
+	 * @return 图片内容
+	 */
+	public static ImageContent of(List<Role> audience, Double priority, BinarySource data, String mimeType) {
+		return new ImageContent(audience, priority, data, mimeType);
+	}
+
 	@Override
 	public String getType() {
 		return "image";
@@ -47,7 +65,17 @@ public final class ImageContent implements Content {
 		return this.priority;
 	}
 
+	/**
+	 * base64编码的数据。对于非base64字符串的来源会读取全部内容，大内容请使用{@link #getDataSource()}。
+	 * @return base64编码的数据
+	 */
+	@JsonIgnore
 	public String getData() {
+		return (this.data != null) ? this.data.toBase64() : null;
+	}
+
+	@JsonProperty("data")
+	public BinarySource getDataSource() {
 		return this.data;
 	}
 
@@ -20,6 +20,12 @@ public final class ErrorCodes {
 	/** 内部错误。 */
 	public static final int INTERNAL_ERROR = -32603;
 
+	/** 服务器繁忙，请求被拒绝（实现自定义的服务器错误）。 */
+	public static final int SERVER_BUSY = -32000;
+
+	/** 请求执行超时（实现自定义的服务器错误）。 */
+	public static final int REQUEST_TIMEOUT = -32001;
+
 	private ErrorCodes() {
 	}
 
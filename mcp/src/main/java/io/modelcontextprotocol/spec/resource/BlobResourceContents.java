@@ -3,14 +3,16 @@ package io.modelcontextprotocol.spec.resource;
 import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.modelcontextprotocol.spec.common.BinarySource;
 
 /**
  * 资源的二进制内容。
  *
  * @param uri 资源URI
  * @param mimeType MIME类型
- * @param blob base64编码的二进制内容
+ * @param blob base64编码的二进制内容，或者序列化时流式编码的{@link BinarySource}
  */
 public final class BlobResourceContents implements ResourceContents {
 
@@ -18,16 +20,31 @@ public final class BlobResourceContents implements ResourceContents {
 
 	private final String mimeType;
 
-	private final String blob;
+	private final BinarySource blob;
 
 	@JsonCreator
 	public BlobResourceContents(@JsonProperty("uri") String uri, @JsonProperty("mimeType") String mimeType,
 			@JsonProperty("blob") String blob) {
+		this(uri, mimeType, (blob != null) ? BinarySource.ofBase64(blob) : null);
+	}
+
+	private BlobResourceContents(String uri, String mimeType, BinarySource blob) {
 		this.uri = uri;
 		this.mimeType = mimeType;
 		this.blob = blob;
 	}
 
+	/**
+	 * 使用二进制来源创建，序列化时内容以base64流式写出，不生成中间字符串。
+	 * @param uri 资源URI
+	 * @param mimeType MIME类型
+	 * @param blob 二进制内容
+	 * @return 资源内容
+	 */
+	public static BlobResourceContents of(String uri, String mimeType, BinarySource blob) {
+		return new BlobResourceContents(uri, mimeType, blob);
+	}
+
 	@Override
 	public String getUri() {
 		return this.uri;
@@ -38,7 +55,17 @@ public final class BlobResourceContents implements ResourceContents {
 		return this.mimeType;
 	}
 
+	/**
+	 * base64编码的内容。对于非base64字符串的来源会读取全部内容，大内容请使用{@link #getBlobSource()}。
+	 * @return base64编码的内容
+	 */
+	@JsonIgnore
 	public String getBlob() {
+		return (this.blob != null) ? this.blob.toBase64() : null;
+	}
+
+	@JsonProperty("blob")
+	public BinarySource getBlobSource() {
 		return this.blob;
 	}
 
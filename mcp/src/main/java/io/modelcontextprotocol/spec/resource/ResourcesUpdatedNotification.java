@@ -0,0 +1,51 @@
+package io.modelcontextprotocol.spec.resource;
+
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 资源内容已更新的通知。
+ *
+ * @param uri 已更新资源的URI
+ */
+@JsonInclude(JsonInclude.Include.NON_ABSENT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class ResourcesUpdatedNotification {
+
+	private final String uri;
+
+	@JsonCreator
+	public ResourcesUpdatedNotification(@JsonProperty("uri") String uri) {
+		this.uri = uri;
+	}
+
+	@JsonProperty("uri")
+	public String getUri() {
+		return this.uri;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (o == null || getClass() != o.getClass())
+			return false;
+		ResourcesUpdatedNotification that = (ResourcesUpdatedNotification) o;
+		return Objects.equals(uri, that.uri);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(uri);
+	}
+
+	@Override
+	public String toString() {
+		return "ResourcesUpdatedNotification{" + "uri='" + uri + '\'' + '}';
+	}
+
+}
@@ -0,0 +1,171 @@
+/*
+* Copyright 2025 - 2025 the original author or authors.
+*/
+package io.modelcontextprotocol.util;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Default {@link SessionIdGenerator} that avoids touching a shared {@link SecureRandom}
+ * for every identifier.
+ *
+ * <p>
+ * The secure random source is only used once, when the generator is created, to seed a
+ * short node prefix and a secret AES key. Each identifier is then derived from the next
+ * value of a shared {@link AtomicLong} counter, encrypted with the node key. Encryption
+ * is a permutation, so identifiers never repeat, and without the key the encrypted part
+ * cannot be predicted from previously issued identifiers. The ciphers are kept in a small
+ * set of stripes chosen by thread, so that concurrent callers rarely wait for each other
+ * while the state stays bounded however many threads, virtual ones included, generate
+ * identifiers.
+ *
+ * <p>
+ * Identifiers consist of the node prefix followed by the encrypted counter, both encoded
+ * with the URL-safe Base64 alphabet, which gives 30 characters that can be used in query
+ * strings without escaping. The shared prefix also tells operators which node issued a
+ * session.
+ */
+public final class DefaultSessionIdGenerator implements SessionIdGenerator {
+
+	private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+		.toCharArray();
+
+	private static final String CIPHER = "AES/ECB/NoPadding";
+
+	/** Upper bound of the number of stripes */
+	private static final int MAX_STRIPES = 64;
+
+	private static final int PREFIX_BYTES = 6;
+
+	private static final int PREFIX_LENGTH = 8;
+
+	private static final int BLOCK_BYTES = 16;
+
+	private static final int ENCODED_BLOCK_LENGTH = 22;
+
+	static final DefaultSessionIdGenerator INSTANCE = new DefaultSessionIdGenerator();
+
+	private final String nodePrefix;
+
+	private final SecretKeySpec key;
+
+	private final long nonce;
+
+	private final AtomicLong counter = new AtomicLong();
+
+	private final Stripe[] stripes;
+
+	/**
+	 * Creates a generator seeded from a new {@link SecureRandom}.
+	 */
+	public DefaultSessionIdGenerator() {
+		this(new SecureRandom());
+	}
+
+	DefaultSessionIdGenerator(SecureRandom random) {
+		byte[] prefix = new byte[PREFIX_BYTES];
+		random.nextBytes(prefix);
+		char[] chars = new char[PREFIX_LENGTH];
+		encode(prefix, 0, PREFIX_BYTES, chars, 0);
+		this.nodePrefix = new String(chars);
+
+		byte[] keyBytes = new byte[BLOCK_BYTES];
+		random.nextBytes(keyBytes);
+		this.key = new SecretKeySpec(keyBytes, "AES");
+		this.nonce = random.nextLong();
+
+		// A power of two, so that threads map to stripes through a mask
+		int processors = Runtime.getRuntime().availableProcessors();
+		this.stripes = new Stripe[Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, processors - 1)) << 1)];
+		for (int i = 0; i < this.stripes.length; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Returns the prefix shared by all identifiers of this generator.
+	 * @return the node prefix
+	 */
+	public String getNodePrefix() {
+		return this.nodePrefix;
+	}
+
+	@Override
+	public String generate() {
+		long counter = this.counter.getAndIncrement();
+		char[] chars = new char[PREFIX_LENGTH + ENCODED_BLOCK_LENGTH];
+		this.nodePrefix.getChars(0, PREFIX_LENGTH, chars, 0);
+
+		Stripe stripe = this.stripes[(int) Thread.currentThread().getId() & (this.stripes.length - 1)];
+		synchronized (stripe) {
+			byte[] input = stripe.input;
+			for (int i = 0; i < 8; i++) {
+				input[i] = (byte) (counter >>> (56 - 8 * i));
+				input[i + 8] = (byte) (this.nonce >>> (56 - 8 * i));
+			}
+			try {
+				stripe.cipher.doFinal(input, 0, BLOCK_BYTES, stripe.output, 0);
+			}
+			catch (GeneralSecurityException e) {
+				throw new IllegalStateException("Failed to generate session id", e);
+			}
+			encode(stripe.output, 0, BLOCK_BYTES, chars, PREFIX_LENGTH);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Encodes bytes with the URL-safe Base64 alphabet, without padding.
+	 */
+	private static void encode(byte[] src, int offset, int length, char[] dst, int dstOffset) {
+		int end = offset + length;
+		int d = dstOffset;
+		int s = offset;
+		for (; s + 2 < end; s += 3) {
+			int bits = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8 | (src[s + 2] & 0xff);
+			dst[d++] = ALPHABET[(bits >>> 18) & 0x3f];
+			dst[d++] = ALPHABET[(bits >>> 12) & 0x3f];
+			dst[d++] = ALPHABET[(bits >>> 6) & 0x3f];
+			dst[d++] = ALPHABET[bits & 0x3f];
+		}
+		int remaining = end - s;
+		if (remaining > 0) {
+			int bits = (src[s] & 0xff) << 16 | (remaining == 2 ? (src[s + 1] & 0xff) << 8 : 0);
+			dst[d++] = ALPHABET[(bits >>> 18) & 0x3f];
+			dst[d++] = ALPHABET[(bits >>> 12) & 0x3f];
+			if (remaining == 2) {
+				dst[d] = ALPHABET[(bits >>> 6) & 0x3f];
+			}
+		}
+	}
+
+	/**
+	 * Cipher and scratch buffers shared by the threads mapped to a stripe, guarded by the
+	 * stripe's monitor.
+	 */
+	private final class Stripe {
+
+		private final Cipher cipher;
+
+		private final byte[] input = new byte[BLOCK_BYTES];
+
+		private final byte[] output = new byte[BLOCK_BYTES];
+
+		Stripe() {
+			try {
+				this.cipher = Cipher.getInstance(CIPHER);
+				this.cipher.init(Cipher.ENCRYPT_MODE, key);
+			}
+			catch (GeneralSecurityException e) {
+				throw new IllegalStateException("AES is not available", e);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+* Copyright 2025 - 2025 the original author or authors.
+*/
+package io.modelcontextprotocol.util;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Schedulers suitable for offloading the blocking handlers of synchronous MCP servers and
+ * clients.
+ *
+ * <p>
+ * This is the Java 11 variant. The SDK jar is a multi-release jar that replaces this
+ * class on Java 21 and later with a variant backed by virtual threads.
+ */
+public final class McpSchedulers {
+
+	private McpSchedulers() {
+	}
+
+	/**
+	 * Returns the scheduler used when no scheduler is configured, which is Reactor's
+	 * {@link Schedulers#boundedElastic() bounded elastic} scheduler.
+	 * @return the default scheduler
+	 */
+	public static Scheduler defaultScheduler() {
+		return Schedulers.boundedElastic();
+	}
+
+	/**
+	 * Returns a shared scheduler starting a new virtual thread for every task, so that a
+	 * large number of blocking handlers can run concurrently without exhausting platform
+	 * threads. Virtual threads require Java 21, on older runtimes this returns the
+	 * {@link #defaultScheduler() default scheduler}. The returned scheduler is shared and
+	 * must not be disposed.
+	 * @return the virtual thread scheduler, or the default scheduler when virtual threads
+	 * are not available
+	 * @see #isVirtualThreadsSupported()
+	 */
+	public static Scheduler virtualThreads() {
+		return defaultScheduler();
+	}
+
+	/**
+	 * Returns whether {@link #virtualThreads()} is backed by virtual threads on this
+	 * runtime.
+	 * @return {@code true} on Java 21 and later
+	 */
+	public static boolean isVirtualThreadsSupported() {
+		return false;
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+* Copyright 2025 - 2025 the original author or authors.
+*/
+package io.modelcontextprotocol.util;
+
+import java.util.UUID;
+
+/**
+ * Strategy for generating the identifiers of MCP sessions. Session identifiers are handed
+ * to HTTP clients as the only credential tying their messages to a session, so
+ * implementations must produce values that are unique and hard to guess.
+ */
+@FunctionalInterface
+public interface SessionIdGenerator {
+
+	/**
+	 * Generates a new session identifier.
+	 * @return the session identifier, never {@code null} or empty
+	 */
+	String generate();
+
+	/**
+	 * Returns the default generator, shared by all servers and transports in this JVM.
+	 * @return the default generator
+	 * @see DefaultSessionIdGenerator
+	 */
+	static SessionIdGenerator defaultGenerator() {
+		return DefaultSessionIdGenerator.INSTANCE;
+	}
+
+	/**
+	 * Returns a generator producing random {@link UUID} strings.
+	 * @return the UUID based generator
+	 */
+	static SessionIdGenerator uuid() {
+		return () -> UUID.randomUUID().toString();
+	}
+
+}
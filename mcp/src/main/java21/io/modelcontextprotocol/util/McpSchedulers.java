@@ -0,0 +1,64 @@
+/*
+* Copyright 2025 - 2025 the original author or authors.
+*/
+package io.modelcontextprotocol.util;
+
+import java.util.concurrent.Executors;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Schedulers suitable for offloading the blocking handlers of synchronous MCP servers and
+ * clients.
+ *
+ * <p>
+ * This is the Java 21 variant, packaged in the versioned section of the multi-release
+ * jar. It backs {@link #virtualThreads()} with virtual threads.
+ */
+public final class McpSchedulers {
+
+	private McpSchedulers() {
+	}
+
+	/**
+	 * Returns the scheduler used when no scheduler is configured, which is Reactor's
+	 * {@link Schedulers#boundedElastic() bounded elastic} scheduler.
+	 * @return the default scheduler
+	 */
+	public static Scheduler defaultScheduler() {
+		return Schedulers.boundedElastic();
+	}
+
+	/**
+	 * Returns a shared scheduler starting a new virtual thread for every task, so that a
+	 * large number of blocking handlers can run concurrently without exhausting platform
+	 * threads. The returned scheduler is shared and must not be disposed.
+	 * @return the virtual thread scheduler
+	 * @see #isVirtualThreadsSupported()
+	 */
+	public static Scheduler virtualThreads() {
+		return VirtualThreads.SCHEDULER;
+	}
+
+	/**
+	 * Returns whether {@link #virtualThreads()} is backed by virtual threads on this
+	 * runtime.
+	 * @return always {@code true} for this variant
+	 */
+	public static boolean isVirtualThreadsSupported() {
+		return true;
+	}
+
+	/**
+	 * Creates the virtual thread scheduler on first use.
+	 */
+	private static final class VirtualThreads {
+
+		private static final Scheduler SCHEDULER = Schedulers.fromExecutorService(
+				Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mcp-virtual-", 0).factory()),
+				"mcp-virtual");
+
+	}
+
+}
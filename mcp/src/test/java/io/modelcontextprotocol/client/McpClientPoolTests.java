@@ -0,0 +1,330 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCRequest;
+import io.modelcontextprotocol.spec.resource.SubscribeRequest;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link McpClientPool}.
+ */
+class McpClientPoolTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private static final CallToolRequest CALL = new CallToolRequest("wait", Map.of());
+
+	private final InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+
+	private final Sinks.Empty<Void> gate = Sinks.empty();
+
+	private final Queue<McpAsyncServerExchange> callers = new ConcurrentLinkedQueue<>();
+
+	private McpAsyncServer server;
+
+	private McpClientPool pool;
+
+	@BeforeEach
+	void setUp() {
+		this.server = McpServer.async(this.transportProvider)
+			.capabilities(ServerCapabilities.builder().tools(false).build())
+			.tools(new McpServerFeatures.AsyncToolSpecification(
+					new Tool("wait", "Waits for the gate", EMPTY_JSON_SCHEMA), (exchange, arguments) -> {
+						this.callers.add(exchange);
+						return this.gate.asMono().thenReturn(new CallToolResult("done", false));
+					}))
+			.build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (this.pool != null) {
+			this.pool.closeGracefully().block(Duration.ofSeconds(5));
+		}
+		this.server.close();
+	}
+
+	@Test
+	void requestsGoToTheLeastBusyMember() {
+		this.pool = McpClientPool.builder(this.transportProvider::createClientTransport).size(2).build();
+		this.pool.initialize().block(Duration.ofSeconds(5));
+		assertThat(this.pool.getSize()).isEqualTo(2);
+		assertThat(this.pool.getServerCapabilities().getTools()).isNotNull();
+
+		List<Disposable> calls = List.of(this.pool.callTool(CALL).subscribe(), this.pool.callTool(CALL).subscribe(),
+				this.pool.callTool(CALL).subscribe(), this.pool.callTool(CALL).subscribe());
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.callers.size() == 4);
+		assertThat(this.pool.getOutstandingRequests()).isEqualTo(4);
+		assertThat(this.callers.stream().distinct().count()).isEqualTo(2);
+		assertThat(this.callers.stream().filter(exchange -> exchange == this.callers.peek()).count()).isEqualTo(2);
+		calls.forEach(Disposable::dispose);
+	}
+
+	@Test
+	void requestsBeyondTheCapWaitForAMember() {
+		this.pool = McpClientPool.builder(this.transportProvider::createClientTransport)
+			.size(2)
+			.maxConcurrencyPerClient(1)
+			.build();
+		this.pool.initialize().block(Duration.ofSeconds(5));
+
+		Mono<CallToolResult> first = this.pool.callTool(CALL);
+		Mono<CallToolResult> second = this.pool.callTool(CALL);
+		Mono<CallToolResult> third = this.pool.callTool(CALL);
+
+		StepVerifier.create(Mono.zip(first, second, third)).then(() -> {
+			await().atMost(Duration.ofSeconds(5)).until(() -> this.callers.size() == 2);
+			assertThat(this.pool.getWaitingRequests()).isEqualTo(1);
+			this.gate.tryEmitEmpty();
+		}).assertNext(results -> assertThat(results.getT3().isError()).isFalse()).verifyComplete();
+
+		assertThat(this.callers).hasSize(3);
+		assertThat(this.pool.getOutstandingRequests()).isZero();
+		assertThat(this.pool.getWaitingRequests()).isZero();
+	}
+
+	@Test
+	void waitingRequestsTimeOut() {
+		this.pool = McpClientPool.builder(this.transportProvider::createClientTransport)
+			.size(1)
+			.maxConcurrencyPerClient(1)
+			.acquireTimeout(Duration.ofMillis(100))
+			.build();
+		this.pool.initialize().block(Duration.ofSeconds(5));
+
+		Disposable running = this.pool.callTool(CALL).subscribe();
+
+		StepVerifier.create(this.pool.ping()).expectError(McpError.class).verify(Duration.ofSeconds(5));
+		assertThat(this.pool.getWaitingRequests()).isZero();
+		running.dispose();
+	}
+
+	@Test
+	void failingMembersAreReplaced() {
+		this.gate.tryEmitEmpty();
+		Queue<BreakableTransport> transports = new ConcurrentLinkedQueue<>();
+		this.pool = McpClientPool.builder(() -> {
+			BreakableTransport transport = new BreakableTransport(this.transportProvider.createClientTransport());
+			transports.add(transport);
+			return transport;
+		}).size(2).maxConsecutiveFailures(2).build();
+		this.pool.initialize().block(Duration.ofSeconds(5));
+
+		transports.peek().broken.set(true);
+		for (int i = 0; i < 4; i++) {
+			this.pool.ping().onErrorResume(error -> Mono.empty()).block(Duration.ofSeconds(5));
+		}
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.pool.getSize() == 2 && transports.size() == 3);
+		assertThat(this.pool.getReplacedClients()).isEqualTo(1);
+		for (int i = 0; i < 4; i++) {
+			StepVerifier.create(this.pool.ping()).expectNextCount(1).verifyComplete();
+		}
+	}
+
+	@Test
+	void idempotentRequestsAreReplayedAfterAReconnect() {
+		Queue<BreakableTransport> transports = new ConcurrentLinkedQueue<>();
+		this.pool = McpClientPool.reconnecting(() -> {
+			BreakableTransport transport = new BreakableTransport(this.transportProvider.createClientTransport());
+			transports.add(transport);
+			return transport;
+		}).idempotentTools("wait").build();
+		this.pool.initialize().block(Duration.ofSeconds(5));
+
+		StepVerifier.create(this.pool.callTool(CALL)).then(() -> {
+			await().atMost(Duration.ofSeconds(5)).until(() -> this.callers.size() == 1);
+			transports.peek().disconnect();
+			await().atMost(Duration.ofSeconds(5)).until(() -> this.callers.size() == 2);
+			this.gate.tryEmitEmpty();
+		}).assertNext(result -> assertThat(result.isError()).isFalse()).verifyComplete();
+
+		assertThat(transports).hasSize(2);
+		assertThat(this.pool.getReplacedClients()).isEqualTo(1);
+	}
+
+	@Test
+	void otherRequestsFailWhenTheConnectionIsLost() {
+		Queue<BreakableTransport> transports = new ConcurrentLinkedQueue<>();
+		this.pool = McpClientPool.reconnecting(() -> {
+			BreakableTransport transport = new BreakableTransport(this.transportProvider.createClientTransport());
+			transports.add(transport);
+			return transport;
+		}).build();
+		this.pool.initialize().block(Duration.ofSeconds(5));
+
+		StepVerifier.create(this.pool.callTool(CALL)).then(() -> {
+			await().atMost(Duration.ofSeconds(5)).until(() -> this.callers.size() == 1);
+			transports.peek().disconnect();
+		}).expectError(IOException.class).verify(Duration.ofSeconds(5));
+
+		this.gate.tryEmitEmpty();
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.pool.getSize() == 1);
+		StepVerifier.create(this.pool.callTool(CALL)).expectNextCount(1).verifyComplete();
+		assertThat(this.callers).hasSize(2);
+	}
+
+	@Test
+	void subscriptionsAreRestoredAfterAReconnect() {
+		Queue<BreakableTransport> transports = new ConcurrentLinkedQueue<>();
+		this.pool = McpClientPool.reconnecting(() -> {
+			BreakableTransport transport = new BreakableTransport(this.transportProvider.createClientTransport());
+			transports.add(transport);
+			return transport;
+		}).build();
+		this.pool.subscribeResource(new SubscribeRequest("file:///notes.txt")).block(Duration.ofSeconds(5));
+		this.pool.initialize().block(Duration.ofSeconds(5));
+		await().atMost(Duration.ofSeconds(5))
+			.until(() -> transports.peek().subscribedUris.contains("file:///notes.txt"));
+
+		transports.peek().disconnect();
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> transports.size() == 2);
+		BreakableTransport replacement = transports.stream().skip(1).findFirst().orElseThrow();
+		await().atMost(Duration.ofSeconds(5)).until(() -> replacement.subscribedUris.contains("file:///notes.txt"));
+	}
+
+	@Test
+	void membersAreClosedWhenInitializationFails() {
+		Queue<BreakableTransport> transports = new ConcurrentLinkedQueue<>();
+		AtomicInteger created = new AtomicInteger();
+		this.pool = McpClientPool.builder(() -> {
+			BreakableTransport transport = new BreakableTransport(this.transportProvider.createClientTransport());
+			if (created.incrementAndGet() == 2) {
+				transport.disconnect();
+			}
+			transports.add(transport);
+			return transport;
+		}).size(2).build();
+
+		StepVerifier.create(this.pool.initialize()).expectError().verify(Duration.ofSeconds(5));
+
+		assertThat(this.pool.getSize()).isZero();
+		await().atMost(Duration.ofSeconds(5))
+			.until(() -> transports.stream().allMatch(transport -> transport.closed.get()));
+		this.pool.initialize().block(Duration.ofSeconds(5));
+		assertThat(this.pool.getSize()).isEqualTo(2);
+	}
+
+	@Test
+	void rejectedSubscriptionsAreNotRestored() {
+		Queue<BreakableTransport> transports = new ConcurrentLinkedQueue<>();
+		this.pool = McpClientPool.reconnecting(() -> {
+			BreakableTransport transport = new BreakableTransport(this.transportProvider.createClientTransport());
+			transports.add(transport);
+			return transport;
+		}).build();
+		this.pool.initialize().block(Duration.ofSeconds(5));
+
+		// The server has no resources capability, so it rejects subscriptions
+		StepVerifier.create(this.pool.subscribeResource(new SubscribeRequest("file:///notes.txt")))
+			.expectError(McpError.class)
+			.verify(Duration.ofSeconds(5));
+		transports.peek().disconnect();
+		await().atMost(Duration.ofSeconds(5)).until(() -> transports.size() == 2 && this.pool.getSize() == 1);
+
+		BreakableTransport replacement = transports.stream().skip(1).findFirst().orElseThrow();
+		StepVerifier.create(this.pool.subscribeResource(new SubscribeRequest("file:///other.txt")))
+			.expectError(McpError.class)
+			.verify(Duration.ofSeconds(5));
+		assertThat(replacement.subscribedUris).containsExactly("file:///other.txt");
+	}
+
+	/**
+	 * Transport whose requests fail once broken, and which can report a lost connection.
+	 */
+	private static final class BreakableTransport implements McpClientTransport {
+
+		private final McpClientTransport delegate;
+
+		private final AtomicBoolean broken = new AtomicBoolean();
+
+		private final Sinks.Empty<Void> disconnected = Sinks.empty();
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		/** URIs of the resource subscriptions sent through the transport */
+		private final Queue<String> subscribedUris = new ConcurrentLinkedQueue<>();
+
+		BreakableTransport(McpClientTransport delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Mono<Void> connect(Function<Mono<JSONRPCMessage>, Mono<JSONRPCMessage>> handler) {
+			return this.delegate.connect(handler);
+		}
+
+		@Override
+		public Mono<Void> sendMessage(JSONRPCMessage message) {
+			if (this.broken.get()) {
+				return Mono.error(new IOException("Connection lost"));
+			}
+			if (message instanceof JSONRPCRequest
+					&& McpSchema.METHOD_RESOURCES_SUBSCRIBE.equals(((JSONRPCRequest) message).getMethod())) {
+				this.subscribedUris.add(((SubscribeRequest) ((JSONRPCRequest) message).getParams()).getUri());
+			}
+			return this.delegate.sendMessage(message);
+		}
+
+		@Override
+		public Mono<Void> onDisconnect() {
+			return this.disconnected.asMono();
+		}
+
+		void disconnect() {
+			this.broken.set(true);
+			this.disconnected.tryEmitEmpty();
+		}
+
+		@Override
+		public Mono<Void> closeGracefully() {
+			this.closed.set(true);
+			return this.delegate.closeGracefully();
+		}
+
+		@Override
+		public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+			return this.delegate.unmarshalFrom(data, typeRef);
+		}
+
+	}
+
+}
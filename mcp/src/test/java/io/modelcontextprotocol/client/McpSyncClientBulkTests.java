@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.resource.ReadResourceResult;
+import io.modelcontextprotocol.spec.resource.Resource;
+import io.modelcontextprotocol.spec.resource.TextResourceContents;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the bulk operations of {@link McpSyncClient}.
+ */
+class McpSyncClientBulkTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private final InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final AtomicInteger maxActive = new AtomicInteger();
+
+	private McpAsyncServer server;
+
+	private McpSyncClient client;
+
+	@BeforeEach
+	void setUp() {
+		this.server = McpServer.async(this.transportProvider)
+			.capabilities(ServerCapabilities.builder().tools(false).resources(false, false).build())
+			.tools(new McpServerFeatures.AsyncToolSpecification(new Tool("echo", "Echoes its text", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> {
+						String text = (String) arguments.get("text");
+						if ("fail".equals(text)) {
+							return Mono.error(new IllegalStateException("Failed to echo"));
+						}
+						this.maxActive.accumulateAndGet(this.active.incrementAndGet(), Math::max);
+						return Mono.delay(Duration.ofMillis(20))
+							.thenReturn(new CallToolResult(text, false))
+							.doOnNext(result -> this.active.decrementAndGet());
+					}))
+			.resources(resource("file:///a.txt"), resource("file:///b.txt"))
+			.build();
+		this.client = McpClient.sync(this.transportProvider.createClientTransport()).bulkConcurrency(3).build();
+		this.client.initialize();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.client.closeGracefully();
+		this.server.close();
+	}
+
+	@Test
+	void toolCallsArePipelinedAndReturnedInOrder() {
+		List<CallToolRequest> requests = IntStream.range(0, 12)
+			.mapToObj(i -> new CallToolRequest("echo", Map.of("text", "call " + i)))
+			.collect(Collectors.toList());
+
+		List<BulkResult<CallToolResult>> results = this.client.callTools(requests);
+
+		assertThat(results).hasSize(12);
+		for (int i = 0; i < 12; i++) {
+			assertThat(((TextContent) results.get(i).getOrThrow().getContent().get(0)).getText())
+				.isEqualTo("call " + i);
+		}
+		assertThat(this.maxActive).hasValueBetween(2, 3);
+	}
+
+	@Test
+	void failedToolCallsDoNotFailTheOthers() {
+		List<BulkResult<CallToolResult>> results = this.client
+			.callTools(List.of(new CallToolRequest("echo", Map.of("text", "first")),
+					new CallToolRequest("echo", Map.of("text", "fail")), new CallToolRequest("missing", Map.of()),
+					new CallToolRequest("echo", Map.of("text", "last"))));
+
+		assertThat(results).extracting(BulkResult::isSuccess).containsExactly(true, false, false, true);
+		assertThat(results.get(1).getError()).isInstanceOf(McpError.class);
+		assertThatThrownBy(() -> results.get(2).getOrThrow()).isInstanceOf(McpError.class);
+		assertThat(((TextContent) results.get(3).getResult().getContent().get(0)).getText()).isEqualTo("last");
+	}
+
+	@Test
+	void resourcesAreReadInOrder() {
+		List<BulkResult<ReadResourceResult>> results = this.client
+			.readResources(List.of("file:///b.txt", "file:///missing.txt", "file:///a.txt"));
+
+		assertThat(results).extracting(BulkResult::isSuccess).containsExactly(true, false, true);
+		assertThat(((TextResourceContents) results.get(0).getResult().getContents().get(0)).getText())
+			.isEqualTo("file:///b.txt");
+		assertThat(((TextResourceContents) results.get(2).getResult().getContents().get(0)).getText())
+			.isEqualTo("file:///a.txt");
+		assertThat(this.client.readResources(List.of())).isEmpty();
+	}
+
+	private static McpServerFeatures.AsyncResourceSpecification resource(String uri) {
+		return new McpServerFeatures.AsyncResourceSpecification(new Resource(uri, uri, null, "text/plain", null),
+				(exchange, request) -> Mono.just(new ReadResourceResult(
+						List.of(new TextResourceContents(request.getUri(), "text/plain", request.getUri())))));
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.modelcontextprotocol.client.OverloadMetrics.CircuitState;
+import io.modelcontextprotocol.spec.McpError;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link OverloadGuard}.
+ */
+class OverloadGuardTests {
+
+	private final AtomicInteger sent = new AtomicInteger();
+
+	@Test
+	void requestsBeyondTheLimitQueueThenAreRejected() {
+		OverloadGuard guard = OverloadGuard
+			.of(OverloadPolicy.builder().adaptiveLimit(2, 1, 10).queue(1, Duration.ofSeconds(5)).build());
+		Sinks.One<String> first = Sinks.one();
+		Sinks.One<String> second = Sinks.one();
+
+		guard.guard(() -> send(first.asMono())).subscribe();
+		guard.guard(() -> send(second.asMono())).subscribe();
+
+		StepVerifier.create(guard.guard(() -> send(Mono.just("queued")))).then(() -> {
+			assertThat(guard.metrics().getQueuedRequests()).isEqualTo(1);
+			StepVerifier.create(guard.guard(() -> send(Mono.just("rejected")))).expectError(McpError.class).verify();
+			first.tryEmitValue("first");
+		}).expectNext("queued").verifyComplete();
+
+		assertThat(this.sent).hasValue(3);
+		OverloadMetrics metrics = guard.metrics();
+		assertThat(metrics.getInFlightRequests()).isEqualTo(1);
+		assertThat(metrics.getQueuedRequests()).isZero();
+		assertThat(metrics.getRejectedRequests()).isEqualTo(1);
+	}
+
+	@Test
+	void queuedRequestsTimeOut() {
+		OverloadGuard guard = OverloadGuard
+			.of(OverloadPolicy.builder().adaptiveLimit(1, 1, 10).queue(1, Duration.ofMillis(50)).build());
+		guard.guard(() -> send(Mono.never())).subscribe();
+
+		StepVerifier.create(guard.guard(() -> send(Mono.just("queued")))).expectError(McpError.class).verify();
+
+		assertThat(this.sent).hasValue(1);
+		assertThat(guard.metrics().getQueuedRequests()).isZero();
+		assertThat(guard.metrics().getRejectedRequests()).isEqualTo(1);
+	}
+
+	@Test
+	void limitShrinksWhenTheServerIsOverloaded() {
+		OverloadGuard guard = OverloadGuard.of(OverloadPolicy.builder().adaptiveLimit(10, 1, 100).build());
+
+		guard.guard(() -> send(Mono.just("fast"))).block();
+		assertThat(guard.metrics().getConcurrencyLimit()).isEqualTo(10);
+
+		guard.guard(() -> send(Mono.delay(Duration.ofMillis(50)))).block();
+		assertThat(guard.metrics().getConcurrencyLimit()).isEqualTo(9);
+
+		StepVerifier.create(guard.guard(() -> send(Mono.error(new TimeoutException()))))
+			.expectError(TimeoutException.class)
+			.verify();
+		assertThat(guard.metrics().getConcurrencyLimit()).isEqualTo(8);
+
+		StepVerifier.create(guard.guard(() -> send(Mono.error(new McpError("Invalid params")))))
+			.expectError(McpError.class)
+			.verify();
+		assertThat(guard.metrics().getConcurrencyLimit()).isEqualTo(8);
+	}
+
+	@Test
+	void limitGrowsWhileHalfOfItIsInUse() {
+		// A frozen clock, so that the second response never counts as slower than the
+		// first
+		OverloadGuard guard = OverloadGuard.of(OverloadPolicy.builder().adaptiveLimit(4, 1, 100).build(), () -> 0L);
+		Sinks.Empty<Void> gate = Sinks.empty();
+
+		guard.guard(() -> send(gate.asMono().thenReturn("first"))).subscribe();
+		guard.guard(() -> send(gate.asMono().thenReturn("second"))).subscribe();
+		assertThat(guard.metrics().getInFlightRequests()).isEqualTo(2);
+		gate.tryEmitEmpty();
+
+		assertThat(guard.metrics().getConcurrencyLimit()).isEqualTo(5);
+		assertThat(guard.metrics().getInFlightRequests()).isZero();
+	}
+
+	@Test
+	void circuitOpensOnFailuresAndClosesAfterAProbe() {
+		OverloadGuard guard = OverloadGuard
+			.of(OverloadPolicy.builder().circuitBreaker(0.5, 4, Duration.ofMillis(100)).build());
+
+		for (int i = 0; i < 4; i++) {
+			guard.guard(() -> send(Mono.error(new McpError("Invalid params"))))
+				.onErrorResume(e -> Mono.empty())
+				.block();
+		}
+		assertThat(guard.metrics().getCircuitState()).isEqualTo(CircuitState.CLOSED);
+
+		guard.guard(() -> send(Mono.error(new TimeoutException()))).onErrorResume(e -> Mono.empty()).block();
+		guard.guard(() -> send(Mono.error(new TimeoutException()))).onErrorResume(e -> Mono.empty()).block();
+		assertThat(guard.metrics().getCircuitState()).isEqualTo(CircuitState.OPEN);
+
+		StepVerifier.create(guard.guard(() -> send(Mono.just("rejected")))).expectError(McpError.class).verify();
+		assertThat(this.sent).hasValue(6);
+		assertThat(guard.metrics().getShortCircuitedRequests()).isEqualTo(1);
+
+		await().atMost(Duration.ofSeconds(5))
+			.pollDelay(Duration.ofMillis(100))
+			.until(() -> "probe".equals(guard.guard(() -> send(Mono.just("probe"))).onErrorReturn("rejected").block()));
+		assertThat(guard.metrics().getCircuitState()).isEqualTo(CircuitState.CLOSED);
+	}
+
+	private <T> Mono<T> send(Mono<T> response) {
+		this.sent.incrementAndGet();
+		return response;
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.util.concurrent.CountDownLatch;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stdio server launched by the tests, with a tool returning its process id and one making
+ * it crash.
+ */
+public final class ProcessIdServer {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private ProcessIdServer() {
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		// Standard output carries the protocol
+		((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+
+		McpServer.sync(new StdioServerTransportProvider())
+			.capabilities(ServerCapabilities.builder().tools(false).build())
+			.tools(new McpServerFeatures.SyncToolSpecification(new Tool("pid", "Process id", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> new CallToolResult(String.valueOf(ProcessHandle.current().pid()), false)),
+					new McpServerFeatures.SyncToolSpecification(new Tool("crash", "Exits", EMPTY_JSON_SCHEMA),
+							(exchange, arguments) -> {
+								Runtime.getRuntime().halt(3);
+								return null;
+							}))
+			.build();
+		new CountDownLatch(1).await();
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RequestPolicies}.
+ */
+class RequestPoliciesTests {
+
+	private final AtomicInteger sent = new AtomicInteger();
+
+	private final Deque<Mono<String>> responses = new ArrayDeque<>();
+
+	private final Supplier<Mono<String>> request = () -> {
+		this.sent.incrementAndGet();
+		return this.responses.poll();
+	};
+
+	@Test
+	void slowRequestsAreHedgedAndTheLoserCancelled() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		this.responses.add(Mono.<String>never().doOnCancel(() -> cancelled.set(true)));
+		this.responses.add(Mono.just("hedge"));
+		RequestPolicies policies = policies(RequestPolicy.builder().hedgeAfter(Duration.ofMillis(50)).build());
+
+		StepVerifier.create(policies.send(McpSchema.METHOD_TOOLS_LIST, null, this.request))
+			.expectNext("hedge")
+			.verifyComplete();
+
+		assertThat(this.sent).hasValue(2);
+		assertThat(cancelled).isTrue();
+	}
+
+	@Test
+	void fastRequestsAreNotHedged() {
+		this.responses.add(Mono.just("first"));
+		RequestPolicies policies = policies(RequestPolicy.builder().hedgeAfter(Duration.ofMillis(50)).build());
+
+		StepVerifier.create(policies.send(McpSchema.METHOD_TOOLS_LIST, null, this.request))
+			.expectNext("first")
+			.verifyComplete();
+		StepVerifier.create(Mono.delay(Duration.ofMillis(100))).expectNextCount(1).verifyComplete();
+
+		assertThat(this.sent).hasValue(1);
+	}
+
+	@Test
+	void failedRequestsAreRetriedUnlessTheServerAnswered() {
+		this.responses.add(Mono.error(new IOException("Connection reset")));
+		this.responses.add(Mono.just("retried"));
+		this.responses.add(Mono.error(new McpError("Invalid params")));
+		RequestPolicies policies = policies(RequestPolicy.builder().retries(2, Duration.ofMillis(1)).build());
+
+		StepVerifier.create(policies.send(McpSchema.METHOD_TOOLS_LIST, null, this.request))
+			.expectNext("retried")
+			.verifyComplete();
+		StepVerifier.create(policies.send(McpSchema.METHOD_TOOLS_LIST, null, this.request))
+			.expectError(McpError.class)
+			.verify();
+
+		assertThat(this.sent).hasValue(3);
+	}
+
+	@Test
+	void retriesStopWhenTheBudgetIsSpent() {
+		for (int i = 0; i < 4; i++) {
+			this.responses.add(Mono.error(new IOException("Connection reset")));
+		}
+		RequestPolicies policies = policies(
+				RequestPolicy.builder().retries(5, Duration.ofMillis(1)).retryBudget(0.01, 2).build());
+
+		StepVerifier.create(policies.send(McpSchema.METHOD_TOOLS_LIST, null, this.request))
+			.expectError(IOException.class)
+			.verify();
+		assertThat(this.sent).hasValue(3);
+
+		StepVerifier.create(policies.send(McpSchema.METHOD_TOOLS_LIST, null, this.request))
+			.expectError(IOException.class)
+			.verify();
+		assertThat(this.sent).hasValue(4);
+	}
+
+	@Test
+	void toolCallsUseThePolicyOfTheirTool() {
+		this.responses.add(Mono.error(new IOException("Connection reset")));
+		this.responses.add(Mono.just("retried"));
+		this.responses.add(Mono.error(new IOException("Connection reset")));
+		RequestPolicies policies = RequestPolicies.of(Map.of(),
+				Map.of("search", RequestPolicy.builder().retries(1, Duration.ofMillis(1)).build()));
+
+		StepVerifier
+			.create(policies.send(McpSchema.METHOD_TOOLS_CALL, new CallToolRequest("search", Map.of()), this.request))
+			.expectNext("retried")
+			.verifyComplete();
+		StepVerifier
+			.create(policies.send(McpSchema.METHOD_TOOLS_CALL, new CallToolRequest("delete", Map.of()), this.request))
+			.expectError(IOException.class)
+			.verify();
+
+		assertThat(this.sent).hasValue(3);
+	}
+
+	private static RequestPolicies policies(RequestPolicy policy) {
+		return RequestPolicies.of(Map.of(McpSchema.METHOD_TOOLS_LIST, policy), Map.of());
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.common.Role;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.sampling.CreateMessageRequest;
+import io.modelcontextprotocol.spec.sampling.CreateMessageResult;
+import io.modelcontextprotocol.spec.sampling.SamplingMessage;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SamplingExecutor}.
+ */
+class SamplingExecutorTests {
+
+	private final List<String> started = new CopyOnWriteArrayList<>();
+
+	private final Map<String, Sinks.One<CreateMessageResult>> results = new ConcurrentHashMap<>();
+
+	private final Object firstSession = new Object();
+
+	private final Object secondSession = new Object();
+
+	@Test
+	void requestsBeyondTheLimitQueueThenAreRejected() {
+		SamplingExecutor executor = SamplingExecutor.builder()
+			.maxConcurrency(1)
+			.queue(1, Duration.ofSeconds(5))
+			.build();
+
+		executor.execute(this.firstSession, request("first"), this::handle).subscribe();
+		StepVerifier.create(executor.execute(this.firstSession, request("queued"), this::handle)).then(() -> {
+			assertThat(executor.metrics().getActiveRequests()).isEqualTo(1);
+			assertThat(executor.metrics().getQueuedRequests()).isEqualTo(1);
+			StepVerifier.create(executor.execute(this.secondSession, request("rejected"), this::handle))
+				.expectError(McpError.class)
+				.verify();
+			assertThat(this.started).containsExactly("first");
+			answer("first");
+			answer("queued");
+		}).expectNextCount(1).verifyComplete();
+
+		assertThat(this.started).containsExactly("first", "queued");
+		SamplingMetrics metrics = executor.metrics();
+		assertThat(metrics.getActiveRequests()).isZero();
+		assertThat(metrics.getQueuedRequests()).isZero();
+		assertThat(metrics.getRejectedRequests()).isEqualTo(1);
+		assertThat(metrics.getMaxQueueWait()).isPositive();
+	}
+
+	@Test
+	void queuedRequestsTimeOut() {
+		SamplingExecutor executor = SamplingExecutor.builder()
+			.maxConcurrency(1)
+			.queue(1, Duration.ofMillis(50))
+			.build();
+		executor.execute(this.firstSession, request("first"), this::handle).subscribe();
+
+		StepVerifier.create(executor.execute(this.firstSession, request("queued"), this::handle))
+			.expectError(McpError.class)
+			.verify();
+
+		assertThat(this.started).containsExactly("first");
+		assertThat(executor.metrics().getQueuedRequests()).isZero();
+		assertThat(executor.metrics().getRejectedRequests()).isEqualTo(1);
+	}
+
+	@Test
+	void sessionsAreServedInTurn() {
+		SamplingExecutor executor = SamplingExecutor.builder().maxConcurrency(1).build();
+
+		executor.execute(this.firstSession, request("a1"), this::handle).subscribe();
+		executor.execute(this.firstSession, request("a2"), this::handle).subscribe();
+		executor.execute(this.firstSession, request("a3"), this::handle).subscribe();
+		executor.execute(this.secondSession, request("b1"), this::handle).subscribe();
+		assertThat(executor.metrics().getQueuedRequests()).isEqualTo(3);
+
+		answer("a1");
+		answer("a2");
+		answer("b1");
+
+		assertThat(this.started).containsExactly("a1", "a2", "b1", "a3");
+	}
+
+	@Test
+	void equalConcurrentRequestsShareOneResult() {
+		SamplingExecutor executor = SamplingExecutor.builder().deduplicate(true).build();
+
+		StepVerifier.create(executor.execute(this.firstSession, request("same"), this::handle))
+			.then(() -> StepVerifier.create(executor.execute(this.secondSession, request("same"), this::handle))
+				.then(() -> answer("same"))
+				.expectNextCount(1)
+				.verifyComplete())
+			.expectNextCount(1)
+			.verifyComplete();
+
+		assertThat(this.started).containsExactly("same");
+		assertThat(executor.metrics().getDeduplicatedRequests()).isEqualTo(1);
+
+		// Once answered, an equal request runs the handler again
+		executor.execute(this.firstSession, request("same"), this::handle).subscribe();
+		assertThat(this.started).containsExactly("same", "same");
+	}
+
+	private Mono<CreateMessageResult> handle(CreateMessageRequest request) {
+		String prompt = ((TextContent) request.getMessages().get(0).getContent()).getText();
+		this.started.add(prompt);
+		return this.results.computeIfAbsent(prompt, key -> Sinks.one()).asMono();
+	}
+
+	private void answer(String prompt) {
+		this.results.computeIfAbsent(prompt, key -> Sinks.one())
+			.tryEmitValue(CreateMessageResult.builder().content(new TextContent("answer to " + prompt)).build());
+		this.results.remove(prompt);
+	}
+
+	private static CreateMessageRequest request(String prompt) {
+		return CreateMessageRequest.builder()
+			.messages(List.of(new SamplingMessage(Role.USER, new TextContent(prompt))))
+			.build();
+	}
+
+}
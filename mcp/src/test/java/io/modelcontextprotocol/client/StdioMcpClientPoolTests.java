@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.client;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import reactor.core.publisher.Flux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for the {@link McpClientPool} of stdio server processes.
+ */
+@Timeout(60)
+class StdioMcpClientPoolTests {
+
+	private static final CallToolRequest PID = new CallToolRequest("pid", Map.of());
+
+	private McpClientPool pool;
+
+	@BeforeEach
+	void setUp() {
+		ServerParameters params = ServerParameters
+			.builder(Paths.get(System.getProperty("java.home"), "bin", "java").toString())
+			.args("-cp", System.getProperty("java.class.path"), ProcessIdServer.class.getName())
+			.build();
+		this.pool = McpClientPool.stdio(params)
+			.size(2)
+			.initializationTimeout(Duration.ofSeconds(30))
+			.clientCustomizer(spec -> spec.requestTimeout(Duration.ofSeconds(10)))
+			.build();
+		this.pool.initialize().block();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.pool.closeGracefully().block(Duration.ofSeconds(10));
+	}
+
+	@Test
+	void requestsAreSpreadOverTheProcesses() {
+		assertThat(processIds(8)).hasSize(2);
+	}
+
+	@Test
+	void crashedProcessesAreRespawned() {
+		Set<String> before = processIds(8);
+
+		this.pool.callTool(new CallToolRequest("crash", Map.of())).subscribe(result -> {
+		}, error -> {
+		});
+
+		await().atMost(Duration.ofSeconds(30))
+			.until(() -> this.pool.getReplacedClients() == 1 && this.pool.getSize() == 2);
+		Set<String> after = processIds(8);
+		assertThat(after).hasSize(2);
+		assertThat(after).containsAnyElementsOf(before);
+		assertThat(after).isNotEqualTo(before);
+	}
+
+	private Set<String> processIds(int calls) {
+		Set<String> processIds = ConcurrentHashMap.newKeySet();
+		Flux.range(0, calls)
+			.flatMap(i -> this.pool.callTool(PID))
+			.map(StdioMcpClientPoolTests::text)
+			.doOnNext(processIds::add)
+			.blockLast(Duration.ofSeconds(30));
+		return processIds;
+	}
+
+	private static String text(CallToolResult result) {
+		return ((TextContent) result.getContent().get(0)).getText();
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ */
+class LatencyHistogramTests {
+
+	@Test
+	void bucketsBoundValuesWithinTheirPrecision() {
+		for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 1_000, 123_456, 1_000_000_000L, 1L << 40 }) {
+			long upperBound = LatencyHistogram.upperBound(LatencyHistogram.bucket(value));
+			assertThat(upperBound).isGreaterThanOrEqualTo(value);
+			assertThat(upperBound - value).isLessThanOrEqualTo(value / 8);
+		}
+		assertThat(LatencyHistogram.bucket(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.bucket(1L << 41));
+	}
+
+	@Test
+	void percentilesAreReportedFromTheBuckets() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThat(histogram.getValueAtPercentile(0.5)).isZero();
+
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 1_000_000L);
+		}
+
+		assertThat(histogram.getCount()).isEqualTo(100);
+		assertThat(histogram.getTotal()).isEqualTo(5_050_000_000L);
+		assertThat(histogram.getMax()).isEqualTo(100_000_000L);
+		assertThat(histogram.getValueAtPercentile(0.5)).isBetween(50_000_000L, 50_000_000L * 9 / 8);
+		assertThat(histogram.getValueAtPercentile(0.99)).isBetween(99_000_000L, 100_000_000L);
+		assertThat(histogram.getValueAtPercentile(1)).isEqualTo(100_000_000L);
+	}
+
+	@Test
+	void negativeLatenciesAreCountedAsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		histogram.record(-5);
+
+		assertThat(histogram.getCount()).isEqualTo(1);
+		assertThat(histogram.getMax()).isZero();
+		assertThat(histogram.getValueAtPercentile(0.5)).isZero();
+	}
+
+}
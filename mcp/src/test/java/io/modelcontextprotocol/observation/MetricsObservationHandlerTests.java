@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link MetricsObservationHandler}.
+ */
+class MetricsObservationHandlerTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private final MetricsObservationHandler serverMetrics = new MetricsObservationHandler();
+
+	private final MetricsObservationHandler clientMetrics = new MetricsObservationHandler();
+
+	private final InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+
+	private final McpSyncServer server = McpServer.sync(this.transportProvider)
+		.serverInfo("test-server", "1.0.0")
+		.capabilities(ServerCapabilities.builder().tools(true).build())
+		.tools(new McpServerFeatures.SyncToolSpecification(new Tool("echo", "Echo", EMPTY_JSON_SCHEMA),
+				(exchange, args) -> new CallToolResult(List.of(new TextContent("echo")), false)))
+		.observationHandler(this.serverMetrics)
+		.build();
+
+	@AfterEach
+	void after() {
+		this.server.closeGracefully();
+	}
+
+	@Test
+	void requestsAreMeasuredPerMethodAndTool() {
+		try (McpSyncClient client = McpClient.sync(this.transportProvider.createClientTransport())
+			.observationHandler(this.clientMetrics)
+			.build()) {
+			client.initialize();
+			for (int i = 0; i < 3; i++) {
+				client.callTool(new CallToolRequest("echo", Map.of()));
+			}
+			assertThatThrownBy(() -> client.callTool(new CallToolRequest("missing", Map.of())))
+				.isInstanceOf(McpError.class);
+		}
+
+		MethodMetrics echo = find(this.serverMetrics, McpSchema.METHOD_TOOLS_CALL, "echo");
+		assertThat(echo.getSide()).isEqualTo(McpObservationContext.Side.SERVER);
+		assertThat(echo.getKind()).isEqualTo(McpObservationContext.Kind.REQUEST);
+		assertThat(echo.getCount()).isEqualTo(3);
+		assertThat(echo.getErrorCount()).isZero();
+		assertThat(echo.getInFlight()).isZero();
+		assertThat(echo.getP99()).isLessThanOrEqualTo(echo.getMax());
+
+		MethodMetrics other = find(this.serverMetrics, McpSchema.METHOD_TOOLS_CALL, MetricsObservationHandler.OTHER);
+		assertThat(other.getCount()).isEqualTo(1);
+		assertThat(other.getErrorCount()).isEqualTo(1);
+		assertThat(this.serverMetrics.getMetrics()).extracting(MethodMetrics::getToolName).doesNotContain("missing");
+
+		MethodMetrics initialized = find(this.serverMetrics, McpSchema.METHOD_NOTIFICATION_INITIALIZED, null);
+		assertThat(initialized.getKind()).isEqualTo(McpObservationContext.Kind.NOTIFICATION);
+		assertThat(initialized.getCount()).isEqualTo(1);
+
+		MethodMetrics sent = find(this.clientMetrics, McpSchema.METHOD_TOOLS_CALL, "echo");
+		assertThat(sent.getSide()).isEqualTo(McpObservationContext.Side.CLIENT);
+		assertThat(sent.getKind()).isEqualTo(McpObservationContext.Kind.OUTGOING_REQUEST);
+		assertThat(sent.getCount()).isEqualTo(3);
+		assertThat(find(this.clientMetrics, McpSchema.METHOD_TOOLS_CALL, "missing").getErrorCount()).isEqualTo(1);
+	}
+
+	@Test
+	void unhandledMethodsAreMeasuredAsOther() {
+		for (String method : List.of("unknown/a", "unknown/b")) {
+			this.serverMetrics
+				.onReceive(
+						new McpObservationContext(McpObservationContext.Side.SERVER, McpObservationContext.Kind.REQUEST,
+								"session", method, 1, null, McpSchema.METHOD_PING::equals, null))
+				.onComplete(null);
+		}
+
+		MethodMetrics other = find(this.serverMetrics, MetricsObservationHandler.OTHER, null);
+		assertThat(other.getCount()).isEqualTo(2);
+		assertThat(this.serverMetrics.getMetrics()).extracting(MethodMetrics::getMethod)
+			.doesNotContain("unknown/a", "unknown/b");
+	}
+
+	@Test
+	void resetDiscardsMetrics() {
+		try (McpSyncClient client = McpClient.sync(this.transportProvider.createClientTransport()).build()) {
+			client.initialize();
+			client.ping();
+		}
+		assertThat(this.serverMetrics.getMetrics()).extracting(MethodMetrics::getMethod)
+			.contains(McpSchema.METHOD_INITIALIZE, McpSchema.METHOD_PING);
+
+		this.serverMetrics.reset();
+
+		assertThat(this.serverMetrics.getMetrics()).isEmpty();
+	}
+
+	private static MethodMetrics find(MetricsObservationHandler handler, String method, String toolName) {
+		Predicate<MethodMetrics> matches = metrics -> method.equals(metrics.getMethod())
+				&& (toolName == null || toolName.equals(metrics.getToolName()));
+		return handler.getMetrics().stream().filter(matches).findFirst().orElseThrow();
+	}
+
+}
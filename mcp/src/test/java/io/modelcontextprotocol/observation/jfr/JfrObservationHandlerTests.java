@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.observation.McpObservation;
+import io.modelcontextprotocol.observation.McpObservationContext;
+import io.modelcontextprotocol.observation.McpObservationHandler;
+import io.modelcontextprotocol.observation.MetricsObservationHandler;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link JfrObservationHandler}.
+ */
+class JfrObservationHandlerTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	@TempDir
+	Path tempDir;
+
+	private final MetricsObservationHandler serverMetrics = new MetricsObservationHandler();
+
+	private final InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+
+	private final McpSyncServer server = McpServer.sync(this.transportProvider)
+		.serverInfo("test-server", "1.0.0")
+		.capabilities(ServerCapabilities.builder().tools(true).build())
+		.tools(new McpServerFeatures.SyncToolSpecification(new Tool("echo", "Echo", EMPTY_JSON_SCHEMA),
+				(exchange, args) -> new CallToolResult(List.of(new TextContent("echo")), false)),
+				new McpServerFeatures.SyncToolSpecification(new Tool("slow", "Slow", EMPTY_JSON_SCHEMA),
+						(exchange, args) -> {
+							sleep(Duration.ofMillis(500));
+							return new CallToolResult(List.of(new TextContent("slow")), false);
+						}))
+		.observationHandler(McpObservationHandler.composite(new JfrObservationHandler(), this.serverMetrics))
+		.build();
+
+	@AfterEach
+	void after() {
+		this.server.closeGracefully();
+	}
+
+	@Test
+	void requestsAndNotificationsAreRecorded() throws Exception {
+		List<RecordedEvent> events;
+		try (Recording recording = recording()) {
+			recording.start();
+			try (McpSyncClient client = McpClient.sync(this.transportProvider.createClientTransport())
+				.observationHandler(new JfrObservationHandler())
+				.build()) {
+				client.initialize();
+				client.callTool(new CallToolRequest("echo", Map.of()));
+			}
+			awaitServerCompletion(McpSchema.METHOD_TOOLS_CALL);
+			events = stop(recording);
+		}
+
+		List<RecordedEvent> requests = named(events, McpRequestEvent.NAME);
+		RecordedEvent handled = requests.stream()
+			.filter(event -> "server".equals(event.getString("side")) && "echo".equals(event.getString("tool")))
+			.findFirst()
+			.orElseThrow();
+		assertThat(handled.getString("method")).isEqualTo(McpSchema.METHOD_TOOLS_CALL);
+		assertThat(handled.getBoolean("outgoing")).isFalse();
+		assertThat(handled.getString("sessionId")).isNotNull();
+		assertThat(handled.getString("error")).isNull();
+		assertThat(requests).anyMatch(event -> "client".equals(event.getString("side")) && event.getBoolean("outgoing")
+				&& "echo".equals(event.getString("tool")));
+
+		assertThat(named(events, McpNotificationEvent.NAME))
+			.anyMatch(event -> McpSchema.METHOD_NOTIFICATION_INITIALIZED.equals(event.getString("method")));
+	}
+
+	@Test
+	void timeoutsAreRecorded() throws Exception {
+		List<RecordedEvent> events;
+		try (Recording recording = recording()) {
+			recording.start();
+			try (McpSyncClient client = McpClient.sync(this.transportProvider.createClientTransport())
+				.requestTimeout(Duration.ofMillis(100))
+				.observationHandler(new JfrObservationHandler())
+				.build()) {
+				client.initialize();
+				assertThatThrownBy(() -> client.callTool(new CallToolRequest("slow", Map.of())))
+					.hasRootCauseInstanceOf(TimeoutException.class);
+			}
+			events = stop(recording);
+		}
+
+		RecordedEvent timeout = named(events, McpRequestTimeoutEvent.NAME).get(0);
+		assertThat(timeout.getString("side")).isEqualTo("client");
+		assertThat(timeout.getString("tool")).isEqualTo("slow");
+		assertThat(timeout.getLong("elapsed")).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+	}
+
+	@Test
+	void nothingIsObservedWithoutRecording() {
+		assertThat(new JfrObservationHandler().onReceive(new McpObservationContext(McpObservationContext.Side.SERVER,
+				McpObservationContext.Kind.REQUEST, "session", McpSchema.METHOD_PING, 1, null)))
+			.isSameAs(McpObservation.NOOP);
+	}
+
+	/**
+	 * Waits until the server has written its response, which may happen after the client
+	 * received it.
+	 */
+	private void awaitServerCompletion(String method) {
+		await().atMost(Duration.ofSeconds(5))
+			.until(() -> this.serverMetrics.getMetrics()
+				.stream()
+				.anyMatch(metrics -> method.equals(metrics.getMethod()) && metrics.getCount() > 0
+						&& metrics.getInFlight() == 0));
+	}
+
+	private static Recording recording() {
+		Recording recording = new Recording();
+		for (Class<? extends Event> type : List.of(McpRequestEvent.class, McpNotificationEvent.class,
+				McpRequestTimeoutEvent.class, McpRequestCancelledEvent.class)) {
+			recording.enable(type).withThreshold(Duration.ZERO);
+		}
+		return recording;
+	}
+
+	private List<RecordedEvent> stop(Recording recording) throws Exception {
+		recording.stop();
+		Path file = this.tempDir.resolve("mcp.jfr");
+		recording.dump(file);
+		return RecordingFile.readAllEvents(file);
+	}
+
+	private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+		return events.stream()
+			.filter(event -> name.equals(event.getEventType().getName()))
+			.collect(Collectors.toList());
+	}
+
+	private static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration.toMillis());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.observation.jfr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link McpStdioFrameEvent} and {@link McpMessageSendEvent}.
+ */
+class McpTransportEventsTests {
+
+	private static final String INITIALIZE = "{\"type\":\"request\",\"jsonrpc\":\"2.0\","
+			+ "\"method\":\"initialize\",\"id\":1,\"params\":{\"protocolVersion\":\"2024-11-05\",\"capabilities\":{},"
+			+ "\"clientInfo\":{\"name\":\"test-client\",\"version\":\"1.0.0\"}}}";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void stdioFramesAndSendsAreRecorded() throws Exception {
+		PipedOutputStream stdin = new PipedOutputStream();
+		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		StdioServerTransportProvider transportProvider = new StdioServerTransportProvider(new ObjectMapper(),
+				new PipedInputStream(stdin), stdout);
+
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable(McpStdioFrameEvent.class).withThreshold(Duration.ZERO);
+			recording.enable(McpMessageSendEvent.class).withThreshold(Duration.ZERO);
+			recording.start();
+
+			McpAsyncServer server = McpServer.async(transportProvider).serverInfo("test-server", "1.0.0").build();
+			try {
+				stdin.write((INITIALIZE + "\n").getBytes(StandardCharsets.UTF_8));
+				stdin.flush();
+				await().atMost(Duration.ofSeconds(5)).until(() -> stdout.toString().endsWith("\n"));
+			}
+			finally {
+				server.close();
+				stdin.close();
+			}
+
+			recording.stop();
+			Path file = this.tempDir.resolve("mcp.jfr");
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		}
+
+		RecordedEvent frame = named(events, McpStdioFrameEvent.NAME).get(0);
+		assertThat(frame.getString("transport")).isEqualTo("stdio-server");
+		assertThat(frame.getString("message")).isEqualTo(McpSchema.METHOD_INITIALIZE);
+		assertThat(frame.getLong("length")).isEqualTo(INITIALIZE.length());
+
+		RecordedEvent send = named(events, McpMessageSendEvent.NAME).get(0);
+		assertThat(send.getString("transport")).isEqualTo("stdio-server");
+		assertThat(send.getString("message")).isEqualTo("response");
+		assertThat(send.getLong("bytes")).isEqualTo(stdout.size());
+		assertThat(send.getLong("queueTime")).isLessThanOrEqualTo(send.getDuration().toNanos());
+	}
+
+	private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+		return events.stream()
+			.filter(event -> name.equals(event.getEventType().getName()))
+			.collect(Collectors.toList());
+	}
+
+}
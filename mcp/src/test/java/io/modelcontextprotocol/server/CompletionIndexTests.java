@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.autocomplete.CompleteRequest;
+import io.modelcontextprotocol.spec.autocomplete.CompleteRequestCompleteArgument;
+import io.modelcontextprotocol.spec.autocomplete.CompleteResult;
+import io.modelcontextprotocol.spec.autocomplete.CompleteResultCompleteCompletion;
+import io.modelcontextprotocol.spec.autocomplete.PromptReference;
+import io.modelcontextprotocol.spec.autocomplete.ResourceReference;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.prompt.Prompt;
+import io.modelcontextprotocol.spec.prompt.PromptArgument;
+import io.modelcontextprotocol.spec.resource.Resource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link CompletionIndex}.
+ */
+class CompletionIndexTests {
+
+	@Test
+	void heaviestCandidatesStartingWithThePrefixComeFirst() {
+		CompletionIndex index = CompletionIndex.builder()
+			.values("language", Map.of("python", 5, "pytorch", 9, "pyside", 5, "java", 20))
+			.values("tag", List.of("beta", "alpha", "gamma"))
+			.build();
+
+		assertThat(texts(index.complete("language", "py"))).containsExactly("pytorch", "pyside", "python");
+		assertThat(index.complete("language", "pyto").getCompletions())
+			.containsExactly(new CompleteResultCompleteCompletion("pytorch", 9.0));
+		assertThat(texts(index.complete("language", ""))).containsExactly("java", "pytorch", "pyside", "python");
+		assertThat(texts(index.complete("language", null))).hasSize(4);
+		assertThat(texts(index.complete("tag", ""))).containsExactly("alpha", "beta", "gamma");
+		assertThat(index.complete("language", "rust").getCompletions()).isEmpty();
+		assertThat(index.complete("unknown", "py").getCompletions()).isEmpty();
+	}
+
+	@Test
+	void resultsAreLimitedAndMayIgnoreCase() {
+		CompletionIndex index = CompletionIndex.builder()
+			.values("city", Map.of("Paris", 3, "parma", 2, "Porto", 1))
+			.ignoreCase(true)
+			.maxResults(1)
+			.build();
+
+		assertThat(texts(index.complete("city", "PAR"))).containsExactly("Paris");
+		assertThat(texts(index.complete(
+				new CompleteRequest(new PromptReference("travel"), new CompleteRequestCompleteArgument("city", "pO")))))
+			.containsExactly("Porto");
+	}
+
+	@Test
+	void updatesMatchAFullRebuild() {
+		Random random = new Random(42);
+		Map<String, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 2000; i++) {
+			expected.put(word(random), random.nextInt(50));
+		}
+		CompletionIndex index = CompletionIndex.builder().values("word", expected).build();
+
+		for (int round = 0; round < 20; round++) {
+			Map<String, Integer> upserts = new HashMap<>();
+			for (int i = 0; i < 50; i++) {
+				upserts.put(word(random), random.nextInt(50));
+			}
+			List<String> removals = new ArrayList<>(expected.keySet()).subList(0, 30);
+			removals.forEach(expected::remove);
+			expected.putAll(upserts);
+			index.update("word", upserts, removals);
+
+			assertThat(index.size("word")).isEqualTo(expected.size());
+			for (String prefix : List.of("", "a", "b", "ab", "zz", "c")) {
+				assertThat(index.complete("word", prefix).getCompletions()).as("prefix '%s'", prefix)
+					.isEqualTo(bruteForce(expected, prefix));
+			}
+		}
+	}
+
+	@Test
+	void loadersRunOnBuildAndRefresh() {
+		AtomicInteger loads = new AtomicInteger();
+		CompletionIndex index = CompletionIndex.builder()
+			.loader("version", () -> Map.of("1." + loads.incrementAndGet(), 1))
+			.build();
+
+		assertThat(texts(index.complete("version", "1."))).containsExactly("1.1");
+		index.refresh();
+		assertThat(texts(index.complete("version", "1."))).containsExactly("1.2");
+	}
+
+	@Test
+	void completesPromptAndResourceArgumentsThroughTheServer() {
+		InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+		CompletionIndex index = CompletionIndex.builder()
+			.values("language", List.of("python", "pytorch", "java"))
+			.values("path", List.of("docs/", "src/"))
+			.build();
+		McpSyncServer server = McpServer.sync(transportProvider)
+			.capabilities(ServerCapabilities.builder().completions().prompts(false).resources(false, false).build())
+			.prompts(new McpServerFeatures.SyncPromptSpecification(new Prompt("code_review", "Reviews code",
+					List.of(new PromptArgument("language", "Language", false))), (exchange, request) -> null))
+			.resources(new McpServerFeatures.SyncResourceSpecification(
+					new Resource("file:///{path}", "files", null, "text/plain", null), (exchange, request) -> null))
+			.completions(index.syncSpecification(new PromptReference("code_review")),
+					index.syncSpecification(new ResourceReference("file:///{path}")))
+			.build();
+
+		try (McpSyncClient client = McpClient.sync(transportProvider.createClientTransport()).build()) {
+			client.initialize();
+
+			for (int i = 0; i < 2; i++) {
+				assertThat(texts(client.completeCompletion(new CompleteRequest(new PromptReference("code_review"),
+						new CompleteRequestCompleteArgument("language", "py")))))
+					.containsExactly("python", "pytorch");
+				assertThat(texts(client.completeCompletion(new CompleteRequest(new ResourceReference("file:///{path}"),
+						new CompleteRequestCompleteArgument("path", "s")))))
+					.containsExactly("src/");
+			}
+			assertThatThrownBy(() -> client.completeCompletion(new CompleteRequest(new PromptReference("code_review"),
+					new CompleteRequestCompleteArgument("path", "s"))))
+				.isInstanceOf(McpError.class)
+				.hasMessageContaining("Argument not found");
+		}
+		finally {
+			server.close();
+		}
+	}
+
+	private static List<CompleteResultCompleteCompletion> bruteForce(Map<String, Integer> values, String prefix) {
+		return values.entrySet()
+			.stream()
+			.filter(entry -> entry.getKey().startsWith(prefix))
+			.sorted(Comparator.comparing((Map.Entry<String, Integer> entry) -> -entry.getValue())
+				.thenComparing(Map.Entry::getKey))
+			.limit(100)
+			.map(entry -> new CompleteResultCompleteCompletion(entry.getKey(), (double) entry.getValue()))
+			.collect(Collectors.toList());
+	}
+
+	private static String word(Random random) {
+		StringBuilder word = new StringBuilder();
+		for (int length = 1 + random.nextInt(6); length > 0; length--) {
+			word.append((char) ('a' + random.nextInt(4)));
+		}
+		return word.toString();
+	}
+
+	private static List<String> texts(CompleteResult result) {
+		return result.getCompletions()
+			.stream()
+			.map(CompleteResultCompleteCompletion::getText)
+			.collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.modelcontextprotocol.MockMcpServerTransport;
+import io.modelcontextprotocol.MockMcpServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.initialization.Implementation;
+import io.modelcontextprotocol.spec.initialization.InitializeRequest;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCNotification;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCRequest;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+import io.modelcontextprotocol.spec.resource.BlobResourceContents;
+import io.modelcontextprotocol.spec.resource.ListResourcesResult;
+import io.modelcontextprotocol.spec.resource.ReadResourceResult;
+import io.modelcontextprotocol.spec.resource.Resource;
+import io.modelcontextprotocol.spec.resource.ResourceContents;
+import io.modelcontextprotocol.spec.resource.ResourcesUpdatedNotification;
+import io.modelcontextprotocol.spec.resource.TextResourceContents;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link FileSystemResourceProvider}.
+ */
+class FileSystemResourceProviderTests {
+
+	private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', 0, 1, 2, 3 };
+
+	@TempDir
+	Path root;
+
+	private final List<JSONRPCMessage> sent = new CopyOnWriteArrayList<>();
+
+	private final MockMcpServerTransportProvider transportProvider = new MockMcpServerTransportProvider(
+			new MockMcpServerTransport((transport, message) -> this.sent.add(message)));
+
+	private final McpAsyncServer server = McpServer.async(this.transportProvider)
+		.serverInfo("test-server", "1.0.0")
+		.capabilities(ServerCapabilities.builder().resources(true, true).build())
+		.build();
+
+	private FileSystemResourceProvider provider;
+
+	@BeforeEach
+	void initialize() {
+		response(McpSchema.METHOD_INITIALIZE, new InitializeRequest(McpSchema.LATEST_PROTOCOL_VERSION, null,
+				new Implementation("test-client", "1.0.0")));
+		this.transportProvider.simulateIncomingMessage(
+				new JSONRPCNotification(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_NOTIFICATION_INITIALIZED, null));
+	}
+
+	@AfterEach
+	void after() {
+		if (this.provider != null) {
+			this.provider.close();
+		}
+		this.server.close();
+	}
+
+	@Test
+	void filesAreServedAsTextOrBlobs() throws Exception {
+		Files.writeString(this.root.resolve("readme.md"), "# Hello");
+		Files.createDirectories(this.root.resolve("img"));
+		Files.write(this.root.resolve("img/logo.png"), PNG);
+		this.provider = FileSystemResourceProvider.builder(this.root).uriPrefix("docs://").watch(false).build();
+		this.provider.register(this.server).block();
+
+		assertThat(listResources()).extracting(Resource::getUri, Resource::getMimeType)
+			.containsExactlyInAnyOrder(tuple("docs://readme.md", "text/markdown"),
+					tuple("docs://img/logo.png", "image/png"));
+
+		ResourceContents text = read("docs://readme.md");
+		assertThat(text).isEqualTo(new TextResourceContents("docs://readme.md", "text/markdown", "# Hello"));
+
+		ResourceContents blob = read("docs://img/logo.png");
+		assertThat(blob).isInstanceOf(BlobResourceContents.class);
+		assertThat(((BlobResourceContents) blob).getBlob()).isEqualTo(Base64.getEncoder().encodeToString(PNG));
+	}
+
+	@Test
+	void changedFilesAreRemappedWithoutWatching() throws Exception {
+		Path file = Files.writeString(this.root.resolve("notes.txt"), "v1");
+		this.provider = FileSystemResourceProvider.builder(this.root).uriPrefix("docs://").watch(false).build();
+		this.provider.register(this.server).block();
+		assertThat(((TextResourceContents) read("docs://notes.txt")).getText()).isEqualTo("v1");
+
+		Files.writeString(file, "version 2");
+
+		assertThat(((TextResourceContents) read("docs://notes.txt")).getText()).isEqualTo("version 2");
+	}
+
+	@Test
+	void truncatedFilesAreNotReadThroughTheirMapping() throws Exception {
+		byte[] content = new byte[64 * 1024];
+		Path file = Files.write(this.root.resolve("data.bin"), content);
+		this.provider = FileSystemResourceProvider.builder(this.root)
+			.uriPrefix("docs://")
+			.mapThreshold(0)
+			.watch(false)
+			.build();
+		this.provider.register(this.server).block();
+		BlobResourceContents blob = (BlobResourceContents) read("docs://data.bin");
+
+		Files.write(file, new byte[0]);
+
+		assertThat(blob.getBlob()).isEmpty();
+		assertThat(((BlobResourceContents) read("docs://data.bin")).getBlob()).isEmpty();
+	}
+
+	@Test
+	void directoriesAreRegisteredAsTemplates() throws Exception {
+		Files.createDirectories(this.root.resolve("a b"));
+		Files.writeString(this.root.resolve("a b/c.json"), "{}");
+		this.provider = FileSystemResourceProvider.builder(this.root)
+			.uriPrefix("docs://")
+			.templates(true)
+			.watch(false)
+			.build();
+		this.provider.register(this.server).block();
+
+		assertThat(listResources()).extracting(Resource::getUri)
+			.containsExactlyInAnyOrder("docs://{name}", "docs://a%20b/{name}");
+		assertThat(read("docs://a%20b/c.json"))
+			.isEqualTo(new TextResourceContents("docs://a%20b/c.json", "application/json", "{}"));
+		assertThat(response(McpSchema.METHOD_RESOURCES_READ, Map.of("uri", "docs://a%20b/..")).getError()).isNotNull();
+	}
+
+	@Test
+	void changesAreAppliedInDebouncedBatches() throws Exception {
+		Path existing = Files.writeString(this.root.resolve("existing.txt"), "v1");
+		this.provider = FileSystemResourceProvider.builder(this.root)
+			.uriPrefix("docs://")
+			.debounce(Duration.ofMillis(100))
+			.build();
+		this.provider.register(this.server).block();
+		this.sent.clear();
+
+		Files.createDirectories(this.root.resolve("sub"));
+		Files.writeString(this.root.resolve("sub/one.txt"), "1");
+		Files.writeString(this.root.resolve("two.txt"), "2");
+		Files.writeString(existing, "v2");
+
+		await().atMost(Duration.ofSeconds(10))
+			.until(() -> notifications(McpSchema.METHOD_NOTIFICATION_RESOURCES_UPDATED).size() == 1);
+		assertThat(notifications(McpSchema.METHOD_NOTIFICATION_RESOURCES_LIST_CHANGED)).hasSize(1);
+		assertThat(notifications(McpSchema.METHOD_NOTIFICATION_RESOURCES_UPDATED).get(0).getParams())
+			.isEqualTo(new ResourcesUpdatedNotification("docs://existing.txt"));
+		assertThat(listResources()).extracting(Resource::getUri)
+			.containsExactlyInAnyOrder("docs://existing.txt", "docs://sub/one.txt", "docs://two.txt");
+		assertThat(((TextResourceContents) read("docs://existing.txt")).getText()).isEqualTo("v2");
+
+		this.sent.clear();
+		Files.delete(this.root.resolve("sub/one.txt"));
+		Files.delete(this.root.resolve("sub"));
+
+		await().atMost(Duration.ofSeconds(10))
+			.until(() -> notifications(McpSchema.METHOD_NOTIFICATION_RESOURCES_LIST_CHANGED).size() == 1);
+		assertThat(listResources()).extracting(Resource::getUri)
+			.containsExactlyInAnyOrder("docs://existing.txt", "docs://two.txt");
+	}
+
+	@Test
+	void filteredFilesAreNotServed() throws Exception {
+		Files.writeString(this.root.resolve("visible.txt"), "yes");
+		Files.writeString(this.root.resolve(".hidden"), "no");
+		Predicate<Path> notHidden = path -> !path.getFileName().toString().startsWith(".");
+		this.provider = FileSystemResourceProvider.builder(this.root)
+			.uriPrefix("docs://")
+			.filter(notHidden)
+			.watch(false)
+			.build();
+		this.provider.register(this.server).block();
+
+		assertThat(listResources()).extracting(Resource::getUri).containsExactly("docs://visible.txt");
+		assertThatThrownBy(() -> this.provider.register(this.server).block()).isInstanceOf(IllegalStateException.class);
+	}
+
+	private List<Resource> listResources() {
+		return this.transportProvider.getTransport()
+			.unmarshalFrom(response(McpSchema.METHOD_RESOURCES_LIST, Map.of()).getResult(),
+					new TypeReference<ListResourcesResult>() {
+					})
+			.getResources();
+	}
+
+	private ResourceContents read(String uri) {
+		JSONRPCResponse response = response(McpSchema.METHOD_RESOURCES_READ, Map.of("uri", uri));
+		assertThat(response.getError()).isNull();
+		return ((ReadResourceResult) response.getResult()).getContents().get(0);
+	}
+
+	private JSONRPCResponse response(String method, Object params) {
+		String id = method + "-" + this.sent.size();
+		this.transportProvider
+			.simulateIncomingMessage(new JSONRPCRequest(McpSchema.JSONRPC_VERSION, method, id, params));
+		await().atMost(Duration.ofSeconds(5))
+			.until(() -> this.sent.stream()
+				.anyMatch(message -> message instanceof JSONRPCResponse
+						&& id.equals(((JSONRPCResponse) message).getId())));
+		return this.sent.stream()
+			.filter(message -> message instanceof JSONRPCResponse && id.equals(((JSONRPCResponse) message).getId()))
+			.map(JSONRPCResponse.class::cast)
+			.findFirst()
+			.orElseThrow();
+	}
+
+	private List<JSONRPCNotification> notifications(String method) {
+		return this.sent.stream()
+			.filter(message -> message instanceof JSONRPCNotification
+					&& method.equals(((JSONRPCNotification) message).getMethod()))
+			.map(JSONRPCNotification.class::cast)
+			.collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.server.transport.InMemoryServerTransportProvider;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link McpAsyncServer} using {@link InMemoryServerTransportProvider}.
+ */
+@Timeout(15)
+class InMemoryMcpAsyncServerTests extends AbstractMcpAsyncServerTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	@Override
+	protected McpServerTransportProvider createMcpTransportProvider() {
+		return new InMemoryServerTransportProvider();
+	}
+
+	@Test
+	void requestsCancelledByTheClientDisposeTheirHandler() {
+		InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+		AtomicBoolean disposed = new AtomicBoolean();
+		McpAsyncServer server = McpServer.async(transportProvider)
+			.capabilities(ServerCapabilities.builder().tools(false).build())
+			.tools(new McpServerFeatures.AsyncToolSpecification(new Tool("never", "Never ends", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> Mono.<CallToolResult>never().doOnCancel(() -> disposed.set(true))))
+			.build();
+		McpAsyncClient client = McpClient.async(transportProvider.createClientTransport()).build();
+		try {
+			client.initialize().block(Duration.ofSeconds(5));
+
+			StepVerifier.create(client.callTool(new CallToolRequest("never", Map.of())))
+				.thenAwait(Duration.ofMillis(100))
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+
+			await().atMost(Duration.ofSeconds(5)).untilTrue(disposed);
+		}
+		finally {
+			client.closeGracefully().block(Duration.ofSeconds(5));
+			server.close();
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.common.ListRootsResult;
+import io.modelcontextprotocol.spec.common.Root;
+import io.modelcontextprotocol.spec.initialization.ClientCapabilities;
+import io.modelcontextprotocol.spec.initialization.Implementation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the roots cache of {@link McpAsyncServerExchange}.
+ */
+class McpAsyncServerExchangeRootsTests {
+
+	private final McpServerSession session = mock(McpServerSession.class);
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private volatile Mono<ListRootsResult> response = Mono.just(roots("file:///first"));
+
+	@BeforeEach
+	void setUp() {
+		when(this.session.sendRequest(eq(McpSchema.METHOD_ROOTS_LIST), any(), any()))
+			.thenAnswer(invocation -> Mono.defer(() -> {
+				this.requests.incrementAndGet();
+				return this.response;
+			}));
+	}
+
+	@Test
+	void concurrentCallsShareOneRequest() {
+		McpAsyncServerExchange exchange = exchange(true);
+		Sinks.One<ListRootsResult> gate = Sinks.one();
+		this.response = gate.asMono();
+
+		StepVerifier.create(Mono.zip(exchange.listRoots(), exchange.listRoots()))
+			.then(() -> gate.tryEmitValue(roots("file:///first")))
+			.expectNextCount(1)
+			.verifyComplete();
+		StepVerifier.create(exchange.listRoots()).expectNext(roots("file:///first")).verifyComplete();
+
+		assertThat(this.requests).hasValue(1);
+	}
+
+	@Test
+	void rootsAreFetchedAgainOnceChanged() {
+		McpAsyncServerExchange exchange = exchange(true);
+		assertThat(exchange.listRoots().block()).isEqualTo(roots("file:///first"));
+
+		this.response = Mono.just(roots("file:///second"));
+		assertThat(exchange.listRoots().block()).isEqualTo(roots("file:///first"));
+		exchange.invalidateRoots();
+		assertThat(exchange.listRoots().block()).isEqualTo(roots("file:///second"));
+
+		assertThat(this.requests).hasValue(2);
+	}
+
+	@Test
+	void errorsAreNotCached() {
+		McpAsyncServerExchange exchange = exchange(true);
+		this.response = Mono.error(new McpError("Roots not available"));
+
+		StepVerifier.create(exchange.listRoots()).expectError(McpError.class).verify();
+		this.response = Mono.just(roots("file:///first"));
+		StepVerifier.create(exchange.listRoots()).expectNext(roots("file:///first")).verifyComplete();
+
+		assertThat(this.requests).hasValue(2);
+	}
+
+	@Test
+	void rootsAreNotCachedWhenTheClientDoesNotNotifyChanges() {
+		McpAsyncServerExchange exchange = exchange(false);
+
+		exchange.listRoots().block();
+		exchange.listRoots().block();
+
+		assertThat(this.requests).hasValue(2);
+	}
+
+	private McpAsyncServerExchange exchange(boolean listChanged) {
+		return new McpAsyncServerExchange(this.session, ClientCapabilities.builder().roots(listChanged).build(),
+				new Implementation("test-client", "1.0.0"));
+	}
+
+	private static ListRootsResult roots(String uri) {
+		return new ListRootsResult(List.of(new Root(uri, null)));
+	}
+
+}
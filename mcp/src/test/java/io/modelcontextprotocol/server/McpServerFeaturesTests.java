@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.Implementation;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import io.modelcontextprotocol.util.McpSchedulers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the offloading of synchronous handlers in {@link McpServerFeatures}.
+ */
+class McpServerFeaturesTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private final Scheduler serverScheduler = Schedulers.newSingle("server-scheduler");
+
+	private final Scheduler toolScheduler = Schedulers.newSingle("tool-scheduler");
+
+	@AfterEach
+	void tearDown() {
+		serverScheduler.dispose();
+		toolScheduler.dispose();
+	}
+
+	@Test
+	void syncHandlersRunOnTheGivenScheduler() {
+		McpServerFeatures.AsyncToolSpecification tool = McpServerFeatures.AsyncToolSpecification
+			.fromSync(threadNameTool(null), serverScheduler);
+
+		assertThat(callTool(tool)).startsWith("server-scheduler");
+	}
+
+	@Test
+	void specificationSchedulerTakesPrecedence() {
+		McpServerFeatures.AsyncToolSpecification tool = McpServerFeatures.AsyncToolSpecification
+			.fromSync(threadNameTool(toolScheduler), serverScheduler);
+
+		assertThat(callTool(tool)).startsWith("tool-scheduler");
+	}
+
+	@Test
+	void rootsChangeConsumersRunOnTheGivenScheduler() {
+		AtomicReference<String> threadName = new AtomicReference<>();
+		McpServerFeatures.Sync sync = new McpServerFeatures.Sync(new Implementation("test", "1.0.0"), null,
+				List.of(threadNameTool(null)), null, null, null, null,
+				List.of((exchange, roots) -> threadName.set(Thread.currentThread().getName())), null);
+
+		McpServerFeatures.Async async = McpServerFeatures.Async.fromSync(sync, serverScheduler);
+		async.rootsChangeConsumers().get(0).apply(null, List.of()).block();
+
+		assertThat(threadName.get()).startsWith("server-scheduler");
+		assertThat(callTool(async.tools().get(0))).startsWith("server-scheduler");
+	}
+
+	@Test
+	void schedulerMustNotBeNull() {
+		assertThatThrownBy(() -> McpServer.sync(new StdioServerTransportProvider()).executionScheduler(null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Execution scheduler must not be null");
+	}
+
+	@Test
+	void virtualThreadsFallBackToTheDefaultSchedulerWhenUnsupported() {
+		if (McpSchedulers.isVirtualThreadsSupported()) {
+			assertThat(McpSchedulers.virtualThreads()).isNotSameAs(McpSchedulers.defaultScheduler());
+		}
+		else {
+			assertThat(McpSchedulers.virtualThreads()).isSameAs(McpSchedulers.defaultScheduler());
+		}
+	}
+
+	private static McpServerFeatures.SyncToolSpecification threadNameTool(Scheduler scheduler) {
+		return new McpServerFeatures.SyncToolSpecification(new Tool("thread", "Thread name", EMPTY_JSON_SCHEMA),
+				(exchange, arguments) -> new CallToolResult(List.of(new TextContent(Thread.currentThread().getName())),
+						false),
+				scheduler);
+	}
+
+	private static String callTool(McpServerFeatures.AsyncToolSpecification tool) {
+		CallToolResult result = tool.getCall().apply(null, Map.of()).block();
+		return ((TextContent) result.getContent().get(0)).getText();
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.logging.LoggingLevel;
+import io.modelcontextprotocol.spec.logging.LoggingMessageNotification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link SessionLogPipeline}.
+ */
+class SessionLogPipelineTests {
+
+	private final McpServerSession session = mock(McpServerSession.class);
+
+	private final List<LoggingMessageNotification> sent = new ArrayList<>();
+
+	private final Sinks.Empty<Void> firstWrite = Sinks.empty();
+
+	@BeforeEach
+	void setUp() {
+		when(this.session.sendNotification(eq(McpSchema.METHOD_NOTIFICATION_MESSAGE), any())).thenAnswer(invocation -> {
+			this.sent.add(invocation.getArgument(1));
+			return this.sent.size() == 1 ? this.firstWrite.asMono() : Mono.empty();
+		});
+	}
+
+	@Test
+	void messagesBelowTheMinimumLevelAreNotBuilt() {
+		SessionLogPipeline pipeline = new SessionLogPipeline(this.session, LoggingPolicy.unlimited());
+		pipeline.setMinLoggingLevel(LoggingLevel.WARNING);
+		AtomicInteger built = new AtomicInteger();
+
+		StepVerifier.create(pipeline.log(LoggingLevel.DEBUG, () -> {
+			built.incrementAndGet();
+			return message(LoggingLevel.DEBUG, "debug");
+		})).verifyComplete();
+
+		assertThat(built).hasValue(0);
+		assertThat(pipeline.isEnabled(LoggingLevel.ERROR)).isTrue();
+		assertThat(pipeline.isEnabled(LoggingLevel.INFO)).isFalse();
+		assertThat(this.sent).isEmpty();
+	}
+
+	@Test
+	void messagesBeyondTheBurstAreDropped() {
+		this.firstWrite.tryEmitEmpty();
+		SessionLogPipeline pipeline = new SessionLogPipeline(this.session,
+				LoggingPolicy.builder().rateLimit(0.001, 2).build());
+
+		for (int i = 0; i < 5; i++) {
+			String data = "line " + i;
+			pipeline.log(LoggingLevel.INFO, () -> message(LoggingLevel.INFO, data)).block();
+		}
+
+		assertThat(this.sent).extracting(LoggingMessageNotification::getData).containsExactly("line 0", "line 1");
+		LoggingMetrics metrics = pipeline.metrics();
+		assertThat(metrics.getSentMessages()).isEqualTo(2);
+		assertThat(metrics.getRateLimitedMessages()).isEqualTo(3);
+		assertThat(metrics.getOverflowedMessages()).isZero();
+	}
+
+	@Test
+	void messagesQueuedDuringAWriteAreCoalesced() {
+		SessionLogPipeline pipeline = new SessionLogPipeline(this.session,
+				LoggingPolicy.builder().maxBatchSize(2).build());
+
+		pipeline.log(LoggingLevel.INFO, () -> message(LoggingLevel.INFO, "a")).subscribe();
+		pipeline.log(LoggingLevel.INFO, () -> message(LoggingLevel.INFO, "b")).subscribe();
+		pipeline.log(LoggingLevel.INFO, () -> message(LoggingLevel.INFO, "c")).subscribe();
+		pipeline.log(LoggingLevel.ERROR, () -> message(LoggingLevel.ERROR, "d")).subscribe();
+		assertThat(pipeline.metrics().getQueuedMessages()).isEqualTo(3);
+
+		this.firstWrite.tryEmitEmpty();
+
+		assertThat(this.sent).extracting(LoggingMessageNotification::getData).containsExactly("a", "b\nc", "d");
+		LoggingMetrics metrics = pipeline.metrics();
+		assertThat(metrics.getSentMessages()).isEqualTo(4);
+		assertThat(metrics.getSentNotifications()).isEqualTo(3);
+		assertThat(metrics.getQueuedMessages()).isZero();
+	}
+
+	@Test
+	void messagesBeyondTheQueueSizeAreDropped() {
+		SessionLogPipeline pipeline = new SessionLogPipeline(this.session,
+				LoggingPolicy.builder().maxQueueSize(1).build());
+
+		pipeline.log(LoggingLevel.INFO, () -> message(LoggingLevel.INFO, "a")).subscribe();
+		pipeline.log(LoggingLevel.INFO, () -> message(LoggingLevel.INFO, "b")).subscribe();
+		StepVerifier.create(pipeline.log(LoggingLevel.INFO, () -> message(LoggingLevel.INFO, "c"))).verifyComplete();
+
+		this.firstWrite.tryEmitEmpty();
+
+		assertThat(this.sent).extracting(LoggingMessageNotification::getData).containsExactly("a", "b");
+		assertThat(pipeline.metrics().getOverflowedMessages()).isEqualTo(1);
+	}
+
+	private static LoggingMessageNotification message(LoggingLevel level, String data) {
+		return new LoggingMessageNotification(level, "test", data);
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.jsonrpc.ErrorCodes;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link ToolBulkhead}.
+ */
+class ToolBulkheadTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private static final CallToolResult RESULT = new CallToolResult(List.of(new TextContent("done")), false);
+
+	private final Sinks.One<CallToolResult> gate = Sinks.one();
+
+	private final AtomicInteger invocations = new AtomicInteger();
+
+	@Test
+	void callsBeyondConcurrencyAndQueueAreRejected() {
+		ToolBulkhead bulkhead = bulkhead(ToolExecutionPolicy.builder().maxConcurrency(1).maxQueueSize(1).build());
+
+		Disposable running = bulkhead.call(null, Map.of()).subscribe();
+		Disposable queued = bulkhead.call(null, Map.of()).subscribe();
+
+		StepVerifier.create(bulkhead.call(null, Map.of()))
+			.verifyErrorSatisfies(error -> assertThat(((McpError) error).getJsonRpcError().getCode())
+				.isEqualTo(ErrorCodes.SERVER_BUSY));
+
+		ToolExecutionMetrics metrics = bulkhead.metrics();
+		assertThat(metrics.getActiveCalls()).isEqualTo(1);
+		assertThat(metrics.getQueuedCalls()).isEqualTo(1);
+		assertThat(metrics.getRejectedCalls()).isEqualTo(1);
+		assertThat(metrics.getSaturation()).isEqualTo(1.0);
+		assertThat(invocations).hasValue(1);
+
+		running.dispose();
+		queued.dispose();
+	}
+
+	@Test
+	void queuedCallRunsOnceASlotIsFreed() {
+		ToolBulkhead bulkhead = bulkhead(ToolExecutionPolicy.builder().maxConcurrency(1).maxQueueSize(1).build());
+
+		Disposable running = bulkhead.call(null, Map.of()).subscribe();
+		Mono<CallToolResult> queued = bulkhead.call(null, Map.of());
+
+		StepVerifier.create(queued).then(() -> {
+			assertThat(invocations).hasValue(1);
+			this.gate.tryEmitValue(RESULT);
+		}).expectNext(RESULT).verifyComplete();
+
+		assertThat(invocations).hasValue(2);
+		ToolExecutionMetrics metrics = bulkhead.metrics();
+		assertThat(metrics.getActiveCalls()).isZero();
+		assertThat(metrics.getQueuedCalls()).isZero();
+		assertThat(metrics.getCompletedCalls()).isEqualTo(2);
+		running.dispose();
+	}
+
+	@Test
+	void cancelledQueuedCallGivesUpItsPlace() {
+		ToolBulkhead bulkhead = bulkhead(ToolExecutionPolicy.builder().maxConcurrency(1).maxQueueSize(1).build());
+
+		Disposable running = bulkhead.call(null, Map.of()).subscribe();
+		Disposable queued = bulkhead.call(null, Map.of()).subscribe();
+		queued.dispose();
+
+		assertThat(bulkhead.metrics().getQueuedCalls()).isZero();
+		running.dispose();
+
+		assertThat(bulkhead.metrics().getActiveCalls()).isZero();
+		assertThat(invocations).hasValue(1);
+	}
+
+	@Test
+	void callsExceedingTheTimeoutAreCancelled() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		ToolBulkhead bulkhead = new ToolBulkhead(
+				new McpServerFeatures.AsyncToolSpecification(new Tool("slow", "Never completes", EMPTY_JSON_SCHEMA),
+						(exchange, arguments) -> Mono.<CallToolResult>never().doOnCancel(() -> cancelled.set(true)),
+						ToolExecutionPolicy.builder().maxConcurrency(1).timeout(Duration.ofMillis(50)).build()));
+
+		StepVerifier.create(bulkhead.call(null, Map.of()))
+			.verifyErrorSatisfies(error -> assertThat(((McpError) error).getJsonRpcError().getCode())
+				.isEqualTo(ErrorCodes.REQUEST_TIMEOUT));
+
+		assertThat(cancelled).isTrue();
+		ToolExecutionMetrics metrics = bulkhead.metrics();
+		assertThat(metrics.getTimedOutCalls()).isEqualTo(1);
+		assertThat(metrics.getFailedCalls()).isZero();
+		assertThat(metrics.getActiveCalls()).isZero();
+	}
+
+	@Test
+	void timedOutBlockingCallKeepsItsSlotUntilItReturns() {
+		CountDownLatch done = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+		ToolBulkhead bulkhead = new ToolBulkhead(
+				McpServerFeatures.AsyncToolSpecification.fromSync(new McpServerFeatures.SyncToolSpecification(
+						new Tool("blocking", "Ignores interruptions", EMPTY_JSON_SCHEMA), (exchange, arguments) -> {
+							while (true) {
+								try {
+									done.await();
+									return RESULT;
+								}
+								catch (InterruptedException e) {
+									interrupted.set(true);
+								}
+							}
+						}, null,
+						ToolExecutionPolicy.builder().maxConcurrency(1).timeout(Duration.ofMillis(50)).build())));
+
+		StepVerifier.create(bulkhead.call(null, Map.of()))
+			.verifyErrorSatisfies(error -> assertThat(((McpError) error).getJsonRpcError().getCode())
+				.isEqualTo(ErrorCodes.REQUEST_TIMEOUT));
+
+		await().atMost(Duration.ofSeconds(5)).untilTrue(interrupted);
+		assertThat(bulkhead.metrics().getActiveCalls()).isEqualTo(1);
+		done.countDown();
+		await().atMost(Duration.ofSeconds(5)).until(() -> bulkhead.metrics().getActiveCalls() == 0);
+		assertThat(bulkhead.metrics().getCompletedCalls()).isEqualTo(1);
+	}
+
+	@Test
+	void unlimitedPolicyCountsCalls() {
+		ToolBulkhead bulkhead = new ToolBulkhead(
+				new McpServerFeatures.AsyncToolSpecification(new Tool("fast", "Fails", EMPTY_JSON_SCHEMA),
+						(exchange, arguments) -> Mono.error(new IllegalStateException("boom"))));
+
+		StepVerifier.create(bulkhead.call(null, Map.of())).verifyError(IllegalStateException.class);
+
+		ToolExecutionMetrics metrics = bulkhead.metrics();
+		assertThat(metrics.getMaxConcurrency()).isEqualTo(Integer.MAX_VALUE);
+		assertThat(metrics.getFailedCalls()).isEqualTo(1);
+		assertThat(metrics.getSaturation()).isZero();
+	}
+
+	@Test
+	void policyArgumentsAreValidated() {
+		assertThatThrownBy(() -> ToolExecutionPolicy.builder().maxConcurrency(0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Max concurrency must be positive");
+		assertThatThrownBy(() -> ToolExecutionPolicy.builder().timeout(Duration.ZERO))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Timeout must be positive");
+	}
+
+	private ToolBulkhead bulkhead(ToolExecutionPolicy policy) {
+		return new ToolBulkhead(new McpServerFeatures.AsyncToolSpecification(
+				new Tool("gated", "Completes when the gate opens", EMPTY_JSON_SCHEMA), (exchange, arguments) -> {
+					invocations.incrementAndGet();
+					return this.gate.asMono();
+				}, policy));
+	}
+
+}
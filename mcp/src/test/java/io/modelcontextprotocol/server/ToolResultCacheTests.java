@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.server;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ToolResultCache}.
+ */
+class ToolResultCacheTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private final AtomicInteger invocations = new AtomicInteger();
+
+	@Test
+	void argumentsInDifferentOrderShareAnEntry() {
+		ToolResultCache cache = ToolResultCache.builder().build();
+		ToolBulkhead tool = echoTool(cache);
+
+		Map<String, Object> first = new LinkedHashMap<>();
+		first.put("a", 1);
+		first.put("b", Map.of("x", "y"));
+		Map<String, Object> second = new LinkedHashMap<>();
+		second.put("b", Map.of("x", "y"));
+		second.put("a", 1);
+
+		CallToolResult result = tool.call(null, first).block();
+		assertThat(tool.call(null, second).block()).isEqualTo(result);
+		assertThat(tool.call(null, Map.of("a", 2)).block()).isNotEqualTo(result);
+
+		assertThat(invocations).hasValue(2);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void concurrentIdenticalCallsRunTheToolOnce() {
+		Sinks.One<CallToolResult> gate = Sinks.one();
+		ToolResultCache cache = ToolResultCache.builder().build();
+		ToolBulkhead tool = tool(cache, arguments -> gate.asMono());
+
+		List<Mono<CallToolResult>> calls = List.of(tool.call(null, Map.of("q", "x")), tool.call(null, Map.of("q", "x")),
+				tool.call(null, Map.of("q", "x")));
+
+		StepVerifier.create(Mono.zip(calls, results -> results.length))
+			.then(() -> gate.tryEmitValue(new CallToolResult("done", false)))
+			.expectNext(3)
+			.verifyComplete();
+
+		assertThat(invocations).hasValue(1);
+		StepVerifier.create(tool.call(null, Map.of("q", "x"))).expectNextCount(1).verifyComplete();
+		assertThat(invocations).hasValue(1);
+	}
+
+	@Test
+	void errorsAreNotCached() {
+		ToolResultCache cache = ToolResultCache.builder().build();
+		ToolBulkhead failing = tool(cache, arguments -> Mono.error(new IllegalStateException("boom")));
+		ToolBulkhead errorResult = tool(cache, arguments -> Mono.just(new CallToolResult("bad input", true)));
+
+		StepVerifier.create(failing.call(null, Map.of())).verifyError(IllegalStateException.class);
+		StepVerifier.create(failing.call(null, Map.of())).verifyError(IllegalStateException.class);
+		errorResult.call(null, Map.of("x", 1)).block();
+		errorResult.call(null, Map.of("x", 1)).block();
+
+		assertThat(invocations).hasValue(4);
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void entriesExpireAfterTheTimeToLive() throws InterruptedException {
+		ToolResultCache cache = ToolResultCache.builder().timeToLive(Duration.ofMillis(20)).build();
+		ToolBulkhead tool = echoTool(cache);
+
+		tool.call(null, Map.of("a", 1)).block();
+		tool.call(null, Map.of("a", 1)).block();
+		assertThat(invocations).hasValue(1);
+
+		Thread.sleep(50);
+		tool.call(null, Map.of("a", 1)).block();
+		assertThat(invocations).hasValue(2);
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvicted() {
+		ToolResultCache cache = ToolResultCache.builder().maxEntries(2).build();
+		ToolBulkhead tool = echoTool(cache);
+
+		tool.call(null, Map.of("a", 1)).block();
+		tool.call(null, Map.of("a", 2)).block();
+		tool.call(null, Map.of("a", 1)).block();
+		tool.call(null, Map.of("a", 3)).block();
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+
+		tool.call(null, Map.of("a", 1)).block();
+		assertThat(invocations).hasValue(3);
+		tool.call(null, Map.of("a", 2)).block();
+		assertThat(invocations).hasValue(4);
+	}
+
+	@Test
+	void resultsLargerThanTheByteLimitAreNotCached() {
+		ToolResultCache cache = ToolResultCache.builder().maxBytes(300).build();
+		ToolBulkhead tool = tool(cache, arguments -> Mono.just(new CallToolResult("x".repeat(500), false)));
+
+		tool.call(null, Map.of()).block();
+		tool.call(null, Map.of()).block();
+
+		assertThat(invocations).hasValue(2);
+		assertThat(cache.sizeInBytes()).isZero();
+	}
+
+	@Test
+	void invalidatedEntriesAreRecomputed() {
+		ToolResultCache cache = ToolResultCache.builder().build();
+		ToolBulkhead tool = echoTool(cache);
+
+		tool.call(null, Map.of("a", 1)).block();
+		tool.call(null, Map.of("a", 2)).block();
+		cache.invalidate("echo", Map.of("a", 1));
+		tool.call(null, Map.of("a", 1)).block();
+		tool.call(null, Map.of("a", 2)).block();
+		assertThat(invocations).hasValue(3);
+
+		cache.invalidateAll("echo");
+		assertThat(cache.size()).isZero();
+		assertThat(cache.sizeInBytes()).isZero();
+	}
+
+	@Test
+	void invalidationOnlyDetachesTheCallsItAffects() {
+		Sinks.One<CallToolResult> gate = Sinks.one();
+		ToolResultCache cache = ToolResultCache.builder().build();
+		ToolBulkhead tool = tool(cache,
+				arguments -> gate.asMono().map(result -> new CallToolResult(String.valueOf(arguments), false)));
+
+		Mono<CallToolResult> invalidated = tool.call(null, Map.of("a", 1));
+		Mono<CallToolResult> unaffected = tool.call(null, Map.of("a", 2));
+		StepVerifier.create(Mono.zip(invalidated, unaffected)).then(() -> {
+			cache.invalidate("echo", Map.of("a", 1));
+			gate.tryEmitValue(new CallToolResult("done", false));
+		}).expectNextCount(1).verifyComplete();
+
+		assertThat(cache.size()).isEqualTo(1);
+		tool.call(null, Map.of("a", 2)).block();
+		assertThat(invocations).hasValue(2);
+		tool.call(null, Map.of("a", 1)).block();
+		assertThat(invocations).hasValue(3);
+	}
+
+	private ToolBulkhead echoTool(ToolResultCache cache) {
+		return tool(cache, arguments -> Mono.just(new CallToolResult(String.valueOf(arguments), false)));
+	}
+
+	private ToolBulkhead tool(ToolResultCache cache, Function<Map<String, Object>, Mono<CallToolResult>> handler) {
+		return new ToolBulkhead(new McpServerFeatures.AsyncToolSpecification(
+				new Tool("echo", "Echoes its arguments", EMPTY_JSON_SCHEMA), (exchange, arguments) -> {
+					invocations.incrementAndGet();
+					return handler.apply(arguments);
+				}, ToolExecutionPolicy.builder().resultCache(cache).build()));
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 - 2024 the original author or authors.
+ */
+package io.modelcontextprotocol.server.transport;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.spec.JacksonMcpCodec;
+import io.modelcontextprotocol.spec.McpCodec;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the codec negotiation of {@link HttpServletSseServerTransportProvider}.
+ */
+class HttpServletSseServerCodecTests {
+
+	private static final int PORT = TomcatTestUtil.findAvailablePort();
+
+	private static final String MESSAGE_ENDPOINT = "/mcp/message";
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private final McpCodec smile = new JacksonMcpCodec(new ObjectMapper(new SmileFactory()),
+			JacksonMcpCodec.SMILE_CONTENT_TYPE);
+
+	private HttpServletSseServerTransportProvider transportProvider;
+
+	private McpSyncServer server;
+
+	private Tomcat tomcat;
+
+	@BeforeEach
+	void before() {
+		this.transportProvider = HttpServletSseServerTransportProvider.builder()
+			.objectMapper(new ObjectMapper())
+			.messageEndpoint(MESSAGE_ENDPOINT)
+			.codecs(this.smile)
+			.build();
+		this.server = McpServer.sync(this.transportProvider)
+			.serverInfo("test-server", "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(true).build())
+			.tools(new McpServerFeatures.SyncToolSpecification(new Tool("echo", "Echoes", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> new CallToolResult(String.valueOf(arguments.get("text")), false)))
+			.build();
+
+		this.tomcat = TomcatTestUtil.createTomcatServer("", PORT, this.transportProvider);
+		try {
+			this.tomcat.start();
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Failed to start Tomcat", e);
+		}
+	}
+
+	@AfterEach
+	void after() throws LifecycleException {
+		this.server.closeGracefully();
+		this.tomcat.stop();
+		this.tomcat.destroy();
+	}
+
+	@Test
+	void smileClientTalksToServer() {
+		assertThat(callEcho(HttpClientSseClientTransport.builder("http://localhost:" + PORT).codec(this.smile).build()))
+			.isEqualTo("binary");
+	}
+
+	@Test
+	void jsonClientKeepsWorkingNextToSmileClients() {
+		assertThat(callEcho(HttpClientSseClientTransport.builder("http://localhost:" + PORT).build()))
+			.isEqualTo("binary");
+	}
+
+	@Test
+	void smileClientFallsBackToJsonForServersWithoutTheCodec() throws Exception {
+		int port = TomcatTestUtil.findAvailablePort();
+		HttpServletSseServerTransportProvider plain = HttpServletSseServerTransportProvider.builder()
+			.objectMapper(new ObjectMapper())
+			.messageEndpoint(MESSAGE_ENDPOINT)
+			.build();
+		McpSyncServer plainServer = McpServer.sync(plain)
+			.serverInfo("plain-server", "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(true).build())
+			.tools(new McpServerFeatures.SyncToolSpecification(new Tool("echo", "Echoes", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> new CallToolResult(String.valueOf(arguments.get("text")), false)))
+			.build();
+		Tomcat plainTomcat = TomcatTestUtil.createTomcatServer("", port, plain);
+		plainTomcat.start();
+		try {
+			assertThat(callEcho(
+					HttpClientSseClientTransport.builder("http://localhost:" + port).codec(this.smile).build()))
+				.isEqualTo("binary");
+		}
+		finally {
+			plainServer.closeGracefully();
+			plainTomcat.stop();
+			plainTomcat.destroy();
+		}
+	}
+
+	@Test
+	void unsupportedContentTypesAreRejected() throws Exception {
+		HttpRequest request = HttpRequest
+			.newBuilder(URI.create("http://localhost:" + PORT + MESSAGE_ENDPOINT + "?sessionId=unknown"))
+			.header("Content-Type", "application/cbor")
+			.POST(HttpRequest.BodyPublishers.ofByteArray(new byte[] { 0 }))
+			.build();
+
+		HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+		assertThat(response.statusCode()).isEqualTo(415);
+		assertThat(response.body()).contains("Unsupported content type: application/cbor");
+	}
+
+	private String callEcho(HttpClientSseClientTransport transport) {
+		try (McpSyncClient client = McpClient.sync(transport).build()) {
+			client.initialize();
+			CallToolResult result = client.callTool(new CallToolRequest("echo", Map.of("text", "binary")));
+			return ((TextContent) result.getContent().get(0)).getText();
+		}
+	}
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 - 2024 the original author or authors.
+ */
+package io.modelcontextprotocol.server.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the compression support of {@link HttpServletSseServerTransportProvider}.
+ */
+class HttpServletSseServerCompressionTests {
+
+	private static final int PORT = TomcatTestUtil.findAvailablePort();
+
+	private static final String MESSAGE_ENDPOINT = "/mcp/message";
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private HttpServletSseServerTransportProvider transportProvider;
+
+	private McpSyncServer server;
+
+	private Tomcat tomcat;
+
+	@BeforeEach
+	void before() {
+		this.transportProvider = HttpServletSseServerTransportProvider.builder()
+			.objectMapper(new ObjectMapper())
+			.messageEndpoint(MESSAGE_ENDPOINT)
+			.compression(true)
+			.maxInflatedMessageSize(64 * 1024)
+			.build();
+		this.server = McpServer.sync(this.transportProvider)
+			.serverInfo("test-server", "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(true).build())
+			.tools(new McpServerFeatures.SyncToolSpecification(new Tool("echo", "Echoes", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> new CallToolResult(String.valueOf(arguments.get("text")), false)))
+			.build();
+
+		this.tomcat = TomcatTestUtil.createTomcatServer("", PORT, this.transportProvider);
+		try {
+			this.tomcat.start();
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Failed to start Tomcat", e);
+		}
+	}
+
+	@AfterEach
+	void after() throws LifecycleException {
+		this.server.closeGracefully();
+		this.tomcat.stop();
+		this.tomcat.destroy();
+	}
+
+	@Test
+	void compressingClientTalksToServer() {
+		String text = "log line\n".repeat(1000);
+		HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder("http://localhost:" + PORT)
+			.compression(true)
+			.compressionThreshold(0)
+			.build();
+
+		try (McpSyncClient client = McpClient.sync(transport).build()) {
+			client.initialize();
+			CallToolResult result = client.callTool(new CallToolRequest("echo", Map.of("text", text)));
+			assertThat(((TextContent) result.getContent().get(0)).getText()).isEqualTo(text);
+		}
+	}
+
+	@Test
+	void compressingClientFallsBackForServersWithoutCompression() throws Exception {
+		int port = TomcatTestUtil.findAvailablePort();
+		HttpServletSseServerTransportProvider plain = HttpServletSseServerTransportProvider.builder()
+			.objectMapper(new ObjectMapper())
+			.messageEndpoint(MESSAGE_ENDPOINT)
+			.build();
+		McpSyncServer plainServer = McpServer.sync(plain)
+			.serverInfo("plain-server", "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(true).build())
+			.tools(new McpServerFeatures.SyncToolSpecification(new Tool("echo", "Echoes", EMPTY_JSON_SCHEMA),
+					(exchange, arguments) -> new CallToolResult(String.valueOf(arguments.get("text")), false)))
+			.build();
+		Tomcat plainTomcat = TomcatTestUtil.createTomcatServer("", port, plain);
+		plainTomcat.start();
+		try {
+			HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder("http://localhost:" + port)
+				.compression(true)
+				.compressionThreshold(0)
+				.build();
+			try (McpSyncClient client = McpClient.sync(transport).build()) {
+				client.initialize();
+				CallToolResult result = client.callTool(new CallToolRequest("echo", Map.of("text", "plain")));
+				assertThat(((TextContent) result.getContent().get(0)).getText()).isEqualTo("plain");
+			}
+		}
+		finally {
+			plainServer.closeGracefully();
+			plainTomcat.stop();
+			plainTomcat.destroy();
+		}
+	}
+
+	@Test
+	void eventsAreFlushedThroughGzip() throws Exception {
+		assertThat(firstLine("gzip", in -> {
+			try {
+				return new GZIPInputStream(in);
+			}
+			catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		})).isEqualTo("event: endpoint");
+	}
+
+	@Test
+	void eventsAreFlushedThroughDeflate() throws Exception {
+		assertThat(firstLine("deflate", InflaterInputStream::new)).isEqualTo("event: endpoint");
+	}
+
+	@Test
+	void streamIsNotCompressedUnlessAccepted() throws Exception {
+		assertThat(firstLine("gzip;q=0, identity", Function.identity())).isEqualTo("event: endpoint");
+	}
+
+	@Test
+	void bodiesInflatingBeyondTheLimitAreRejected() throws Exception {
+		HttpResponse<String> response = postGzipped(" ".repeat(128 * 1024).getBytes(StandardCharsets.UTF_8));
+
+		assertThat(response.statusCode()).isEqualTo(413);
+		assertThat(response.body()).contains("Message exceeds 65536 bytes once inflated");
+	}
+
+	@Test
+	void compressedBodiesAreRejectedWithoutCompression() throws Exception {
+		HttpServletSseServerTransportProvider plain = HttpServletSseServerTransportProvider.builder()
+			.objectMapper(new ObjectMapper())
+			.messageEndpoint(MESSAGE_ENDPOINT)
+			.build();
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getRequestURI()).thenReturn(MESSAGE_ENDPOINT);
+		when(request.getParameter("sessionId")).thenReturn("unknown");
+		when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		StringWriter body = new StringWriter();
+		when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+		plain.doPost(request, response);
+
+		verify(response).setStatus(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+		verify(request, never()).getInputStream();
+		assertThat(body.toString()).contains("Unsupported content encoding: gzip");
+	}
+
+	private HttpResponse<String> postGzipped(byte[] content) throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(content);
+		}
+		HttpRequest request = HttpRequest
+			.newBuilder(URI.create("http://localhost:" + PORT + MESSAGE_ENDPOINT + "?sessionId=unknown"))
+			.header("Content-Type", "application/json")
+			.header("Content-Encoding", "gzip")
+			.POST(HttpRequest.BodyPublishers.ofByteArray(compressed.toByteArray()))
+			.build();
+		return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	/**
+	 * Opens an SSE stream accepting the given encodings, and reads its first line while
+	 * the stream stays open.
+	 */
+	private String firstLine(String acceptEncoding, Function<InputStream, InputStream> decoder) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/sse"))
+			.header("Accept-Encoding", acceptEncoding)
+			.GET()
+			.build();
+		HttpResponse<InputStream> response = HttpClient.newHttpClient()
+			.send(request, HttpResponse.BodyHandlers.ofInputStream());
+		String expectedEncoding = acceptEncoding.startsWith("gzip;q=0") ? null : acceptEncoding;
+		assertThat(response.headers().firstValue("Content-Encoding").orElse(null)).isEqualTo(expectedEncoding);
+		// Read byte by byte, as readers would wait for more than the first event
+		try (InputStream in = decoder.apply(response.body())) {
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			for (int b = in.read(); b != -1 && b != '\n'; b = in.read()) {
+				line.write(b);
+			}
+			return line.toString(StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024 - 2024 the original author or authors.
+ */
+package io.modelcontextprotocol.server.transport;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServlet;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs two {@link HttpServletSseServerTransportProvider} nodes behind a round-robin
+ * dispatcher without sticky routing, so that the SSE stream and the POSTs of a client
+ * land on different nodes.
+ */
+class HttpServletSseServerTransportProviderClusterTests {
+
+	private static final int PORT = TomcatTestUtil.findAvailablePort();
+
+	private static final String MESSAGE_ENDPOINT = "/mcp/message";
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private Tomcat tomcat;
+
+	private McpSyncServer nodeA;
+
+	private McpSyncServer nodeB;
+
+	@AfterEach
+	void after() throws LifecycleException {
+		if (nodeA != null) {
+			nodeA.closeGracefully();
+		}
+		if (nodeB != null) {
+			nodeB.closeGracefully();
+		}
+		if (tomcat != null) {
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+
+	@Test
+	void messagesAreForwardedToTheNodeOwningTheSession() {
+		InProcessSessionRegistry.Cluster cluster = new InProcessSessionRegistry.Cluster();
+		HttpServletSseServerTransportProvider providerA = provider(cluster.join("node-a"));
+		HttpServletSseServerTransportProvider providerB = provider(cluster.join("node-b"));
+		startCluster(providerA, providerB);
+
+		try (McpSyncClient client = client()) {
+			assertThat(client.initialize()).isNotNull();
+
+			CallToolResult result = client.callTool(new CallToolRequest("echo", Map.of()));
+			assertThat(result.getContent()).containsExactly(new TextContent("node-a"));
+
+			assertThat(client.listTools().getTools()).hasSize(1);
+		}
+	}
+
+	@Test
+	void messagesForSessionsOwnedByAnotherNodeAreRejectedWithoutSharedRegistry() {
+		HttpServletSseServerTransportProvider providerA = provider(new LocalSessionRegistry());
+		HttpServletSseServerTransportProvider providerB = provider(new LocalSessionRegistry());
+		startCluster(providerA, providerB);
+
+		McpSyncClient client = McpClient.sync(HttpClientSseClientTransport.builder("http://localhost:" + PORT).build())
+			.requestTimeout(Duration.ofSeconds(2))
+			.build();
+		try {
+			assertThatThrownBy(client::initialize).isInstanceOf(RuntimeException.class);
+		}
+		finally {
+			client.closeGracefully();
+		}
+	}
+
+	@Test
+	void sessionsAreRegisteredWithTheirOwner() {
+		InProcessSessionRegistry.Cluster cluster = new InProcessSessionRegistry.Cluster();
+		InProcessSessionRegistry registryA = cluster.join("node-a");
+		InProcessSessionRegistry registryB = cluster.join("node-b");
+		startCluster(provider(registryA), provider(registryB));
+
+		try (McpSyncClient client = client()) {
+			client.initialize();
+
+			assertThat(registryA.getSessions()).hasSize(1);
+			assertThat(registryB.getSessions()).isEmpty();
+		}
+		assertThatThrownBy(() -> cluster.join("node-a")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private HttpServletSseServerTransportProvider provider(SessionRegistry registry) {
+		return HttpServletSseServerTransportProvider.builder()
+			.messageEndpoint(MESSAGE_ENDPOINT)
+			.sessionRegistry(registry)
+			.build();
+	}
+
+	private void startCluster(HttpServletSseServerTransportProvider providerA,
+			HttpServletSseServerTransportProvider providerB) {
+		this.nodeA = server(providerA, "node-a");
+		this.nodeB = server(providerB, "node-b");
+
+		tomcat = TomcatTestUtil.createTomcatServer("", PORT, new RoundRobinServlet(List.of(providerA, providerB)));
+		try {
+			tomcat.start();
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Failed to start Tomcat", e);
+		}
+	}
+
+	private McpSyncServer server(HttpServletSseServerTransportProvider provider, String nodeName) {
+		McpServerFeatures.SyncToolSpecification echo = new McpServerFeatures.SyncToolSpecification(
+				new Tool("echo", "Returns the name of the node handling the call", EMPTY_JSON_SCHEMA),
+				(exchange, arguments) -> new CallToolResult(List.of(new TextContent(nodeName)), false));
+
+		return McpServer.sync(provider)
+			.serverInfo(nodeName, "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(true).build())
+			.tools(echo)
+			.build();
+	}
+
+	private McpSyncClient client() {
+		return McpClient.sync(HttpClientSseClientTransport.builder("http://localhost:" + PORT).build()).build();
+	}
+
+	/**
+	 * Stands in for a load balancer without sticky routing: requests are dispatched to
+	 * the nodes in turn, regardless of the session they belong to. The first request, the
+	 * SSE GET, therefore lands on the first node.
+	 */
+	static class RoundRobinServlet extends HttpServlet {
+
+		private final List<HttpServlet> nodes;
+
+		private final AtomicInteger next = new AtomicInteger();
+
+		RoundRobinServlet(List<HttpServlet> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		public void service(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+			this.nodes.get(Math.floorMod(this.next.getAndIncrement(), this.nodes.size())).service(request, response);
+		}
+
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 - 2024 the original author or authors.
+ */
+package io.modelcontextprotocol.server.transport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.content.TextContent;
+import io.modelcontextprotocol.spec.initialization.ServerCapabilities;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import io.modelcontextprotocol.spec.tool.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link InMemoryServerTransportProvider}.
+ */
+class InMemoryServerTransportProviderTests {
+
+	private static final String EMPTY_JSON_SCHEMA = "{\"type\": \"object\", \"properties\": {}}";
+
+	private final AtomicReference<Map<String, Object>> receivedArguments = new AtomicReference<>();
+
+	private final AtomicReference<Thread> toolThread = new AtomicReference<>();
+
+	private McpSyncServer server;
+
+	@AfterEach
+	void after() {
+		if (this.server != null) {
+			this.server.closeGracefully();
+		}
+	}
+
+	@Test
+	void messagesAreSharedAndHandledOnTheCallingThread() {
+		InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+		this.server = server(transportProvider);
+		Map<String, Object> arguments = Map.of("text", "hello");
+		McpClientTransport clientTransport = transportProvider.createClientTransport();
+
+		try (McpSyncClient client = McpClient.sync(clientTransport).build()) {
+			client.initialize();
+			assertThat(transportProvider.getSessionCount()).isEqualTo(1);
+
+			CallToolResult result = client.callTool(new CallToolRequest("echo", arguments));
+
+			assertThat(result.getContent()).containsExactly(new TextContent("hello"));
+			assertThat(this.receivedArguments.get()).isSameAs(arguments);
+			assertThat(this.toolThread.get()).isSameAs(Thread.currentThread());
+		}
+		clientTransport.closeGracefully().block();
+		assertThat(transportProvider.getSessionCount()).isZero();
+	}
+
+	@Test
+	void messagesAreCopiedWhenRequested() {
+		InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider(new ObjectMapper(),
+				true);
+		this.server = server(transportProvider);
+		Map<String, Object> arguments = Map.of("text", "hello");
+
+		try (McpSyncClient client = McpClient.sync(transportProvider.createClientTransport()).build()) {
+			client.initialize();
+
+			CallToolResult result = client.callTool(new CallToolRequest("echo", arguments));
+
+			assertThat(result.getContent()).containsExactly(new TextContent("hello"));
+			assertThat(this.receivedArguments.get()).isEqualTo(arguments).isNotSameAs(arguments);
+		}
+	}
+
+	@Test
+	void notificationsReachEveryClient() {
+		InMemoryServerTransportProvider transportProvider = new InMemoryServerTransportProvider();
+		this.server = server(transportProvider);
+		AtomicReference<List<Tool>> first = new AtomicReference<>();
+		AtomicReference<List<Tool>> second = new AtomicReference<>();
+
+		try (McpSyncClient clientA = McpClient.sync(transportProvider.createClientTransport())
+			.toolsChangeConsumer(first::set)
+			.build();
+				McpSyncClient clientB = McpClient.sync(transportProvider.createClientTransport())
+					.toolsChangeConsumer(second::set)
+					.build()) {
+			clientA.initialize();
+			clientB.initialize();
+			assertThat(transportProvider.getSessionCount()).isEqualTo(2);
+
+			this.server.notifyToolsListChanged();
+
+			await().untilAsserted(() -> {
+				assertThat(first.get()).hasSize(1);
+				assertThat(second.get()).hasSize(1);
+			});
+		}
+	}
+
+	private McpSyncServer server(InMemoryServerTransportProvider transportProvider) {
+		McpServerFeatures.SyncToolSpecification echo = new McpServerFeatures.SyncToolSpecification(
+				new Tool("echo", "Returns the text argument", EMPTY_JSON_SCHEMA), (exchange, arguments) -> {
+					this.receivedArguments.set(arguments);
+					this.toolThread.set(Thread.currentThread());
+					return new CallToolResult(List.of(new TextContent((String) arguments.get("text"))), false);
+				}, Schedulers.immediate());
+
+		return McpServer.sync(transportProvider)
+			.serverInfo("in-memory-server", "1.0.0")
+			.capabilities(ServerCapabilities.builder().tools(true).build())
+			.tools(echo)
+			.build();
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.spec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCRequest;
+import io.modelcontextprotocol.spec.jsonrpc.JSONRPCResponse;
+import io.modelcontextprotocol.spec.tool.CallToolRequest;
+import io.modelcontextprotocol.spec.tool.CallToolResult;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link JacksonMcpCodec}.
+ */
+class JacksonMcpCodecTests {
+
+	private final McpCodec json = McpCodec.json(new ObjectMapper());
+
+	private final McpCodec smile = new JacksonMcpCodec(new ObjectMapper(new SmileFactory()),
+			JacksonMcpCodec.SMILE_CONTENT_TYPE);
+
+	@Test
+	void jsonCodecProducesText() throws Exception {
+		JSONRPCRequest request = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_PING, "1", null);
+
+		assertThat(this.json.isBinary()).isFalse();
+		assertThat(this.json.getContentType()).isEqualTo("application/json");
+		assertThat(this.json.encodeToText(request)).startsWith("{").contains("\"method\":\"ping\"");
+		assertThat(this.json.decodeText(this.json.encodeToText(request))).isEqualTo(request);
+	}
+
+	@Test
+	void smileRoundTripsRequestsAndResponses() throws Exception {
+		JSONRPCRequest request = new JSONRPCRequest(McpSchema.JSONRPC_VERSION, McpSchema.METHOD_TOOLS_CALL, "42",
+				new CallToolRequest("search", Map.of("query", "mcp", "limit", 10)));
+		JSONRPCResponse response = new JSONRPCResponse(McpSchema.JSONRPC_VERSION, "42",
+				new CallToolResult("found", false), null);
+
+		assertThat(this.smile.isBinary()).isTrue();
+		JSONRPCMessage decodedRequest = this.smile.decode(this.smile.encode(request));
+		assertThat(decodedRequest).isInstanceOf(JSONRPCRequest.class);
+		CallToolRequest params = this.smile.convertValue(((JSONRPCRequest) decodedRequest).getParams(),
+				new TypeReference<CallToolRequest>() {
+				});
+		assertThat(params.getName()).isEqualTo("search");
+		assertThat(params.getArguments()).containsEntry("query", "mcp").containsEntry("limit", 10);
+
+		JSONRPCMessage decodedResponse = this.smile.decode(this.smile.encode(response));
+		assertThat(decodedResponse).isInstanceOf(JSONRPCResponse.class);
+		assertThat(((JSONRPCResponse) decodedResponse).getId()).isEqualTo("42");
+		assertThatThrownBy(() -> this.smile.encodeToText(response)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void smileIsMoreCompactThanJsonForRepetitiveResults() throws Exception {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			rows.add(Map.of("identifier", i, "description", "row", "available", true));
+		}
+		JSONRPCResponse response = new JSONRPCResponse(McpSchema.JSONRPC_VERSION, "1", Map.of("rows", rows), null);
+
+		assertThat(this.smile.encode(response).length).isLessThan(this.json.encode(response).length);
+	}
+
+}
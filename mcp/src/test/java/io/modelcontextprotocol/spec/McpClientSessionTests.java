@@ -9,6 +9,7 @@ import java.util.Map;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.modelcontextprotocol.MockMcpClientTransport;
+import io.modelcontextprotocol.spec.common.CancelledNotification;
 import io.modelcontextprotocol.spec.jsonrpc.ErrorCodes;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCMessage;
 import io.modelcontextprotocol.spec.jsonrpc.JSONRPCNotification;
@@ -99,6 +100,20 @@ class McpClientSessionTests {
 		}).verifyComplete();
 	}
 
+	@Test
+	void testSendRequestMatchesResponseWithParsedNumericId() {
+		Mono<String> responseMono = session.sendRequest(TEST_METHOD, "test", responseType);
+
+		StepVerifier.create(responseMono).then(() -> {
+			JSONRPCRequest request = transport.getLastSentMessageAsRequest();
+			assertThat(request.getId()).isInstanceOf(Long.class);
+			// A JSON parser hands small numeric ids back as Integer
+			Integer parsedId = ((Long) request.getId()).intValue();
+			transport.simulateIncomingMessage(
+					new JSONRPCResponse(McpSchema.JSONRPC_VERSION, parsedId, "test response", null));
+		}).expectNext("test response").verifyComplete();
+	}
+
 	@Test
 	void testSendRequestWithError() {
 		Mono<String> responseMono = session.sendRequest(TEST_METHOD, "test", responseType);
@@ -124,6 +139,33 @@ class McpClientSessionTests {
 			.verify(TIMEOUT.plusSeconds(1));
 	}
 
+	@Test
+	void testCancelledRequestNotifiesTheServer() {
+		session.sendRequest(TEST_METHOD, "test", responseType).subscribe().dispose();
+
+		JSONRPCNotification notification = transport.getLastSentMessageAsNotification();
+		assertThat(notification.getMethod()).isEqualTo(McpSchema.METHOD_NOTIFICATION_CANCELLED);
+		assertThat(notification.getParams()).isInstanceOf(CancelledNotification.class);
+		Object requestId = ((CancelledNotification) notification.getParams()).getRequestId();
+
+		// A late response to the cancelled request is ignored
+		transport.simulateIncomingMessage(new JSONRPCResponse(McpSchema.JSONRPC_VERSION, requestId, "late", null));
+		StepVerifier.create(session.sendRequest(TEST_METHOD, "test", responseType)).then(() -> {
+			JSONRPCRequest request = transport.getLastSentMessageAsRequest();
+			assertThat(request.getId()).isNotEqualTo(requestId);
+			transport.simulateIncomingMessage(
+					new JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.getId(), "test response", null));
+		}).expectNext("test response").verifyComplete();
+	}
+
+	@Test
+	void testCancelledInitializeDoesNotNotifyTheServer() {
+		session.sendRequest(McpSchema.METHOD_INITIALIZE, "test", responseType).subscribe().dispose();
+
+		assertThat(transport.getLastSentMessage()).isInstanceOf(JSONRPCRequest.class);
+		assertThat(transport.getLastSentMessageAsRequest().getMethod()).isEqualTo(McpSchema.METHOD_INITIALIZE);
+	}
+
 	@Test
 	void testSendNotification() {
 		Map<String, Object> params = Map.of("key", "value");
@@ -0,0 +1,106 @@
+/*
+* Copyright 2025 - 2025 the original author or authors.
+*/
+package io.modelcontextprotocol.spec.common;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.content.ImageContent;
+import io.modelcontextprotocol.spec.resource.BlobResourceContents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BinarySource} and its serialization.
+ */
+class BinarySourceTests {
+
+	private static final byte[] CONTENT = "binary \u0000\u0001ÿ payload".getBytes(StandardCharsets.ISO_8859_1);
+
+	private static final String BASE64 = Base64.getEncoder().encodeToString(CONTENT);
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void sourcesSerializeToTheSameBase64() throws Exception {
+		Path file = Files.write(this.tempDir.resolve("blob.bin"), CONTENT);
+		ByteBuffer direct = ByteBuffer.allocateDirect(CONTENT.length);
+		direct.put(CONTENT).flip();
+
+		String expected = json(BinarySource.ofBase64(BASE64));
+		assertThat(expected).isEqualTo(
+				"{\"uri\":\"file:///blob\",\"mimeType\":\"application/octet-stream\",\"blob\":\"" + BASE64 + "\"}");
+		assertThat(json(BinarySource.of(CONTENT))).isEqualTo(expected);
+		assertThat(json(BinarySource.of(direct))).isEqualTo(expected);
+		assertThat(json(BinarySource.of(file))).isEqualTo(expected);
+		assertThat(json(BinarySource.of(() -> new ByteArrayInputStream(CONTENT), -1))).isEqualTo(expected);
+
+		assertThat(direct.position()).isZero();
+	}
+
+	@Test
+	void fileRegionIsSerializedOnly() throws Exception {
+		Path file = Files.write(this.tempDir.resolve("region.bin"), CONTENT);
+
+		BinarySource region = BinarySource.of(file, 7, 3);
+
+		assertThat(region.length()).isEqualTo(3);
+		assertThat(region.toBase64()).isEqualTo(Base64.getEncoder().encodeToString(new byte[] { 0, 1, (byte) 0xff }));
+	}
+
+	@Test
+	void deserializedContentsKeepTheBase64String() throws Exception {
+		String json = json(BinarySource.of(CONTENT));
+
+		BlobResourceContents contents = this.mapper.readValue(json, BlobResourceContents.class);
+
+		assertThat(contents.getBlob()).isEqualTo(BASE64);
+		assertThat(contents).isEqualTo(new BlobResourceContents("file:///blob", "application/octet-stream", BASE64));
+	}
+
+	@Test
+	void imageDataIsStreamed() throws Exception {
+		ImageContent image = ImageContent.of(null, null, BinarySource.of(CONTENT), "image/png");
+
+		String json = this.mapper.writeValueAsString(image);
+
+		assertThat(json).contains("\"data\":\"" + BASE64 + "\"");
+		assertThat(image.getData()).isEqualTo(BASE64);
+		ImageContent read = this.mapper.readValue(
+				"{\"type\":\"image\",\"data\":\"" + BASE64 + "\",\"mimeType\":\"image/png\"}", ImageContent.class);
+		assertThat(read).isEqualTo(new ImageContent(null, null, BASE64, "image/png"));
+	}
+
+	@Test
+	void inMemoryFormsOfTheSameContentAreEqual() {
+		ByteBuffer direct = ByteBuffer.allocateDirect(CONTENT.length);
+		direct.put(CONTENT).flip();
+		ImageContent fromBase64 = new ImageContent(null, null, BASE64, "image/png");
+		ImageContent fromBytes = ImageContent.of(null, null, BinarySource.of(CONTENT), "image/png");
+
+		assertThat(fromBytes).isEqualTo(fromBase64).hasSameHashCodeAs(fromBase64);
+		assertThat(BinarySource.of(direct)).isEqualTo(BinarySource.ofBase64(BASE64))
+			.hasSameHashCodeAs(BinarySource.of(CONTENT));
+		assertThat(BlobResourceContents.of("file:///blob", null, BinarySource.of(CONTENT)))
+			.isEqualTo(new BlobResourceContents("file:///blob", null, BASE64));
+		assertThat(BinarySource.of(CONTENT)).isNotEqualTo(BinarySource.of(new byte[0]));
+		assertThat(new ImageContent(null, null, null, "image/png").getData()).isNull();
+	}
+
+	private String json(BinarySource source) throws Exception {
+		return this.mapper
+			.writeValueAsString(BlobResourceContents.of("file:///blob", "application/octet-stream", source));
+	}
+
+}
@@ -34,6 +34,15 @@ class AssertTests {
 		assertDoesNotThrow(() -> Assert.notNull("test", "object is not null"));
 	}
 
+	@Test
+	void testIsTrue() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> Assert.isTrue(false, "expression is false"));
+		assertEquals("expression is false", e.getMessage());
+
+		assertDoesNotThrow(() -> Assert.isTrue(true, "expression is true"));
+	}
+
 	@Test
 	void testStringHasText() {
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
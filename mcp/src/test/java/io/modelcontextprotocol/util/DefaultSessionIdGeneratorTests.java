@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ */
+
+package io.modelcontextprotocol.util;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultSessionIdGeneratorTests {
+
+	@Test
+	void generatesCompactUrlSafeIdentifiers() {
+		DefaultSessionIdGenerator generator = new DefaultSessionIdGenerator();
+
+		String id = generator.generate();
+
+		assertThat(id).hasSize(30).matches("[A-Za-z0-9_-]+").startsWith(generator.getNodePrefix());
+	}
+
+	@Test
+	void identifiersAreNotSequential() {
+		DefaultSessionIdGenerator generator = new DefaultSessionIdGenerator();
+		int prefixLength = generator.getNodePrefix().length();
+
+		String first = generator.generate().substring(prefixLength);
+		String second = generator.generate().substring(prefixLength);
+
+		// consecutive counter values must not produce related identifiers
+		int common = 0;
+		while (common < first.length() && first.charAt(common) == second.charAt(common)) {
+			common++;
+		}
+		assertThat(common).isLessThan(first.length() - 4);
+	}
+
+	@Test
+	void generatorsHaveDistinctPrefixes() {
+		assertThat(new DefaultSessionIdGenerator().getNodePrefix())
+			.isNotEqualTo(new DefaultSessionIdGenerator().getNodePrefix());
+	}
+
+	@Test
+	void identifiersAreUniqueAcrossThreads() throws Exception {
+		DefaultSessionIdGenerator generator = new DefaultSessionIdGenerator();
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = IntStream.range(0, 8)
+				.mapToObj(i -> executor
+					.submit(() -> IntStream.range(0, 5000).forEach(j -> ids.add(generator.generate()))))
+				.collect(Collectors.toList());
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(ids).hasSize(8 * 5000);
+	}
+
+	@Test
+	void uuidGenerator() {
+		assertThat(SessionIdGenerator.uuid().generate()).hasSize(36);
+	}
+
+}